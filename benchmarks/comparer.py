@@ -0,0 +1,81 @@
+#!/usr/bin/env python3
+"""Compare deux résultats JMH (JSON) et signale les ralentissements.
+
+Usage : comparer.py <reference.json> <resultats.json> [--seuil 0.10]
+
+Un benchmark est comparé à la référence s'il a le même nom et les mêmes paramètres.
+Pour les modes en temps (avgt, sample, ss), un score plus grand est un ralentissement ;
+pour le débit (thrpt), c'est un score plus petit. L'allocation par opération
+(gc.alloc.rate.norm) est comparée de la même façon (plus grand = régression).
+
+Code de sortie : 0 si aucune régression au-delà du seuil, 1 sinon.
+"""
+
+import json
+import sys
+
+ALLOCATION = "gc.alloc.rate.norm"
+
+
+def charger(chemin):
+    with open(chemin, encoding="utf-8") as f:
+        resultats = json.load(f)
+    index = {}
+    for r in resultats:
+        params = ",".join(f"{k}={v}" for k, v in sorted(r.get("params", {}).items()))
+        index[(r["benchmark"], params)] = r
+    return index
+
+
+def ecart(reference, actuel, plus_grand_est_pire):
+    if reference == 0:
+        return 0.0
+    if plus_grand_est_pire:
+        return actuel / reference - 1
+    if actuel == 0:
+        return float("inf")
+    return reference / actuel - 1
+
+
+def main(argv):
+    if len(argv) < 3:
+        print(__doc__)
+        return 2
+    seuil = 0.10
+    if "--seuil" in argv:
+        seuil = float(argv[argv.index("--seuil") + 1])
+
+    reference = charger(argv[1])
+    actuels = charger(argv[2])
+
+    regressions = 0
+    print(f"{'Benchmark':60} {'Paramètres':28} {'Réf.':>12} {'Actuel':>12} {'Écart':>8}")
+    for cle in sorted(actuels):
+        if cle not in reference:
+            print(f"{cle[0]:60} {cle[1]:28} {'(nouveau)':>12}")
+            continue
+        ref, act = reference[cle], actuels[cle]
+        plus_grand_est_pire = act["mode"] != "thrpt"
+
+        lignes = [("", ref["primaryMetric"]["score"], act["primaryMetric"]["score"], plus_grand_est_pire)]
+        if ALLOCATION in ref.get("secondaryMetrics", {}) and ALLOCATION in act.get("secondaryMetrics", {}):
+            lignes.append((" [alloc]", ref["secondaryMetrics"][ALLOCATION]["score"],
+                           act["secondaryMetrics"][ALLOCATION]["score"], True))
+
+        for suffixe, score_ref, score_act, pire in lignes:
+            e = ecart(score_ref, score_act, pire)
+            alerte = e > seuil
+            regressions += alerte
+            nom = cle[0].rsplit(".", 2)[-2] + "." + cle[0].rsplit(".", 1)[-1] + suffixe
+            print(f"{nom:60} {cle[1]:28} {score_ref:12.3f} {score_act:12.3f} {e:+8.1%}"
+                  + ("  << RALENTISSEMENT" if alerte else ""))
+
+    if regressions:
+        print(f"\n{regressions} régression(s) au-delà de {seuil:.0%}.")
+        return 1
+    print(f"\nAucune régression au-delà de {seuil:.0%}.")
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main(sys.argv))
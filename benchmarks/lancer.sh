@@ -0,0 +1,32 @@
+#!/bin/sh
+# Compile le projet (hors JavaFX) et les benchmarks, puis lance JMH avec les profileurs GC.
+#
+# Usage : JMH_CP=<jars JMH> benchmarks/lancer.sh [options JMH]
+#   JMH_CP doit contenir jmh-core, jmh-generator-annprocess et leurs dépendances
+#   (jopt-simple, commons-math3), séparés par ':'.
+#
+# Exemples :
+#   benchmarks/lancer.sh                              # tous les benchmarks
+#   benchmarks/lancer.sh BenchCout -p taille=10000    # un seul benchmark, autre taille
+#
+# Résultats : benchmarks/resultats.json (à comparer avec comparer.py)
+set -e
+
+if [ -z "$JMH_CP" ]; then
+    echo "Erreur : définir JMH_CP (classpath des jars JMH)." >&2
+    exit 1
+fi
+
+RACINE=$(cd "$(dirname "$0")/.." && pwd)
+BIN="$RACINE/benchmarks/bin"
+rm -rf "$BIN" && mkdir -p "$BIN"
+
+# Le processeur d'annotations JMH (présent dans JMH_CP) génère les classes de benchmark
+find "$RACINE/src" "$RACINE/benchmarks/src" -name '*.java' \
+    | grep -v interfaceFX | grep -v MainGraphique > "$BIN/sources.txt"
+javac -encoding UTF-8 -cp "$JMH_CP" -d "$BIN" @"$BIN/sources.txt"
+
+java -cp "$BIN:$JMH_CP" org.openjdk.jmh.Main \
+    -prof gc \
+    -rf json -rff "$RACINE/benchmarks/resultats.json" \
+    "$@"
@@ -0,0 +1,37 @@
+package projet.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import projet.exception.ReseauException;
+import projet.reseau.Generateur;
+
+/**
+ * Évaluation du coût (Reseau.calculerCout) et de la charge d'un générateur (calculerChargeActuelle).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BenchCout {
+
+    @Benchmark
+    public double calculerCout(EtatInstance etat) throws ReseauException {
+        return etat.reseau.calculerCout();
+    }
+
+    @Benchmark
+    public double calculerChargeActuelle(EtatInstance etat) {
+        // Toujours le même générateur : le coût mesuré est celui d'un parcours des connexions
+        Generateur g = etat.reseau.getGenerateursMap().values().iterator().next();
+        return etat.reseau.calculerChargeActuelle(g);
+    }
+}
@@ -0,0 +1,76 @@
+package projet.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import projet.exception.ReseauException;
+import projet.io.EcrivainInstance;
+import projet.io.GestionFichier;
+import projet.io.LecteurMappe;
+import projet.reseau.Reseau;
+
+/**
+ * Lecture et écriture d'une instance complète (GestionFichier, LecteurMappe, EcrivainInstance).
+ * L'écriture passe directement par EcrivainInstance : GestionFichier.ecrireFichier affiche
+ * un message à chaque appel, ce qui fausserait la mesure.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchFichier {
+
+    private final EcrivainInstance ecrivain = new EcrivainInstance();
+    private File sortie;
+    private File sortieGzip;
+
+    @Setup(Level.Trial)
+    public void preparer() throws IOException {
+        sortie = File.createTempFile("bench_sortie", ".txt");
+        sortieGzip = File.createTempFile("bench_sortie", ".txt.gz");
+    }
+
+    @TearDown(Level.Trial)
+    public void nettoyer() {
+        sortie.delete();
+        sortieGzip.delete();
+    }
+
+    @Benchmark
+    public Reseau lireFichier(EtatInstance etat) throws IOException, ReseauException {
+        return GestionFichier.lireFichier(etat.fichier.getPath());
+    }
+
+    @Benchmark
+    public Reseau lireFichierMappe(EtatInstance etat) throws IOException, ReseauException {
+        return LecteurMappe.lireFichier(etat.fichier.getPath());
+    }
+
+    @Benchmark
+    public long ecrireFichier(EtatInstance etat) throws IOException {
+        ecrivain.ecrire(etat.reseau, sortie.getPath());
+        return sortie.length();
+    }
+
+    @Benchmark
+    public long ecrireFichierGzip(EtatInstance etat) throws IOException {
+        ecrivain.ecrire(etat.reseau, sortieGzip.getPath());
+        return sortieGzip.length();
+    }
+}
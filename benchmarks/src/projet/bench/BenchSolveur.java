@@ -0,0 +1,70 @@
+package projet.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import projet.algo.AlgoOptimiseur;
+import projet.algo.ParametresRecuit;
+import projet.exception.ReseauException;
+import projet.reseau.Reseau;
+
+/**
+ * Solveur : initialisation gloutonne seule, et coût d'une itération du recuit.
+ *
+ * L'initialisation gloutonne est privée ; elle est mesurée par resoudre(0), qui ne fait
+ * que l'initialisation suivie d'un calcul de coût. Les itérations sont mesurées sur une
+ * solution déjà initialisée (reprise), avec une température minimale nulle pour qu'aucun
+ * arrêt anticipé ne fausse le nombre d'itérations.
+ *
+ * La copie du réseau est préparée une fois par itération JMH (et non par appel, ce qui
+ * ajouterait un surcoût de l'ordre de la mesure) : resoudre(0) repart de zéro à chaque
+ * appel, et chaque reprise refait ITERATIONS pas depuis la même température de départ.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchSolveur {
+
+    private static final int ITERATIONS = 1000;
+
+    private Reseau copie;
+    private AlgoOptimiseur algo;
+
+    @Setup(Level.Iteration)
+    public void preparer(EtatInstance etat) throws ReseauException {
+        copie = etat.reseau.copier();
+        algo = new AlgoOptimiseur(copie, new ParametresRecuit(100, 0.9997, ITERATIONS, 0));
+        algo.setAffichageConsole(false);
+        algo.setGraine(2025);
+        // Solution complète dès le départ : les reprises ne refont jamais l'initialisation
+        algo.resoudre(0);
+    }
+
+    @Benchmark
+    public Reseau initialisationIntelligente() throws ReseauException {
+        algo.resoudre(0);
+        return copie;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public Reseau iterationRecuit() throws ReseauException {
+        algo.resoudre(ITERATIONS, true);
+        return copie;
+    }
+}
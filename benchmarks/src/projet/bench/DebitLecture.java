@@ -0,0 +1,97 @@
+package projet.bench;
+
+import java.io.File;
+import java.io.IOException;
+
+import projet.exception.ReseauException;
+import projet.io.GenerateurInstances;
+import projet.io.GestionFichier;
+import projet.io.LecteurMappe;
+import projet.io.LecteurParallele;
+import projet.reseau.Reseau;
+
+/**
+ * Débit de lecture (Mo/s) : GestionFichier (BufferedReader + String) face à LecteurMappe
+ * (fichier projeté en mémoire, analyse sur les octets) et à LecteurParallele (même analyse,
+ * par morceaux, avec 1, 2, 4... threads jusqu'au nombre de processeurs), sur une instance générée.
+ * Tous les lecteurs doivent produire le même réseau.
+ *
+ * Programme simple, sans JMH (les mesures JMH correspondantes sont dans BenchFichier) :
+ *   javac -d bin $(find src benchmarks/src/projet/bench/DebitLecture.java -name '*.java' | grep -v interfaceFX | grep -v MainGraphique)
+ *   java -cp bin projet.bench.DebitLecture [NbMaisons] [Repetitions] [Fichier]
+ */
+public class DebitLecture {
+
+    /**
+     * @param args [NbMaisons] [Repetitions] [Fichier existant à lire à la place de l'instance générée]
+     */
+    public static void main(String[] args) throws IOException, ReseauException {
+        int nbMaisons = (args.length > 0) ? Integer.parseInt(args[0]) : 200_000;
+        int repetitions = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+
+        File fichier;
+        boolean temporaire = (args.length <= 2);
+        if (temporaire) {
+            GenerateurInstances generateur = new GenerateurInstances(nbMaisons, Math.max(2, nbMaisons / 50));
+            generateur.setGraine(2025);
+            generateur.setAvecConnexions(true);
+            fichier = File.createTempFile("debit_lecture", ".txt");
+            generateur.ecrire(fichier.getPath());
+        } else {
+            fichier = new File(args[2]);
+        }
+
+        try {
+            double mo = fichier.length() / (1024.0 * 1024.0);
+            System.out.printf("Fichier : %s (%.1f Mo)\n", fichier.getPath(), mo);
+
+            Reseau texte = GestionFichier.lireFichier(fichier.getPath());
+            verifier(texte, LecteurMappe.lireFichier(fichier.getPath()));
+            verifier(texte, LecteurParallele.lireFichier(fichier.getPath()));
+
+            double debitTexte = mesurer(fichier, repetitions, -1, mo);
+            double debitMappe = mesurer(fichier, repetitions, 0, mo);
+            System.out.printf("%-22s : %8.1f Mo/s\n", "GestionFichier", debitTexte);
+            System.out.printf("%-22s : %8.1f Mo/s (x%.2f)\n", "LecteurMappe", debitMappe, debitMappe / debitTexte);
+
+            int nbProcesseurs = Runtime.getRuntime().availableProcessors();
+            double debitUnThread = 0;
+            for (int nbThreads = 1; ; nbThreads = Math.min(2 * nbThreads, nbProcesseurs)) {
+                double debit = mesurer(fichier, repetitions, nbThreads, mo);
+                if (nbThreads == 1) debitUnThread = debit;
+                System.out.printf("%-22s : %8.1f Mo/s (x%.2f, accélération x%.2f)\n", "LecteurParallele " + nbThreads + "T",
+                        debit, debit / debitTexte, debit / debitUnThread);
+                if (nbThreads == nbProcesseurs) break;
+            }
+        } finally {
+            if (temporaire) fichier.delete();
+        }
+    }
+
+    private static void verifier(Reseau attendu, Reseau lu) {
+        if (attendu.getMaisonsMap().size() != lu.getMaisonsMap().size()
+                || attendu.getGenerateursMap().size() != lu.getGenerateursMap().size()
+                || attendu.getConnexionsMap().size() != lu.getConnexionsMap().size()) {
+            throw new IllegalStateException("Les lecteurs ne produisent pas le même réseau.");
+        }
+    }
+
+    /**
+     * Meilleur débit sur plusieurs lectures (la première sert d'échauffement).
+     *
+     * @param nbThreads -1 : GestionFichier, 0 : LecteurMappe, sinon LecteurParallele avec ce nombre de threads
+     */
+    private static double mesurer(File fichier, int repetitions, int nbThreads, double mo) throws IOException, ReseauException {
+        double meilleur = 0;
+        for (int i = 0; i <= repetitions; i++) {
+            long debut = System.nanoTime();
+            Reseau r;
+            if (nbThreads < 0) r = GestionFichier.lireFichier(fichier.getPath());
+            else if (nbThreads == 0) r = LecteurMappe.lireFichier(fichier.getPath());
+            else r = LecteurParallele.lireFichier(fichier.getPath(), nbThreads);
+            double secondes = (System.nanoTime() - debut) / 1e9;
+            if (i > 0 && r != null) meilleur = Math.max(meilleur, mo / secondes);
+        }
+        return meilleur;
+    }
+}
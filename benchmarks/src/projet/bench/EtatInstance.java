@@ -0,0 +1,55 @@
+package projet.bench;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import projet.exception.ReseauException;
+import projet.io.GenerateurInstances;
+import projet.io.GestionFichier;
+import projet.reseau.Reseau;
+
+/**
+ * Instance partagée par les benchmarks : générée une fois par essai (trial) avec une graine fixe,
+ * écrite sur disque puis relue, pour que tous les benchmarks mesurent exactement la même instance.
+ *
+ * Taille (nombre de maisons) et tension se règlent avec -p taille=... -p tension=...
+ * On garde environ 50 maisons par générateur.
+ */
+@State(Scope.Benchmark)
+public class EtatInstance {
+
+    @Param({"100", "1000"})
+    public int taille;
+
+    @Param({"0.7", "1.1"})
+    public double tension;
+
+    /** Le fichier de l'instance générée. */
+    public File fichier;
+    /** L'instance lue, avec des connexions initiales. */
+    public Reseau reseau;
+
+    @Setup(Level.Trial)
+    public void preparer() throws IOException, ReseauException {
+        GenerateurInstances generateur = new GenerateurInstances(taille, Math.max(2, taille / 50));
+        generateur.setTension(tension);
+        generateur.setGraine(2025);
+        generateur.setAvecConnexions(true);
+
+        fichier = File.createTempFile("bench_instance", ".txt");
+        generateur.ecrire(fichier.getPath());
+        reseau = GestionFichier.lireFichier(fichier.getPath());
+    }
+
+    @TearDown(Level.Trial)
+    public void nettoyer() {
+        fichier.delete();
+    }
+}
@@ -0,0 +1,97 @@
+package projet.bench;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import projet.exception.ReseauException;
+import projet.reseau.Maison;
+import projet.reseau.Reseau;
+import projet.reseau.TableNoms;
+import projet.reseau.TypeConsommation;
+
+/**
+ * Occupation mémoire par maison : stockage compact des noms (ElementNomme + TableNoms, utilisé
+ * par Reseau) face à l'ancienne organisation (une String par maison, HashMap&lt;String, Maison&gt;).
+ * Mesure faite deux fois : noms "maisonN" (préfixe + numéro) et noms sans numéro final.
+ * Les connexions ne sont pas créées : seule compte la partie maisons + index par nom.
+ *
+ * Programme simple, sans JMH :
+ *   java -Xmx2g -cp bin projet.bench.OccupationMemoire [NbMaisons]
+ */
+public class OccupationMemoire {
+
+    /**
+     * Disposition d'avant : le nom en String dans chaque maison.
+     */
+    private static class AncienneMaison {
+        @SuppressWarnings("unused")
+        final String nom;
+        @SuppressWarnings("unused")
+        TypeConsommation consommation;
+
+        AncienneMaison(String nom, TypeConsommation consommation) {
+            this.nom = nom;
+            this.consommation = consommation;
+        }
+    }
+
+    /**
+     * @param args [NbMaisons]
+     */
+    public static void main(String[] args) throws ReseauException {
+        int nbMaisons = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+
+        for (boolean motif : new boolean[] {true, false}) {
+            System.out.println(motif ? "Noms \"maisonN\" :" : "Noms sans numéro final :");
+            double octetsAvant = mesurerAvant(nbMaisons, motif);
+            mesurerApres(nbMaisons, motif, octetsAvant);
+        }
+    }
+
+    private static double mesurerAvant(int nbMaisons, boolean motif) {
+        TypeConsommation[] types = TypeConsommation.values();
+        long base = memoireUtilisee();
+        Map<String, AncienneMaison> avant = new HashMap<>();
+        for (int i = 0; i < nbMaisons; i++) {
+            String nom = nom(i, motif);
+            avant.put(nom, new AncienneMaison(nom, types[i % types.length]));
+        }
+        double octets = (double) (memoireUtilisee() - base) / nbMaisons;
+        if (avant.size() != nbMaisons) throw new IllegalStateException("maisons perdues");
+        return octets;
+    }
+
+    private static void mesurerApres(int nbMaisons, boolean motif, double octetsAvant) throws ReseauException {
+        TypeConsommation[] types = TypeConsommation.values();
+        long base = memoireUtilisee();
+        Reseau reseau = new Reseau();
+        for (int i = 0; i < nbMaisons; i++) {
+            reseau.ajouterOuMajMaison(nom(i, motif), types[i % types.length]);
+        }
+        double octetsApres = (double) (memoireUtilisee() - base) / nbMaisons;
+
+        TableNoms<Maison> table = reseau.getMaisonsMap();
+        System.out.printf("  avant (String + HashMap) : %6.1f octets/maison\n", octetsAvant);
+        System.out.printf("  après (noms compacts)    : %6.1f octets/maison (x%.2f) dont index %.1f, noms en octets %.1f\n",
+                octetsApres, octetsAvant / octetsApres,
+                (double) table.octetsTable() / nbMaisons, (double) table.octetsNoms() / nbMaisons);
+        if (reseau.getMaisonsMap().size() != nbMaisons) throw new IllegalStateException("maisons perdues");
+    }
+
+    private static String nom(int i, boolean motif) {
+        if (motif) return "maison" + i;
+        // Même longueur qu'un nom à numéro, mais en lettres : pas de codage préfixe + numéro
+        StringBuilder sb = new StringBuilder("maison");
+        for (int v = i; ; v /= 26) {
+            sb.append((char) ('a' + v % 26));
+            if (v < 26) break;
+        }
+        return sb.toString();
+    }
+
+    private static long memoireUtilisee() {
+        Runtime rt = Runtime.getRuntime();
+        for (int k = 0; k < 3; k++) System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
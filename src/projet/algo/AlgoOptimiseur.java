@@ -1,34 +1,144 @@
 package projet.algo;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.Random;
 
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
 import projet.exception.ReseauException;
-import projet.reseau.Generateur;
 import projet.reseau.Maison;
+import projet.reseau.PublicationReseau;
 import projet.reseau.Reseau;
 
 /**
  * Classe responsable de l'optimisation du réseau électrique.
  * Elle utilise un algorithme de Recuit Simulé (Simulated Annealing) pour modifier
  * les connexions entre maisons et générateurs afin de minimiser le coût total (Dispersion + Surcharge).
+ *
+ * Avec une distance maximale ({@link Reseau#getDistanceMax()}), chaque maison ne se voit proposer
+ * que les générateurs à sa portée (voir {@link ListesCandidats}).
  */
 public class AlgoOptimiseur {
 
+    // Température de départ quand on repart d'une solution existante (on ne veut pas la détruire)
+    private static final double TEMPERATURE_REPRISE = 1.0;
+    // Intervalle minimal entre deux publications de la meilleure solution
+    private static final long INTERVALLE_PUBLICATION_NANOS = 100_000_000L;
+
     private Reseau reseau;
     private Random random;
+    private boolean affichageConsole;
+    private ParametresRecuit parametres;
+    private long dureeMaxNanos; // 0 = pas de limite de temps
+    private boolean instrumentation; // chronométrage détaillé de chaque itération
+    private MetriquesSolveur derniereMetriques;
+    private EnregistreurTrace trace; // null = pas de trace
+    private PublicationReseau publication; // null = pas de publication
 
     /**
-     * Initialise l'optimiseur pour un réseau donné.
+     * Initialise l'optimiseur pour un réseau donné, avec les constantes historiques
+     * ({@link ParametresRecuit#historiques()}). Les paramètres réglés se passent au second constructeur.
      *
      * @param reseau Le réseau électrique à optimiser
      */
     public AlgoOptimiseur(Reseau reseau) {
+        this(reseau, ParametresRecuit.historiques());
+    }
+
+    /**
+     * Initialise l'optimiseur pour un réseau donné avec un jeu de paramètres précis.
+     *
+     * @param reseau Le réseau électrique à optimiser
+     * @param parametres Les hyper-paramètres du recuit
+     */
+    public AlgoOptimiseur(Reseau reseau, ParametresRecuit parametres) {
         this.reseau = reseau;
         this.random = new Random();
+        this.affichageConsole = true;
+        this.parametres = parametres;
+    }
+
+    /**
+     * Charge les hyper-paramètres du recuit depuis un fichier (produit par l'outil de réglage).
+     *
+     * @param chemin Le chemin du fichier .properties
+     * @throws IOException En cas d'erreur de lecture
+     * @throws ReseauException Si le fichier contient des valeurs invalides
+     */
+    public void chargerParametres(String chemin) throws IOException, ReseauException {
+        this.parametres = ParametresRecuit.charger(chemin);
+    }
+
+    /**
+     * Fixe la graine du générateur aléatoire (pour des exécutions reproductibles).
+     *
+     * @param graine La graine
+     */
+    public void setGraine(long graine) {
+        this.random = new Random(graine);
+    }
+
+    /**
+     * Limite la durée d'une résolution. Au-delà, l'algorithme s'arrête et garde la meilleure solution.
+     *
+     * @param dureeMaxMillis La durée maximale en millisecondes (0 ou moins = pas de limite)
+     */
+    public void setDureeMax(long dureeMaxMillis) {
+        this.dureeMaxNanos = Math.max(0, dureeMaxMillis) * 1_000_000L;
+    }
+
+    /**
+     * Active ou désactive les messages de progression dans la console.
+     * Utile quand plusieurs optimisations tournent en parallèle (balayage de Lambda par exemple).
+     *
+     * @param affichageConsole true pour afficher les messages, false pour un mode silencieux
+     */
+    public void setAffichageConsole(boolean affichageConsole) {
+        this.affichageConsole = affichageConsole;
+    }
+
+    /**
+     * Active le chronométrage détaillé (proposition / évaluation / gestion) de chaque itération.
+     * Les compteurs et l'historique des meilleurs coûts sont collectés dans tous les cas.
+     *
+     * @param instrumentation true pour mesurer la répartition du temps
+     */
+    public void setInstrumentation(boolean instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
+    /**
+     * Branche un enregistreur de trajectoire (coût, meilleur coût, température à chaque itération).
+     * La trace est vidée au début de chaque résolution.
+     *
+     * @param trace L'enregistreur, ou null pour ne plus tracer
+     */
+    public void setTrace(EnregistreurTrace trace) {
+        this.trace = trace;
+    }
+
+    /**
+     * Publie la meilleure solution en cours de résolution (au plus toutes les 100 ms), puis la
+     * solution finale. Un autre thread peut ainsi suivre la résolution sans toucher au réseau.
+     *
+     * @param publication Le point de publication, ou null pour ne plus publier
+     */
+    public void setPublication(PublicationReseau publication) {
+        this.publication = publication;
+    }
+
+    /**
+     * Exécute le Recuit Simulé avec le nombre d'itérations des paramètres courants.
+     *
+     * @throws ReseauException En cas d'erreur lors du calcul des coûts (ex: capacité nulle)
+     */
+    public void resoudre() throws ReseauException {
+        resoudre(parametres.getNbIterations(), false);
     }
 
     /**
@@ -41,51 +151,131 @@ public class AlgoOptimiseur {
      * @throws ReseauException En cas d'erreur lors du calcul des coûts (ex: capacité nulle)
      */
     public void resoudre(int nbIterations) throws ReseauException{
-        System.out.println("Début de l'optimisation ...");
+        resoudre(nbIterations, false);
+    }
+
+    /**
+     * Exécute le Recuit Simulé, en partant soit d'une solution gloutonne, soit des connexions actuelles du réseau.
+     * En reprise (warm start), la température de départ est basse pour affiner la solution existante
+     * sans la détruire ; la meilleure solution rencontrée n'est jamais moins bonne que celle de départ.
+     * Si une maison n'est pas connectée, ou l'est à un générateur hors de portée, on repart de
+     * l'initialisation gloutonne.
+     *
+     * @param nbIterations Le nombre d'itérations de l'algorithme
+     * @param repartirDeLaSolutionActuelle true pour partir des connexions déjà présentes dans le réseau
+     * @throws ReseauException En cas d'erreur lors du calcul des coûts (ex: capacité nulle)
+     */
+    public void resoudre(int nbIterations, boolean repartirDeLaSolutionActuelle) throws ReseauException{
+        if (affichageConsole) System.out.println("Début de l'optimisation ...");
+        long debut = System.nanoTime();
 
-        // Initialisation Gloutonne
-        initialisationIntelligente();
+        if (trace != null) trace.demarrer();
+
+        // Générateurs proposés à chaque maison (null : tous)
+        ListesCandidats candidats = ListesCandidats.construire(reseau);
+        boolean reprise = repartirDeLaSolutionActuelle && repriseValide(candidats);
+        if (candidats != null && affichageConsole) {
+            System.out.println(String.format("Distance maximale %s : %.1f générateurs candidats par maison en moyenne.",
+                    reseau.getDistanceMax(), candidats.getNbMoyen()));
+        }
+
+        // Les classes d'événements JFR ne sont chargées que si un enregistrement est en cours (leur chargement est coûteux)
+        boolean jfr = enregistrementJfrEnCours();
+        if (jfr) {
+            EvenementsSolveur.Debut evenementDebut = new EvenementsSolveur.Debut();
+            evenementDebut.nbMaisons = reseau.getMaisonsMap().size();
+            evenementDebut.nbGenerateurs = reseau.getGenerateursMap().size();
+            evenementDebut.lambda = reseau.getLambda();
+            evenementDebut.nbIterations = nbIterations;
+            evenementDebut.reprise = reprise;
+            evenementDebut.commit();
+        }
+
+        // Même erreur qu'un calcul de coût (capacité nulle), avant de travailler sur les identifiants
+        reseau.verifierCapacites();
+        // Le recuit travaille sur une copie de l'affectation par identifiants, écrite dans le réseau à la fin
+        // (avec des demandes horaires, le coût porte sur toutes les périodes)
+        EvaluateurAffectation evaluateur = reseau.aDesProfils() ? new EvaluateurProfils(reseau) : new EvaluateurAffectation(reseau);
+
+        if (!reprise) {
+            // Initialisation Gloutonne
+            EvenementsSolveur.Phase phase = jfr ? debutPhase("initialisation") : null;
+            initialisationIntelligente(evaluateur, candidats);
+            if (jfr) phase.commit();
+        }
         
-        double coutActuel = reseau.calculerCout();
+        double coutActuel = evaluateur.cout();
         
         // On sauvegarde la MEILLEURE solution trouvée jusqu'ici
         // Car le recuit simulé peut parfois finir sur une solution un peu moins bonne en explorant
-        Map<Maison, Generateur> meilleureConnexions = new HashMap<>(reseau.getConnexionsMap());
+        int[] meilleureAffectation = evaluateur.copierAffectation();
         double meilleurCout = coutActuel;
+        long dernierePublication = System.nanoTime();
+        if (publication != null) publication.publier(reseau, meilleureAffectation);
+
+        // Mesures (compteurs toujours actifs, chronométrage détaillé seulement si demandé)
+        long nbAcceptes = 0, nbAmeliorations = 0, nbRejets = 0, iterationsFaites = 0;
+        long nanosProposition = 0, nanosEvaluation = 0, nanosGestion = 0;
+        MetriquesSolveur.Historique historique = new MetriquesSolveur.Historique();
+        historique.ajouter(meilleurCout, System.nanoTime() - debut);
 
         // Paramètres du Recuit
-        double temperature = 100.0;
-        double refroidissement = 0.9997; // pour diminuer lentement la température
+        double temperature = reprise ? Math.min(TEMPERATURE_REPRISE, parametres.getTemperatureInitiale())
+                                     : parametres.getTemperatureInitiale();
+        if (trace != null) trace.enregistrer(0, coutActuel, meilleurCout, temperature);
+        double refroidissement = parametres.getRefroidissement(); // pour diminuer lentement la température
 
-        // Conversion en listes pour accès rapide par index
-        List<Maison> maisons = new ArrayList<>(reseau.getMaisonsMap().values());
-        List<Generateur> generateurs = new ArrayList<>(reseau.getGenerateursMap().values());
+        // Identifiants dans l'ordre des tables, pour un tirage par index
+        // (avec des candidats, seules les maisons qui ont le choix entre deux générateurs sont tirées)
+        int[] maisons = (candidats != null) ? maisonsDeplacables(evaluateur.getIdsMaisons(), candidats)
+                                            : evaluateur.getIdsMaisons();
+        int[] generateurs = evaluateur.getIdsGenerateurs();
 
-        if (maisons.isEmpty() || generateurs.isEmpty()) {
-            System.out.println("Réseau vide, rien à optimiser.");
+        if (evaluateur.getIdsMaisons().length == 0 || generateurs.length == 0) {
+            evaluateur.appliquer();
+            if (affichageConsole) System.out.println("Réseau vide, rien à optimiser.");
+            derniereMetriques = new MetriquesSolveur(0, 0, 0, 0, 0, 0, 0, System.nanoTime() - debut,
+                    historique.couts(), historique.instants());
             return;
         }
 
-        // Boucle principale
-        for (int i = 0; i < nbIterations; i++) {
+        EvenementsSolveur.Phase phaseRecuit = jfr ? debutPhase("recuit") : null;
+        long debutRecuit = System.nanoTime();
+        long t0 = instrumentation ? System.nanoTime() : 0;
+
+        // Boucle principale (aucune maison déplaçable : rien à explorer)
+        for (int i = 0; i < nbIterations && maisons.length > 0; i++) {
+            iterationsFaites++;
+
             //On change une connexion au hasard
-            Maison mChoisie = maisons.get(random.nextInt(maisons.size()));
-            Generateur gActuel = reseau.getConnexionsMap().get(mChoisie);
+            int mChoisie = maisons[random.nextInt(maisons.length)];
+            int gActuel = evaluateur.getIdGenerateur(mChoisie);
             
             // Choisir un nouveau générateur différent de l'actuel
-            Generateur gNouveau = generateurs.get(random.nextInt(generateurs.size()));
-            
-            // Petit filet de sécurité si on a qu'un seul générateur
-            if (generateurs.size() > 1) {
-                while (gNouveau == gActuel) {
-                    gNouveau = generateurs.get(random.nextInt(generateurs.size()));
+            int gNouveau;
+            if (candidats == null) {
+                gNouveau = generateurs[random.nextInt(generateurs.length)];
+
+                // Petit filet de sécurité si on a qu'un seul générateur
+                if (generateurs.length > 1) {
+                    while (gNouveau == gActuel) {
+                        gNouveau = generateurs[random.nextInt(generateurs.length)];
+                    }
                 }
+            } else {
+                // Au moins deux candidats, dont l'actuel
+                int nbCandidats = candidats.getNbCandidats(mChoisie);
+                do {
+                    gNouveau = candidats.getCandidat(mChoisie, random.nextInt(nbCandidats));
+                } while (gNouveau == gActuel);
             }
 
-            //Test du nouveau coût
-            //On applique le changement temporairement
-            reseau.getConnexionsMap().put(mChoisie, gNouveau);
-            double nouveauCout = reseau.calculerCout();
+            long t1 = instrumentation ? System.nanoTime() : 0;
+
+            //Test du nouveau coût (sans reparcourir les maisons), le changement n'est appliqué que s'il est accepté
+            double nouveauCout = evaluateur.coutApres(mChoisie, gNouveau);
+
+            long t2 = instrumentation ? System.nanoTime() : 0;
             
             double delta = nouveauCout - coutActuel;
 
@@ -95,6 +285,7 @@ public class AlgoOptimiseur {
             if (delta < 0) {
                 // Amélioration : on garde toujours
                 accepterChangement = true;
+                nbAmeliorations++;
             } else {
                 // Dégradation : on garde avec une probabilité liée à la température
                 // Plus il fait "froid", moins on accepte de dégrader
@@ -104,36 +295,111 @@ public class AlgoOptimiseur {
             }
 
             if (accepterChangement) {
+                evaluateur.deplacer(mChoisie, gNouveau);
                 coutActuel = nouveauCout;
+                nbAcceptes++;
 
                 if (coutActuel < meilleurCout) {
                     meilleurCout = coutActuel;
                     // On fait une copie de sauvegarde de cette configuration gagnante
-                    meilleureConnexions = new HashMap<>(reseau.getConnexionsMap());
+                    evaluateur.copierDans(meilleureAffectation);
+                    historique.ajouter(meilleurCout, System.nanoTime() - debut);
+                    if (publication != null && System.nanoTime() - dernierePublication >= INTERVALLE_PUBLICATION_NANOS) {
+                        publication.publier(reseau, meilleureAffectation);
+                        dernierePublication = System.nanoTime();
+                    }
+
+                    if (jfr) {
+                        EvenementsSolveur.Amelioration amelioration = new EvenementsSolveur.Amelioration();
+                        amelioration.iteration = i;
+                        amelioration.cout = meilleurCout;
+                        amelioration.temperature = temperature;
+                        amelioration.commit();
+                    }
                 }
             } else {
-                // On annule le changement
-                if (gActuel != null) {
-                    reseau.getConnexionsMap().put(mChoisie, gActuel);
-                } else {
-                    // Si elle n'était pas connectée avant (cas rare avec init intelligente)
-                    reseau.getConnexionsMap().remove(mChoisie);
-                }
+                nbRejets++;
+            }
+
+            if (trace != null) trace.enregistrer(i + 1, coutActuel, meilleurCout, temperature);
+
+            if (instrumentation) {
+                long t3 = System.nanoTime();
+                nanosProposition += t1 - t0;
+                nanosEvaluation += t2 - t1;
+                nanosGestion += t3 - t2;
+                t0 = t3;
             }
 
             // Refroidissement
             temperature *= refroidissement;
             
             //Arrêt si température très basse
-            if (temperature < 0.0001) break;
+            if (temperature < parametres.getTemperatureMinimale()) break;
+
+            // Arrêt si le budget de temps est épuisé (vérifié toutes les 64 itérations)
+            if (dureeMaxNanos > 0 && (i & 63) == 0 && System.nanoTime() - debutRecuit > dureeMaxNanos) break;
         }
+        if (jfr) phaseRecuit.commit();
 
         // Restauration de la meilleure solution trouvée
-        reseau.getConnexionsMap().clear();
-        reseau.getConnexionsMap().putAll(meilleureConnexions);
+        EvenementsSolveur.Phase phaseRestauration = jfr ? debutPhase("restauration") : null;
+        reseau.appliquerAffectation(meilleureAffectation);
+        if (publication != null) publication.publier(reseau);
+        if (jfr) phaseRestauration.commit();
+
+        derniereMetriques = new MetriquesSolveur(iterationsFaites, nbAcceptes, nbAmeliorations, nbRejets,
+                nanosProposition, nanosEvaluation, nanosGestion, System.nanoTime() - debut,
+                historique.couts(), historique.instants());
+
+        if (jfr) {
+            EvenementsSolveur.Fin evenementFin = new EvenementsSolveur.Fin();
+            evenementFin.nbIterations = iterationsFaites;
+            evenementFin.nbAcceptes = nbAcceptes;
+            evenementFin.nbRejets = nbRejets;
+            evenementFin.meilleurCout = meilleurCout;
+            evenementFin.commit();
+        }
+
+        if (affichageConsole) {
+            System.out.println("Optimisation terminée.");
+            System.out.println("Meilleur coût trouvé : " + String.format("%.4f", meilleurCout));
+            System.out.println("Mesures : " + derniereMetriques);
+        }
+    }
+
+    /**
+     * Renvoie les mesures de la dernière résolution.
+     *
+     * @return L'instantané des mesures, ou null si aucune résolution n'a encore eu lieu
+     */
+    public MetriquesSolveur getMetriques() {
+        return derniereMetriques;
+    }
+
+    /**
+     * Indique si un enregistrement Flight Recorder est en cours. FlightRecorder.isInitialized() seul
+     * ne suffit pas : il reste vrai une fois tous les enregistrements arrêtés. Il est testé d'abord
+     * car getFlightRecorder() démarrerait la machinerie JFR.
+     *
+     * @return true si au moins un enregistrement est démarré
+     */
+    static boolean enregistrementJfrEnCours() {
+        if (!FlightRecorder.isInitialized()) return false;
+        for (Recording r : FlightRecorder.getFlightRecorder().getRecordings()) {
+            if (r.getState() == RecordingState.RUNNING) return true;
+        }
+        return false;
+    }
 
-        System.out.println("Optimisation terminée.");
-        System.out.println("Meilleur coût trouvé : " + String.format("%.4f", meilleurCout));
+    /**
+     * Démarre un événement JFR de phase (commité à la fin de la phase, s'il est activé).
+     */
+    private static EvenementsSolveur.Phase debutPhase(String nom) {
+        EvenementsSolveur.Phase phase = new EvenementsSolveur.Phase();
+        phase.nom = nom;
+        phase.begin();
+        return phase;
     }
 
     /**
@@ -142,12 +408,21 @@ public class AlgoOptimiseur {
      * et les connecte au générateur ayant le taux d'utilisation le plus faible à ce moment-là.
      * Cela permet de partir d'une solution "correcte" avant de lancer le recuit simulé.
      *
-     * @throws ReseauException Si une erreur survient lors du calcul des taux d'utilisation
+     * Les générateurs sont rangés dans un tas par (taux, rang dans la table) : le moins chargé
+     * (le premier en cas d'égalité) est à la racine, et seul lui change après une connexion.
+     * Chaque maison coûte donc O(log générateurs) au lieu d'un parcours de tous les générateurs.
+     *
+     * Avec des candidats, une maison limitée à certains générateurs prend le moins chargé d'entre eux
+     * (même ordre), qui redescend dans le tas depuis sa place ; une maison sans candidat reste
+     * non connectée.
+     *
+     * @param evaluateur L'affectation de travail à remplir
+     * @param candidats Les générateurs proposés à chaque maison, ou null pour tous
      */
-    private void initialisationIntelligente() throws ReseauException{
+    private void initialisationIntelligente(EvaluateurAffectation evaluateur, ListesCandidats candidats) {
         // On vide tout pour repartir de zéro
-        reseau.getConnexionsMap().clear();
-        
+        evaluateur.vider();
+
         List<Maison> maisonsTriees = new ArrayList<>(reseau.getMaisonsMap().values());
         // Tri décroissant : les plus grosses demandes d'abord
         maisonsTriees.sort((m1, m2) -> Integer.compare(
@@ -155,22 +430,104 @@ public class AlgoOptimiseur {
             m1.getConsommation().getDemandeKw()
         ));
 
+        // Tas de rangs de générateurs (tous à taux nul au départ : l'ordre des rangs est déjà un tas)
+        int[] generateurs = evaluateur.getIdsGenerateurs();
+        int n = generateurs.length;
+        if (n == 0) return;
+        int[] tas = new int[n];
+        for (int k = 0; k < n; k++) tas[k] = k;
+        // Place de chaque rang dans le tas, et rang de chaque identifiant (seulement avec des candidats)
+        int[] placeDansTas = null;
+        int[] rangParId = null;
+        if (candidats != null) {
+            placeDansTas = tas.clone();
+            rangParId = new int[reseau.getGenerateursMap().getNbIds()];
+            for (int k = 0; k < n; k++) rangParId[generateurs[k]] = k;
+        }
+
+        int nbSansCandidat = 0;
         for (Maison m : maisonsTriees) {
-            Generateur meilleurG = null;
-            double meilleurScore = Double.MAX_VALUE;
-
-            // On cherche le générateur qui a le taux le plus bas
-            for (Generateur g : reseau.getGenerateursMap().values()) {
-                double taux = reseau.calculerTauxUtilisation(g);
-                if (taux < meilleurScore) {
-                    meilleurScore = taux;
-                    meilleurG = g;
+            int id = m.getId();
+            int nbCandidats = (candidats != null) ? candidats.getNbCandidats(id) : n;
+            int place = 0;
+            if (nbCandidats < n) {
+                if (nbCandidats == 0) {
+                    nbSansCandidat++;
+                    continue;
                 }
+                // Le moins chargé des candidats (ordre du tas), puis sa place dans le tas
+                int meilleur = rangParId[candidats.getCandidat(id, 0)];
+                for (int k = 1; k < nbCandidats; k++) {
+                    int r = rangParId[candidats.getCandidat(id, k)];
+                    if (avant(evaluateur, generateurs, r, meilleur)) meilleur = r;
+                }
+                place = placeDansTas[meilleur];
             }
-            
-            if (meilleurG != null) {
-                reseau.getConnexionsMap().put(m, meilleurG);
+            evaluateur.deplacer(id, generateurs[tas[place]]);
+            // On fait redescendre ce générateur, dont le taux vient d'augmenter
+            descendre(evaluateur, generateurs, tas, placeDansTas, place);
+        }
+        if (nbSansCandidat > 0 && affichageConsole) {
+            System.out.println("Attention : " + nbSansCandidat + " maison(s) sans générateur à portée restent non connectées.");
+        }
+    }
+
+    /**
+     * Fait redescendre un rang du tas de l'initialisation à partir de sa place k.
+     *
+     * @param placeDansTas La place de chaque rang, tenue à jour (null si inutile)
+     */
+    private static void descendre(EvaluateurAffectation evaluateur, int[] generateurs, int[] tas, int[] placeDansTas, int k) {
+        int n = tas.length;
+        while (true) {
+            int plusPetit = k;
+            int gauche = 2 * k + 1;
+            if (gauche < n && avant(evaluateur, generateurs, tas[gauche], tas[plusPetit])) plusPetit = gauche;
+            if (gauche + 1 < n && avant(evaluateur, generateurs, tas[gauche + 1], tas[plusPetit])) plusPetit = gauche + 1;
+            if (plusPetit == k) break;
+            int echange = tas[k];
+            tas[k] = tas[plusPetit];
+            tas[plusPetit] = echange;
+            if (placeDansTas != null) {
+                placeDansTas[tas[k]] = k;
+                placeDansTas[tas[plusPetit]] = plusPetit;
             }
+            k = plusPetit;
+        }
+    }
+
+    /**
+     * Une reprise n'est possible que si la solution actuelle est complète et respecte les portées :
+     * toutes les maisons connectées (sauf celles qui n'ont aucun générateur à portée), à un candidat.
+     */
+    private boolean repriseValide(ListesCandidats candidats) {
+        if (candidats == null) return reseau.getConnexionsMap().size() == reseau.getMaisonsMap().size();
+        for (Maison m : reseau.getMaisonsMap().values()) {
+            int idGen = reseau.getIdGenerateur(m.getId());
+            if (idGen < 0 ? candidats.getNbCandidats(m.getId()) > 0 : !candidats.estCandidat(m.getId(), idGen)) return false;
         }
+        return true;
+    }
+
+    /**
+     * @return Les maisons (dans l'ordre donné) qui ont au moins deux générateurs candidats
+     */
+    private static int[] maisonsDeplacables(int[] maisons, ListesCandidats candidats) {
+        int[] deplacables = new int[maisons.length];
+        int n = 0;
+        for (int id : maisons) {
+            if (candidats.getNbCandidats(id) >= 2) deplacables[n++] = id;
+        }
+        return (n == maisons.length) ? deplacables : Arrays.copyOf(deplacables, n);
+    }
+
+    /**
+     * Ordre du tas de l'initialisation : taux le plus faible, puis premier rang dans la table
+     * (le générateur qu'aurait choisi un parcours de la table).
+     */
+    private static boolean avant(EvaluateurAffectation evaluateur, int[] generateurs, int rangA, int rangB) {
+        double tauxA = evaluateur.getTaux(generateurs[rangA]);
+        double tauxB = evaluateur.getTaux(generateurs[rangB]);
+        return tauxA < tauxB || (tauxA == tauxB && rangA < rangB);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,231 @@
+package projet.algo;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import projet.exception.ReseauException;
+import projet.io.CacheSolutions;
+import projet.reseau.Reseau;
+
+/**
+ * Résout une même instance pour plusieurs valeurs de Lambda en parallèle
+ * afin de tracer la courbe de compromis Dispersion / Surcharge.
+ *
+ * Chaque Lambda travaille sur sa propre copie du réseau (aucun état partagé entre threads).
+ * Le balayage se fait en deux passes :
+ * 1. Toutes les valeurs de Lambda sont résolues indépendamment, en parallèle.
+ * 2. Chaque Lambda repart (warm start) de la meilleure solution parmi la sienne et celles
+ *    de ses voisins immédiats (Lambda juste en dessous et juste au dessus).
+ *
+ * Si un cache de solutions est fourni, la passe 1 reprend les solutions déjà connues
+ * (même structure, même Lambda) au lieu de les recalculer, et les résultats finaux y sont enregistrés.
+ */
+public class BalayageLambda {
+
+    /**
+     * Un point de la courbe de compromis : la meilleure solution trouvée pour un Lambda donné.
+     */
+    public static class PointCompromis {
+        private final double lambda;
+        private final double dispersion;
+        private final double surcharge;
+        private final double cout;
+        private final Reseau solution;
+
+        private PointCompromis(double lambda, Reseau solution) throws ReseauException {
+            this.lambda = lambda;
+            this.solution = solution;
+            this.dispersion = solution.calculerDispersion();
+            this.surcharge = solution.calculerSurcharge();
+            this.cout = solution.calculerCout();
+        }
+
+        /** @return La valeur de Lambda de ce point */
+        public double getLambda() { return lambda; }
+
+        /** @return La dispersion de la meilleure solution */
+        public double getDispersion() { return dispersion; }
+
+        /** @return La surcharge de la meilleure solution */
+        public double getSurcharge() { return surcharge; }
+
+        /** @return Le coût total (Dispersion + Lambda * Surcharge) */
+        public double getCout() { return cout; }
+
+        /** @return La copie du réseau contenant la meilleure solution pour ce Lambda */
+        public Reseau getSolution() { return solution; }
+    }
+
+    private Reseau reseauInitial;
+    private int nbIterations;
+    private int nbThreads;
+    private CacheSolutions cache;
+    private ParametresRecuit parametres = ParametresRecuit.historiques();
+    private Long graine;
+
+    /**
+     * Prépare un balayage sur un réseau donné (le réseau n'est jamais modifié).
+     *
+     * @param reseau Le réseau à résoudre
+     * @param nbIterations Le nombre d'itérations du recuit pour chaque passe
+     * @param nbThreads Le nombre de threads de calcul (au moins 1)
+     */
+    public BalayageLambda(Reseau reseau, int nbIterations, int nbThreads) {
+        this.reseauInitial = reseau;
+        this.nbIterations = nbIterations;
+        this.nbThreads = Math.max(1, nbThreads);
+    }
+
+    /**
+     * Fixe les paramètres du recuit (les constantes historiques par défaut). Le nombre
+     * d'itérations reste celui donné au constructeur.
+     *
+     * @param parametres Les hyper-paramètres du recuit
+     */
+    public void setParametres(ParametresRecuit parametres) {
+        this.parametres = parametres;
+    }
+
+    /**
+     * Fixe une graine pour des balayages reproductibles : chaque Lambda et chaque passe
+     * reçoit sa propre graine dérivée, indépendamment du nombre de threads.
+     *
+     * @param graine La graine de base
+     */
+    public void setGraine(long graine) {
+        this.graine = graine;
+    }
+
+    /**
+     * Active l'utilisation d'un cache de solutions (null pour le désactiver).
+     *
+     * @param cache Le cache à consulter avant chaque résolution
+     */
+    public void setCache(CacheSolutions cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Lance le balayage pour la liste de Lambda donnée.
+     *
+     * @param lambdas Les valeurs de Lambda à résoudre (l'ordre n'a pas d'importance)
+     * @return Les points de la courbe, triés par Lambda croissant
+     * @throws ReseauException En cas d'erreur de calcul (ex: générateur de capacité nulle)
+     */
+    public List<PointCompromis> executer(List<Double> lambdas) throws ReseauException {
+        List<Double> tries = new ArrayList<>(lambdas);
+        tries.sort(null);
+
+        ExecutorService pool = Executors.newFixedThreadPool(nbThreads);
+        try {
+            // PASSE 1 : résolutions indépendantes
+            List<Future<Reseau>> passe1 = new ArrayList<>();
+            for (int i = 0; i < tries.size(); i++) {
+                final double lambda = tries.get(i);
+                final int index = i;
+                passe1.add(pool.submit(() -> {
+                    Reseau copie = reseauInitial.copier();
+                    copie.setLambda(lambda);
+                    if (cache != null && cache.appliquer(copie)) return copie;
+                    AlgoOptimiseur algo = new AlgoOptimiseur(copie, parametres);
+                    algo.setAffichageConsole(false);
+                    if (graine != null) algo.setGraine(graine + 2L * index);
+                    algo.resoudre(nbIterations);
+                    return copie;
+                }));
+            }
+            List<Reseau> solutions = attendre(passe1);
+
+            // PASSE 2 : reprise depuis la meilleure solution voisine
+            List<Future<Reseau>> passe2 = new ArrayList<>();
+            for (int i = 0; i < tries.size(); i++) {
+                final int index = i;
+                passe2.add(pool.submit(() -> {
+                    Reseau depart = meilleurVoisin(solutions, index, tries.get(index));
+                    AlgoOptimiseur algo = new AlgoOptimiseur(depart, parametres);
+                    algo.setAffichageConsole(false);
+                    if (graine != null) algo.setGraine(graine + 2L * index + 1);
+                    algo.resoudre(nbIterations, true);
+                    return depart;
+                }));
+            }
+            List<Reseau> affinees = attendre(passe2);
+
+            List<PointCompromis> points = new ArrayList<>();
+            for (int i = 0; i < tries.size(); i++) {
+                points.add(new PointCompromis(tries.get(i), affinees.get(i)));
+            }
+            if (cache != null) {
+                enregistrerDansCache(points);
+            }
+            return points;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Choisit, pour le Lambda d'indice donné, la meilleure solution de départ parmi
+     * sa propre solution et celles des Lambda voisins (évaluées avec SON Lambda).
+     *
+     * @return Une nouvelle copie du réseau portant les connexions choisies
+     */
+    private Reseau meilleurVoisin(List<Reseau> solutions, int index, double lambda) throws ReseauException {
+        Reseau depart = solutions.get(index).copier();
+        depart.setLambda(lambda);
+        double meilleurCout = depart.calculerCout();
+
+        for (int voisin = index - 1; voisin <= index + 1; voisin += 2) {
+            if (voisin < 0 || voisin >= solutions.size()) continue;
+
+            Reseau candidat = depart.copier();
+            candidat.copierConnexionsDepuis(solutions.get(voisin));
+            double cout = candidat.calculerCout();
+            if (cout < meilleurCout) {
+                meilleurCout = cout;
+                depart = candidat;
+            }
+        }
+        return depart;
+    }
+
+    /**
+     * Enregistre les solutions finales dans le cache. Une erreur d'écriture n'interrompt pas le balayage.
+     */
+    private void enregistrerDansCache(List<PointCompromis> points) {
+        for (PointCompromis p : points) {
+            try {
+                cache.enregistrer(p.getSolution(), p.getCout());
+            } catch (IOException e) {
+                System.err.println("Attention : solution Lambda=" + p.getLambda() + " non enregistrée dans le cache (" + e.getMessage() + ").");
+            }
+        }
+    }
+
+    /**
+     * Attend la fin de toutes les tâches et récupère leurs résultats dans l'ordre de soumission.
+     * Les erreurs métier levées dans un thread sont relancées telles quelles.
+     */
+    private static List<Reseau> attendre(List<Future<Reseau>> taches) throws ReseauException {
+        List<Reseau> resultats = new ArrayList<>();
+        try {
+            for (Future<Reseau> f : taches) {
+                resultats.add(f.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReseauException("Balayage interrompu.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ReseauException) {
+                throw (ReseauException) e.getCause();
+            }
+            throw new ReseauException("Erreur pendant le balayage : " + e.getCause().getMessage());
+        }
+        return resultats;
+    }
+}
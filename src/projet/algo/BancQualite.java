@@ -0,0 +1,277 @@
+package projet.algo;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import projet.exception.ReseauException;
+import projet.io.GestionFichier;
+import projet.reseau.Reseau;
+
+/**
+ * Banc de qualité : compare les solutions du recuit aux coûts optimaux connus des instances
+ * de référence, pour plusieurs configurations, graines et budgets de temps.
+ *
+ * Pour chaque couple (configuration, budget) on mesure :
+ * - le taux de succès (part des exécutions qui atteignent l'optimum),
+ * - l'écart moyen au coût optimal,
+ * - le temps médian pour atteindre l'optimum (sur les exécutions réussies),
+ *   lu dans l'historique des meilleurs coûts de {@link MetriquesSolveur}.
+ *
+ * Les résultats peuvent être enregistrés puis servir de référence : une baisse du taux de succès
+ * ou une hausse de l'écart au-delà de la tolérance est une régression.
+ */
+public class BancQualite {
+
+    // L'optimum du tableur est arrondi à 15 chiffres : on tolère un petit écart absolu
+    private static final double TOLERANCE_OPTIMUM = 1e-6;
+
+    /**
+     * Une instance de référence et son coût optimal connu.
+     */
+    public static class Reference {
+        private final String nom;
+        private final Reseau reseau;
+        private final double coutOptimal;
+
+        private Reference(String nom, Reseau reseau, double coutOptimal) {
+            this.nom = nom;
+            this.reseau = reseau;
+            this.coutOptimal = coutOptimal;
+        }
+
+        /** @return Le nom de l'instance */
+        public String getNom() { return nom; }
+
+        /** @return Le coût optimal connu */
+        public double getCoutOptimal() { return coutOptimal; }
+    }
+
+    /**
+     * Le bilan d'une configuration pour un budget donné, toutes instances et graines confondues.
+     */
+    public static class Resultat {
+        private final String configuration;
+        private final long budgetMs;
+        private final int nbExecutions;
+        private final double tauxSucces;
+        private final double ecartMoyen;
+        private final double tempsMedianOptimumMs;
+
+        Resultat(String configuration, long budgetMs, int nbExecutions,
+                         double tauxSucces, double ecartMoyen, double tempsMedianOptimumMs) {
+            this.configuration = configuration;
+            this.budgetMs = budgetMs;
+            this.nbExecutions = nbExecutions;
+            this.tauxSucces = tauxSucces;
+            this.ecartMoyen = ecartMoyen;
+            this.tempsMedianOptimumMs = tempsMedianOptimumMs;
+        }
+
+        /** @return Le nom de la configuration */
+        public String getConfiguration() { return configuration; }
+
+        /** @return Le budget de temps par exécution (ms) */
+        public long getBudgetMs() { return budgetMs; }
+
+        /** @return Le nombre d'exécutions (instances x graines) */
+        public int getNbExecutions() { return nbExecutions; }
+
+        /** @return La part des exécutions ayant atteint l'optimum (entre 0 et 1) */
+        public double getTauxSucces() { return tauxSucces; }
+
+        /** @return L'écart moyen (absolu) entre le coût trouvé et le coût optimal */
+        public double getEcartMoyen() { return ecartMoyen; }
+
+        /** @return Le temps médian pour atteindre l'optimum, en ms (NaN si jamais atteint) */
+        public double getTempsMedianOptimumMs() { return tempsMedianOptimumMs; }
+
+        private String cle() { return configuration + "\t" + budgetMs; }
+    }
+
+    private List<Reference> references;
+    private Map<String, ParametresRecuit> configurations;
+    private int nbGraines;
+
+    /**
+     * Prépare le banc.
+     *
+     * @param references Les instances de référence (voir {@link #chargerReferences(String)})
+     * @param configurations Les configurations du recuit à comparer, par nom
+     * @param nbGraines Le nombre de graines (exécutions) par instance
+     */
+    public BancQualite(List<Reference> references, Map<String, ParametresRecuit> configurations, int nbGraines) {
+        this.references = references;
+        this.configurations = configurations;
+        this.nbGraines = nbGraines;
+    }
+
+    /**
+     * Lit le tableau des coûts optimaux (lignes "instance lambda cout", '#' pour les commentaires)
+     * et charge chaque instance depuis le même dossier (instance.txt).
+     *
+     * @param cheminTableau Le fichier du tableau
+     * @return Les instances de référence, dans l'ordre du tableau
+     * @throws IOException En cas d'erreur de lecture
+     * @throws ReseauException Si une ligne ou une instance est invalide
+     */
+    public static List<Reference> chargerReferences(String cheminTableau) throws IOException, ReseauException {
+        File dossier = new File(cheminTableau).getAbsoluteFile().getParentFile();
+        List<Reference> references = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(cheminTableau))) {
+            String ligne;
+            int numLigne = 0;
+            while ((ligne = reader.readLine()) != null) {
+                numLigne++;
+                ligne = ligne.trim();
+                if (ligne.isEmpty() || ligne.startsWith("#")) continue;
+
+                String[] champs = ligne.split("\\s+");
+                if (champs.length != 3) {
+                    throw new ReseauException.Syntaxe("référence", "instance lambda cout_optimal", numLigne);
+                }
+                try {
+                    Reseau reseau = GestionFichier.lireFichier(new File(dossier, champs[0] + ".txt").getPath());
+                    reseau.setLambda(Double.parseDouble(champs[1]));
+                    references.add(new Reference(champs[0], reseau, Double.parseDouble(champs[2])));
+                } catch (NumberFormatException e) {
+                    throw new ReseauException.DonneeInvalide("Lambda ou coût optimal non numérique : " + e.getMessage());
+                }
+            }
+        }
+        return references;
+    }
+
+    /**
+     * Exécute toutes les configurations pour chaque budget (exécutions séquentielles,
+     * pour que les mesures de temps ne se gênent pas).
+     *
+     * @param budgetsMs Les budgets de temps par exécution, en millisecondes
+     * @return Un résultat par couple (configuration, budget)
+     * @throws ReseauException En cas d'erreur de calcul
+     */
+    public List<Resultat> executer(long[] budgetsMs) throws ReseauException {
+        List<Resultat> resultats = new ArrayList<>();
+
+        for (Map.Entry<String, ParametresRecuit> config : configurations.entrySet()) {
+            for (long budget : budgetsMs) {
+                int nbExecutions = 0;
+                int nbSucces = 0;
+                double sommeEcarts = 0;
+                double[] tempsOptimum = new double[references.size() * nbGraines];
+
+                for (Reference ref : references) {
+                    for (int graine = 0; graine < nbGraines; graine++) {
+                        Reseau copie = ref.reseau.copier();
+                        AlgoOptimiseur algo = new AlgoOptimiseur(copie, config.getValue());
+                        algo.setAffichageConsole(false);
+                        algo.setGraine(graine);
+                        algo.setDureeMax(budget);
+                        algo.resoudre();
+
+                        MetriquesSolveur metriques = algo.getMetriques();
+                        nbExecutions++;
+                        sommeEcarts += Math.max(0, metriques.getMeilleurCout() - ref.coutOptimal);
+
+                        double temps = tempsPourAtteindre(metriques, ref.coutOptimal);
+                        if (!Double.isNaN(temps)) {
+                            tempsOptimum[nbSucces++] = temps;
+                        }
+                    }
+                }
+
+                resultats.add(new Resultat(config.getKey(), budget, nbExecutions,
+                        (double) nbSucces / nbExecutions, sommeEcarts / nbExecutions,
+                        mediane(Arrays.copyOf(tempsOptimum, nbSucces))));
+            }
+        }
+        return resultats;
+    }
+
+    /**
+     * Enregistre des résultats pour servir de référence lors des exécutions suivantes.
+     *
+     * @param resultats Les résultats à enregistrer
+     * @param chemin Le fichier de destination
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public static void enregistrer(List<Resultat> resultats, String chemin) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(chemin))) {
+            writer.write("# configuration\tbudget_ms\ttaux_succes\tecart_moyen");
+            writer.newLine();
+            for (Resultat r : resultats) {
+                writer.write(r.cle() + "\t" + r.tauxSucces + "\t" + r.ecartMoyen);
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Compare des résultats à une référence enregistrée.
+     * Régression : taux de succès inférieur de plus de tolerance (en absolu),
+     * ou écart moyen supérieur de plus de tolerance (en relatif, avec une marge minimale de 1e-6).
+     *
+     * @param resultats Les résultats actuels
+     * @param cheminReference Le fichier produit par {@link #enregistrer(List, String)}
+     * @param tolerance La tolérance (ex: 0.1)
+     * @return La description de chaque régression (vide s'il n'y en a pas)
+     * @throws IOException En cas d'erreur de lecture
+     */
+    public static List<String> comparer(List<Resultat> resultats, String cheminReference, double tolerance) throws IOException {
+        Map<String, double[]> reference = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(cheminReference))) {
+            String ligne;
+            while ((ligne = reader.readLine()) != null) {
+                if (ligne.isBlank() || ligne.startsWith("#")) continue;
+                String[] champs = ligne.split("\t");
+                reference.put(champs[0] + "\t" + champs[1],
+                        new double[] {Double.parseDouble(champs[2]), Double.parseDouble(champs[3])});
+            }
+        }
+
+        List<String> regressions = new ArrayList<>();
+        for (Resultat r : resultats) {
+            double[] ref = reference.get(r.cle());
+            if (ref == null) continue;
+            if (r.tauxSucces < ref[0] - tolerance) {
+                regressions.add(String.format("%s (%d ms) : taux de succès %.0f %% au lieu de %.0f %%",
+                        r.configuration, r.budgetMs, 100 * r.tauxSucces, 100 * ref[0]));
+            }
+            if (r.ecartMoyen > ref[1] * (1 + tolerance) + TOLERANCE_OPTIMUM) {
+                regressions.add(String.format("%s (%d ms) : écart moyen %.6f au lieu de %.6f",
+                        r.configuration, r.budgetMs, r.ecartMoyen, ref[1]));
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * Premier instant (ms) où le meilleur coût atteint l'optimum, NaN s'il ne l'atteint jamais.
+     */
+    private static double tempsPourAtteindre(MetriquesSolveur metriques, double coutOptimal) {
+        double[] couts = metriques.getMeilleursCouts();
+        long[] instants = metriques.getInstantsMeilleursCouts();
+        for (int i = 0; i < couts.length; i++) {
+            if (couts[i] <= coutOptimal + TOLERANCE_OPTIMUM) {
+                return instants[i] / 1e6;
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static double mediane(double[] valeurs) {
+        if (valeurs.length == 0) return Double.NaN;
+        Arrays.sort(valeurs);
+        int milieu = valeurs.length / 2;
+        return (valeurs.length % 2 == 1) ? valeurs[milieu] : (valeurs[milieu - 1] + valeurs[milieu]) / 2;
+    }
+}
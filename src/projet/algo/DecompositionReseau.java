@@ -0,0 +1,680 @@
+package projet.algo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import projet.exception.ReseauException;
+import projet.reseau.ElementNomme;
+import projet.reseau.Generateur;
+import projet.reseau.Maison;
+import projet.reseau.Reseau;
+import projet.reseau.TableNoms;
+
+/**
+ * Résolution par décomposition, pour les très grands réseaux (centaines de milliers ou millions
+ * de maisons). Le réseau n'est jamais modifié : la solution est une copie.
+ *
+ * 1. Partition : si les générateurs sont placés, par régions (bissections successives le long de
+ *    l'axe le plus étendu), chaque maison placée restant dans sa région ; sinon les générateurs sont
+ *    répartis en parts de capacité voisines. Dans les deux cas, la demande de chaque groupe est
+ *    proportionnelle à sa capacité : tous les groupes ont à peu près le même taux moyen, et la
+ *    dispersion d'un sous-réseau autour de sa moyenne est proche de sa part de la dispersion globale.
+ * 2. Résolution : chaque groupe est extrait ({@link Reseau#extraire}) et résolu en parallèle par le
+ *    solveur choisi (le recuit par défaut), avec une part des itérations proportionnelle à ses
+ *    maisons ; une itération y coûte O(générateurs du groupe) au lieu de O(générateurs).
+ * 3. Coordination : sur la solution fusionnée, des maisons des générateurs les plus chargés passent
+ *    sur le générateur le moins chargé d'un autre groupe (à portée), tant que le coût global baisse.
+ *
+ * Avec la comparaison, le même solveur résout aussi le réseau entier (monolithique) : le résultat
+ * donne alors l'accélération et l'écart de qualité.
+ */
+public class DecompositionReseau {
+
+    // Coordination : passes sur les générateurs au dessus du taux moyen, et essais par générateur et par passe
+    private static final int NB_PASSES_COORDINATION = 10;
+    private static final int ESSAIS_PAR_GENERATEUR = 20;
+    // Générateurs peu chargés examinés pour une maison qui peut aller partout
+    private static final int NB_CIBLES_LIBRES = 16;
+    // Baisse minimale du coût pour accepter un déplacement (évite les échanges sans fin sur des égalités)
+    private static final double GAIN_MINIMAL = 1e-12;
+
+    /**
+     * Un solveur de (sous-)réseau : n'importe quel algorithme qui connecte les maisons du réseau donné.
+     */
+    public interface Solveur {
+        /**
+         * @param reseau Le réseau à résoudre (à modifier en place)
+         * @param nbIterations Le budget d'itérations
+         * @throws ReseauException En cas d'erreur de calcul
+         */
+        void resoudre(Reseau reseau, int nbIterations) throws ReseauException;
+    }
+
+    /** Le recuit simulé, avec les constantes historiques et sans affichage. */
+    public static final Solveur RECUIT = recuit(ParametresRecuit.historiques());
+
+    /**
+     * Le recuit simulé sans affichage, avec des paramètres donnés (le budget d'itérations reste
+     * celui de la décomposition).
+     *
+     * @param parametres Les hyper-paramètres du recuit
+     * @return Le solveur correspondant
+     */
+    public static Solveur recuit(ParametresRecuit parametres) {
+        return (reseau, nbIterations) -> {
+            AlgoOptimiseur algo = new AlgoOptimiseur(reseau, parametres);
+            algo.setAffichageConsole(false);
+            algo.resoudre(nbIterations);
+        };
+    }
+
+    /**
+     * Le bilan d'une résolution par décomposition.
+     */
+    public static class Resultat {
+        private final Reseau solution;
+        private final int nbGroupes;
+        private final boolean parRegions;
+        private final double coutAvantCoordination;
+        private final double cout;
+        private final int nbMaisonsDeplacees;
+        private final double dureePartitionMs;
+        private final double dureeResolutionMs;
+        private final double dureeCoordinationMs;
+        private double coutMonolithique = Double.NaN;
+        private double dureeMonolithiqueMs = Double.NaN;
+
+        private Resultat(Reseau solution, int nbGroupes, boolean parRegions, double coutAvantCoordination,
+                         int nbMaisonsDeplacees, double dureePartitionMs, double dureeResolutionMs,
+                         double dureeCoordinationMs) throws ReseauException {
+            this.solution = solution;
+            this.nbGroupes = nbGroupes;
+            this.parRegions = parRegions;
+            this.coutAvantCoordination = coutAvantCoordination;
+            this.cout = solution.calculerCout();
+            this.nbMaisonsDeplacees = nbMaisonsDeplacees;
+            this.dureePartitionMs = dureePartitionMs;
+            this.dureeResolutionMs = dureeResolutionMs;
+            this.dureeCoordinationMs = dureeCoordinationMs;
+        }
+
+        /** @return La copie du réseau portant la solution */
+        public Reseau getSolution() { return solution; }
+
+        /** @return Le nombre de groupes (au plus le nombre de générateurs) */
+        public int getNbGroupes() { return nbGroupes; }
+
+        /** @return true si la partition a suivi les positions des générateurs */
+        public boolean isParRegions() { return parRegions; }
+
+        /** @return Le coût de la solution fusionnée, avant la coordination */
+        public double getCoutAvantCoordination() { return coutAvantCoordination; }
+
+        /** @return Le coût final */
+        public double getCout() { return cout; }
+
+        /** @return Le nombre de maisons changées de groupe par la coordination */
+        public int getNbMaisonsDeplacees() { return nbMaisonsDeplacees; }
+
+        /** @return La durée de la partition (ms) */
+        public double getDureePartitionMs() { return dureePartitionMs; }
+
+        /** @return La durée de l'extraction, de la résolution parallèle et de la fusion (ms) */
+        public double getDureeResolutionMs() { return dureeResolutionMs; }
+
+        /** @return La durée de la coordination (ms) */
+        public double getDureeCoordinationMs() { return dureeCoordinationMs; }
+
+        /** @return La durée totale de la décomposition (ms) */
+        public double getDureeTotaleMs() { return dureePartitionMs + dureeResolutionMs + dureeCoordinationMs; }
+
+        /** @return Le coût de la résolution monolithique (NaN sans comparaison) */
+        public double getCoutMonolithique() { return coutMonolithique; }
+
+        /** @return La durée de la résolution monolithique, copie comprise (ms, NaN sans comparaison) */
+        public double getDureeMonolithiqueMs() { return dureeMonolithiqueMs; }
+
+        /** @return Durée monolithique / durée de la décomposition (NaN sans comparaison) */
+        public double getAcceleration() { return dureeMonolithiqueMs / getDureeTotaleMs(); }
+
+        /**
+         * @return L'écart relatif de coût à la résolution monolithique (positif : décomposition moins bonne),
+         *         l'écart absolu si le coût monolithique est nul, NaN sans comparaison
+         */
+        public double getEcartQualite() {
+            if (coutMonolithique == 0) return cout;
+            return (cout - coutMonolithique) / Math.abs(coutMonolithique);
+        }
+    }
+
+    private Reseau reseauInitial;
+    private int nbGroupes;
+    private int nbIterations;
+    private int nbThreads;
+    private Solveur solveur = RECUIT;
+
+    /**
+     * Prépare une décomposition (le réseau n'est jamais modifié).
+     *
+     * @param reseau Le réseau à résoudre
+     * @param nbGroupes Le nombre de groupes souhaité (réduit au nombre de générateurs)
+     * @param nbIterations Le budget d'itérations de chaque résolution
+     * @param nbThreads Le nombre de threads de calcul (au moins 1)
+     */
+    public DecompositionReseau(Reseau reseau, int nbGroupes, int nbIterations, int nbThreads) {
+        this.reseauInitial = reseau;
+        this.nbGroupes = Math.max(1, nbGroupes);
+        this.nbIterations = nbIterations;
+        this.nbThreads = Math.max(1, nbThreads);
+    }
+
+    /**
+     * Change le solveur des sous-réseaux (et de la résolution monolithique de comparaison).
+     *
+     * @param solveur Le solveur, {@link #RECUIT} par défaut
+     */
+    public void setSolveur(Solveur solveur) {
+        this.solveur = solveur;
+    }
+
+    /**
+     * Lance la décomposition.
+     *
+     * @param comparer true pour résoudre aussi le réseau entier et mesurer l'accélération et l'écart
+     * @return Le bilan, avec la solution
+     * @throws ReseauException En cas d'erreur de calcul (ex: générateur de capacité nulle)
+     */
+    public Resultat executer(boolean comparer) throws ReseauException {
+        reseauInitial.verifierCapacites();
+
+        long debut = System.nanoTime();
+        Partition partition = partitionner();
+        long finPartition = System.nanoTime();
+
+        int[] affectation = resoudreGroupes(partition);
+        Reseau solution = reseauInitial.copier();
+        solution.appliquerAffectation(affectation);
+        double coutAvant = solution.calculerCout();
+        long finResolution = System.nanoTime();
+
+        int nbDeplacees = coordonner(solution, partition);
+        long finCoordination = System.nanoTime();
+
+        Resultat resultat = new Resultat(solution, partition.nbGroupes, partition.parRegions, coutAvant, nbDeplacees,
+                (finPartition - debut) / 1e6, (finResolution - finPartition) / 1e6, (finCoordination - finResolution) / 1e6);
+
+        if (comparer) {
+            long debutMono = System.nanoTime();
+            Reseau mono = reseauInitial.copier();
+            solveur.resoudre(mono, nbIterations);
+            resultat.dureeMonolithiqueMs = (System.nanoTime() - debutMono) / 1e6;
+            resultat.coutMonolithique = mono.calculerCout();
+        }
+        return resultat;
+    }
+
+    // ---------------------------------------------------------------- partition
+
+    /**
+     * Les groupes : identifiants de leurs générateurs et de leurs maisons.
+     */
+    private static class Partition {
+        int nbGroupes;
+        boolean parRegions;
+        int[] groupeGenerateur; // par identifiant de générateur
+        int[] groupeMaison;     // par identifiant de maison
+        int[][] generateurs;
+        int[][] maisons;
+        ListesCandidats candidats; // null : aucune connexion exclue
+    }
+
+    private Partition partitionner() {
+        TableNoms<Generateur> tableGenerateurs = reseauInitial.getGenerateursMap();
+        TableNoms<Maison> tableMaisons = reseauInitial.getMaisonsMap();
+        Partition p = new Partition();
+        p.nbGroupes = Math.max(1, Math.min(nbGroupes, tableGenerateurs.size()));
+        p.candidats = ListesCandidats.construire(reseauInitial);
+        p.groupeGenerateur = new int[tableGenerateurs.getNbIds()];
+        p.groupeMaison = new int[tableMaisons.getNbIds()];
+        Arrays.fill(p.groupeGenerateur, -1);
+        Arrays.fill(p.groupeMaison, -1);
+
+        long[] demande = new long[tableMaisons.getNbIds()];
+        for (Maison m : tableMaisons.values()) demande[m.getId()] = demandeTotale(m);
+
+        // Éléments placés d'un côté, non placés de l'autre
+        int[] gensPlaces = new int[tableGenerateurs.size()];
+        int[] gensNonPlaces = new int[tableGenerateurs.size()];
+        int nbGensPlaces = 0, nbGensNonPlaces = 0;
+        for (Generateur g : tableGenerateurs.values()) {
+            if (g.aUnePosition()) gensPlaces[nbGensPlaces++] = g.getId();
+            else gensNonPlaces[nbGensNonPlaces++] = g.getId();
+        }
+        int[] maisonsPlacees = new int[tableMaisons.size()];
+        int nbMaisonsPlacees = 0;
+        for (Maison m : tableMaisons.values()) {
+            if (m.aUnePosition()) maisonsPlacees[nbMaisonsPlacees++] = m.getId();
+        }
+        p.parRegions = nbGensPlaces >= p.nbGroupes && p.nbGroupes > 1;
+
+        double[] capaciteGroupe = new double[p.nbGroupes];
+        double[] demandeGroupe = new double[p.nbGroupes];
+        if (p.parRegions) {
+            new Bissection(tableGenerateurs, tableMaisons, demande, p).couper(
+                    Arrays.copyOf(gensPlaces, nbGensPlaces), Arrays.copyOf(maisonsPlacees, nbMaisonsPlacees), 0, p.nbGroupes);
+            for (int k = 0; k < nbGensPlaces; k++) {
+                capaciteGroupe[p.groupeGenerateur[gensPlaces[k]]] += tableGenerateurs.parId(gensPlaces[k]).getCapaciteMaximale();
+            }
+            // Sous distance maximale, une maison doit avoir un générateur à portée dans son groupe
+            int[] compte = new int[p.nbGroupes];
+            for (int k = 0; k < nbMaisonsPlacees; k++) {
+                int id = maisonsPlacees[k];
+                if (p.candidats != null) p.groupeMaison[id] = groupeAPortee(p, id, p.groupeMaison[id], compte);
+                demandeGroupe[p.groupeMaison[id]] += demande[id];
+            }
+        } else {
+            System.arraycopy(gensPlaces, 0, gensNonPlaces, nbGensNonPlaces, nbGensPlaces);
+            nbGensNonPlaces += nbGensPlaces;
+        }
+
+        // Générateurs restants : les plus gros d'abord, chacun dans le groupe de plus faible capacité
+        Integer[] restants = new Integer[nbGensNonPlaces];
+        for (int k = 0; k < nbGensNonPlaces; k++) restants[k] = gensNonPlaces[k];
+        Arrays.sort(restants, Comparator.comparingDouble((Integer id) -> -tableGenerateurs.parId(id).getCapaciteMaximale()));
+        PriorityQueue<Integer> parCapacite = new PriorityQueue<>(Comparator.comparingDouble((Integer gr) -> capaciteGroupe[gr]));
+        for (int gr = 0; gr < p.nbGroupes; gr++) parCapacite.add(gr);
+        for (Integer id : restants) {
+            int gr = parCapacite.poll();
+            p.groupeGenerateur[id] = gr;
+            capaciteGroupe[gr] += tableGenerateurs.parId(id).getCapaciteMaximale();
+            parCapacite.add(gr);
+        }
+
+        // Maisons restantes : les plus grosses demandes d'abord, chacune dans le groupe de plus faible taux
+        // (parcours des groupes, peu nombreux, plutôt qu'une file de priorité)
+        long[] restantes = new long[tableMaisons.size()]; // demande << 32 | identifiant
+        int nbRestantes = 0;
+        for (Maison m : tableMaisons.values()) {
+            if (p.groupeMaison[m.getId()] < 0) restantes[nbRestantes++] = (demande[m.getId()] << 32) | m.getId();
+        }
+        Arrays.sort(restantes, 0, nbRestantes);
+        for (int k = nbRestantes - 1; k >= 0; k--) {
+            int id = (int) restantes[k];
+            int gr = 0;
+            for (int autre = 1; autre < p.nbGroupes; autre++) {
+                if (demandeGroupe[autre] * capaciteGroupe[gr] < demandeGroupe[gr] * capaciteGroupe[autre]) gr = autre;
+            }
+            p.groupeMaison[id] = gr;
+            demandeGroupe[gr] += demande[id];
+        }
+
+        p.generateurs = regrouper(tableGenerateurs, p.groupeGenerateur, p.nbGroupes);
+        p.maisons = regrouper(tableMaisons, p.groupeMaison, p.nbGroupes);
+        return p;
+    }
+
+    /**
+     * Groupe d'une maison sous distance maximale : sa région si elle y a un générateur à portée,
+     * sinon le groupe où elle en a le plus (sa région si elle n'en a aucun).
+     */
+    private static int groupeAPortee(Partition p, int idMaison, int region, int[] compte) {
+        int n = p.candidats.getNbCandidats(idMaison);
+        for (int k = 0; k < n; k++) {
+            if (p.groupeGenerateur[p.candidats.getCandidat(idMaison, k)] == region) return region;
+        }
+        Arrays.fill(compte, 0);
+        int meilleur = region;
+        for (int k = 0; k < n; k++) {
+            int gr = p.groupeGenerateur[p.candidats.getCandidat(idMaison, k)];
+            if (++compte[gr] > compte[meilleur]) meilleur = gr;
+        }
+        return meilleur;
+    }
+
+    /** Demande cumulée sur les périodes (celle du type sans demandes horaires). */
+    private long demandeTotale(Maison m) {
+        long somme = 0;
+        for (int t = 0; t < reseauInitial.getNbPeriodes(); t++) somme += m.getDemandeKw(t);
+        return somme;
+    }
+
+    /**
+     * Identifiants de chaque groupe, dans l'ordre de parcours de la table.
+     */
+    private static int[][] regrouper(TableNoms<? extends ElementNomme> table, int[] groupe, int nbGroupes) {
+        int[] taille = new int[nbGroupes];
+        for (ElementNomme e : table.values()) taille[groupe[e.getId()]]++;
+        int[][] ids = new int[nbGroupes][];
+        for (int gr = 0; gr < nbGroupes; gr++) ids[gr] = new int[taille[gr]];
+        Arrays.fill(taille, 0);
+        for (ElementNomme e : table.values()) {
+            int gr = groupe[e.getId()];
+            ids[gr][taille[gr]++] = e.getId();
+        }
+        return ids;
+    }
+
+    /**
+     * Bissections successives des éléments placés, le long de l'axe le plus étendu, sur un
+     * histogramme (sans tri). Les générateurs sont coupés pour que chaque côté ait la part de
+     * capacité de son nombre de groupes (au moins un générateur par groupe) ; les maisons sont
+     * coupées à part, dans le même ordre, pour que chaque côté ait exactement (à une maison près)
+     * le rapport demande / capacité de l'ensemble. Les maisons entre les deux coupes sont près de
+     * la frontière.
+     */
+    private static class Bissection {
+        private static final int NB_TRANCHES = 1 << 14;
+
+        private final TableNoms<Generateur> generateurs;
+        private final TableNoms<Maison> maisons;
+        private final long[] demande;
+        private final Partition p;
+
+        Bissection(TableNoms<Generateur> generateurs, TableNoms<Maison> maisons, long[] demande, Partition p) {
+            this.generateurs = generateurs;
+            this.maisons = maisons;
+            this.demande = demande;
+            this.p = p;
+        }
+
+        /**
+         * Répartit des générateurs et des maisons (tous placés) en nb groupes numérotés à partir de premier.
+         */
+        void couper(int[] gens, int[] mais, int premier, int nb) {
+            if (nb == 1) {
+                for (int id : gens) p.groupeGenerateur[id] = premier;
+                for (int id : mais) p.groupeMaison[id] = premier;
+                return;
+            }
+            double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+            double capacite = 0;
+            long demandeTotale = 0;
+            for (int id : gens) {
+                Generateur g = generateurs.parId(id);
+                minX = Math.min(minX, g.getX());
+                maxX = Math.max(maxX, g.getX());
+                minY = Math.min(minY, g.getY());
+                maxY = Math.max(maxY, g.getY());
+                capacite += g.getCapaciteMaximale();
+            }
+            for (int id : mais) {
+                Maison m = maisons.parId(id);
+                minX = Math.min(minX, m.getX());
+                maxX = Math.max(maxX, m.getX());
+                minY = Math.min(minY, m.getY());
+                maxY = Math.max(maxY, m.getY());
+                demandeTotale += demande[id];
+            }
+            boolean selonX = maxX - minX >= maxY - minY;
+            double min = selonX ? minX : minY;
+            double etendue = selonX ? maxX - minX : maxY - minY;
+            int nbGauche = nb / 2;
+
+            // Générateurs : coupe avant la tranche la plus proche de la part de capacité (ordre des
+            // tableaux si tous les générateurs sont dans une même tranche)
+            int[] trancheGen = new int[gens.length];
+            double[] capaciteTranche = new double[NB_TRANCHES];
+            int[] nbGensTranche = new int[NB_TRANCHES];
+            for (int k = 0; k < gens.length; k++) {
+                Generateur g = generateurs.parId(gens[k]);
+                trancheGen[k] = tranche(selonX ? g.getX() : g.getY(), min, etendue);
+                capaciteTranche[trancheGen[k]] += g.getCapaciteMaximale();
+                nbGensTranche[trancheGen[k]]++;
+            }
+            double cibleCapacite = capacite * nbGauche / nb;
+            int coupe = -1;
+            double meilleurEcart = Double.POSITIVE_INFINITY;
+            double capaciteGauche = 0;
+            int nbGensGauche = 0;
+            for (int b = 1; b < NB_TRANCHES; b++) {
+                capaciteGauche += capaciteTranche[b - 1];
+                nbGensGauche += nbGensTranche[b - 1];
+                if (nbGensGauche < nbGauche || gens.length - nbGensGauche < nb - nbGauche) continue;
+                double ecart = Math.abs(capaciteGauche - cibleCapacite);
+                if (ecart < meilleurEcart) {
+                    meilleurEcart = ecart;
+                    coupe = b;
+                }
+            }
+            boolean[] genAGauche = new boolean[gens.length];
+            capaciteGauche = 0;
+            nbGensGauche = 0;
+            for (int k = 0; k < gens.length; k++) {
+                genAGauche[k] = (coupe >= 0) ? trancheGen[k] < coupe : k < gens.length * nbGauche / nb;
+                if (genAGauche[k]) {
+                    capaciteGauche += generateurs.parId(gens[k]).getCapaciteMaximale();
+                    nbGensGauche++;
+                }
+            }
+
+            // Maisons : toutes les tranches avant celle où la demande cumulée atteint sa cible,
+            // puis dans cette tranche, dans l'ordre des tableaux, tant que l'on s'en rapproche
+            double cibleDemande = (capacite > 0) ? demandeTotale * capaciteGauche / capacite : 0;
+            int[] trancheMaison = new int[mais.length];
+            long[] demandeTranche = new long[NB_TRANCHES];
+            for (int k = 0; k < mais.length; k++) {
+                Maison m = maisons.parId(mais[k]);
+                trancheMaison[k] = tranche(selonX ? m.getX() : m.getY(), min, etendue);
+                demandeTranche[trancheMaison[k]] += demande[mais[k]];
+            }
+            int trancheCoupe = 0;
+            long demandeAvant = 0;
+            while (trancheCoupe < NB_TRANCHES - 1 && demandeAvant + demandeTranche[trancheCoupe] <= cibleDemande) {
+                demandeAvant += demandeTranche[trancheCoupe++];
+            }
+            boolean[] maisonAGauche = new boolean[mais.length];
+            int nbMaisonsGauche = 0;
+            double demandeGauche = demandeAvant;
+            for (int k = 0; k < mais.length; k++) {
+                if (trancheMaison[k] < trancheCoupe) {
+                    maisonAGauche[k] = true;
+                } else if (trancheMaison[k] == trancheCoupe
+                        && Math.abs(demandeGauche + demande[mais[k]] - cibleDemande) < Math.abs(demandeGauche - cibleDemande)) {
+                    maisonAGauche[k] = true;
+                    demandeGauche += demande[mais[k]];
+                }
+                if (maisonAGauche[k]) nbMaisonsGauche++;
+            }
+
+            couper(separer(gens, genAGauche, nbGensGauche, true), separer(mais, maisonAGauche, nbMaisonsGauche, true),
+                    premier, nbGauche);
+            couper(separer(gens, genAGauche, nbGensGauche, false), separer(mais, maisonAGauche, nbMaisonsGauche, false),
+                    premier + nbGauche, nb - nbGauche);
+        }
+
+        /** @return Les identifiants d'un côté de la coupe, dans l'ordre du tableau */
+        private static int[] separer(int[] ids, boolean[] aGauche, int nbGauche, boolean gauche) {
+            int[] cote = new int[gauche ? nbGauche : ids.length - nbGauche];
+            int n = 0;
+            for (int k = 0; k < ids.length; k++) {
+                if (aGauche[k] == gauche) cote[n++] = ids[k];
+            }
+            return cote;
+        }
+
+        private static int tranche(double v, double min, double etendue) {
+            if (etendue == 0) return 0;
+            return Math.min(NB_TRANCHES - 1, (int) ((v - min) / etendue * NB_TRANCHES));
+        }
+    }
+
+    // ---------------------------------------------------------------- résolution
+
+    /**
+     * Extrait et résout chaque groupe en parallèle, puis fusionne les affectations.
+     *
+     * @return L'affectation du réseau entier, indexée par identifiant de maison
+     */
+    private int[] resoudreGroupes(Partition p) throws ReseauException {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(nbThreads, p.nbGroupes));
+        try {
+            List<Future<Reseau>> taches = new ArrayList<>();
+            for (int gr = 0; gr < p.nbGroupes; gr++) {
+                final int groupe = gr;
+                taches.add(pool.submit(() -> {
+                    Reseau sous = reseauInitial.extraire(p.generateurs[groupe], p.maisons[groupe]);
+                    solveur.resoudre(sous, iterationsGroupe(p.maisons[groupe].length));
+                    return sous;
+                }));
+            }
+
+            int[] affectation = new int[reseauInitial.getMaisonsMap().getNbIds()];
+            Arrays.fill(affectation, -1);
+            for (int gr = 0; gr < p.nbGroupes; gr++) {
+                Reseau sous = attendre(taches.get(gr));
+                // Identifiants du sous-réseau : rangs dans les tableaux du groupe
+                int[] maisons = p.maisons[gr];
+                int[] generateurs = p.generateurs[gr];
+                for (int k = 0; k < maisons.length; k++) {
+                    int g = sous.getIdGenerateur(k);
+                    if (g >= 0) affectation[maisons[k]] = generateurs[g];
+                }
+            }
+            return affectation;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Part du budget d'itérations d'un groupe, au prorata de ses maisons (au moins 1) : la
+     * décomposition fait autant d'itérations que la résolution monolithique.
+     */
+    private int iterationsGroupe(int nbMaisonsGroupe) {
+        int nbMaisons = reseauInitial.getMaisonsMap().size();
+        if (nbMaisons == 0) return nbIterations;
+        return (int) Math.max(1, (long) nbIterations * nbMaisonsGroupe / nbMaisons);
+    }
+
+    /**
+     * Attend la fin d'une tâche. Les erreurs métier levées dans un thread sont relancées telles quelles.
+     */
+    private static Reseau attendre(Future<Reseau> tache) throws ReseauException {
+        try {
+            return tache.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReseauException("Décomposition interrompue.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ReseauException) {
+                throw (ReseauException) e.getCause();
+            }
+            throw new ReseauException("Erreur pendant la décomposition : " + e.getCause().getMessage());
+        }
+    }
+
+    // ---------------------------------------------------------------- coordination
+
+    /**
+     * Rééquilibre les groupes sur le coût global : à chaque passe, les maisons des générateurs au
+     * dessus du taux moyen (du plus chargé au moins chargé) essaient le générateur le moins chargé
+     * d'un autre groupe parmi ceux à portée ; le déplacement est gardé s'il fait baisser le coût.
+     *
+     * @return Le nombre de maisons déplacées
+     */
+    private int coordonner(Reseau solution, Partition p) {
+        if (p.nbGroupes < 2) return 0;
+        EvaluateurAffectation evaluateur = solution.aDesProfils() ? new EvaluateurProfils(solution) : new EvaluateurAffectation(solution);
+        int[] generateurs = evaluateur.getIdsGenerateurs();
+
+        // Maisons de chaque générateur (listes concaténées, affectation fusionnée)
+        int nbIdsGenerateurs = p.groupeGenerateur.length;
+        int[] debut = new int[nbIdsGenerateurs + 1];
+        int[] idsMaisons = evaluateur.getIdsMaisons();
+        for (int m : idsMaisons) {
+            int g = evaluateur.getIdGenerateur(m);
+            if (g >= 0) debut[g + 1]++;
+        }
+        for (int g = 0; g < nbIdsGenerateurs; g++) debut[g + 1] += debut[g];
+        int[] maisonsDe = new int[debut[nbIdsGenerateurs]];
+        int[] remplissage = Arrays.copyOf(debut, nbIdsGenerateurs);
+        for (int m : idsMaisons) {
+            int g = evaluateur.getIdGenerateur(m);
+            if (g >= 0) maisonsDe[remplissage[g]++] = m;
+        }
+
+        double cout = evaluateur.cout();
+        int nbDeplacees = 0;
+        Integer[] ordre = new Integer[generateurs.length];
+        for (int passe = 0; passe < NB_PASSES_COORDINATION; passe++) {
+            for (int k = 0; k < generateurs.length; k++) ordre[k] = generateurs[k];
+            Arrays.sort(ordre, Comparator.comparingDouble((Integer g) -> -evaluateur.getTaux(g)));
+            double moyenne = 0;
+            for (int g : generateurs) moyenne += evaluateur.getTaux(g);
+            moyenne /= generateurs.length;
+
+            int deplaceesPasse = 0;
+            for (Integer source : ordre) {
+                if (evaluateur.getTaux(source) <= moyenne) break;
+                int essais = ESSAIS_PAR_GENERATEUR;
+                int deplaceesSource = 0;
+                for (int k = debut[source]; k < debut[source + 1] && essais > 0; k++) {
+                    int m = maisonsDe[k];
+                    if (evaluateur.getIdGenerateur(m) != source) continue;
+                    if (evaluateur.getTaux(source) <= moyenne) break;
+                    int cible = cibleMoinsChargee(evaluateur, p, ordre, m, source);
+                    if (cible < 0) continue;
+                    essais--;
+                    double nouveau = evaluateur.coutApres(m, cible);
+                    if (nouveau < cout - GAIN_MINIMAL) {
+                        evaluateur.deplacer(m, cible);
+                        cout = nouveau;
+                        deplaceesSource++;
+                    }
+                }
+                deplaceesPasse += deplaceesSource;
+                // Les générateurs suivants sont moins chargés : ils ont encore moins de chances
+                if (deplaceesSource == 0) break;
+            }
+            nbDeplacees += deplaceesPasse;
+            if (deplaceesPasse == 0) break;
+        }
+        evaluateur.appliquer();
+        return nbDeplacees;
+    }
+
+    /**
+     * Cible d'une maison : parmi ses candidats d'un autre groupe, le moins chargé ; pour une maison
+     * qui peut aller partout, parmi les derniers générateurs d'un autre groupe dans l'ordre de la
+     * passe (les moins chargés au début de la passe), celui qui l'est le moins maintenant.
+     *
+     * @param ordre Les générateurs par taux décroissant en début de passe
+     * @return La cible, moins chargée que la source, ou -1
+     */
+    private static int cibleMoinsChargee(EvaluateurAffectation evaluateur, Partition p, Integer[] ordre,
+                                         int idMaison, int source) {
+        int groupe = p.groupeGenerateur[source];
+        double meilleurTaux = evaluateur.getTaux(source);
+        int meilleur = -1;
+        if (p.candidats == null || p.candidats.getNbCandidats(idMaison) == ordre.length) {
+            int vus = 0;
+            for (int k = ordre.length - 1; k >= 0 && vus < NB_CIBLES_LIBRES; k--) {
+                int g = ordre[k];
+                if (p.groupeGenerateur[g] == groupe) continue;
+                vus++;
+                if (evaluateur.getTaux(g) < meilleurTaux) {
+                    meilleurTaux = evaluateur.getTaux(g);
+                    meilleur = g;
+                }
+            }
+        } else {
+            int n = p.candidats.getNbCandidats(idMaison);
+            for (int k = 0; k < n; k++) {
+                int g = p.candidats.getCandidat(idMaison, k);
+                if (p.groupeGenerateur[g] != groupe && evaluateur.getTaux(g) < meilleurTaux) {
+                    meilleurTaux = evaluateur.getTaux(g);
+                    meilleur = g;
+                }
+            }
+        }
+        return meilleur;
+    }
+}
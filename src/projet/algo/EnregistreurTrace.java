@@ -0,0 +1,155 @@
+package projet.algo;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+
+/**
+ * Enregistre la trajectoire de convergence d'un solveur : itération, temps écoulé,
+ * coût courant, meilleur coût et température.
+ *
+ * Les points sont stockés dans des tableaux primitifs alloués une fois pour toutes,
+ * utilisés en anneau : quand ils sont pleins, les points les plus anciens sont écrasés.
+ * Avec une décimation de N, seul un appel sur N est enregistré (et chronométré),
+ * ce qui garde le coût dans la boucle du solveur à un décrément et un test.
+ *
+ * L'export (CSV ou NDJSON) se fait après la résolution, jamais pendant.
+ */
+public class EnregistreurTrace {
+
+    private final long[] iterations;
+    private final long[] nanos;
+    private final double[] coutsCourants;
+    private final double[] meilleursCouts;
+    private final double[] temperatures;
+    private final int decimation;
+
+    private int prochain;      // case où écrire le prochain point
+    private int taille;        // nombre de points valides (au plus la capacité)
+    private int avantProchain; // appels restants avant le prochain point enregistré
+    private long debutNanos;
+
+    /**
+     * Prépare un enregistreur.
+     *
+     * @param capacite Le nombre maximal de points conservés (les plus récents)
+     * @param decimation On enregistre un appel sur decimation (1 = tous)
+     */
+    public EnregistreurTrace(int capacite, int decimation) {
+        if (capacite < 1 || decimation < 1) {
+            throw new IllegalArgumentException("La capacité et la décimation doivent être strictement positives.");
+        }
+        this.iterations = new long[capacite];
+        this.nanos = new long[capacite];
+        this.coutsCourants = new double[capacite];
+        this.meilleursCouts = new double[capacite];
+        this.temperatures = new double[capacite];
+        this.decimation = decimation;
+        demarrer();
+    }
+
+    /**
+     * Vide la trace et remet le chronomètre à zéro (appelé par le solveur au début d'une résolution).
+     */
+    public void demarrer() {
+        prochain = 0;
+        taille = 0;
+        avantProchain = 1; // le premier appel est toujours enregistré
+        debutNanos = System.nanoTime();
+    }
+
+    /**
+     * Propose un point à la trace (conservé selon la décimation).
+     *
+     * @param iteration Le numéro d'itération (ou de mouvement)
+     * @param coutCourant Le coût de la solution courante
+     * @param meilleurCout Le meilleur coût rencontré
+     * @param temperature La température (NaN pour un solveur sans température)
+     */
+    public void enregistrer(long iteration, double coutCourant, double meilleurCout, double temperature) {
+        if (--avantProchain > 0) return;
+        avantProchain = decimation;
+
+        iterations[prochain] = iteration;
+        nanos[prochain] = System.nanoTime() - debutNanos;
+        coutsCourants[prochain] = coutCourant;
+        meilleursCouts[prochain] = meilleurCout;
+        temperatures[prochain] = temperature;
+
+        prochain = (prochain + 1 == iterations.length) ? 0 : prochain + 1;
+        if (taille < iterations.length) taille++;
+    }
+
+    /** @return Le nombre de points conservés */
+    public int getTaille() { return taille; }
+
+    /**
+     * Exporte la trace, au format NDJSON si le nom finit par .ndjson ou .jsonl, en CSV sinon.
+     *
+     * @param chemin Le fichier de destination
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public void exporter(String chemin) throws IOException {
+        if (chemin.endsWith(".ndjson") || chemin.endsWith(".jsonl")) {
+            exporterNdjson(chemin);
+        } else {
+            exporterCsv(chemin);
+        }
+    }
+
+    /**
+     * Exporte la trace au format CSV (iteration,temps_ns,cout,meilleur_cout,temperature).
+     *
+     * @param chemin Le fichier CSV de destination
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public void exporterCsv(String chemin) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(chemin))) {
+            writer.write("iteration,temps_ns,cout,meilleur_cout,temperature");
+            writer.newLine();
+            for (int k = 0; k < taille; k++) {
+                int i = indexPoint(k);
+                writer.write(iterations[i] + "," + nanos[i] + "," + coutsCourants[i] + ","
+                        + meilleursCouts[i] + "," + nombre(temperatures[i]));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Exporte la trace au format NDJSON (un objet JSON par ligne).
+     *
+     * @param chemin Le fichier de destination
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public void exporterNdjson(String chemin) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(chemin))) {
+            for (int k = 0; k < taille; k++) {
+                int i = indexPoint(k);
+                writer.write("{\"iteration\":" + iterations[i] + ",\"temps_ns\":" + nanos[i]
+                        + ",\"cout\":" + json(coutsCourants[i]) + ",\"meilleur_cout\":" + json(meilleursCouts[i])
+                        + ",\"temperature\":" + json(temperatures[i]) + "}");
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Position dans les tableaux du k-ième point conservé, du plus ancien au plus récent.
+     */
+    private int indexPoint(int k) {
+        int premier = (taille < iterations.length) ? 0 : prochain;
+        int i = premier + k;
+        return (i >= iterations.length) ? i - iterations.length : i;
+    }
+
+    /** Valeur CSV : vide si non finie (ex: température d'un solveur sans température). */
+    private static String nombre(double valeur) {
+        return Double.isFinite(valeur) ? Double.toString(valeur) : "";
+    }
+
+    /** Valeur JSON : null si non finie (NaN et l'infini n'existent pas en JSON). */
+    private static String json(double valeur) {
+        return Double.isFinite(valeur) ? Double.toString(valeur) : "null";
+    }
+}
@@ -0,0 +1,147 @@
+package projet.algo;
+
+import java.util.Arrays;
+
+import projet.reseau.Generateur;
+import projet.reseau.Maison;
+import projet.reseau.Reseau;
+import projet.reseau.TableNoms;
+
+/**
+ * Copie de travail de l'affectation d'un réseau, sur les identifiants, pour le Recuit Simulé.
+ *
+ * La charge de chaque générateur est tenue à jour à chaque déplacement : le coût se calcule en
+ * O(générateurs) au lieu d'un parcours de toutes les maisons. Il est identique (au bit près) à
+ * {@link Reseau#calculerCout()} : mêmes générateurs dans le même ordre, mêmes opérations, et des
+ * charges entières donc exactes.
+ *
+ * Les capacités doivent avoir été vérifiées ({@link Reseau#verifierCapacites()}) : un générateur
+ * de capacité nulle donnerait ici un taux infini au lieu d'une exception.
+ *
+ * Les demandes sont celles des types ; pour un réseau à demandes horaires, voir {@link EvaluateurProfils}.
+ */
+class EvaluateurAffectation {
+
+    private final Reseau reseau;
+    private final double lambda;
+
+    // Identifiants dans l'ordre de parcours des tables (celui de Reseau.calculerCout)
+    private final int[] idsGenerateurs;
+    private final int[] idsMaisons;
+
+    // Indexés par identifiant
+    private final double[] capacite;
+    private final double[] charge;
+    private final int[] demande;
+    private final int[] affectation;
+
+    /**
+     * @param reseau Le réseau, dont l'affectation actuelle est copiée
+     */
+    EvaluateurAffectation(Reseau reseau) {
+        this.reseau = reseau;
+        this.lambda = reseau.getLambda();
+
+        TableNoms<Generateur> generateurs = reseau.getGenerateursMap();
+        idsGenerateurs = new int[generateurs.size()];
+        capacite = new double[generateurs.getNbIds()];
+        charge = new double[generateurs.getNbIds()];
+        int i = 0;
+        for (Generateur g : generateurs.values()) {
+            idsGenerateurs[i++] = g.getId();
+            capacite[g.getId()] = g.getCapaciteMaximale();
+        }
+
+        TableNoms<Maison> maisons = reseau.getMaisonsMap();
+        idsMaisons = new int[maisons.size()];
+        demande = new int[maisons.getNbIds()];
+        i = 0;
+        for (Maison m : maisons.values()) {
+            idsMaisons[i++] = m.getId();
+            demande[m.getId()] = m.getConsommation().getDemandeKw();
+        }
+
+        affectation = reseau.copierAffectation();
+        for (int id = 0; id < affectation.length; id++) {
+            if (affectation[id] >= 0) charge[affectation[id]] += demande[id];
+        }
+    }
+
+    /**
+     * Même formule que {@link Reseau#calculerCout()} : dispersion des taux + lambda * surcharge.
+     */
+    double cout() {
+        if (idsGenerateurs.length == 0) return 0.0;
+
+        double sommeTaux = 0.0;
+        for (int id : idsGenerateurs) sommeTaux += charge[id] / capacite[id];
+        double moyenneTaux = sommeTaux / idsGenerateurs.length;
+
+        double dispersion = 0.0;
+        for (int id : idsGenerateurs) dispersion += Math.abs(charge[id] / capacite[id] - moyenneTaux);
+
+        double surcharge = 0.0;
+        for (int id : idsGenerateurs) surcharge += Math.max(charge[id] / capacite[id] - 1, 0);
+
+        return dispersion + lambda * surcharge;
+    }
+
+    /**
+     * Coût qu'aurait l'affectation si la maison passait sur ce générateur, sans la modifier.
+     * Ici, le déplacement est fait puis défait (charges entières : retour exact).
+     *
+     * @param idMaison La maison à déplacer
+     * @param idGenerateur Son nouveau générateur, ou -1
+     * @return Le coût après le déplacement
+     */
+    double coutApres(int idMaison, int idGenerateur) {
+        int ancien = deplacer(idMaison, idGenerateur);
+        double c = cout();
+        deplacer(idMaison, ancien);
+        return c;
+    }
+
+    /**
+     * Connecte une maison à un générateur (ou la déconnecte avec -1), en mettant les charges à jour.
+     *
+     * @return L'identifiant de l'ancien générateur, ou -1
+     */
+    int deplacer(int idMaison, int idGenerateur) {
+        int ancien = affectation[idMaison];
+        if (ancien >= 0) charge[ancien] -= demande[idMaison];
+        if (idGenerateur >= 0) charge[idGenerateur] += demande[idMaison];
+        affectation[idMaison] = idGenerateur;
+        return ancien;
+    }
+
+    /** Déconnecte toutes les maisons. */
+    void vider() {
+        Arrays.fill(affectation, -1);
+        Arrays.fill(charge, 0.0);
+    }
+
+    int getIdGenerateur(int idMaison) { return affectation[idMaison]; }
+
+    double getTaux(int idGenerateur) { return charge[idGenerateur] / capacite[idGenerateur]; }
+
+    /** @return Les identifiants des générateurs, dans l'ordre de parcours de la table (ne pas modifier) */
+    int[] getIdsGenerateurs() { return idsGenerateurs; }
+
+    /** @return Les identifiants des maisons, dans l'ordre de parcours de la table (ne pas modifier) */
+    int[] getIdsMaisons() { return idsMaisons; }
+
+    /** @return Une copie de l'affectation de travail, indexée par identifiant de maison */
+    int[] copierAffectation() { return affectation.clone(); }
+
+    /**
+     * Recopie l'affectation de travail dans un tableau de même taille (sauvegarde sans allocation).
+     */
+    void copierDans(int[] destination) {
+        System.arraycopy(affectation, 0, destination, 0, affectation.length);
+    }
+
+    /** Écrit l'affectation de travail dans le réseau. */
+    void appliquer() {
+        reseau.appliquerAffectation(affectation);
+    }
+}
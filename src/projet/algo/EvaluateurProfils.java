@@ -0,0 +1,443 @@
+package projet.algo;
+
+import java.util.Arrays;
+
+import projet.reseau.Maison;
+import projet.reseau.Reseau;
+import projet.reseau.TableNoms;
+
+/**
+ * Copie de travail de l'affectation d'un réseau à demandes horaires (voir
+ * {@link Reseau#getNbPeriodes()}), pour le Recuit Simulé.
+ *
+ * Les charges et les taux sont rangés par générateur puis par période ([rang * T + t]) : les
+ * nouveaux taux des deux générateurs d'un déplacement se calculent sur les T périodes par des
+ * boucles contiguës, sans dépendance entre itérations, que le compilateur JIT vectorise.
+ *
+ * Le coût est la moyenne sur les périodes de c_t = Dispersion_t + Lambda * Surcharge_t, et les
+ * c_t sont gardés. Pour ne pas reparcourir tous les générateurs à chaque période, on garde pour
+ * chaque période les taux triés et leurs sommes cumulées : le nombre k et la somme S&lt; des taux
+ * inférieurs à un seuil s'obtiennent par dichotomie, et
+ * - Dispersion_t = moyenne * k - S&lt; + (S - S&lt;) - moyenne * (G - k), avec le seuil moyenne ;
+ * - Surcharge_t = (S - S&lt;) - (G - k), avec le seuil 1.
+ *
+ * Les tris ne sont pas modifiés à chaque déplacement accepté : les générateurs dont le taux a
+ * changé depuis le dernier tri sont notés, et chaque recherche est corrigée pour eux (ancien taux
+ * retiré, nouveau taux compté). Quand ils sont plus de sqrt(G), les tris sont refaits par fusion,
+ * en O(G) par période. Un déplacement proposé ({@link #coutApres(int, int)}) ne modifie rien :
+ * seules les périodes où la maison consomme sont recalculées, en O(log G + sqrt(G)) chacune au
+ * lieu de O(G).
+ *
+ * Avec peu de générateurs, le parcours direct est plus rapide : le coût est alors calculé comme
+ * {@link Reseau#calculerCout()} (mêmes opérations dans le même ordre).
+ *
+ * Les maisons sans profil demandent la demande de leur type à chaque période.
+ */
+class EvaluateurProfils extends EvaluateurAffectation {
+
+    // En dessous de ce nombre de générateurs, le coût est calculé par un parcours direct
+    private static final int SEUIL_TRI = 64;
+
+    private final double lambda;
+    private final int nbGen;
+    private final int nbPeriodes;
+    private final int[] rangParId; // rang du générateur (ordre de la table), par identifiant
+    private final double[] capacite; // par rang
+
+    // Demandes : profil de la maison (à partir de debutProfil[id]) ou demande du type (debutProfil[id] = -1)
+    private final int[] debutProfil;
+    private final int[] profils;
+    private final int[] demandeType;
+    private final long[] demandeTotale; // somme sur les périodes, par identifiant de maison
+
+    // Par rang et période : [rang * nbPeriodes + t]
+    private final double[] charge;
+    private final double[] taux;
+    private final double[] chargeTotale; // somme sur les périodes, par rang
+
+    // Taux triés de chaque période [t * nbGen + i] et leurs sommes cumulées [t * (nbGen + 1) + i]
+    private final boolean tri;
+    private boolean triAJour;
+    private final double[] valeursTriees;
+    private final double[] sommesCumulees;
+    private final double[] tauxTries; // taux au moment du tri, [rang * nbPeriodes + t]
+    private final double[] sommeTaux; // somme des taux actuels, par période
+
+    // Générateurs dont le taux a changé depuis le tri
+    private final int maxModifies;
+    private final int[] modifies;
+    private final boolean[] estModifie;
+    private int nbModifies;
+
+    // Coût de chaque période (tri à jour) et leur somme
+    private final double[] coutPeriode;
+    private double sommeCouts;
+
+    // Taux des deux générateurs d'un déplacement proposé, par période
+    private final double[] tauxRetrait;
+    private final double[] tauxAjout;
+
+    // Tampons de la fusion
+    private final double[] fusion;
+    private final double[] anciens;
+    private final double[] nouveaux;
+
+    /**
+     * @param reseau Le réseau, dont l'affectation actuelle est copiée
+     */
+    EvaluateurProfils(Reseau reseau) {
+        super(reseau);
+        this.lambda = reseau.getLambda();
+        this.nbPeriodes = reseau.getNbPeriodes();
+
+        int[] idsGenerateurs = getIdsGenerateurs();
+        nbGen = idsGenerateurs.length;
+        rangParId = new int[reseau.getGenerateursMap().getNbIds()];
+        capacite = new double[nbGen];
+        for (int r = 0; r < nbGen; r++) {
+            rangParId[idsGenerateurs[r]] = r;
+            capacite[r] = reseau.getGenerateursMap().parId(idsGenerateurs[r]).getCapaciteMaximale();
+        }
+
+        TableNoms<Maison> maisons = reseau.getMaisonsMap();
+        debutProfil = new int[maisons.getNbIds()];
+        demandeType = new int[maisons.getNbIds()];
+        demandeTotale = new long[maisons.getNbIds()];
+        int nbProfils = 0;
+        for (Maison m : maisons.values()) {
+            if (m.aUnProfil()) nbProfils++;
+        }
+        profils = new int[nbProfils * nbPeriodes];
+        int debut = 0;
+        for (Maison m : maisons.values()) {
+            int id = m.getId();
+            demandeType[id] = m.getConsommation().getDemandeKw();
+            if (m.aUnProfil()) {
+                debutProfil[id] = debut;
+                for (int t = 0; t < nbPeriodes; t++) {
+                    profils[debut + t] = m.getDemandeKw(t);
+                    demandeTotale[id] += profils[debut + t];
+                }
+                debut += nbPeriodes;
+            } else {
+                debutProfil[id] = -1;
+                demandeTotale[id] = (long) demandeType[id] * nbPeriodes;
+            }
+        }
+
+        charge = new double[nbGen * nbPeriodes];
+        taux = new double[nbGen * nbPeriodes];
+        chargeTotale = new double[nbGen];
+        for (int id : getIdsMaisons()) {
+            int idGen = getIdGenerateur(id);
+            if (idGen >= 0) ajouterCharge(id, rangParId[idGen], 1);
+        }
+
+        tri = nbGen >= SEUIL_TRI;
+        int g = tri ? nbGen : 0;
+        int p = tri ? nbPeriodes : 0;
+        valeursTriees = new double[p * g];
+        sommesCumulees = new double[p * (g + 1)];
+        tauxTries = new double[p * g];
+        sommeTaux = new double[p];
+        maxModifies = Math.max(8, (int) Math.sqrt(nbGen));
+        // Un déplacement note au plus deux générateurs avant la fusion
+        modifies = new int[tri ? maxModifies + 2 : 0];
+        estModifie = new boolean[g];
+        coutPeriode = new double[p];
+        tauxRetrait = new double[nbPeriodes];
+        tauxAjout = new double[nbPeriodes];
+        fusion = new double[g];
+        anciens = new double[modifies.length];
+        nouveaux = new double[modifies.length];
+    }
+
+    @Override
+    double cout() {
+        if (nbGen == 0) return 0.0;
+        if (!tri) return coutParParcours();
+        if (!triAJour) trier();
+        return sommeCouts / nbPeriodes;
+    }
+
+    @Override
+    double coutApres(int idMaison, int idGenerateur) {
+        if (!tri) return super.coutApres(idMaison, idGenerateur);
+        if (!triAJour) trier();
+        int ancien = getIdGenerateur(idMaison);
+        if (ancien == idGenerateur) return sommeCouts / nbPeriodes;
+        int rangA = (ancien >= 0) ? rangParId[ancien] : -1;
+        int rangB = (idGenerateur >= 0) ? rangParId[idGenerateur] : -1;
+
+        // Nouveaux taux sur toutes les périodes (boucles vectorisées)
+        if (rangA >= 0) tauxApres(idMaison, rangA, -1, tauxRetrait);
+        if (rangB >= 0) tauxApres(idMaison, rangB, 1, tauxAjout);
+
+        double variation = 0.0;
+        for (int t = 0; t < nbPeriodes; t++) {
+            if (!consomme(idMaison, t)) continue;
+            variation += coutPeriode(t, rangA, tauxRetrait[t], rangB, tauxAjout[t]) - coutPeriode[t];
+        }
+        return (sommeCouts + variation) / nbPeriodes;
+    }
+
+    /**
+     * Les deux générateurs sont notés comme modifiés et le coût des périodes où la maison
+     * consomme est recalculé ; les tris sont refaits quand trop de générateurs sont notés.
+     */
+    @Override
+    int deplacer(int idMaison, int idGenerateur) {
+        int ancien = super.deplacer(idMaison, idGenerateur);
+        if (ancien == idGenerateur) return ancien;
+        int rangA = (ancien >= 0) ? rangParId[ancien] : -1;
+        int rangB = (idGenerateur >= 0) ? rangParId[idGenerateur] : -1;
+
+        boolean suivreTri = tri && triAJour;
+        if (suivreTri) {
+            // Variation de la somme des taux de chaque période (mêmes opérations que ajouterCharge)
+            if (rangA >= 0) tauxApres(idMaison, rangA, -1, tauxRetrait);
+            if (rangB >= 0) tauxApres(idMaison, rangB, 1, tauxAjout);
+            for (int t = 0; t < nbPeriodes; t++) {
+                if (rangA >= 0) sommeTaux[t] += tauxRetrait[t] - taux[rangA * nbPeriodes + t];
+                if (rangB >= 0) sommeTaux[t] += tauxAjout[t] - taux[rangB * nbPeriodes + t];
+            }
+        }
+        if (rangA >= 0) ajouterCharge(idMaison, rangA, -1);
+        if (rangB >= 0) ajouterCharge(idMaison, rangB, 1);
+        if (!suivreTri) return ancien;
+
+        noterModifie(rangA);
+        noterModifie(rangB);
+        if (nbModifies > maxModifies) {
+            fusionner();
+        } else {
+            for (int t = 0; t < nbPeriodes; t++) {
+                if (consomme(idMaison, t)) coutPeriode[t] = coutPeriode(t, -1, 0.0, -1, 0.0);
+            }
+            sommerCouts();
+        }
+        return ancien;
+    }
+
+    @Override
+    void vider() {
+        super.vider();
+        Arrays.fill(charge, 0.0);
+        Arrays.fill(taux, 0.0);
+        Arrays.fill(chargeTotale, 0.0);
+        // L'initialisation gloutonne qui suit déplace toutes les maisons : tris refaits après
+        triAJour = false;
+    }
+
+    /**
+     * Taux moyen sur les périodes (sert à l'initialisation gloutonne).
+     */
+    @Override
+    double getTaux(int idGenerateur) {
+        int r = rangParId[idGenerateur];
+        return chargeTotale[r] / nbPeriodes / capacite[r];
+    }
+
+    /**
+     * Ajoute (signe 1) ou retire (signe -1) la demande d'une maison aux charges d'un générateur,
+     * sur toutes les périodes.
+     */
+    private void ajouterCharge(int idMaison, int rang, int signe) {
+        int base = rang * nbPeriodes;
+        int debut = debutProfil[idMaison];
+        double c = capacite[rang];
+        if (debut >= 0) {
+            for (int t = 0; t < nbPeriodes; t++) charge[base + t] += signe * profils[debut + t];
+        } else {
+            double d = signe * demandeType[idMaison];
+            for (int t = 0; t < nbPeriodes; t++) charge[base + t] += d;
+        }
+        for (int t = 0; t < nbPeriodes; t++) taux[base + t] = charge[base + t] / c;
+        chargeTotale[rang] += signe * demandeTotale[idMaison];
+    }
+
+    /**
+     * Taux qu'aurait un générateur après l'ajout (signe 1) ou le retrait (signe -1) d'une maison,
+     * mêmes opérations que ajouterCharge.
+     */
+    private void tauxApres(int idMaison, int rang, int signe, double[] resultat) {
+        int base = rang * nbPeriodes;
+        int debut = debutProfil[idMaison];
+        double c = capacite[rang];
+        if (debut >= 0) {
+            for (int t = 0; t < nbPeriodes; t++) resultat[t] = (charge[base + t] + signe * profils[debut + t]) / c;
+        } else {
+            double d = signe * demandeType[idMaison];
+            for (int t = 0; t < nbPeriodes; t++) resultat[t] = (charge[base + t] + d) / c;
+        }
+    }
+
+    /** @return true si la maison consomme pendant la période (sinon les taux n'y changent pas) */
+    private boolean consomme(int idMaison, int t) {
+        int debut = debutProfil[idMaison];
+        return debut < 0 || profils[debut + t] != 0;
+    }
+
+    private void noterModifie(int rang) {
+        if (rang < 0 || estModifie[rang]) return;
+        estModifie[rang] = true;
+        modifies[nbModifies++] = rang;
+    }
+
+    /**
+     * Coût d'une période d'après le tri, corrigé pour les générateurs modifiés depuis et,
+     * éventuellement, pour les deux générateurs d'un déplacement proposé.
+     *
+     * @param rangA Générateur dont le taux est remplacé par tauxA (-1 : aucun)
+     * @param rangB Générateur dont le taux est remplacé par tauxB (-1 : aucun)
+     */
+    private double coutPeriode(int t, int rangA, double tauxA, int rangB, double tauxB) {
+        double total = sommeTaux[t];
+        if (rangA >= 0) total += tauxA - taux[rangA * nbPeriodes + t];
+        if (rangB >= 0) total += tauxB - taux[rangB * nbPeriodes + t];
+        double moyenne = total / nbGen;
+
+        int debutCumul = t * (nbGen + 1);
+        int k = compterInferieurs(t, moyenne);
+        double s = sommesCumulees[debutCumul + k];
+        int k1 = compterInferieurs(t, 1.0);
+        double s1 = sommesCumulees[debutCumul + k1];
+
+        for (int i = 0; i < nbModifies; i++) {
+            int r = modifies[i];
+            if (r == rangA || r == rangB) continue;
+            int j = r * nbPeriodes + t;
+            double ancien = tauxTries[j];
+            double actuel = taux[j];
+            if (ancien == actuel) continue;
+            if (ancien < moyenne) { k--; s -= ancien; }
+            if (actuel < moyenne) { k++; s += actuel; }
+            if (ancien < 1.0) { k1--; s1 -= ancien; }
+            if (actuel < 1.0) { k1++; s1 += actuel; }
+        }
+        for (int c = 0; c < 2; c++) {
+            int r = (c == 0) ? rangA : rangB;
+            if (r < 0) continue;
+            double ancien = tauxTries[r * nbPeriodes + t];
+            double actuel = (c == 0) ? tauxA : tauxB;
+            if (ancien < moyenne) { k--; s -= ancien; }
+            if (actuel < moyenne) { k++; s += actuel; }
+            if (ancien < 1.0) { k1--; s1 -= ancien; }
+            if (actuel < 1.0) { k1++; s1 += actuel; }
+        }
+
+        double dispersion = moyenne * k - s + (total - s) - moyenne * (nbGen - k);
+        double surcharge = (total - s1) - (nbGen - k1);
+        return dispersion + lambda * surcharge;
+    }
+
+    /**
+     * @return Le nombre de taux triés de la période strictement inférieurs au seuil (dichotomie)
+     */
+    private int compterInferieurs(int t, double seuil) {
+        int debut = t * nbGen;
+        int bas = 0;
+        int haut = nbGen;
+        while (bas < haut) {
+            int milieu = (bas + haut) >>> 1;
+            if (valeursTriees[debut + milieu] < seuil) bas = milieu + 1;
+            else haut = milieu;
+        }
+        return bas;
+    }
+
+    /** Trie complètement les taux de chaque période (après l'initialisation). */
+    private void trier() {
+        for (int t = 0; t < nbPeriodes; t++) {
+            int debut = t * nbGen;
+            for (int r = 0; r < nbGen; r++) valeursTriees[debut + r] = taux[r * nbPeriodes + t];
+            Arrays.sort(valeursTriees, debut, debut + nbGen);
+        }
+        Arrays.fill(estModifie, false);
+        nbModifies = 0;
+        finirTri();
+    }
+
+    /**
+     * Remet les générateurs modifiés à leur place dans le tri de chaque période : fusion du tri
+     * privé de leurs anciens taux avec leurs nouveaux taux triés.
+     */
+    private void fusionner() {
+        for (int t = 0; t < nbPeriodes; t++) {
+            for (int i = 0; i < nbModifies; i++) {
+                int j = modifies[i] * nbPeriodes + t;
+                anciens[i] = tauxTries[j];
+                nouveaux[i] = taux[j];
+            }
+            Arrays.sort(anciens, 0, nbModifies);
+            Arrays.sort(nouveaux, 0, nbModifies);
+
+            int debut = t * nbGen;
+            int a = 0; // prochain ancien taux à retirer
+            int b = 0; // prochain nouveau taux à placer
+            int n = 0;
+            for (int i = 0; i < nbGen; i++) {
+                double v = valeursTriees[debut + i];
+                // Chaque ancien taux est dans le tri (même valeur) : on en retire une occurrence
+                if (a < nbModifies && v == anciens[a]) {
+                    a++;
+                    continue;
+                }
+                while (b < nbModifies && nouveaux[b] < v) fusion[n++] = nouveaux[b++];
+                fusion[n++] = v;
+            }
+            while (b < nbModifies) fusion[n++] = nouveaux[b++];
+            System.arraycopy(fusion, 0, valeursTriees, debut, nbGen);
+        }
+        for (int i = 0; i < nbModifies; i++) estModifie[modifies[i]] = false;
+        nbModifies = 0;
+        finirTri();
+    }
+
+    /** Sommes cumulées, taux de référence et coût de chaque période, d'après les tris. */
+    private void finirTri() {
+        for (int t = 0; t < nbPeriodes; t++) {
+            int debut = t * nbGen;
+            int debutCumul = t * (nbGen + 1);
+            double s = 0.0;
+            sommesCumulees[debutCumul] = 0.0;
+            for (int i = 0; i < nbGen; i++) {
+                s += valeursTriees[debut + i];
+                sommesCumulees[debutCumul + i + 1] = s;
+            }
+            // Somme exacte à chaque tri : les arrondis des mises à jour ne s'accumulent pas
+            sommeTaux[t] = s;
+        }
+        System.arraycopy(taux, 0, tauxTries, 0, taux.length);
+        triAJour = true;
+        for (int t = 0; t < nbPeriodes; t++) coutPeriode[t] = coutPeriode(t, -1, 0.0, -1, 0.0);
+        sommerCouts();
+    }
+
+    private void sommerCouts() {
+        double s = 0.0;
+        for (int t = 0; t < nbPeriodes; t++) s += coutPeriode[t];
+        sommeCouts = s;
+    }
+
+    /**
+     * Mêmes opérations que Reseau.calculerCoutParPeriode, générateurs dans l'ordre de la table.
+     */
+    private double coutParParcours() {
+        double cout = 0.0;
+        for (int t = 0; t < nbPeriodes; t++) {
+            double sommeTaux = 0.0;
+            for (int r = 0; r < nbGen; r++) sommeTaux += taux[r * nbPeriodes + t];
+            double moyenneTaux = sommeTaux / nbGen;
+
+            double dispersion = 0.0;
+            for (int r = 0; r < nbGen; r++) dispersion += Math.abs(taux[r * nbPeriodes + t] - moyenneTaux);
+
+            double surcharge = 0.0;
+            for (int r = 0; r < nbGen; r++) surcharge += Math.max(taux[r * nbPeriodes + t] - 1, 0);
+
+            cout += dispersion + lambda * surcharge;
+        }
+        return cout / nbPeriodes;
+    }
+}
@@ -0,0 +1,73 @@
+package projet.algo;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Événements JDK Flight Recorder émis par le solveur, visibles dans JDK Mission Control
+ * (catégorie « Réseau électrique / Solveur »).
+ *
+ * Le premier chargement d'une classe d'événement initialise toute la machinerie JFR
+ * (plusieurs centaines de millisecondes) : le solveur n'y touche donc que si un enregistrement
+ * est en cours (état RUNNING), vérifié au début de chaque résolution.
+ * Exemple : java -XX:StartFlightRecording=filename=solveur.jfr -cp bin ...
+ */
+final class EvenementsSolveur {
+
+    private EvenementsSolveur() {}
+
+    @Name("projet.solveur.Debut")
+    @Label("Début de résolution")
+    @Category({"Réseau électrique", "Solveur"})
+    static final class Debut extends Event {
+        @Label("Maisons")
+        int nbMaisons;
+        @Label("Générateurs")
+        int nbGenerateurs;
+        @Label("Lambda")
+        double lambda;
+        @Label("Itérations prévues")
+        int nbIterations;
+        @Label("Reprise")
+        @Description("true si on repart de la solution actuelle (warm start)")
+        boolean reprise;
+    }
+
+    @Name("projet.solveur.Fin")
+    @Label("Fin de résolution")
+    @Category({"Réseau électrique", "Solveur"})
+    static final class Fin extends Event {
+        @Label("Itérations")
+        long nbIterations;
+        @Label("Acceptés")
+        long nbAcceptes;
+        @Label("Rejetés")
+        long nbRejets;
+        @Label("Meilleur coût")
+        double meilleurCout;
+    }
+
+    @Name("projet.solveur.Amelioration")
+    @Label("Nouveau meilleur coût")
+    @Category({"Réseau électrique", "Solveur"})
+    static final class Amelioration extends Event {
+        @Label("Itération")
+        long iteration;
+        @Label("Coût")
+        double cout;
+        @Label("Température")
+        double temperature;
+    }
+
+    @Name("projet.solveur.Phase")
+    @Label("Phase du solveur")
+    @Category({"Réseau électrique", "Solveur"})
+    @Description("Durée de chaque phase : initialisation, recuit, restauration")
+    static final class Phase extends Event {
+        @Label("Phase")
+        String nom;
+    }
+}
@@ -0,0 +1,196 @@
+package projet.algo;
+
+import java.util.Arrays;
+
+import projet.reseau.Generateur;
+import projet.reseau.Maison;
+import projet.reseau.Reseau;
+import projet.reseau.TableNoms;
+
+/**
+ * Générateurs candidats de chaque maison quand le réseau a une distance maximale : ceux qui sont
+ * à sa portée ({@link Reseau#estAPortee}), plus les générateurs sans position.
+ *
+ * Les générateurs placés sont rangés dans une grille dont les cases font au moins la distance
+ * maximale : les générateurs à portée d'une maison sont dans sa case ou dans les 8 voisines.
+ * La taille des cases est aussi bornée par l'étendue / racine du nombre de générateurs, pour que
+ * la grille n'ait pas plus de cases que de générateurs quand la distance est petite.
+ *
+ * Une maison sans position, ou à portée de tous les générateurs, n'a pas de liste : ses candidats
+ * sont ceux de la table dans l'ordre de parcours. Sinon, ses candidats sont rangés case par case,
+ * puis les générateurs sans position (listes concaténées, indexées par identifiant de maison).
+ */
+class ListesCandidats {
+
+    private final int[] idsGenerateurs;
+    private final boolean[] libre; // maison sans liste : tous les générateurs
+    private final int[] debut;
+    private final int[] candidats;
+    private final double nbMoyen;
+
+    private ListesCandidats(int[] idsGenerateurs, boolean[] libre, int[] debut, int[] candidats, double nbMoyen) {
+        this.idsGenerateurs = idsGenerateurs;
+        this.libre = libre;
+        this.debut = debut;
+        this.candidats = candidats;
+        this.nbMoyen = nbMoyen;
+    }
+
+    /**
+     * Construit les listes des maisons placées.
+     *
+     * @param reseau Le réseau
+     * @return Les listes, ou null si aucune connexion n'est exclue (pas de position ou pas de distance maximale)
+     */
+    static ListesCandidats construire(Reseau reseau) {
+        double distance = reseau.getDistanceMax();
+        if (!reseau.aDesPositions() || distance == Double.POSITIVE_INFINITY) return null;
+
+        TableNoms<Generateur> tableGenerateurs = reseau.getGenerateursMap();
+        int nbGenerateurs = tableGenerateurs.size();
+        int[] ids = new int[nbGenerateurs];
+        double[] xs = new double[nbGenerateurs];
+        double[] ys = new double[nbGenerateurs];
+        int nbPlaces = 0;
+        int nbNonPlaces = 0;
+        int[] nonPlaces = new int[nbGenerateurs]; // rangs des générateurs sans position
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        int rang = 0;
+        for (Generateur g : tableGenerateurs.values()) {
+            ids[rang] = g.getId();
+            if (g.aUnePosition()) {
+                xs[rang] = g.getX();
+                ys[rang] = g.getY();
+                minX = Math.min(minX, g.getX());
+                maxX = Math.max(maxX, g.getX());
+                minY = Math.min(minY, g.getY());
+                maxY = Math.max(maxY, g.getY());
+                nbPlaces++;
+            } else {
+                nonPlaces[nbNonPlaces++] = rang;
+            }
+            rang++;
+        }
+
+        // Grille des générateurs placés (listes concaténées par case, rangs croissants)
+        int nx = 1, ny = 1;
+        double cote = distance;
+        if (nbPlaces > 0) {
+            double etendue = Math.max(maxX - minX, maxY - minY);
+            cote = Math.max(distance, etendue / Math.ceil(Math.sqrt(nbPlaces)));
+            nx = (int) ((maxX - minX) / cote) + 1;
+            ny = (int) ((maxY - minY) / cote) + 1;
+        }
+        int[] debutCase = new int[nx * ny + 1];
+        int[] caseDe = new int[nbGenerateurs];
+        for (int r = 0; r < nbGenerateurs; r++) {
+            if (!tableGenerateurs.parId(ids[r]).aUnePosition()) { caseDe[r] = -1; continue; }
+            int cx = Math.min(nx - 1, (int) ((xs[r] - minX) / cote));
+            int cy = Math.min(ny - 1, (int) ((ys[r] - minY) / cote));
+            caseDe[r] = cx * ny + cy;
+            debutCase[caseDe[r] + 1]++;
+        }
+        for (int c = 0; c < nx * ny; c++) debutCase[c + 1] += debutCase[c];
+        int[] contenu = new int[nbPlaces];
+        int[] remplissage = Arrays.copyOf(debutCase, nx * ny);
+        for (int r = 0; r < nbGenerateurs; r++) {
+            if (caseDe[r] >= 0) contenu[remplissage[caseDe[r]]++] = r;
+        }
+
+        TableNoms<Maison> tableMaisons = reseau.getMaisonsMap();
+        int nbIds = tableMaisons.getNbIds();
+        boolean[] libre = new boolean[nbIds];
+        int[] debut = new int[nbIds + 1];
+        int[] candidats = new int[Math.max(16, nbIds)];
+        int taille = 0;
+        long total = 0;
+        int[] rangs = new int[nbGenerateurs];
+        double d2 = distance * distance;
+        for (int id = 0; id < nbIds; id++) {
+            debut[id] = taille;
+            Maison m = tableMaisons.parId(id);
+            if (m == null) continue;
+            if (!m.aUnePosition() || atteintTout(m, nbPlaces, minX, minY, maxX, maxY, d2)) {
+                libre[id] = true;
+                total += nbGenerateurs;
+                continue;
+            }
+            int n = 0;
+            if (nbPlaces > 0) {
+                // Case de la maison (éventuellement hors de la grille), puis ses 8 voisines
+                double x = m.getX();
+                double y = m.getY();
+                long cx = (long) Math.floor((x - minX) / cote);
+                long cy = (long) Math.floor((y - minY) / cote);
+                for (long i = Math.max(0, cx - 1); i <= Math.min(nx - 1, cx + 1); i++) {
+                    for (long j = Math.max(0, cy - 1); j <= Math.min(ny - 1, cy + 1); j++) {
+                        int c = (int) (i * ny + j);
+                        for (int k = debutCase[c]; k < debutCase[c + 1]; k++) {
+                            int r = contenu[k];
+                            // Même calcul que Reseau.estAPortee
+                            double dx = x - xs[r];
+                            double dy = y - ys[r];
+                            if (dx * dx + dy * dy <= d2) rangs[n++] = r;
+                        }
+                    }
+                }
+            }
+            System.arraycopy(nonPlaces, 0, rangs, n, nbNonPlaces);
+            n += nbNonPlaces;
+            if (taille + n > candidats.length) {
+                candidats = Arrays.copyOf(candidats, Math.max(2 * candidats.length, taille + n));
+            }
+            for (int k = 0; k < n; k++) candidats[taille++] = ids[rangs[k]];
+            total += n;
+        }
+        debut[nbIds] = taille;
+
+        int nbMaisons = tableMaisons.size();
+        double nbMoyen = (nbMaisons > 0) ? (double) total / nbMaisons : 0.0;
+        return new ListesCandidats(ids, libre, debut, Arrays.copyOf(candidats, taille), nbMoyen);
+    }
+
+    /**
+     * @return true si tout le rectangle des générateurs placés est à portée de la maison (coin le plus éloigné)
+     */
+    private static boolean atteintTout(Maison m, int nbPlaces, double minX, double minY, double maxX, double maxY, double d2) {
+        if (nbPlaces == 0) return true;
+        double dx = Math.max(m.getX() - minX, maxX - m.getX());
+        double dy = Math.max(m.getY() - minY, maxY - m.getY());
+        return dx * dx + dy * dy <= d2;
+    }
+
+    /**
+     * @param idMaison L'identifiant de la maison
+     * @return Le nombre de générateurs où elle peut aller
+     */
+    int getNbCandidats(int idMaison) {
+        return libre[idMaison] ? idsGenerateurs.length : debut[idMaison + 1] - debut[idMaison];
+    }
+
+    /**
+     * @param idMaison L'identifiant de la maison
+     * @param k Le rang du candidat (0 &lt;= k &lt; getNbCandidats)
+     * @return L'identifiant du k-ième générateur candidat
+     */
+    int getCandidat(int idMaison, int k) {
+        return libre[idMaison] ? idsGenerateurs[k] : candidats[debut[idMaison] + k];
+    }
+
+    /**
+     * @return true si le générateur est un candidat de la maison
+     */
+    boolean estCandidat(int idMaison, int idGenerateur) {
+        if (libre[idMaison]) return true;
+        for (int k = debut[idMaison]; k < debut[idMaison + 1]; k++) {
+            if (candidats[k] == idGenerateur) return true;
+        }
+        return false;
+    }
+
+    /** @return Le nombre moyen de candidats par maison */
+    double getNbMoyen() {
+        return nbMoyen;
+    }
+}
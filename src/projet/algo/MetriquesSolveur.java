@@ -0,0 +1,113 @@
+package projet.algo;
+
+import java.util.Arrays;
+
+/**
+ * Instantané (immuable) des mesures d'une exécution du solveur.
+ *
+ * Les compteurs sont toujours collectés. La répartition du temps entre proposition,
+ * évaluation et gestion n'est mesurée que si l'instrumentation détaillée est activée
+ * (sinon ces durées valent 0), car elle coûte trois appels à System.nanoTime() par itération.
+ */
+public final class MetriquesSolveur {
+
+    private final long nbIterations;
+    private final long nbAcceptes;
+    private final long nbAmeliorations;
+    private final long nbRejets;
+    private final long nanosProposition;
+    private final long nanosEvaluation;
+    private final long nanosGestion;
+    private final long dureeTotaleNanos;
+    private final double[] meilleursCouts;
+    private final long[] instantsMeilleursCouts;
+
+    MetriquesSolveur(long nbIterations, long nbAcceptes, long nbAmeliorations, long nbRejets,
+                     long nanosProposition, long nanosEvaluation, long nanosGestion, long dureeTotaleNanos,
+                     double[] meilleursCouts, long[] instantsMeilleursCouts) {
+        this.nbIterations = nbIterations;
+        this.nbAcceptes = nbAcceptes;
+        this.nbAmeliorations = nbAmeliorations;
+        this.nbRejets = nbRejets;
+        this.nanosProposition = nanosProposition;
+        this.nanosEvaluation = nanosEvaluation;
+        this.nanosGestion = nanosGestion;
+        this.dureeTotaleNanos = dureeTotaleNanos;
+        this.meilleursCouts = meilleursCouts;
+        this.instantsMeilleursCouts = instantsMeilleursCouts;
+    }
+
+    /** @return Le nombre d'itérations effectuées */
+    public long getNbIterations() { return nbIterations; }
+
+    /** @return Le nombre de mouvements acceptés (améliorations comprises) */
+    public long getNbAcceptes() { return nbAcceptes; }
+
+    /** @return Le nombre de mouvements ayant fait baisser le coût courant */
+    public long getNbAmeliorations() { return nbAmeliorations; }
+
+    /** @return Le nombre de mouvements refusés (annulés) */
+    public long getNbRejets() { return nbRejets; }
+
+    /** @return Le temps passé à choisir les mouvements (ns, 0 sans instrumentation détaillée) */
+    public long getNanosProposition() { return nanosProposition; }
+
+    /** @return Le temps passé à évaluer le coût (ns, 0 sans instrumentation détaillée) */
+    public long getNanosEvaluation() { return nanosEvaluation; }
+
+    /** @return Le temps passé en décision, annulation et sauvegarde (ns, 0 sans instrumentation détaillée) */
+    public long getNanosGestion() { return nanosGestion; }
+
+    /** @return La durée totale de la résolution, initialisation comprise (ns) */
+    public long getDureeTotaleNanos() { return dureeTotaleNanos; }
+
+    /** @return Le nombre d'itérations par seconde sur l'ensemble de la résolution */
+    public double getIterationsParSeconde() {
+        return (dureeTotaleNanos == 0) ? 0.0 : nbIterations * 1e9 / dureeTotaleNanos;
+    }
+
+    /** @return Les meilleurs coûts successifs (le premier est le coût de départ) */
+    public double[] getMeilleursCouts() { return meilleursCouts.clone(); }
+
+    /** @return L'instant de chaque meilleur coût, en ns depuis le début de la résolution */
+    public long[] getInstantsMeilleursCouts() { return instantsMeilleursCouts.clone(); }
+
+    /** @return Le meilleur coût final (NaN si aucune résolution) */
+    public double getMeilleurCout() {
+        return (meilleursCouts.length == 0) ? Double.NaN : meilleursCouts[meilleursCouts.length - 1];
+    }
+
+    @Override
+    public String toString() {
+        String resume = String.format("%d itérations (%.0f it/s) | acceptés : %d | améliorations : %d | rejetés : %d | durée : %.1f ms",
+                nbIterations, getIterationsParSeconde(), nbAcceptes, nbAmeliorations, nbRejets, dureeTotaleNanos / 1e6);
+        if (nanosProposition + nanosEvaluation + nanosGestion > 0) {
+            resume += String.format(" | proposition %.1f ms, évaluation %.1f ms, gestion %.1f ms",
+                    nanosProposition / 1e6, nanosEvaluation / 1e6, nanosGestion / 1e6);
+        }
+        return resume;
+    }
+
+    /**
+     * Historique des meilleurs coûts, alimenté pendant la résolution (tableaux primitifs agrandis au besoin).
+     */
+    static final class Historique {
+        private double[] couts = new double[64];
+        private long[] instants = new long[64];
+        private int taille;
+
+        void ajouter(double cout, long instantNanos) {
+            if (taille == couts.length) {
+                couts = Arrays.copyOf(couts, taille * 2);
+                instants = Arrays.copyOf(instants, taille * 2);
+            }
+            couts[taille] = cout;
+            instants[taille] = instantNanos;
+            taille++;
+        }
+
+        double[] couts() { return Arrays.copyOf(couts, taille); }
+
+        long[] instants() { return Arrays.copyOf(instants, taille); }
+    }
+}
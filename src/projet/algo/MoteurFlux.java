@@ -0,0 +1,195 @@
+package projet.algo;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+
+import projet.exception.ReseauException;
+import projet.io.EvenementReseau;
+import projet.io.GestionFichier;
+import projet.io.LecteurEvenements;
+import projet.reseau.Reseau;
+
+/**
+ * Moteur de ré-optimisation continue : garde un réseau résident en mémoire, lui applique
+ * un flux d'événements (ajout/suppression de maison, changement de type ou de capacité)
+ * et maintient l'affectation proche de l'optimum grâce à la recherche locale incrémentale.
+ *
+ * Avec des demandes horaires, le coût suivi est celui de {@link Reseau#calculerCout()} (moyenne sur
+ * les périodes) ; un événement "maison" sans profil ne change que le type d'une maison existante.
+ *
+ * Pour chaque événement, on mesure la latence (application + ré-optimisation) et le coût obtenu.
+ * Un instantané de la solution peut être écrit périodiquement au format de GestionFichier.
+ */
+public class MoteurFlux {
+
+    private Reseau reseau;
+    private ReoptimiseurLocal reoptimiseur;
+
+    // Mesures (tableaux primitifs agrandis au besoin)
+    private long[] latences = new long[1024];
+    private double[] couts = new double[1024];
+    private int nbEvenements;
+    private int nbRejets;
+
+    private int periodeInstantane;
+    private String cheminInstantane;
+
+    /**
+     * Prépare le moteur sur un réseau déjà chargé (et idéalement déjà optimisé).
+     *
+     * @param reseau Le réseau résident
+     */
+    public MoteurFlux(Reseau reseau) {
+        this.reseau = reseau;
+        this.reoptimiseur = new ReoptimiseurLocal(reseau);
+    }
+
+    /**
+     * Active l'écriture périodique d'un instantané de la solution.
+     *
+     * @param periode Le nombre d'événements entre deux instantanés (0 pour désactiver)
+     * @param chemin Le fichier de destination (réécrit à chaque instantané)
+     */
+    public void setInstantanes(int periode, String chemin) {
+        this.periodeInstantane = periode;
+        this.cheminInstantane = chemin;
+    }
+
+    /**
+     * Consomme tout le flux. Les lignes mal formées ou refusées sont signalées puis ignorées :
+     * le moteur ne s'arrête pas sur une erreur ponctuelle.
+     *
+     * @param lecteur La source des événements
+     * @throws IOException En cas d'erreur de lecture du flux ou d'écriture d'un instantané
+     */
+    public void traiter(LecteurEvenements lecteur) throws IOException {
+        while (true) {
+            EvenementReseau evenement;
+            try {
+                evenement = lecteur.suivant();
+            } catch (ReseauException e) {
+                nbRejets++;
+                System.err.println("Evénement ignoré : " + e.getMessage());
+                continue;
+            }
+            if (evenement == null) break;
+            appliquer(evenement);
+        }
+    }
+
+    /**
+     * Applique un événement au réseau résident puis ré-optimise localement.
+     *
+     * @param evenement L'événement à appliquer
+     * @return true si l'événement a été appliqué, false s'il a été refusé
+     * @throws IOException En cas d'erreur d'écriture d'un instantané
+     */
+    public boolean appliquer(EvenementReseau evenement) throws IOException {
+        long debut = System.nanoTime();
+        try {
+            switch (evenement.getNature()) {
+                case GENERATEUR:
+                    if (evenement.getPosition() != null) {
+                        throw new ReseauException.Logique("position non prise en charge par le flux.");
+                    }
+                    reoptimiseur.ajouterOuMajGenerateur(evenement.getNom(), evenement.getCapacite());
+                    break;
+                case MAISON:
+                    if (evenement.getPosition() != null) {
+                        throw new ReseauException.Logique("position non prise en charge par le flux.");
+                    }
+                    if (evenement.getProfil() != null) {
+                        reoptimiseur.ajouterOuMajMaison(evenement.getNom(), evenement.getConsommation(), evenement.getProfil());
+                    } else {
+                        // Simple changement de type : une maison existante garde sa demande horaire
+                        reoptimiseur.ajouterOuMajMaison(evenement.getNom(), evenement.getConsommation());
+                    }
+                    break;
+                case CONNEXION:
+                    reoptimiseur.ajouterConnexion(evenement.getNom(), evenement.getNom2());
+                    break;
+                case SUPPRESSION_MAISON:
+                    reoptimiseur.supprimerMaison(evenement.getNom());
+                    break;
+                default:
+                    // Retrait de générateur et déconnexion : non gérés par la ré-optimisation locale
+                    throw new ReseauException.Logique("événement " + evenement.getNature() + " non pris en charge par le flux.");
+            }
+        } catch (ReseauException e) {
+            nbRejets++;
+            System.err.println("Evénement ligne " + evenement.getNumLigne() + " refusé : " + e.getMessage());
+            return false;
+        }
+        long latence = System.nanoTime() - debut;
+
+        double cout;
+        try {
+            cout = reoptimiseur.getCout();
+        } catch (ReseauException e) {
+            cout = Double.NaN;
+        }
+        enregistrer(latence, cout);
+
+        if (periodeInstantane > 0 && nbEvenements % periodeInstantane == 0) {
+            GestionFichier.ecrireFichier(reseau, cheminInstantane);
+        }
+        return true;
+    }
+
+    /**
+     * Renvoie un percentile des latences mesurées.
+     *
+     * @param p Le percentile voulu, entre 0 et 100 (ex: 50, 99)
+     * @return La latence correspondante en nanosecondes (0 si aucun événement)
+     */
+    public long percentileLatenceNanos(double p) {
+        if (nbEvenements == 0) return 0;
+        long[] tries = Arrays.copyOf(latences, nbEvenements);
+        Arrays.sort(tries);
+        int rang = (int) Math.ceil(p / 100.0 * nbEvenements) - 1;
+        return tries[Math.max(0, Math.min(rang, nbEvenements - 1))];
+    }
+
+    /**
+     * Exporte la trajectoire (numéro d'événement, latence, coût) au format CSV.
+     *
+     * @param chemin Le fichier CSV de destination
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public void ecrireTrajectoire(String chemin) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(chemin))) {
+            writer.write("evenement,latence_ns,cout");
+            writer.newLine();
+            for (int i = 0; i < nbEvenements; i++) {
+                writer.write((i + 1) + "," + latences[i] + "," + couts[i]);
+                writer.newLine();
+            }
+        }
+    }
+
+    /** @return Le nombre d'événements appliqués */
+    public int getNbEvenements() { return nbEvenements; }
+
+    /** @return Le nombre d'événements mal formés ou refusés */
+    public int getNbRejets() { return nbRejets; }
+
+    /** @return Le coût après le dernier événement appliqué (NaN si aucun) */
+    public double getDernierCout() {
+        return (nbEvenements == 0) ? Double.NaN : couts[nbEvenements - 1];
+    }
+
+    /** @return Le réseau résident */
+    public Reseau getReseau() { return reseau; }
+
+    private void enregistrer(long latence, double cout) {
+        if (nbEvenements == latences.length) {
+            latences = Arrays.copyOf(latences, nbEvenements * 2);
+            couts = Arrays.copyOf(couts, nbEvenements * 2);
+        }
+        latences[nbEvenements] = latence;
+        couts[nbEvenements] = cout;
+        nbEvenements++;
+    }
+}
@@ -0,0 +1,150 @@
+package projet.algo;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Properties;
+
+import projet.exception.ReseauException;
+
+/**
+ * Regroupe les hyper-paramètres du Recuit Simulé (température, refroidissement, itérations).
+ * Les valeurs par défaut sont celles choisies à la main pour les instances du sujet ;
+ * un jeu de paramètres réglé automatiquement peut être chargé depuis un fichier .properties.
+ */
+public class ParametresRecuit {
+
+    /** Fichier lu (s'il existe dans le dossier courant) par {@link #parDefaut()}. */
+    public static final String FICHIER_DEFAUT = "parametres_recuit.properties";
+
+    private static final String CLE_TEMPERATURE = "temperatureInitiale";
+    private static final String CLE_REFROIDISSEMENT = "refroidissement";
+    private static final String CLE_ITERATIONS = "nbIterations";
+    private static final String CLE_TEMPERATURE_MIN = "temperatureMinimale";
+
+    private final double temperatureInitiale;
+    private final double refroidissement;
+    private final int nbIterations;
+    private final double temperatureMinimale;
+
+    /**
+     * Construit un jeu de paramètres.
+     *
+     * @param temperatureInitiale La température de départ (strictement positive)
+     * @param refroidissement Le facteur multiplicatif appliqué à chaque itération (entre 0 et 1 exclus)
+     * @param nbIterations Le nombre maximal d'itérations (strictement positif)
+     * @param temperatureMinimale La température en dessous de laquelle on s'arrête
+     * @throws IllegalArgumentException Si une valeur est hors de son domaine
+     */
+    public ParametresRecuit(double temperatureInitiale, double refroidissement, int nbIterations, double temperatureMinimale) {
+        if (temperatureInitiale <= 0) {
+            throw new IllegalArgumentException("La température initiale doit être strictement positive.");
+        }
+        if (refroidissement <= 0 || refroidissement >= 1) {
+            throw new IllegalArgumentException("Le refroidissement doit être compris entre 0 et 1 (exclus).");
+        }
+        if (nbIterations <= 0) {
+            throw new IllegalArgumentException("Le nombre d'itérations doit être strictement positif.");
+        }
+        this.temperatureInitiale = temperatureInitiale;
+        this.refroidissement = refroidissement;
+        this.nbIterations = nbIterations;
+        this.temperatureMinimale = temperatureMinimale;
+    }
+
+    /**
+     * Les constantes historiques du projet (température 100, refroidissement 0.9997, 50 000 itérations).
+     *
+     * @return Le jeu de paramètres codé en dur
+     */
+    public static ParametresRecuit historiques() {
+        return new ParametresRecuit(100.0, 0.9997, 50000, 0.0001);
+    }
+
+    /**
+     * Renvoie les paramètres à utiliser par défaut : ceux du fichier {@link #FICHIER_DEFAUT}
+     * s'il existe et est lisible, sinon les constantes historiques.
+     * Appelé une fois par les outils en ligne de commande et l'interface graphique, qui transmettent
+     * ensuite les paramètres aux solveurs : ceux-ci ne lisent aucun fichier.
+     *
+     * @return Le jeu de paramètres par défaut
+     */
+    public static ParametresRecuit parDefaut() {
+        if (new File(FICHIER_DEFAUT).isFile()) {
+            try {
+                return charger(FICHIER_DEFAUT);
+            } catch (IOException | ReseauException e) {
+                System.err.println("Paramètres du recuit ignorés (" + e.getMessage() + "), valeurs historiques utilisées.");
+            }
+        }
+        return historiques();
+    }
+
+    /**
+     * Charge un jeu de paramètres depuis un fichier .properties.
+     * Les clés absentes gardent leur valeur historique.
+     *
+     * @param chemin Le chemin du fichier
+     * @return Les paramètres lus
+     * @throws IOException En cas d'erreur de lecture
+     * @throws ReseauException Si une valeur est invalide
+     */
+    public static ParametresRecuit charger(String chemin) throws IOException, ReseauException {
+        Properties props = new Properties();
+        try (Reader reader = new FileReader(chemin)) {
+            props.load(reader);
+        }
+
+        ParametresRecuit h = historiques();
+        try {
+            return new ParametresRecuit(
+                Double.parseDouble(props.getProperty(CLE_TEMPERATURE, String.valueOf(h.temperatureInitiale))),
+                Double.parseDouble(props.getProperty(CLE_REFROIDISSEMENT, String.valueOf(h.refroidissement))),
+                Integer.parseInt(props.getProperty(CLE_ITERATIONS, String.valueOf(h.nbIterations))),
+                Double.parseDouble(props.getProperty(CLE_TEMPERATURE_MIN, String.valueOf(h.temperatureMinimale))));
+        } catch (NumberFormatException e) {
+            throw new ReseauException.DonneeInvalide("Valeur non numérique dans " + chemin + " : " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            throw new ReseauException("Paramètres invalides dans " + chemin + " : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sauvegarde ce jeu de paramètres dans un fichier .properties.
+     *
+     * @param chemin Le chemin du fichier de destination
+     * @param commentaire Un commentaire placé en tête du fichier (peut être null)
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public void sauvegarder(String chemin, String commentaire) throws IOException {
+        Properties props = new Properties();
+        props.setProperty(CLE_TEMPERATURE, String.valueOf(temperatureInitiale));
+        props.setProperty(CLE_REFROIDISSEMENT, String.valueOf(refroidissement));
+        props.setProperty(CLE_ITERATIONS, String.valueOf(nbIterations));
+        props.setProperty(CLE_TEMPERATURE_MIN, String.valueOf(temperatureMinimale));
+        try (Writer writer = new FileWriter(chemin)) {
+            props.store(writer, commentaire);
+        }
+    }
+
+    /** @return La température de départ */
+    public double getTemperatureInitiale() { return temperatureInitiale; }
+
+    /** @return Le facteur de refroidissement */
+    public double getRefroidissement() { return refroidissement; }
+
+    /** @return Le nombre maximal d'itérations */
+    public int getNbIterations() { return nbIterations; }
+
+    /** @return La température d'arrêt */
+    public double getTemperatureMinimale() { return temperatureMinimale; }
+
+    @Override
+    public String toString() {
+        return String.format("T0=%.4g, refroidissement=%.6f, iterations=%d, Tmin=%.2g",
+                temperatureInitiale, refroidissement, nbIterations, temperatureMinimale);
+    }
+}
@@ -0,0 +1,249 @@
+package projet.algo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import projet.exception.ReseauException;
+import projet.reseau.Reseau;
+
+/**
+ * Réglage automatique des hyper-paramètres du recuit par "course" (F-Race).
+ *
+ * Principe : on fait tourner tous les candidats encore en course sur le même bloc
+ * (une instance + une graine commune), en parallèle et avec le même budget de temps.
+ * Après quelques blocs, un test de Friedman sur les rangs obtenus élimine les candidats
+ * significativement moins bons que le meilleur. On continue jusqu'à ce qu'il ne reste
+ * qu'un candidat ou que le nombre maximal de blocs soit atteint.
+ */
+public class ReglageParCourse {
+
+    // Nombre de blocs évalués avant d'autoriser la première élimination
+    private static final int NB_BLOCS_AVANT_TEST = 5;
+
+    // Quantiles pour un risque de 5% (khi-deux par Wilson-Hilferty, loi normale pour le post-hoc)
+    private static final double Z_UNILATERAL_95 = 1.6448536;
+    private static final double Z_BILATERAL_95 = 1.9599640;
+
+    private List<Reseau> instances;
+    private long budgetParExecutionMs;
+    private int nbThreads;
+    private int nbBlocsMax;
+    private Random random;
+
+    /**
+     * Prépare une course sur un ensemble d'instances.
+     *
+     * @param instances Les réseaux de référence (ils ne sont jamais modifiés)
+     * @param budgetParExecutionMs Le temps alloué à chaque exécution du recuit
+     * @param nbThreads Le nombre de candidats exécutés simultanément
+     * @param nbBlocsMax Le nombre maximal de blocs (instance, graine) évalués
+     * @param graine La graine qui fixe la suite des blocs et l'échantillonnage des candidats
+     */
+    public ReglageParCourse(List<Reseau> instances, long budgetParExecutionMs, int nbThreads, int nbBlocsMax, long graine) {
+        this.instances = instances;
+        this.budgetParExecutionMs = budgetParExecutionMs;
+        this.nbThreads = Math.max(1, nbThreads);
+        this.nbBlocsMax = nbBlocsMax;
+        this.random = new Random(graine);
+    }
+
+    /**
+     * Tire des candidats au hasard (échelle logarithmique) autour des valeurs historiques.
+     * Le jeu historique fait toujours partie des candidats, il sert de référence.
+     *
+     * @param nbCandidats Le nombre total de candidats souhaité
+     * @return La liste des candidats
+     */
+    public List<ParametresRecuit> echantillonnerCandidats(int nbCandidats) {
+        List<ParametresRecuit> candidats = new ArrayList<>();
+        candidats.add(ParametresRecuit.historiques());
+
+        while (candidats.size() < nbCandidats) {
+            double temperature = Math.pow(10, -1 + 4 * random.nextDouble());           // 0.1 .. 1000
+            double refroidissement = 1 - Math.pow(10, -5 + 3 * random.nextDouble());   // 0.99999 .. 0.99
+            int iterations = (int) Math.pow(10, 4 + 1.5 * random.nextDouble());        // 10 000 .. ~316 000
+            candidats.add(new ParametresRecuit(temperature, refroidissement, iterations, 0.0001));
+        }
+        return candidats;
+    }
+
+    /**
+     * Lance la course et renvoie le meilleur candidat.
+     *
+     * @param candidats Les jeux de paramètres en compétition
+     * @return Le candidat ayant le meilleur rang moyen parmi les survivants
+     * @throws ReseauException Si aucune instance n'est fournie ou si la course est interrompue
+     */
+    public ParametresRecuit courir(List<ParametresRecuit> candidats) throws ReseauException {
+        if (instances.isEmpty()) {
+            throw new ReseauException.Logique("Aucune instance pour le réglage.");
+        }
+
+        List<Integer> enCourse = new ArrayList<>();
+        for (int i = 0; i < candidats.size(); i++) enCourse.add(i);
+
+        // couts[candidat] pour chaque bloc (seuls les candidats encore en course sont renseignés)
+        List<double[]> coutsParBloc = new ArrayList<>();
+
+        ExecutorService pool = Executors.newFixedThreadPool(nbThreads);
+        try {
+            for (int bloc = 0; bloc < nbBlocsMax && enCourse.size() > 1; bloc++) {
+                Reseau instance = instances.get(bloc % instances.size());
+                long graineBloc = random.nextLong();
+
+                double[] couts = evaluerBloc(pool, instance, graineBloc, candidats, enCourse);
+                coutsParBloc.add(couts);
+
+                if (coutsParBloc.size() >= NB_BLOCS_AVANT_TEST) {
+                    int avant = enCourse.size();
+                    enCourse = eliminer(coutsParBloc, enCourse);
+                    if (enCourse.size() < avant) {
+                        System.out.println("Bloc " + (bloc + 1) + " : " + (avant - enCourse.size())
+                                + " candidat(s) éliminé(s), " + enCourse.size() + " en course.");
+                    }
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        double[] sommesRangs = sommesDesRangs(coutsParBloc, enCourse);
+        int meilleur = 0;
+        for (int j = 1; j < enCourse.size(); j++) {
+            if (sommesRangs[j] < sommesRangs[meilleur]) meilleur = j;
+        }
+        return candidats.get(enCourse.get(meilleur));
+    }
+
+    /**
+     * Exécute tous les candidats en course sur un bloc (même instance, même graine).
+     * Un candidat qui échoue reçoit un coût infini (il sera classé dernier).
+     */
+    private double[] evaluerBloc(ExecutorService pool, Reseau instance, long graine,
+                                 List<ParametresRecuit> candidats, List<Integer> enCourse) throws ReseauException {
+        double[] couts = new double[candidats.size()];
+        Arrays.fill(couts, Double.NaN);
+
+        List<Future<Double>> taches = new ArrayList<>();
+        for (int c : enCourse) {
+            ParametresRecuit p = candidats.get(c);
+            taches.add(pool.submit(() -> {
+                Reseau copie = instance.copier();
+                AlgoOptimiseur algo = new AlgoOptimiseur(copie, p);
+                algo.setAffichageConsole(false);
+                algo.setGraine(graine);
+                algo.setDureeMax(budgetParExecutionMs);
+                try {
+                    algo.resoudre();
+                    return copie.calculerCout();
+                } catch (ReseauException e) {
+                    return Double.POSITIVE_INFINITY;
+                }
+            }));
+        }
+
+        try {
+            for (int k = 0; k < enCourse.size(); k++) {
+                couts[enCourse.get(k)] = taches.get(k).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReseauException("Réglage interrompu.");
+        } catch (ExecutionException e) {
+            throw new ReseauException("Erreur pendant le réglage : " + e.getCause().getMessage());
+        }
+        return couts;
+    }
+
+    /**
+     * Test de Friedman puis comparaisons post-hoc (Conover) contre le meilleur candidat.
+     * Si le test global n'est pas significatif, personne n'est éliminé.
+     *
+     * @return Les candidats qui restent en course
+     */
+    static List<Integer> eliminer(List<double[]> coutsParBloc, List<Integer> enCourse) {
+        int k = enCourse.size();
+        int b = coutsParBloc.size();
+        if (k < 2) return enCourse;
+
+        double[] sommesRangs = sommesDesRangs(coutsParBloc, enCourse);
+
+        // A = somme des carrés des rangs, C = terme de correction
+        double a = 0.0;
+        for (double[] couts : coutsParBloc) {
+            for (double r : rangs(couts, enCourse)) a += r * r;
+        }
+        double c = b * k * (k + 1) * (k + 1) / 4.0;
+        if (a - c <= 1e-12) return enCourse; // tous ex aequo
+
+        double sommeCarres = 0.0;
+        for (double r : sommesRangs) sommeCarres += r * r;
+        double statistique = (k - 1) * (sommeCarres - b * c) / (a - c);
+
+        if (statistique <= quantileKhiDeux95(k - 1)) return enCourse;
+
+        int meilleur = 0;
+        for (int j = 1; j < k; j++) {
+            if (sommesRangs[j] < sommesRangs[meilleur]) meilleur = j;
+        }
+
+        double ddl = (b - 1.0) * (k - 1.0);
+        double variance = 2.0 * b * (a - c) / ddl * (1.0 - statistique / (b * (k - 1.0)));
+        double differenceCritique = Z_BILATERAL_95 * Math.sqrt(Math.max(variance, 0.0));
+
+        List<Integer> survivants = new ArrayList<>();
+        for (int j = 0; j < k; j++) {
+            if (sommesRangs[j] - sommesRangs[meilleur] <= differenceCritique) {
+                survivants.add(enCourse.get(j));
+            }
+        }
+        return survivants;
+    }
+
+    /**
+     * Somme, sur tous les blocs, des rangs de chaque candidat en course.
+     */
+    private static double[] sommesDesRangs(List<double[]> coutsParBloc, List<Integer> enCourse) {
+        double[] sommes = new double[enCourse.size()];
+        for (double[] couts : coutsParBloc) {
+            double[] r = rangs(couts, enCourse);
+            for (int j = 0; j < r.length; j++) sommes[j] += r[j];
+        }
+        return sommes;
+    }
+
+    /**
+     * Rangs (1 = meilleur coût) des candidats en course sur un bloc, les ex aequo recevant le rang moyen.
+     */
+    private static double[] rangs(double[] couts, List<Integer> enCourse) {
+        int k = enCourse.size();
+        double[] r = new double[k];
+        for (int j = 0; j < k; j++) {
+            double cj = couts[enCourse.get(j)];
+            int plusPetits = 0;
+            int egaux = 0;
+            for (int l = 0; l < k; l++) {
+                double cl = couts[enCourse.get(l)];
+                if (cl < cj) plusPetits++;
+                else if (cl == cj) egaux++;
+            }
+            r[j] = plusPetits + (egaux + 1) / 2.0;
+        }
+        return r;
+    }
+
+    /**
+     * Quantile à 95% de la loi du khi-deux (approximation de Wilson-Hilferty).
+     */
+    private static double quantileKhiDeux95(int ddl) {
+        double h = 2.0 / (9.0 * ddl);
+        double base = 1 - h + Z_UNILATERAL_95 * Math.sqrt(h);
+        return ddl * base * base * base;
+    }
+}
@@ -0,0 +1,699 @@
+package projet.algo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import projet.exception.ReseauException;
+import projet.reseau.Generateur;
+import projet.reseau.Maison;
+import projet.reseau.Reseau;
+import projet.reseau.TypeConsommation;
+
+/**
+ * Ré-optimisation locale après une modification ponctuelle du réseau.
+ *
+ * Au lieu de relancer tout le Recuit Simulé après l'ajout d'une maison ou le changement
+ * de capacité d'un générateur, on garde en mémoire la charge de chaque générateur et on ne
+ * cherche des déplacements de maisons qu'autour des générateurs touchés par la modification
+ * (plus les quelques générateurs les plus et les moins chargés), jusqu'à stabilisation du coût.
+ *
+ * Toutes les modifications doivent passer par cette classe (mêmes méthodes que Reseau),
+ * sinon l'état interne doit être reconstruit avec {@link #resynchroniser()}.
+ *
+ * Avec une distance maximale ({@link Reseau#getDistanceMax()}), une maison n'est déplacée que vers
+ * un générateur à sa portée : les maisons d'un même type ne sont alors plus interchangeables.
+ *
+ * Avec des demandes horaires ({@link Reseau#getNbPeriodes()}), les charges et les agrégats sont
+ * gardés pour chaque période et le coût est, comme pour {@link Reseau#calculerCout()}, la moyenne
+ * sur les périodes de Dispersion + Lambda * Surcharge. Les maisons qui ont un profil ne sont pas
+ * interchangeables : chacune est évaluée séparément.
+ */
+public class ReoptimiseurLocal {
+
+    // Nombre de générateurs extrêmes (moins chargés / plus chargés) ajoutés au voisinage
+    private static final int NB_EXTREMES = 4;
+    // Nombre maximal de déplacements par modification (borne la latence)
+    private static final int NB_DEPLACEMENTS_MAX = 64;
+    // Amélioration minimale pour accepter un déplacement
+    private static final double EPSILON = 1e-12;
+
+    private static final TypeConsommation[] TYPES = TypeConsommation.values();
+    // Catégorie des maisons qui ont un profil (les autres sont rangées par type)
+    private static final int PROFILS = TYPES.length;
+
+    private Reseau reseau;
+
+    // Etat incrémental, indexé par générateur
+    private List<Generateur> generateurs;
+    private int[] indexParId; // identifiant de générateur -> index (-1 : inconnu)
+    private double[] capacite;
+    private double[] charge; // [g * nbPeriodes + t]
+    // maisonsParGen.get(g)[type] = maisons sans profil de ce type branchées sur g,
+    // maisonsParGen.get(g)[PROFILS] = maisons avec profil branchées sur g
+    private List<LinkedHashSet<Maison>[]> maisonsParGen;
+    private int nbPeriodes;
+
+    // Agrégats de chaque période, recalculés après chaque déplacement accepté
+    private double[] sommeTaux;
+    private double[] dispersion;
+    private double[] surcharge;
+    private int[] nbAuDessusMoyenne;
+    private boolean capaciteNulle;
+
+    // Statistiques de la dernière ré-optimisation
+    private long derniereDureeNanos;
+    private int dernierNbDeplacements;
+    private long nbDeplacementsTotal;
+    private EnregistreurTrace trace; // null = pas de trace
+
+    /**
+     * Construit l'état incrémental à partir des connexions actuelles du réseau.
+     *
+     * @param reseau Le réseau à maintenir optimisé
+     */
+    public ReoptimiseurLocal(Reseau reseau) {
+        this.reseau = reseau;
+        resynchroniser();
+    }
+
+    /**
+     * Reconstruit entièrement l'état interne depuis le réseau (en O(maisons + générateurs)).
+     * A appeler si le réseau a été modifié sans passer par cette classe.
+     */
+    public void resynchroniser() {
+        nbPeriodes = reseau.getNbPeriodes();
+        generateurs = new ArrayList<>();
+        indexParId = new int[Math.max(8, reseau.getGenerateursMap().getNbIds())];
+        Arrays.fill(indexParId, -1);
+        maisonsParGen = new ArrayList<>();
+        capacite = new double[Math.max(8, reseau.getGenerateursMap().size())];
+        charge = new double[capacite.length * nbPeriodes];
+        sommeTaux = new double[nbPeriodes];
+        dispersion = new double[nbPeriodes];
+        surcharge = new double[nbPeriodes];
+        nbAuDessusMoyenne = new int[nbPeriodes];
+
+        for (Generateur g : reseau.getGenerateursMap().values()) {
+            indexer(g);
+        }
+        // Parcours de l'affectation par identifiant de maison
+        for (int id = 0; id < reseau.getMaisonsMap().getNbIds(); id++) {
+            int idGen = reseau.getIdGenerateur(id);
+            if (idGen >= 0) brancher(reseau.getMaisonsMap().parId(id), indexParId[idGen]);
+        }
+        recalculerAgregats();
+    }
+
+    /**
+     * Ajoute ou met à jour un générateur, puis ré-optimise autour de lui.
+     *
+     * @param nom Le nom du générateur
+     * @param capaciteKw La capacité maximale en kW
+     * @return Le message renvoyé par {@link Reseau#ajouterOuMajGenerateur(String, int)}
+     * @throws ReseauException Si la modification est refusée par le réseau
+     */
+    public String ajouterOuMajGenerateur(String nom, int capaciteKw) throws ReseauException {
+        long debut = System.nanoTime();
+        String resultat = reseau.ajouterOuMajGenerateur(nom, capaciteKw);
+
+        Generateur g = reseau.getGenerateursMap().get(nom);
+        int index = index(g);
+        if (index < 0) {
+            index = indexer(g);
+        } else {
+            capacite[index] = g.getCapaciteMaximale();
+        }
+        recalculerAgregats();
+
+        optimiserAutourDe(index, null, debut);
+        return resultat;
+    }
+
+    /**
+     * Ajoute une maison ou change son type de consommation, puis ré-optimise localement.
+     * Une maison qui n'est pas encore connectée est branchée sur le générateur le plus avantageux.
+     * Une maison existante garde sa demande horaire : seul son type change.
+     *
+     * @param nom Le nom de la maison
+     * @param type Le type de consommation
+     * @return Le message renvoyé par {@link Reseau#ajouterOuMajMaison(String, TypeConsommation, int[])}
+     * @throws ReseauException Si la modification est refusée par le réseau
+     */
+    public String ajouterOuMajMaison(String nom, TypeConsommation type) throws ReseauException {
+        Maison avant = reseau.getMaisonsMap().get(nom);
+        return ajouterOuMajMaison(nom, type, (avant != null) ? avant.getProfil() : null);
+    }
+
+    /**
+     * Ajoute une maison ou la met à jour avec une demande horaire, puis ré-optimise localement.
+     * Une maison qui n'est pas encore connectée est branchée sur le générateur le plus avantageux.
+     *
+     * @param nom Le nom de la maison
+     * @param type Le type de consommation
+     * @param profil La demande de chaque période, ou null pour la demande du type
+     * @return Le message renvoyé par {@link Reseau#ajouterOuMajMaison(String, TypeConsommation, int[])}
+     * @throws ReseauException Si la modification est refusée par le réseau
+     */
+    public String ajouterOuMajMaison(String nom, TypeConsommation type, int[] profil) throws ReseauException {
+        long debut = System.nanoTime();
+        Maison avant = reseau.getMaisonsMap().get(nom);
+        Generateur g = (avant != null) ? reseau.getConnexionsMap().get(avant) : null;
+
+        // La maison est modifiée sur place : ses anciennes demandes sont retirées avant
+        int index = (g != null) ? index(g) : -1;
+        if (index >= 0) debrancher(avant, index);
+        String resultat;
+        try {
+            resultat = reseau.ajouterOuMajMaison(nom, type, profil);
+        } catch (ReseauException e) {
+            if (index >= 0) brancher(avant, index);
+            throw e;
+        }
+
+        Maison m = reseau.getMaisonsMap().get(nom);
+        if (reseau.getNbPeriodes() != nbPeriodes) {
+            // Premier profil du réseau, ou nouvelle longueur : l'état est reconstruit sur les nouvelles périodes
+            resynchroniser();
+        } else if (index >= 0) {
+            brancher(m, index);
+            recalculerAgregats();
+        }
+        if (g == null) {
+            placer(m, debut);
+        } else {
+            optimiserAutourDe(index(g), null, debut);
+        }
+        return resultat;
+    }
+
+    /**
+     * Branche une maison déjà déclarée et non connectée sur le générateur le plus avantageux,
+     * puis ré-optimise localement. Contrairement à {@link #ajouterOuMajMaison(String, TypeConsommation)},
+     * la maison n'est pas redéclarée : son type et sa demande horaire sont conservés.
+     *
+     * @param nom Le nom de la maison
+     * @return true si la maison a été branchée, false si aucun générateur n'est à sa portée
+     * @throws ReseauException Si la maison n'existe pas ou est déjà connectée
+     */
+    public boolean placerMaison(String nom) throws ReseauException {
+        long debut = System.nanoTime();
+        Maison m = reseau.getMaisonsMap().get(nom);
+        if (m == null) {
+            throw new ReseauException.ElementIntrouvable("Maison", nom);
+        }
+        if (reseau.getConnexionsMap().containsKey(m)) {
+            throw new ReseauException.Logique("La maison " + nom + " est déjà connectée.");
+        }
+        return placer(m, debut);
+    }
+
+    /**
+     * Branche une maison non connectée sur le générateur dont le coût estimé est minimal.
+     *
+     * @return false s'il n'y a aucun générateur à sa portée
+     */
+    private boolean placer(Maison m, long debut) {
+        int index = meilleurGenerateurPour(m);
+        if (index < 0) {
+            derniereDureeNanos = System.nanoTime() - debut;
+            dernierNbDeplacements = 0;
+            return false;
+        }
+        reseau.getConnexionsMap().put(m, generateurs.get(index));
+        brancher(m, index);
+        recalculerAgregats();
+
+        optimiserAutourDe(index, null, debut);
+        return true;
+    }
+
+    /**
+     * Crée ou modifie une connexion, puis ré-optimise les autres maisons des générateurs concernés.
+     * La maison connectée par l'utilisateur n'est pas déplacée (c'est son choix explicite).
+     *
+     * @param nom1 Le nom du premier élément
+     * @param nom2 Le nom du second élément
+     * @return Le message renvoyé par {@link Reseau#ajouterConnexion(String, String)}
+     * @throws ReseauException Si un élément est introuvable
+     */
+    public String ajouterConnexion(String nom1, String nom2) throws ReseauException {
+        long debut = System.nanoTime();
+        // Même règle de résolution que Reseau.ajouterConnexion (maison nom1 + générateur nom2 en priorité)
+        boolean maisonEnPremier = reseau.getMaisonsMap().containsKey(nom1) && reseau.getGenerateursMap().containsKey(nom2);
+        Maison m = reseau.getMaisonsMap().get(maisonEnPremier ? nom1 : nom2);
+        Generateur avant = (m != null) ? reseau.getConnexionsMap().get(m) : null;
+
+        String resultat = reseau.ajouterConnexion(nom1, nom2);
+
+        Generateur apres = reseau.getConnexionsMap().get(m);
+        int indexApres = index(apres);
+        if (avant != null) {
+            debrancher(m, index(avant));
+        }
+        brancher(m, indexApres);
+        recalculerAgregats();
+
+        optimiserAutourDe(indexApres, m, debut);
+        return resultat;
+    }
+
+    /**
+     * Supprime une connexion (la maison devient non connectée), puis ré-optimise autour du générateur libéré.
+     *
+     * @param nom1 Le nom du premier élément
+     * @param nom2 Le nom du second élément
+     * @return Le message renvoyé par {@link Reseau#suppConnexion(String, String)}
+     * @throws ReseauException Si la connexion n'existe pas
+     */
+    public String suppConnexion(String nom1, String nom2) throws ReseauException {
+        long debut = System.nanoTime();
+        boolean maisonEnPremier = reseau.getMaisonsMap().containsKey(nom1) && reseau.getGenerateursMap().containsKey(nom2);
+        String resultat = reseau.suppConnexion(nom1, nom2);
+
+        Maison m = reseau.getMaisonsMap().get(maisonEnPremier ? nom1 : nom2);
+        Generateur g = reseau.getGenerateursMap().get(maisonEnPremier ? nom2 : nom1);
+        int index = index(g);
+        debrancher(m, index);
+        recalculerAgregats();
+
+        optimiserAutourDe(index, null, debut);
+        return resultat;
+    }
+
+    /**
+     * Supprime une maison (et sa connexion), puis ré-optimise autour du générateur qui l'alimentait.
+     *
+     * @param nom Le nom de la maison
+     * @return Le message renvoyé par {@link Reseau#supprimerMaison(String)}
+     * @throws ReseauException Si la maison n'existe pas
+     */
+    public String supprimerMaison(String nom) throws ReseauException {
+        long debut = System.nanoTime();
+        Maison m = reseau.getMaisonsMap().get(nom);
+        Generateur g = (m != null) ? reseau.getConnexionsMap().get(m) : null;
+
+        String resultat = reseau.supprimerMaison(nom);
+
+        if (g == null) {
+            derniereDureeNanos = System.nanoTime() - debut;
+            dernierNbDeplacements = 0;
+            return resultat;
+        }
+        int index = index(g);
+        if (reseau.getNbPeriodes() != nbPeriodes) {
+            // Dernier profil du réseau retiré : retour à une seule période
+            resynchroniser();
+        } else {
+            debrancher(m, index);
+            recalculerAgregats();
+        }
+
+        optimiserAutourDe(index, null, debut);
+        return resultat;
+    }
+
+    /**
+     * Renvoie le coût courant (Dispersion + Lambda * Surcharge), maintenu incrémentalement.
+     *
+     * @return Le coût du réseau
+     * @throws ReseauException Si un générateur a une capacité nulle
+     */
+    public double getCout() throws ReseauException {
+        if (capaciteNulle) {
+            throw new ReseauException.Logique("Un générateur a une capacité de 0 kW. Calcul impossible.", 0);
+        }
+        return cout();
+    }
+
+    /** @return La durée de la dernière modification + ré-optimisation, en nanosecondes */
+    public long getDerniereDureeNanos() {
+        return derniereDureeNanos;
+    }
+
+    /** @return Le nombre de maisons déplacées lors de la dernière ré-optimisation */
+    public int getDernierNbDeplacements() {
+        return dernierNbDeplacements;
+    }
+
+    /**
+     * Branche un enregistreur de trajectoire : un point (coût après le mouvement) par maison déplacée,
+     * numéroté par le nombre total de mouvements. Contrairement au recuit, la trace n'est pas vidée
+     * entre deux modifications : elle suit toute la session.
+     *
+     * @param trace L'enregistreur, ou null pour ne plus tracer
+     */
+    public void setTrace(EnregistreurTrace trace) {
+        this.trace = trace;
+    }
+
+    /**
+     * Recherche locale (meilleure amélioration) autour d'un générateur touché.
+     * Voisinage : déplacer une maison du générateur touché vers un générateur peu chargé,
+     * ou rapatrier sur lui une maison d'un générateur très chargé. Les maisons d'un même type
+     * sur un même générateur sont interchangeables : on n'évalue qu'un représentant par type.
+     *
+     * @param touche L'index du générateur modifié
+     * @param epinglee Une maison à ne pas déplacer (peut être null)
+     * @param debut L'instant de début de la modification (pour la mesure de latence)
+     */
+    private void optimiserAutourDe(int touche, Maison epinglee, long debut) {
+        dernierNbDeplacements = 0;
+        if (capaciteNulle || generateurs.size() < 2) {
+            derniereDureeNanos = System.nanoTime() - debut;
+            return;
+        }
+
+        Set<Integer> zone = new LinkedHashSet<>();
+        zone.add(touche);
+        // Sans distance maximale, toute maison peut aller partout : pas de recherche de maison à portée
+        boolean contraint = reseau.aDesPositions() && reseau.getDistanceMax() != Double.POSITIVE_INFINITY;
+
+        while (dernierNbDeplacements < NB_DEPLACEMENTS_MAX) {
+            double coutActuel = cout();
+            int[] extremes = extremes();
+
+            int meilleurDepuis = -1;
+            int meilleurVers = -1;
+            int meilleurType = -1;
+            Maison meilleureMaison = null; // maison avec profil, évaluée seule
+            double meilleurCout = coutActuel - EPSILON;
+
+            for (int a : zone) {
+                // Depuis la zone vers la zone ou vers les moins chargés
+                for (int t = 0; t < TYPES.length; t++) {
+                    if (!aUneMaisonDeplacable(a, t, epinglee)) continue;
+                    for (int b : zone) {
+                        if (contraint && maisonDeplacable(a, t, b, epinglee) == null) continue;
+                        double c = coutEstime(a, b, TYPES[t].getDemandeKw());
+                        if (c < meilleurCout) { meilleurCout = c; meilleurDepuis = a; meilleurVers = b; meilleurType = t; meilleureMaison = null; }
+                    }
+                    for (int k = 0; k < NB_EXTREMES && k < extremes.length / 2; k++) {
+                        int b = extremes[k];
+                        if (contraint && maisonDeplacable(a, t, b, epinglee) == null) continue;
+                        double c = coutEstime(a, b, TYPES[t].getDemandeKw());
+                        if (c < meilleurCout) { meilleurCout = c; meilleurDepuis = a; meilleurVers = b; meilleurType = t; meilleureMaison = null; }
+                    }
+                }
+                for (Maison m : maisonsParGen.get(a)[PROFILS]) {
+                    if (m == epinglee) continue;
+                    for (int b : zone) {
+                        if (contraint && !reseau.estAPortee(m, generateurs.get(b))) continue;
+                        double c = coutEstime(a, b, m);
+                        if (c < meilleurCout) { meilleurCout = c; meilleurDepuis = a; meilleurVers = b; meilleurType = PROFILS; meilleureMaison = m; }
+                    }
+                    for (int k = 0; k < NB_EXTREMES && k < extremes.length / 2; k++) {
+                        int b = extremes[k];
+                        if (contraint && !reseau.estAPortee(m, generateurs.get(b))) continue;
+                        double c = coutEstime(a, b, m);
+                        if (c < meilleurCout) { meilleurCout = c; meilleurDepuis = a; meilleurVers = b; meilleurType = PROFILS; meilleureMaison = m; }
+                    }
+                }
+                // Depuis les plus chargés vers la zone
+                for (int k = extremes.length / 2; k < extremes.length; k++) {
+                    int h = extremes[k];
+                    for (int t = 0; t < TYPES.length; t++) {
+                        if (!aUneMaisonDeplacable(h, t, epinglee)) continue;
+                        if (contraint && maisonDeplacable(h, t, a, epinglee) == null) continue;
+                        double c = coutEstime(h, a, TYPES[t].getDemandeKw());
+                        if (c < meilleurCout) { meilleurCout = c; meilleurDepuis = h; meilleurVers = a; meilleurType = t; meilleureMaison = null; }
+                    }
+                    for (Maison m : maisonsParGen.get(h)[PROFILS]) {
+                        if (m == epinglee) continue;
+                        if (contraint && !reseau.estAPortee(m, generateurs.get(a))) continue;
+                        double c = coutEstime(h, a, m);
+                        if (c < meilleurCout) { meilleurCout = c; meilleurDepuis = h; meilleurVers = a; meilleurType = PROFILS; meilleureMaison = m; }
+                    }
+                }
+            }
+
+            if (meilleurDepuis < 0) break;
+            Maison m = (meilleureMaison != null) ? meilleureMaison : maisonDeplacable(meilleurDepuis, meilleurType, meilleurVers, epinglee);
+            if (!deplacer(m, meilleurDepuis, meilleurVers, coutActuel)) break;
+
+            dernierNbDeplacements++;
+            nbDeplacementsTotal++;
+            if (trace != null) {
+                double cout = cout();
+                trace.enregistrer(nbDeplacementsTotal, cout, cout, Double.NaN);
+            }
+            zone.add(meilleurDepuis);
+            zone.add(meilleurVers);
+        }
+
+        derniereDureeNanos = System.nanoTime() - debut;
+    }
+
+    /**
+     * Déplace une maison de a vers b si le coût exact diminue réellement
+     * (l'estimation peut être légèrement fausse quand la moyenne franchit un taux).
+     *
+     * @return true si le déplacement a été conservé
+     */
+    private boolean deplacer(Maison m, int a, int b, double coutAvant) {
+        debrancher(m, a);
+        brancher(m, b);
+        recalculerAgregats();
+
+        if (cout() < coutAvant - EPSILON) {
+            reseau.getConnexionsMap().put(m, generateurs.get(b));
+            return true;
+        }
+        // Annulation
+        debrancher(m, b);
+        brancher(m, a);
+        recalculerAgregats();
+        return false;
+    }
+
+    /**
+     * Estime le coût après déplacement d'une demande constante (celle d'un type) de a vers b
+     * (a = -1 : nouvelle maison), en O(périodes).
+     */
+    private double coutEstime(int a, int b, int demande) {
+        if (a == b) return Double.MAX_VALUE;
+        double somme = 0.0;
+        for (int t = 0; t < nbPeriodes; t++) somme += coutEstime(a, b, demande, t);
+        return somme / nbPeriodes;
+    }
+
+    /**
+     * Estime le coût après déplacement d'une maison de a vers b (a = -1 : nouvelle maison),
+     * avec sa demande de chaque période.
+     */
+    private double coutEstime(int a, int b, Maison m) {
+        if (a == b) return Double.MAX_VALUE;
+        double somme = 0.0;
+        for (int t = 0; t < nbPeriodes; t++) somme += coutEstime(a, b, m.getDemandeKw(t), t);
+        return somme / nbPeriodes;
+    }
+
+    /**
+     * Estime en O(1) le coût de la période t après déplacement d'une demande de a vers b.
+     * La surcharge est exacte ; pour la dispersion, on suppose qu'aucun autre taux ne franchit
+     * la nouvelle moyenne (la variation de moyenne est minime).
+     */
+    private double coutEstime(int a, int b, int demande, int t) {
+        int n = generateurs.size();
+        double moyenne = sommeTaux[t] / n;
+
+        double ra = (a >= 0) ? charge[a * nbPeriodes + t] / capacite[a] : 0.0;
+        double ra2 = (a >= 0) ? (charge[a * nbPeriodes + t] - demande) / capacite[a] : 0.0;
+        double rb = charge[b * nbPeriodes + t] / capacite[b];
+        double rb2 = (charge[b * nbPeriodes + t] + demande) / capacite[b];
+
+        double moyenne2 = (sommeTaux[t] - ra + ra2 - rb + rb2) / n;
+        double decalage = moyenne2 - moyenne;
+
+        double reste = dispersion[t] - Math.abs(rb - moyenne);
+        int auDessus = nbAuDessusMoyenne[t] - (rb > moyenne ? 1 : 0);
+        int autres = n - 1;
+        if (a >= 0) {
+            reste -= Math.abs(ra - moyenne);
+            auDessus -= (ra > moyenne ? 1 : 0);
+            autres--;
+        }
+        reste += decalage * ((autres - auDessus) - auDessus);
+
+        double disp2 = reste + Math.abs(rb2 - moyenne2) + ((a >= 0) ? Math.abs(ra2 - moyenne2) : 0.0);
+        double surch2 = surcharge[t] - Math.max(rb - 1, 0) + Math.max(rb2 - 1, 0);
+        if (a >= 0) surch2 += Math.max(ra2 - 1, 0) - Math.max(ra - 1, 0);
+
+        return disp2 + reseau.getLambda() * surch2;
+    }
+
+    /**
+     * Choisit le générateur sur lequel brancher une nouvelle maison (coût estimé minimal).
+     *
+     * @return L'index du générateur, ou -1 s'il n'y a aucun générateur à portée
+     */
+    private int meilleurGenerateurPour(Maison m) {
+        int meilleur = -1;
+        double meilleurCout = Double.MAX_VALUE;
+        for (int b = 0; b < generateurs.size(); b++) {
+            if (!reseau.estAPortee(m, generateurs.get(b))) continue;
+            if (capaciteNulle) return b;
+            double c = coutEstime(-1, b, m);
+            if (c < meilleurCout) {
+                meilleurCout = c;
+                meilleur = b;
+            }
+        }
+        return meilleur;
+    }
+
+    /**
+     * Renvoie les NB_EXTREMES générateurs les moins chargés (première moitié du tableau),
+     * puis les NB_EXTREMES plus chargés (seconde moitié), par un simple parcours en O(G).
+     * Avec des demandes horaires, les générateurs sont classés par charge totale sur les périodes.
+     */
+    private int[] extremes() {
+        int k = Math.min(NB_EXTREMES, generateurs.size());
+        int[] bas = new int[k];
+        int[] haut = new int[k];
+        double[] tauxBas = new double[k];
+        double[] tauxHaut = new double[k];
+        Arrays.fill(tauxBas, Double.MAX_VALUE);
+        Arrays.fill(tauxHaut, -Double.MAX_VALUE);
+
+        for (int g = 0; g < generateurs.size(); g++) {
+            double total = 0.0;
+            for (int t = 0; t < nbPeriodes; t++) total += charge[g * nbPeriodes + t];
+            double r = total / capacite[g];
+            insererTrie(bas, tauxBas, g, r, true);
+            insererTrie(haut, tauxHaut, g, r, false);
+        }
+
+        int[] resultat = new int[2 * k];
+        System.arraycopy(bas, 0, resultat, 0, k);
+        System.arraycopy(haut, 0, resultat, k, k);
+        return resultat;
+    }
+
+    private static void insererTrie(int[] indices, double[] valeurs, int g, double r, boolean croissant) {
+        int pos = valeurs.length;
+        while (pos > 0 && (croissant ? r < valeurs[pos - 1] : r > valeurs[pos - 1])) pos--;
+        if (pos == valeurs.length) return;
+        for (int i = valeurs.length - 1; i > pos; i--) {
+            valeurs[i] = valeurs[i - 1];
+            indices[i] = indices[i - 1];
+        }
+        valeurs[pos] = r;
+        indices[pos] = g;
+    }
+
+    /**
+     * Une maison de ce type branchée sur a, autre que la maison épinglée, qui peut aller sur b.
+     *
+     * @return La première dans l'ordre de branchement, ou null s'il n'y en a pas
+     */
+    private Maison maisonDeplacable(int a, int type, int b, Maison epinglee) {
+        Generateur gb = generateurs.get(b);
+        for (Maison m : maisonsParGen.get(a)[type]) {
+            if (m != epinglee && reseau.estAPortee(m, gb)) return m;
+        }
+        return null;
+    }
+
+    private boolean aUneMaisonDeplacable(int g, int type, Maison epinglee) {
+        Set<Maison> ensemble = maisonsParGen.get(g)[type];
+        return !ensemble.isEmpty() && !(ensemble.size() == 1 && ensemble.contains(epinglee));
+    }
+
+    /**
+     * Ajoute un générateur à l'état interne (agrandit les tableaux si besoin).
+     *
+     * @return Son index
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private int indexer(Generateur g) {
+        int index = generateurs.size();
+        if (index == capacite.length) {
+            capacite = Arrays.copyOf(capacite, index * 2);
+            charge = Arrays.copyOf(charge, index * 2 * nbPeriodes);
+        }
+        generateurs.add(g);
+        if (g.getId() >= indexParId.length) {
+            int ancienneTaille = indexParId.length;
+            indexParId = Arrays.copyOf(indexParId, Math.max(2 * ancienneTaille, g.getId() + 1));
+            Arrays.fill(indexParId, ancienneTaille, indexParId.length, -1);
+        }
+        indexParId[g.getId()] = index;
+        capacite[index] = g.getCapaciteMaximale();
+        Arrays.fill(charge, index * nbPeriodes, (index + 1) * nbPeriodes, 0.0);
+
+        LinkedHashSet<Maison>[] parType = new LinkedHashSet[PROFILS + 1];
+        for (int t = 0; t <= PROFILS; t++) parType[t] = new LinkedHashSet<>();
+        maisonsParGen.add(parType);
+        return index;
+    }
+
+    /**
+     * @return L'index d'un générateur dans l'état interne, ou -1 s'il n'y est pas
+     */
+    private int index(Generateur g) {
+        int id = g.getId();
+        if (id < 0 || id >= indexParId.length) return -1;
+        int index = indexParId[id];
+        return (index >= 0 && generateurs.get(index) == g) ? index : -1;
+    }
+
+    private void brancher(Maison m, int g) {
+        maisonsParGen.get(g)[categorie(m)].add(m);
+        for (int t = 0; t < nbPeriodes; t++) charge[g * nbPeriodes + t] += m.getDemandeKw(t);
+    }
+
+    private void debrancher(Maison m, int g) {
+        maisonsParGen.get(g)[categorie(m)].remove(m);
+        for (int t = 0; t < nbPeriodes; t++) charge[g * nbPeriodes + t] -= m.getDemandeKw(t);
+    }
+
+    private static int categorie(Maison m) {
+        return m.aUnProfil() ? PROFILS : m.getConsommation().ordinal();
+    }
+
+    /**
+     * @return Le coût courant : moyenne sur les périodes de Dispersion + Lambda * Surcharge
+     */
+    private double cout() {
+        double somme = 0.0;
+        for (int t = 0; t < nbPeriodes; t++) somme += dispersion[t] + reseau.getLambda() * surcharge[t];
+        return somme / nbPeriodes;
+    }
+
+    /**
+     * Recalcule exactement les agrégats (somme des taux, dispersion, surcharge) en O(G * périodes).
+     */
+    private void recalculerAgregats() {
+        int n = generateurs.size();
+        capaciteNulle = false;
+        for (int g = 0; g < n; g++) {
+            if (capacite[g] == 0) {
+                capaciteNulle = true;
+                return;
+            }
+        }
+
+        for (int t = 0; t < nbPeriodes; t++) {
+            double somme = 0.0;
+            for (int g = 0; g < n; g++) somme += charge[g * nbPeriodes + t] / capacite[g];
+            sommeTaux[t] = somme;
+
+            double moyenne = (n > 0) ? somme / n : 0.0;
+            double disp = 0.0;
+            double surch = 0.0;
+            int auDessus = 0;
+            for (int g = 0; g < n; g++) {
+                double r = charge[g * nbPeriodes + t] / capacite[g];
+                disp += Math.abs(r - moyenne);
+                surch += Math.max(r - 1, 0);
+                if (r > moyenne) auDessus++;
+            }
+            dispersion[t] = disp;
+            surcharge[t] = surch;
+            nbAuDessusMoyenne[t] = auDessus;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package projet.algo;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import projet.exception.ReseauException;
+import projet.io.DiffInstance;
+import projet.io.EcrivainInstance;
+import projet.io.EvenementReseau;
+import projet.io.GestionFichier;
+import projet.io.InstanceBinaire;
+import projet.io.ValidateurInstance;
+import projet.reseau.Maison;
+import projet.reseau.Reseau;
+
+/**
+ * Mode surveillance : le réseau reste résident et optimisé pendant que l'opérateur modifie
+ * le fichier d'instance à la main. Chaque enregistrement du fichier (détecté par un WatchService
+ * sur son dossier, après un délai d'anti-rebond) est traité ainsi :
+ * - fichier texte : seules les lignes modifiées sont analysées (DiffInstance) et appliquées
+ *   par le moteur de flux, avec ré-optimisation locale autour des générateurs touchés ;
+ * - sinon (retrait de générateur, grosse modification, .gz/.rsb, demandes horaires, événement refusé) : relecture
+ *   complète, en repartant de l'affectation précédente (par nom), puis Recuit Simulé depuis
+ *   cette solution.
+ * La nouvelle solution est ensuite écrite, et la latence de chaque étape est affichée.
+ *
+ * Un fichier invalide est signalé sans toucher à la dernière version valide : un fichier texte est
+ * entièrement validé (ValidateurInstance, mêmes règles que la lecture) avant d'appliquer le moindre
+ * événement, et une relecture complète ne remplace le réseau qu'une fois réussie. La correction
+ * suivante est comparée à cette version.
+ */
+public class SurveillanceInstance {
+
+    /** Délai d'anti-rebond par défaut : un éditeur écrit souvent le fichier en plusieurs fois. */
+    public static final long DELAI_DEFAUT_MS = 200;
+
+    // Au-delà de cette part de lignes modifiées, une relecture complète est plus rapide
+    private static final double PART_MAX_INCREMENTALE = 0.25;
+
+    private final Path instance;
+    private final String cheminSortie;
+    private Reseau reseau;
+    private MoteurFlux moteur;
+    private DiffInstance diff; // null : fichier non texte, toujours relu en entier
+
+    private long delaiMs = DELAI_DEFAUT_MS;
+    private ParametresRecuit parametres = ParametresRecuit.historiques();
+    private int nbModifications;
+    private long derniereLatenceNanos;
+
+    /**
+     * Prépare la surveillance d'un fichier déjà chargé (et idéalement déjà optimisé) dans le réseau.
+     *
+     * @param reseau Le réseau résident, issu du fichier
+     * @param cheminInstance Le fichier d'instance surveillé
+     * @param cheminSortie Le fichier où écrire chaque nouvelle solution (format de GestionFichier)
+     * @throws IOException Si le fichier d'instance est illisible
+     * @throws ReseauException Si la sortie est le fichier surveillé lui-même
+     */
+    public SurveillanceInstance(Reseau reseau, String cheminInstance, String cheminSortie) throws IOException, ReseauException {
+        this.instance = Paths.get(cheminInstance).toAbsolutePath().normalize();
+        if (Paths.get(cheminSortie).toAbsolutePath().normalize().equals(instance)) {
+            throw new ReseauException.Logique("La solution ne peut pas être écrite dans le fichier surveillé.");
+        }
+        this.cheminSortie = cheminSortie;
+        this.reseau = reseau;
+        this.moteur = new MoteurFlux(reseau);
+        if (estTexte(cheminInstance)) {
+            this.diff = new DiffInstance(Files.readAllBytes(instance));
+        }
+    }
+
+    /**
+     * @param delaiMs Le délai sans nouvelle écriture avant de traiter une modification
+     */
+    public void setDelai(long delaiMs) {
+        this.delaiMs = delaiMs;
+    }
+
+    /**
+     * @param parametres Les paramètres du Recuit Simulé relancé après une relecture complète
+     *                   (les constantes historiques par défaut)
+     */
+    public void setParametres(ParametresRecuit parametres) {
+        this.parametres = parametres;
+    }
+
+    /**
+     * Surveille le fichier jusqu'à l'interruption du thread (ou l'arrêt du programme).
+     *
+     * @throws IOException Si le dossier du fichier ne peut plus être surveillé
+     */
+    public void surveiller() throws IOException {
+        Path dossier = instance.getParent();
+        try (WatchService service = dossier.getFileSystem().newWatchService()) {
+            // Un éditeur peut remplacer le fichier (création) ou le réécrire (modification)
+            dossier.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            System.out.println("Surveillance de " + instance + " (Ctrl+C pour arrêter).");
+
+            while (true) {
+                if (!concerne(service.take())) continue;
+                long debut = System.nanoTime();
+
+                // Anti-rebond : on attend que le fichier ne soit plus modifié pendant delaiMs
+                long echeance = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delaiMs);
+                long reste;
+                while ((reste = echeance - System.nanoTime()) > 0) {
+                    WatchKey cle = service.poll(reste, TimeUnit.NANOSECONDS);
+                    if (cle != null && concerne(cle)) {
+                        echeance = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delaiMs);
+                    }
+                }
+                traiterModification(debut);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Traite la version actuelle du fichier (sans attente) : application des changements,
+     * ré-optimisation, écriture de la solution.
+     *
+     * @return true si le réseau a été mis à jour, false si le fichier est inchangé ou invalide
+     * @throws IOException En cas d'erreur d'écriture de la solution
+     */
+    public boolean traiterModification() throws IOException {
+        return traiterModification(System.nanoTime());
+    }
+
+    private boolean traiterModification(long debut) throws IOException {
+        long debutTraitement = System.nanoTime();
+        String mode;
+        int nbLignes = -1;
+        int nbEvenements = 0;
+        try {
+            List<EvenementReseau> evenements = null;
+            if (diff != null) {
+                byte[] contenu = Files.readAllBytes(instance);
+                evenements = diff.comparer(contenu);
+                nbLignes = diff.getNbLignesModifiees();
+                if (evenements.isEmpty()) {
+                    diff.valider();
+                    return false;
+                }
+                nbEvenements = evenements.size();
+                // Toute la nouvelle version est vérifiée (syntaxe, ordre des déclarations, références)
+                // avant le premier événement : un fichier invalide ne touche jamais au réseau résident
+                ValidateurInstance.validerContenu(contenu);
+            }
+
+            if (evenements != null && nbLignes <= PART_MAX_INCREMENTALE * diff.getNbLignes()
+                    && appliquerIncrementalement(evenements)) {
+                mode = "incrémental";
+            } else {
+                recharger();
+                mode = "relecture complète";
+            }
+            if (diff != null) diff.valider();
+        } catch (NoSuchFileException e) {
+            System.out.println("[surveillance] " + instance.getFileName() + " absent, en attente de la prochaine écriture.");
+            return false;
+        } catch (ReseauException e) {
+            System.out.println("[surveillance] " + instance.getFileName() + " invalide, dernière version valide conservée : " + e.getMessage());
+            return false;
+        }
+        long finOptimisation = System.nanoTime();
+
+        GestionFichier.ecrireFichier(reseau, cheminSortie);
+        long fin = System.nanoTime();
+        nbModifications++;
+        derniereLatenceNanos = fin - debut;
+
+        double cout;
+        try {
+            cout = reseau.calculerCout();
+        } catch (ReseauException e) {
+            cout = Double.NaN;
+        }
+        System.out.printf("[surveillance] modification %d (%s%s) : coût %.4f | attente %.1f ms, lecture + optimisation %.1f ms, écriture %.1f ms, total %.1f ms%n",
+                nbModifications, mode,
+                (nbLignes >= 0) ? ", " + nbLignes + " lignes, " + nbEvenements + " événements" : "",
+                cout, (debutTraitement - debut) / 1e6, (finOptimisation - debutTraitement) / 1e6,
+                (fin - finOptimisation) / 1e6, (fin - debut) / 1e6);
+        return true;
+    }
+
+    /**
+     * Applique les événements par le moteur de flux (ré-optimisation locale après chacun).
+     *
+     * @return false si un événement n'est pas pris en charge ou a été refusé (relecture complète nécessaire)
+     */
+    private boolean appliquerIncrementalement(List<EvenementReseau> evenements) throws IOException {
+        // Demandes horaires : une ligne redéclarée sans profil retire celui de la maison, alors qu'un
+        // événement "maison" sans profil le garde. Positions : une ligne redéclarée sans position retire celle de l'élément, ce que les événements ne savent pas faire
+        if (reseau.aDesProfils() || reseau.aDesPositions()) return false;
+        for (EvenementReseau e : evenements) {
+            if (e.getNature() == EvenementReseau.Nature.SUPPRESSION_GENERATEUR) return false;
+            if (e.getProfil() != null || e.getPosition() != null) return false;
+        }
+        for (EvenementReseau e : evenements) {
+            if (!moteur.appliquer(e)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Relit tout le fichier puis repart de l'affectation précédente : les maisons connues gardent
+     * leur générateur, les autres sont placées une à une, puis le Recuit Simulé reprend de là.
+     */
+    private void recharger() throws IOException, ReseauException {
+        Reseau nouveau = GestionFichier.lireFichier(instance.toString());
+        nouveau.setLambda(reseau.getLambda());
+        nouveau.setDistanceMax(reseau.getDistanceMax());
+        nouveau.copierConnexionsDepuis(reseau);
+
+        ReoptimiseurLocal placement = new ReoptimiseurLocal(nouveau);
+        for (Maison m : nouveau.getMaisonsMap().valeursTriees()) {
+            if (!nouveau.getConnexionsMap().containsKey(m)) {
+                // Sans redéclaration : la maison garde sa demande horaire
+                placement.placerMaison(m.getNom());
+            }
+        }
+        AlgoOptimiseur algo = new AlgoOptimiseur(nouveau, parametres);
+        algo.setAffichageConsole(false);
+        algo.resoudre(parametres.getNbIterations(), true);
+
+        reseau = nouveau;
+        moteur = new MoteurFlux(reseau);
+    }
+
+    /**
+     * Vide les événements d'une clé et indique si l'un d'eux concerne le fichier surveillé.
+     */
+    private boolean concerne(WatchKey cle) {
+        boolean concerne = false;
+        for (WatchEvent<?> evenement : cle.pollEvents()) {
+            // OVERFLOW : des événements ont été perdus, le fichier a pu changer
+            concerne |= evenement.kind() == StandardWatchEventKinds.OVERFLOW
+                    || instance.getFileName().equals(evenement.context());
+        }
+        cle.reset();
+        return concerne;
+    }
+
+    private static boolean estTexte(String chemin) {
+        return !chemin.endsWith(EcrivainInstance.EXTENSION_GZIP) && !chemin.endsWith(InstanceBinaire.EXTENSION);
+    }
+
+    /** @return Le réseau résident (remplacé après une relecture complète) */
+    public Reseau getReseau() { return reseau; }
+
+    /** @return Le nombre de modifications traitées */
+    public int getNbModifications() { return nbModifications; }
+
+    /** @return La latence de bout en bout de la dernière modification, en nanosecondes */
+    public long getDerniereLatenceNanos() { return derniereLatenceNanos; }
+}
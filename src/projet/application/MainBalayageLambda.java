@@ -0,0 +1,104 @@
+package projet.application;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import projet.algo.BalayageLambda;
+import projet.algo.BalayageLambda.PointCompromis;
+import projet.algo.ParametresRecuit;
+import projet.exception.ReseauException;
+import projet.io.CacheSolutions;
+import projet.io.GestionFichier;
+import projet.reseau.Reseau;
+
+/**
+ * Outil en ligne de commande : balayage de Lambda sur une instance.
+ * Résout le réseau pour chaque Lambda en parallèle et affiche la courbe de compromis
+ * Dispersion / Surcharge (optionnellement exportée en CSV).
+ */
+public class MainBalayageLambda {
+
+    /**
+     * Point d'entrée du balayage.
+     * Usage : MainBalayageLambda &lt;CheminFichier&gt; &lt;l1,l2,...&gt; [NbIterations] [FichierCsv]
+     *
+     * @param args Les arguments de la ligne de commande
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage : java -cp bin projet.application.MainBalayageLambda <CheminFichier> <l1,l2,...> [NbIterations] [FichierCsv]");
+            return;
+        }
+
+        try {
+            Reseau reseau = GestionFichier.lireFichier(args[0]);
+
+            List<Double> lambdas = new ArrayList<>();
+            for (String morceau : args[1].split(",")) {
+                lambdas.add(Double.parseDouble(morceau.trim()));
+            }
+            ParametresRecuit parametres = ParametresRecuit.parDefaut();
+            int nbIterations = (args.length >= 3) ? Integer.parseInt(args[2]) : parametres.getNbIterations();
+
+            int nbThreads = Runtime.getRuntime().availableProcessors();
+            System.out.println("Balayage de " + lambdas.size() + " valeurs de Lambda sur " + nbThreads + " threads...");
+
+            long debut = System.nanoTime();
+            BalayageLambda balayage = new BalayageLambda(reseau, nbIterations, nbThreads);
+            balayage.setParametres(parametres);
+            CacheSolutions cache = null;
+            try {
+                cache = new CacheSolutions(CacheSolutions.DOSSIER_DEFAUT, CacheSolutions.TAILLE_MAX_DEFAUT);
+                balayage.setCache(cache);
+            } catch (IOException e) {
+                System.out.println("Cache indisponible (" + e.getMessage() + "), résolution complète.");
+            }
+            List<PointCompromis> points = balayage.executer(lambdas);
+            long dureeMs = (System.nanoTime() - debut) / 1_000_000;
+
+            System.out.println("\n--- Courbe de compromis (" + dureeMs + " ms) ---");
+            System.out.printf("%10s | %12s | %12s | %12s\n", "Lambda", "Dispersion", "Surcharge", "Coût");
+            for (PointCompromis p : points) {
+                System.out.printf("%10.4f | %12.4f | %12.4f | %12.4f\n",
+                        p.getLambda(), p.getDispersion(), p.getSurcharge(), p.getCout());
+            }
+            if (cache != null) {
+                System.out.printf("Cache : %d succès / %d recherches (%.0f %%)\n",
+                        cache.getNbSucces(), cache.getNbSucces() + cache.getNbEchecs(), 100 * cache.getTauxSucces());
+            }
+
+            if (args.length >= 4) {
+                ecrireCsv(points, args[3]);
+                System.out.println("Courbe exportée dans " + args[3]);
+            }
+
+        } catch (NumberFormatException e) {
+            System.err.println("Erreur : Lambda et nombre d'itérations doivent être numériques (" + e.getMessage() + ").");
+        } catch (ReseauException e) {
+            System.err.println(">> " + e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'accès au fichier : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Exporte la courbe de compromis au format CSV (lambda,dispersion,surcharge,cout).
+     *
+     * @param points Les points de la courbe
+     * @param chemin Le fichier CSV de destination
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    private static void ecrireCsv(List<PointCompromis> points, String chemin) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(chemin))) {
+            writer.write("lambda,dispersion,surcharge,cout");
+            writer.newLine();
+            for (PointCompromis p : points) {
+                writer.write(p.getLambda() + "," + p.getDispersion() + "," + p.getSurcharge() + "," + p.getCout());
+                writer.newLine();
+            }
+        }
+    }
+}
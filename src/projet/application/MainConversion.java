@@ -0,0 +1,55 @@
+package projet.application;
+
+import java.io.IOException;
+
+import projet.exception.ReseauException;
+import projet.io.EcrivainInstance;
+import projet.io.GestionFichier;
+import projet.io.InstanceBinaire;
+import projet.io.LecteurParallele;
+import projet.reseau.Reseau;
+
+/**
+ * Outil en ligne de commande : conversion d'une instance (et de ses connexions) entre le format
+ * texte (compressé en .gz ou non) et le format binaire .rsb, dans les deux sens. Le format de
+ * sortie suit l'extension.
+ */
+public class MainConversion {
+
+    /**
+     * Point d'entrée du convertisseur.
+     * Usage : MainConversion &lt;Entree.txt|Entree.txt.gz|Entree.rsb&gt; &lt;Sortie.rsb|Sortie.txt|Sortie.txt.gz&gt;
+     *
+     * @param args Les arguments de la ligne de commande
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.out.println("Usage : java -cp bin projet.application.MainConversion <Entree.txt|Entree.txt.gz|Entree.rsb> <Sortie.rsb|Sortie.txt|Sortie.txt.gz>");
+            return;
+        }
+
+        try {
+            long debut = System.nanoTime();
+            // Le texte brut est analysé en parallèle : c'est l'étape la plus longue d'une conversion.
+            // Un fichier compressé se lit d'un seul flux, par GestionFichier comme le binaire
+            Reseau reseau = (args[0].endsWith(InstanceBinaire.EXTENSION) || args[0].endsWith(EcrivainInstance.EXTENSION_GZIP))
+                    ? GestionFichier.lireFichier(args[0])
+                    : LecteurParallele.lireFichier(args[0]);
+            long lecture = System.nanoTime();
+
+            GestionFichier.ecrireFichier(reseau, args[1]);
+            long fin = System.nanoTime();
+
+            System.out.printf("%d générateurs, %d maisons, %d connexions | lecture %d ms, écriture %d ms\n",
+                    reseau.getGenerateursMap().size(), reseau.getMaisonsMap().size(), reseau.getConnexionsMap().size(),
+                    (lecture - debut) / 1_000_000, (fin - lecture) / 1_000_000);
+
+        } catch (ReseauException e) {
+            System.err.println(">> " + e.getMessage());
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'accès au fichier : " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
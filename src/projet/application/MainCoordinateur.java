@@ -0,0 +1,110 @@
+package projet.application;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import projet.distribue.CoordinateurDistribue;
+import projet.distribue.CoordinateurDistribue.Resultat;
+import projet.exception.ReseauException;
+import projet.io.GestionFichier;
+import projet.reseau.Reseau;
+
+/**
+ * Outil en ligne de commande : résolution distribuée d'un réseau. Le coordinateur écoute sur la
+ * boucle locale, attend les travailleurs (MainTravailleur), garde la meilleure solution reçue et
+ * l'écrit dans le fichier de sortie. Avec --lancer N, il démarre lui-même N processus travailleurs
+ * sur la machine.
+ */
+public class MainCoordinateur {
+
+    /**
+     * Point d'entrée du coordinateur.
+     * Usage : MainCoordinateur &lt;CheminFichier&gt; &lt;Sortie&gt; [--travailleurs N] [--lancer N] [--port P]
+     *         [--duree ms] [--iterations N] [--lambda L] [--distance-max D] [--independants] [--graine G]
+     *
+     * @param args Les arguments de la ligne de commande
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage : java -cp bin projet.application.MainCoordinateur <CheminFichier> <Sortie> [--travailleurs N] "
+                    + "[--lancer N] [--port P] [--duree ms] [--iterations N] [--lambda L] [--distance-max D] [--independants] [--graine G]");
+            return;
+        }
+
+        int nbTravailleurs = 0;
+        int nbLances = 0;
+        int port = 0;
+        long dureeMs = 10_000;
+        int iterations = 50_000;
+        boolean independants = false;
+        Long graine = null;
+        List<Process> processus = new ArrayList<>();
+
+        try {
+            Reseau reseau = GestionFichier.lireFichier(args[0]);
+
+            for (int i = 2; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--travailleurs": nbTravailleurs = Integer.parseInt(args[++i]); break;
+                    case "--lancer":       nbLances = Integer.parseInt(args[++i]); break;
+                    case "--port":         port = Integer.parseInt(args[++i]); break;
+                    case "--duree":        dureeMs = Long.parseLong(args[++i]); break;
+                    case "--iterations":   iterations = Integer.parseInt(args[++i]); break;
+                    case "--lambda":       reseau.setLambda(Double.parseDouble(args[++i])); break;
+                    case "--distance-max": reseau.setDistanceMax(Double.parseDouble(args[++i])); break;
+                    case "--independants": independants = true; break;
+                    case "--graine":       graine = Long.parseLong(args[++i]); break;
+                    default:
+                        System.err.println("Option inconnue ignorée : " + args[i]);
+                }
+            }
+            if (nbTravailleurs == 0) nbTravailleurs = Math.max(1, nbLances);
+
+            CoordinateurDistribue coordinateur = new CoordinateurDistribue(reseau, nbTravailleurs);
+            coordinateur.setDureeMs(dureeMs);
+            coordinateur.setIterationsParTour(iterations);
+            coordinateur.setMigration(!independants);
+            if (graine != null) coordinateur.setGraine(graine);
+            coordinateur.ouvrir(port);
+            System.out.println("Coordinateur en écoute sur 127.0.0.1:" + coordinateur.getPort()
+                    + ", " + nbTravailleurs + " travailleurs attendus (" + (independants ? "recherches indépendantes" : "îles avec migration") + ")...");
+
+            // Travailleurs locaux : même JVM et même classpath que le coordinateur
+            String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+            for (int k = 0; k < nbLances; k++) {
+                ProcessBuilder pb = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                        MainTravailleur.class.getName(), "127.0.0.1", String.valueOf(coordinateur.getPort()));
+                pb.inheritIO();
+                Process p = pb.start();
+                System.out.println("Travailleur " + k + " lancé (pid " + p.pid() + ").");
+                processus.add(p);
+            }
+
+            Resultat r = coordinateur.executer();
+            System.out.printf("Travailleurs : %d connectés, %d perdus | Solutions reçues : %d (%d améliorations)\n",
+                    r.getNbTravailleurs(), r.getNbPerdus(), r.getNbSolutionsRecues(), r.getNbAmeliorations());
+            System.out.printf("Meilleur coût : %.4f en %.0f ms\n", r.getCout(), r.getDureeMs());
+
+            GestionFichier.ecrireFichier(r.getSolution(), args[1]);
+
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Erreur : arguments invalides (" + e.getMessage() + ").");
+        } catch (ReseauException e) {
+            System.err.println(">> " + e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Erreur : " + e.getMessage());
+        } finally {
+            for (Process p : processus) {
+                try {
+                    if (!p.waitFor(2, TimeUnit.SECONDS)) p.destroyForcibly();
+                } catch (InterruptedException e) {
+                    p.destroyForcibly();
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package projet.application;
+
+import java.io.IOException;
+
+import projet.algo.DecompositionReseau;
+import projet.algo.DecompositionReseau.Resultat;
+import projet.algo.ParametresRecuit;
+import projet.exception.ReseauException;
+import projet.io.GestionFichier;
+import projet.reseau.Reseau;
+
+/**
+ * Outil en ligne de commande : résolution d'un très grand réseau par décomposition en groupes
+ * résolus en parallèle, suivie d'une coordination entre groupes. Avec --comparer, le réseau est
+ * aussi résolu d'un seul tenant pour mesurer l'accélération et l'écart de qualité.
+ */
+public class MainDecomposition {
+
+    /**
+     * Point d'entrée de la décomposition.
+     * Usage : MainDecomposition &lt;CheminFichier&gt; [--groupes K] [--threads T] [--iterations N]
+     *         [--lambda L] [--distance-max D] [--comparer] [--sortie Fichier]
+     *
+     * @param args Les arguments de la ligne de commande
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage : java -cp bin projet.application.MainDecomposition <CheminFichier> [--groupes K] [--threads T] "
+                    + "[--iterations N] [--lambda L] [--distance-max D] [--comparer] [--sortie Fichier]");
+            return;
+        }
+
+        int nbThreads = Runtime.getRuntime().availableProcessors();
+        int nbGroupes = nbThreads;
+        ParametresRecuit parametres = ParametresRecuit.parDefaut();
+        int nbIterations = parametres.getNbIterations();
+        boolean comparer = false;
+        String sortie = null;
+
+        try {
+            Reseau reseau = GestionFichier.lireFichier(args[0]);
+
+            for (int i = 1; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--groupes":      nbGroupes = Integer.parseInt(args[++i]); break;
+                    case "--threads":      nbThreads = Integer.parseInt(args[++i]); break;
+                    case "--iterations":   nbIterations = Integer.parseInt(args[++i]); break;
+                    case "--lambda":       reseau.setLambda(Double.parseDouble(args[++i])); break;
+                    case "--distance-max": reseau.setDistanceMax(Double.parseDouble(args[++i])); break;
+                    case "--comparer":     comparer = true; break;
+                    case "--sortie":       sortie = args[++i]; break;
+                    default:
+                        System.err.println("Option inconnue ignorée : " + args[i]);
+                }
+            }
+
+            System.out.println("Décomposition de " + reseau.getMaisonsMap().size() + " maisons et "
+                    + reseau.getGenerateursMap().size() + " générateurs en " + nbGroupes + " groupes sur " + nbThreads + " threads...");
+            DecompositionReseau decomposition = new DecompositionReseau(reseau, nbGroupes, nbIterations, nbThreads);
+            decomposition.setSolveur(DecompositionReseau.recuit(parametres));
+            Resultat r = decomposition.executer(comparer);
+
+            System.out.printf("Groupes : %d (%s)\n", r.getNbGroupes(), r.isParRegions() ? "par régions" : "par part de capacité");
+            System.out.printf("Partition : %.0f ms | Résolution : %.0f ms | Coordination : %.0f ms (%d maisons déplacées)\n",
+                    r.getDureePartitionMs(), r.getDureeResolutionMs(), r.getDureeCoordinationMs(), r.getNbMaisonsDeplacees());
+            System.out.printf("Coût : %.4f (%.4f avant coordination) en %.0f ms\n",
+                    r.getCout(), r.getCoutAvantCoordination(), r.getDureeTotaleMs());
+            if (comparer) {
+                System.out.printf("Monolithique : %.4f en %.0f ms | Accélération : x%.2f | Écart de qualité : %+.2f %%\n",
+                        r.getCoutMonolithique(), r.getDureeMonolithiqueMs(), r.getAcceleration(), 100 * r.getEcartQualite());
+            }
+
+            if (sortie != null) {
+                GestionFichier.ecrireFichier(r.getSolution(), sortie);
+                System.out.println("Solution écrite dans " + sortie);
+            }
+
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Erreur : arguments invalides (" + e.getMessage() + ").");
+        } catch (ReseauException e) {
+            System.err.println(">> " + e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'accès au fichier : " + e.getMessage());
+        }
+    }
+}
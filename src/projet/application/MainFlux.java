@@ -0,0 +1,119 @@
+package projet.application;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+import projet.algo.AlgoOptimiseur;
+import projet.algo.MoteurFlux;
+import projet.algo.ParametresRecuit;
+import projet.exception.ReseauException;
+import projet.io.CacheSolutions;
+import projet.io.GestionFichier;
+import projet.io.LecteurEvenements;
+import projet.reseau.Reseau;
+
+/**
+ * Outil en ligne de commande : ré-optimisation continue sur un flux d'événements.
+ * Le réseau est chargé et optimisé une fois, puis chaque événement (fichier ou entrée standard)
+ * est appliqué avec une ré-optimisation locale. Les latences p50/p99 et le coût final sont affichés.
+ */
+public class MainFlux {
+
+    /**
+     * Point d'entrée du moteur de flux.
+     * Usage : MainFlux &lt;Instance&gt; [FichierEvenements | -] [--lambda L] [--distance-max D] [--iterations N]
+     *         [--instantane N Chemin] [--trajectoire FichierCsv]
+     *
+     * @param args Les arguments de la ligne de commande
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage : java -cp bin projet.application.MainFlux <Instance> [FichierEvenements | -] "
+                    + "[--lambda L] [--distance-max D] [--iterations N] [--instantane N Chemin] [--trajectoire FichierCsv]");
+            return;
+        }
+
+        try {
+            String source = "-";
+            double lambda = Reseau.LAMBDA_DEFAUT;
+            double distanceMax = Double.POSITIVE_INFINITY;
+            ParametresRecuit parametres = ParametresRecuit.parDefaut();
+            int nbIterations = parametres.getNbIterations();
+            int periodeInstantane = 0;
+            String cheminInstantane = null;
+            String cheminTrajectoire = null;
+
+            for (int i = 1; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--lambda":      lambda = Double.parseDouble(args[++i]); break;
+                    case "--distance-max": distanceMax = Double.parseDouble(args[++i]); break;
+                    case "--iterations":  nbIterations = Integer.parseInt(args[++i]); break;
+                    case "--instantane":
+                        periodeInstantane = Integer.parseInt(args[++i]);
+                        cheminInstantane = args[++i];
+                        break;
+                    case "--trajectoire": cheminTrajectoire = args[++i]; break;
+                    default:              source = args[i];
+                }
+            }
+
+            Reseau reseau = GestionFichier.lireFichier(args[0]);
+            reseau.setLambda(lambda);
+            reseau.setDistanceMax(distanceMax);
+
+            // Optimisation initiale complète, une seule fois (sauf si la structure est déjà dans le cache)
+            CacheSolutions cache = null;
+            try {
+                cache = new CacheSolutions(CacheSolutions.DOSSIER_DEFAUT, CacheSolutions.TAILLE_MAX_DEFAUT);
+            } catch (IOException e) {
+                System.out.println("Cache indisponible (" + e.getMessage() + "), résolution complète.");
+            }
+            if (cache != null && cache.appliquer(reseau)) {
+                System.out.println("Solution initiale reprise du cache.");
+            } else {
+                AlgoOptimiseur algo = new AlgoOptimiseur(reseau, parametres);
+                algo.resoudre(nbIterations);
+                if (cache != null) {
+                    try {
+                        cache.enregistrer(reseau, reseau.calculerCout());
+                    } catch (IOException e) {
+                        System.out.println("Attention : solution non enregistrée dans le cache (" + e.getMessage() + ").");
+                    }
+                }
+            }
+
+            MoteurFlux moteur = new MoteurFlux(reseau);
+            moteur.setInstantanes(periodeInstantane, cheminInstantane);
+
+            BufferedReader reader = source.equals("-")
+                    ? new BufferedReader(new InputStreamReader(System.in))
+                    : new BufferedReader(new FileReader(source));
+            try (reader) {
+                moteur.traiter(new LecteurEvenements(reader));
+            }
+
+            System.out.println("\n--- Bilan du flux ---");
+            System.out.println("Evénements appliqués : " + moteur.getNbEvenements() + " (rejetés : " + moteur.getNbRejets() + ")");
+            System.out.printf("Latence p50 : %.3f ms | p99 : %.3f ms\n",
+                    moteur.percentileLatenceNanos(50) / 1e6, moteur.percentileLatenceNanos(99) / 1e6);
+            System.out.printf("Coût final : %.4f\n", moteur.getDernierCout());
+
+            if (cheminTrajectoire != null) {
+                moteur.ecrireTrajectoire(cheminTrajectoire);
+                System.out.println("Trajectoire exportée dans " + cheminTrajectoire);
+            }
+            if (cheminInstantane != null) {
+                GestionFichier.ecrireFichier(reseau, cheminInstantane);
+            }
+
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Erreur : arguments invalides (" + e.getMessage() + ").");
+        } catch (ReseauException e) {
+            System.err.println(">> " + e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'accès au fichier : " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package projet.application;
+
+import java.io.IOException;
+
+import projet.exception.ReseauException;
+import projet.io.GenerateurInstances;
+import projet.io.GenerateurInstances.DistributionCapacite;
+
+/**
+ * Outil en ligne de commande : génération d'instances synthétiques de grande taille
+ * (millions de maisons, milliers de générateurs) pour les tests de montée en charge.
+ */
+public class MainGenerateurInstances {
+
+    /**
+     * Point d'entrée du générateur.
+     * Usage : MainGenerateurInstances &lt;FichierSortie&gt; &lt;NbMaisons&gt; &lt;NbGenerateurs&gt;
+     *         [--types b,n,f] [--capacites uniforme|normale|pareto] [--tension T] [--graine G] [--connexions]
+     *         [--cote C]
+     *
+     * @param args Les arguments de la ligne de commande
+     */
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.println("Usage : java -cp bin projet.application.MainGenerateurInstances <FichierSortie> <NbMaisons> <NbGenerateurs> "
+                    + "[--types b,n,f] [--capacites uniforme|normale|pareto] [--tension T] [--graine G] [--connexions] [--cote C]");
+            return;
+        }
+
+        try {
+            GenerateurInstances generateur = new GenerateurInstances(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+
+            for (int i = 3; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--types":
+                        String[] poids = args[++i].split(",");
+                        if (poids.length != 3) {
+                            throw new ReseauException.Syntaxe("--types", "--types basse,normal,forte", 0);
+                        }
+                        generateur.setProportionsTypes(Double.parseDouble(poids[0]), Double.parseDouble(poids[1]), Double.parseDouble(poids[2]));
+                        break;
+                    case "--capacites":
+                        generateur.setDistribution(DistributionCapacite.valueOf(args[++i].toUpperCase()));
+                        break;
+                    case "--tension":    generateur.setTension(Double.parseDouble(args[++i])); break;
+                    case "--graine":     generateur.setGraine(Long.parseLong(args[++i])); break;
+                    case "--connexions": generateur.setAvecConnexions(true); break;
+                    case "--cote":       generateur.setCote(Double.parseDouble(args[++i])); break;
+                    default:
+                        System.err.println("Option inconnue ignorée : " + args[i]);
+                }
+            }
+
+            long debut = System.nanoTime();
+            generateur.ecrire(args[0]);
+            long dureeMs = (System.nanoTime() - debut) / 1_000_000;
+
+            System.out.println("Instance écrite dans " + args[0] + " (" + dureeMs + " ms).");
+            System.out.printf("Demande totale : %d kW | Capacité totale : %d kW | Tension : %.4f\n",
+                    generateur.getDemandeTotale(), generateur.getCapaciteTotale(),
+                    (double) generateur.getDemandeTotale() / generateur.getCapaciteTotale());
+
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            // NumberFormatException et valueOf d'une distribution inconnue sont des IllegalArgumentException
+            System.err.println("Erreur : arguments invalides (" + e.getMessage() + ").");
+        } catch (ReseauException e) {
+            System.err.println(">> " + e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'accès au fichier : " + e.getMessage());
+        }
+    }
+}
@@ -15,6 +15,7 @@ import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import projet.algo.ParametresRecuit;
 import projet.interfaceFX.InterfaceGraphique;
 import projet.io.GestionFichier;
 import projet.reseau.Reseau;
@@ -30,6 +31,10 @@ import java.io.File;
 public class MainGraphique extends Application {
 
     private Stage stagePrincipale;
+    // Lambda choisi dans les paramètres, appliqué à chaque réseau ouvert ensuite
+    private double lambda = Reseau.LAMBDA_DEFAUT;
+    // Paramètres du recuit, lus une fois au démarrage (fichier de réglage s'il existe)
+    private ParametresRecuit parametres = ParametresRecuit.historiques();
 
     /**
      * Méthode principale de démarrage de l'application JavaFX.
@@ -42,6 +47,7 @@ public class MainGraphique extends Application {
     public void start(Stage stage) {
         this.stagePrincipale = stage;
         stagePrincipale.setTitle("Gestion Réseau Electrique - Projet");
+        this.parametres = ParametresRecuit.parDefaut();
 
         // Chargement icône fenêtre
         try {
@@ -153,6 +159,7 @@ public class MainGraphique extends Application {
 
     /**
      * Ouvre une fenêtre pour modifier le paramètre Lambda.
+     * La valeur sera appliquée aux réseaux ouverts ensuite (importés ou créés).
      */
     private void ouvrirFenetreParametres() {
         Stage fenetre = new Stage();
@@ -164,7 +171,7 @@ public class MainGraphique extends Application {
         layout.setPadding(new Insets(20));
         layout.setStyle("-fx-background-color: #333333;");
 
-        double lambdaActuel = new Reseau().getLambda();
+        double lambdaActuel = this.lambda;
 
         Label labelInfo = new Label("Valeur de Lambda (Pénalité Surcharge) :");
         labelInfo.setStyle("-fx-text-fill: white; -fx-font-size: 14px;");
@@ -179,7 +186,7 @@ public class MainGraphique extends Application {
             try {
                 double val = Double.parseDouble(champLambda.getText());
                 if (val < 0) throw new NumberFormatException();
-                new Reseau().setLambda(val);
+                this.lambda = val;
                 fenetre.close();
             } catch (NumberFormatException ex) {
                 champLambda.setStyle("-fx-border-color: red; -fx-text-fill: red;");
@@ -221,7 +228,8 @@ public class MainGraphique extends Application {
      * @param estFichier Indique si le réseau provient d'un fichier (true) ou est créé manuellement (false)
      */
     public void lancerInterfacePrincipale(Reseau reseau, boolean estFichier) {
-        InterfaceGraphique rootPrincipal = new InterfaceGraphique(reseau, estFichier);
+        reseau.setLambda(this.lambda);
+        InterfaceGraphique rootPrincipal = new InterfaceGraphique(reseau, estFichier, parametres);
         Scene scenePrincipale = new Scene(rootPrincipal, 900, 600);
         stagePrincipale.setScene(scenePrincipale);
         stagePrincipale.setMaximized(true);
@@ -0,0 +1,117 @@
+package projet.application;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import projet.algo.BancQualite;
+import projet.algo.BancQualite.Reference;
+import projet.algo.BancQualite.Resultat;
+import projet.algo.ParametresRecuit;
+import projet.exception.ReseauException;
+
+/**
+ * Outil en ligne de commande : banc de qualité du recuit face aux coûts optimaux connus.
+ * Affiche, par configuration et par budget, le taux de succès, l'écart moyen et le temps médian
+ * pour atteindre l'optimum. Les résultats sont comparés à la référence enregistrée pour les
+ * instances fournies (ou à celle donnée par --reference) : le code de sortie vaut 1 en cas de régression.
+ */
+public class MainQualite {
+
+    /** Le tableau des coûts optimaux des instances fournies. */
+    public static final String TABLEAU_DEFAUT = "Instances-20251127/couts_optimaux.txt";
+
+    /** Les résultats de référence pour ce tableau, avec les budgets, graines et paramètres par défaut. */
+    public static final String REFERENCE_DEFAUT = "Instances-20251127/qualite_reference.txt";
+
+    /**
+     * Point d'entrée du banc de qualité.
+     * Usage : MainQualite [--tableau Fichier] [--budgets b1,b2,...] [--graines N]
+     *         [--config Nom=Fichier.properties]... [--reference Fichier | --sans-reference] [--tolerance T]
+     *         [--enregistrer Fichier]
+     *
+     * @param args Les arguments de la ligne de commande
+     */
+    public static void main(String[] args) {
+        String tableau = TABLEAU_DEFAUT;
+        long[] budgets = {10, 100, 1000};
+        int nbGraines = 5;
+        Map<String, ParametresRecuit> configurations = new LinkedHashMap<>();
+        String cheminReference = REFERENCE_DEFAUT;
+        boolean referenceExplicite = false;
+        String cheminEnregistrement = null;
+        double tolerance = 0.10;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--tableau":     tableau = args[++i]; break;
+                    case "--graines":     nbGraines = Integer.parseInt(args[++i]); break;
+                    case "--reference":   cheminReference = args[++i]; referenceExplicite = true; break;
+                    case "--sans-reference": cheminReference = null; break;
+                    case "--tolerance":   tolerance = Double.parseDouble(args[++i]); break;
+                    case "--enregistrer": cheminEnregistrement = args[++i]; break;
+                    case "--budgets":
+                        String[] morceaux = args[++i].split(",");
+                        budgets = new long[morceaux.length];
+                        for (int k = 0; k < morceaux.length; k++) budgets[k] = Long.parseLong(morceaux[k].trim());
+                        break;
+                    case "--config":
+                        String[] config = args[++i].split("=", 2);
+                        if (config.length != 2) {
+                            throw new ReseauException.Syntaxe("--config", "--config Nom=Fichier.properties", 0);
+                        }
+                        configurations.put(config[0], ParametresRecuit.charger(config[1]));
+                        break;
+                    default:
+                        System.err.println("Option inconnue ignorée : " + args[i]);
+                }
+            }
+            if (configurations.isEmpty()) {
+                configurations.put("defaut", ParametresRecuit.parDefaut());
+            }
+
+            List<Reference> references = BancQualite.chargerReferences(tableau);
+            System.out.println(references.size() + " instance(s) de référence, " + configurations.size()
+                    + " configuration(s), " + nbGraines + " graine(s), budgets " + Arrays.toString(budgets) + " ms");
+
+            BancQualite banc = new BancQualite(references, configurations, nbGraines);
+            List<Resultat> resultats = banc.executer(budgets);
+
+            System.out.printf("\n%-16s | %10s | %8s | %12s | %16s\n", "Configuration", "Budget ms", "Succès", "Écart moyen", "Temps optimum ms");
+            for (Resultat r : resultats) {
+                System.out.printf("%-16s | %10d | %7.0f%% | %12.6f | %16.3f\n", r.getConfiguration(), r.getBudgetMs(),
+                        100 * r.getTauxSucces(), r.getEcartMoyen(), r.getTempsMedianOptimumMs());
+            }
+
+            if (cheminEnregistrement != null) {
+                BancQualite.enregistrer(resultats, cheminEnregistrement);
+                System.out.println("\nRésultats enregistrés dans " + cheminEnregistrement);
+            }
+
+            // La référence par défaut ne vaut que pour le tableau fourni
+            if (!referenceExplicite && !tableau.equals(TABLEAU_DEFAUT)) cheminReference = null;
+            if (cheminReference != null) {
+                List<String> regressions = BancQualite.comparer(resultats, cheminReference, tolerance);
+                if (!regressions.isEmpty()) {
+                    System.err.println("\nRégression de qualité :");
+                    for (String r : regressions) System.err.println(" - " + r);
+                    System.exit(1);
+                }
+                System.out.println("\nAucune régression par rapport à " + cheminReference + ".");
+            }
+
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Erreur : arguments invalides (" + e.getMessage() + ").");
+            System.exit(2);
+        } catch (ReseauException e) {
+            System.err.println(">> " + e.getMessage());
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'accès au fichier : " + e.getMessage());
+            System.exit(2);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package projet.application;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import projet.algo.ParametresRecuit;
+import projet.algo.ReglageParCourse;
+import projet.exception.ReseauException;
+import projet.io.GestionFichier;
+import projet.reseau.Reseau;
+
+/**
+ * Outil en ligne de commande : réglage automatique des paramètres du recuit par course (F-Race).
+ * Le meilleur jeu de paramètres est écrit dans un fichier .properties que
+ * {@link projet.algo.AlgoOptimiseur} sait charger (fichier lu par défaut : parametres_recuit.properties).
+ */
+public class MainReglageRecuit {
+
+    /**
+     * Point d'entrée du réglage.
+     * Usage : MainReglageRecuit &lt;BudgetMs&gt; &lt;FichierSortie&gt; &lt;Instance ou Dossier&gt;...
+     *         [--candidats N] [--blocs N] [--lambda L] [--graine G]
+     *
+     * @param args Les arguments de la ligne de commande
+     */
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.println("Usage : java -cp bin projet.application.MainReglageRecuit <BudgetMs> <FichierSortie> <Instance ou Dossier>... "
+                    + "[--candidats N] [--blocs N] [--lambda L] [--graine G]");
+            return;
+        }
+
+        try {
+            long budgetMs = Long.parseLong(args[0]);
+            String sortie = args[1];
+
+            int nbCandidats = 16;
+            int nbBlocs = 50;
+            double lambda = Reseau.LAMBDA_DEFAUT;
+            long graine = System.currentTimeMillis();
+            List<String> chemins = new ArrayList<>();
+
+            for (int i = 2; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--candidats": nbCandidats = Integer.parseInt(args[++i]); break;
+                    case "--blocs":     nbBlocs = Integer.parseInt(args[++i]); break;
+                    case "--lambda":    lambda = Double.parseDouble(args[++i]); break;
+                    case "--graine":    graine = Long.parseLong(args[++i]); break;
+                    default:            chemins.add(args[i]);
+                }
+            }
+
+            List<Reseau> instances = chargerInstances(chemins, lambda);
+            System.out.println(instances.size() + " instance(s) chargée(s), " + nbCandidats + " candidats, budget " + budgetMs + " ms par exécution.");
+
+            int nbThreads = Runtime.getRuntime().availableProcessors();
+            ReglageParCourse course = new ReglageParCourse(instances, budgetMs, nbThreads, nbBlocs, graine);
+            ParametresRecuit meilleur = course.courir(course.echantillonnerCandidats(nbCandidats));
+
+            meilleur.sauvegarder(sortie, "Paramètres du recuit réglés par course sur " + instances.size() + " instance(s)");
+            System.out.println("Meilleur candidat : " + meilleur);
+            System.out.println("Paramètres écrits dans " + sortie);
+
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Erreur : arguments invalides (" + e.getMessage() + ").");
+        } catch (ReseauException e) {
+            System.err.println(">> " + e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'accès au fichier : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Charge les instances données (fichiers, ou tous les .txt d'un dossier).
+     * Les fichiers invalides sont signalés puis ignorés.
+     */
+    private static List<Reseau> chargerInstances(List<String> chemins, double lambda) {
+        List<File> fichiers = new ArrayList<>();
+        for (String chemin : chemins) {
+            File f = new File(chemin);
+            if (f.isDirectory()) {
+                File[] contenu = f.listFiles((dossier, nom) -> nom.endsWith(".txt"));
+                if (contenu != null) {
+                    for (File c : contenu) fichiers.add(c);
+                }
+            } else {
+                fichiers.add(f);
+            }
+        }
+
+        List<Reseau> instances = new ArrayList<>();
+        for (File f : fichiers) {
+            try {
+                Reseau r = GestionFichier.lireFichier(f.getPath());
+                if (r.getMaisonsMap().isEmpty() || r.getGenerateursMap().isEmpty()) {
+                    throw new ReseauException.Logique("réseau vide, rien à optimiser.");
+                }
+                r.setLambda(lambda);
+                instances.add(r);
+            } catch (IOException | ReseauException e) {
+                System.err.println("Instance ignorée (" + f.getName() + ") : " + e.getMessage());
+            }
+        }
+        return instances;
+    }
+}
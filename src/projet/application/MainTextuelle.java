@@ -1,10 +1,18 @@
 package projet.application;
 
+import java.util.ArrayList;
 import java.util.InputMismatchException;  
+import java.util.List;
 import java.util.Scanner;
 
 import projet.algo.AlgoOptimiseur;
+import projet.algo.ParametresRecuit;
+import projet.algo.EnregistreurTrace;
+import projet.algo.ReoptimiseurLocal;
+import projet.algo.SurveillanceInstance;
 import projet.exception.ReseauException;
+import projet.io.CacheSolutions;
+import projet.io.DeltaSolution;
 import projet.io.GestionFichier;
 import projet.reseau.Reseau;
 import projet.reseau.TypeConsommation;
@@ -20,6 +28,21 @@ public class MainTextuelle {
 
     private Reseau reseau;
     private Scanner scanner;
+    // Actif uniquement en mode Gestion : les modifications y sont suivies d'une ré-optimisation locale
+    private ReoptimiseurLocal reoptimiseur;
+    // Cache disque des solutions (ouvert à la première résolution)
+    private CacheSolutions cache;
+    // Trajectoire de convergence (option --trace), exportée avec la solution sauvegardée
+    private EnregistreurTrace trace;
+    private static final int CAPACITE_TRACE = 1 << 16;
+    // Instance telle que chargée (mode Fichier) : référence des fichiers de solution .delta
+    private Reseau reseauBase;
+    // Fichier de solution à appliquer au chargement (option --solution)
+    private String cheminSolution;
+    // Fichier de sortie du mode surveillance (option --surveiller)
+    private String cheminSurveillance;
+    // Paramètres du recuit, lus une fois au lancement (fichier de réglage s'il existe)
+    private ParametresRecuit parametres = ParametresRecuit.historiques();
 
     /**
      * Initialise l'application avec un réseau vide et un scanner pour lire les entrées utilisateur.
@@ -36,11 +59,40 @@ public class MainTextuelle {
      * - Si aucun argument : Mode Manuel (Menu de configuration interactif).
      * - Si 1 argument (chemin) : Mode Fichier (Chargement et Menu Automatique).
      * - Si 2 arguments : Mode Fichier avec définition du paramètre Lambda.
+     * - Option --trace (mode Fichier) : la trajectoire de convergence est enregistrée
+     *   et exportée en CSV à côté de chaque solution sauvegardée.
+     * - Option --solution fichier.delta (mode Fichier) : la solution est appliquée à l'instance chargée.
+     * - Option --surveiller sortie (mode Fichier) : au lieu du menu, le fichier d'instance est surveillé ;
+     *   chaque modification est appliquée au réseau résident et la nouvelle solution écrite dans la sortie.
+     * - Option --distance-max d : distance maximale entre une maison placée et son générateur.
      *
-     * @param args Les arguments de la ligne de commande [cheminFichier, lambda]
+     * @param args Les arguments de la ligne de commande [cheminFichier, lambda, --trace, --solution fichier.delta,
+     *             --surveiller sortie, --distance-max d]
      */
     public static void main(String[] args){
         MainTextuelle app = new MainTextuelle();
+        app.parametres = ParametresRecuit.parDefaut();
+
+        // Les options peuvent se trouver n'importe où ; on les retire des arguments positionnels
+        List<String> positionnels = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--trace")) {
+                app.trace = new EnregistreurTrace(CAPACITE_TRACE, 1);
+            } else if (args[i].equals("--solution") && i + 1 < args.length) {
+                app.cheminSolution = args[++i];
+            } else if (args[i].equals("--surveiller") && i + 1 < args.length) {
+                app.cheminSurveillance = args[++i];
+            } else if (args[i].equals("--distance-max") && i + 1 < args.length) {
+                try {
+                    app.reseau.setDistanceMax(Double.parseDouble(args[++i]));
+                } catch (NumberFormatException | ReseauException e) {
+                    System.out.println("Attention: distance maximale invalide, aucune limite de distance.");
+                }
+            } else {
+                positionnels.add(args[i]);
+            }
+        }
+        args = positionnels.toArray(new String[0]);
 
         if (args.length > 0) {
             String cheminFichier = args[0];
@@ -77,9 +129,31 @@ public class MainTextuelle {
 
         try {
             // délégation à GestionFichier pour la lecture et validation
+            // (le Lambda et la distance maximale sont propres à chaque réseau, on les reporte sur le réseau chargé)
+            double lambda = this.reseau.getLambda();
+            double distanceMax = this.reseau.getDistanceMax();
             this.reseau = GestionFichier.lireFichier(chemin);
+            this.reseau.setLambda(lambda);
+            this.reseau.setDistanceMax(distanceMax);
             System.out.println("Succès : Fichier chargé et validé !");
+            this.reseauBase = this.reseau.copier();
+
+            if (cheminSolution != null) {
+                DeltaSolution solution = DeltaSolution.lire(cheminSolution);
+                solution.appliquer(this.reseau);
+                System.out.println("Solution " + cheminSolution + " appliquée (" + solution.getNbEntrees() + " connexions).");
+            }
             
+            if (cheminSurveillance != null) {
+                // Mode surveillance : optimisation initiale, puis mises à jour à chaque modification du fichier
+                resoudreAvecCache();
+                GestionFichier.ecrireFichier(this.reseau, cheminSurveillance);
+                SurveillanceInstance surveillance = new SurveillanceInstance(this.reseau, chemin, cheminSurveillance);
+                surveillance.setParametres(parametres);
+                surveillance.surveiller();
+                return;
+            }
+
             // lancement du menu auto
             menuAutomatique();
 
@@ -126,8 +200,7 @@ public class MainTextuelle {
                     		System.out.println("Côut avant optimisation de l'algorithme : "+ String.format("%.4f", reseau.calculerCout()));
                     		System.out.println();
                     		
-                            AlgoOptimiseur algo = new AlgoOptimiseur(reseau);
-                            algo.resoudre(50000);
+                            resoudreAvecCache();
                     	} catch (ReseauException e) {
                     		System.out.println("Erreur lors de l'optimisation : " + e.getMessage());
                     	}
@@ -153,18 +226,75 @@ public class MainTextuelle {
         }
     }
 
+    /**
+     * Lance l'optimisation en consultant d'abord le cache de solutions.
+     * Un réseau de même structure (mêmes capacités, mêmes types de maisons) déjà résolu
+     * avec le même Lambda est repris directement ; sinon on résout puis on enregistre.
+     *
+     * @throws ReseauException Si le réseau est invalide
+     */
+    private void resoudreAvecCache() throws ReseauException {
+        if (cache == null) {
+            try {
+                cache = new CacheSolutions(CacheSolutions.DOSSIER_DEFAUT, CacheSolutions.TAILLE_MAX_DEFAUT);
+            } catch (IOException e) {
+                System.out.println("Cache indisponible (" + e.getMessage() + "), résolution complète.");
+                resoudreComplet();
+                return;
+            }
+        }
+
+        // Avec --trace on veut la trajectoire d'une vraie résolution : pas de recherche dans le cache
+        if (trace == null && cache.appliquer(reseau)) {
+            System.out.println("Solution trouvée dans le cache. Coût : " + String.format("%.4f", reseau.calculerCout()));
+        } else {
+            resoudreComplet();
+            try {
+                cache.enregistrer(reseau, reseau.calculerCout());
+            } catch (IOException e) {
+                System.out.println("Attention : solution non enregistrée dans le cache (" + e.getMessage() + ").");
+            }
+        }
+        System.out.println("Cache : " + cache.getNbSucces() + " succès / " + (cache.getNbSucces() + cache.getNbEchecs())
+                + " recherches (" + String.format("%.0f", 100 * cache.getTauxSucces()) + " %)");
+    }
+
+    /**
+     * Résout le réseau sans passer par le cache, en enregistrant la trajectoire si --trace est actif.
+     *
+     * @throws ReseauException Si le réseau est invalide
+     */
+    private void resoudreComplet() throws ReseauException {
+        AlgoOptimiseur algo = new AlgoOptimiseur(reseau, parametres);
+        algo.setTrace(trace);
+        algo.resoudre();
+    }
+
     /**
      * Demande à l'utilisateur un nom de fichier et sauvegarde l'état actuel du réseau.
-     * Délègue l'opération d'écriture à la classe utilitaire GestionFichier.
+     * Délègue l'opération d'écriture à la classe utilitaire GestionFichier ; un nom en .delta
+     * n'enregistre que les connexions qui diffèrent de l'instance chargée (DeltaSolution).
      */
     private void sauvegarderSous() {
         System.out.print("Entrez le nom du fichier de sauvegarde : ");
         String nomFichier = scanner.nextLine();
         
         try {
-            // DÉLÉGATION à GestionFichier pour l'écriture
-            GestionFichier.ecrireFichier(this.reseau, nomFichier);
-        } catch (IOException e) {
+            if (nomFichier.endsWith(DeltaSolution.EXTENSION)) {
+                DeltaSolution delta = DeltaSolution.differences(reseauBase, this.reseau);
+                delta.ecrire(nomFichier);
+                System.out.println(delta.getNbEntrees() + " connexions modifiées enregistrées dans " + nomFichier);
+            } else {
+                // DÉLÉGATION à GestionFichier pour l'écriture
+                GestionFichier.ecrireFichier(this.reseau, nomFichier);
+            }
+
+            if (trace != null && trace.getTaille() > 0) {
+                String cheminTrace = (nomFichier.endsWith(".txt") ? nomFichier.substring(0, nomFichier.length() - 4) : nomFichier) + ".trace.csv";
+                trace.exporterCsv(cheminTrace);
+                System.out.println("Trace de convergence (" + trace.getTaille() + " points) exportée dans " + cheminTrace);
+            }
+        } catch (IOException | ReseauException e) {
             System.out.println("Erreur lors de la sauvegarde : " + e.getMessage());
         }
     }
@@ -251,8 +381,13 @@ public class MainTextuelle {
             String nom = parties[0];
             
             int capacite = Integer.parseInt(parties[1]);
-            String resultat = reseau.ajouterOuMajGenerateur(nom, capacite);
-            System.out.println(resultat);
+            if (reoptimiseur != null) {
+                System.out.println(reoptimiseur.ajouterOuMajGenerateur(nom, capacite));
+                afficherReoptimisation();
+            } else {
+                String resultat = reseau.ajouterOuMajGenerateur(nom, capacite);
+                System.out.println(resultat);
+            }
             
         } catch (NumberFormatException e) {
             System.out.println("Erreur: La capacité maximale doit être un nombre entier.");
@@ -286,8 +421,13 @@ public class MainTextuelle {
 	        	throw new ReseauException.DonneeInvalide(typeStr, "BASSE, NORMAL, ou FORTE", 0);
 	        }
 	        
-	        String resultat = reseau.ajouterOuMajMaison(nom, type);
-	        System.out.println(resultat);
+	        if (reoptimiseur != null) {
+	            System.out.println(reoptimiseur.ajouterOuMajMaison(nom, type));
+	            afficherReoptimisation();
+	        } else {
+	            String resultat = reseau.ajouterOuMajMaison(nom, type);
+	            System.out.println(resultat);
+	        }
 	                
 	    } catch (ReseauException e) {
 	    	System.out.println(e.getMessage());
@@ -394,7 +534,8 @@ public class MainTextuelle {
             //reseau.suppConnexion(anc1, anc2);
 	        // Le réseau.ajouterConnexion() gère la validation et la mise à jour si la
 	        // Maison existe déjà.
-	        String resultat = reseau.ajouterConnexion(nouv1 , nouv2);
+	        String resultat = (reoptimiseur != null) ? reoptimiseur.ajouterConnexion(nouv1, nouv2)
+	                                                 : reseau.ajouterConnexion(nouv1 , nouv2);
 	
 	        // Afficher le résultat, comme toutes les erreurs sont gérées par les try catch il ne reste donc que le cas ou c'est une réussite
 	        System.out.println("Modification réussie: " + resultat.replace("MAJ:", "").replace("OK:", "").trim());
@@ -431,15 +572,19 @@ public class MainTextuelle {
      * Affiche le menu de gestion (Opérations).
      * Accessible uniquement une fois le réseau validé.
      * Permet de calculer les coûts, modifier des connexions à la volée ou visualiser le réseau.
+     * Les ajouts/mises à jour d'éléments sont suivis d'une ré-optimisation locale (ReoptimiseurLocal).
      */
     private void menuGestion() {
+        reoptimiseur = new ReoptimiseurLocal(reseau);
         int choix = 0;
-        while (choix != 4) {
+        while (choix != 6) {
             System.out.println("\n--- Menu Gestion du Réseau ---");
             System.out.println("1) Calculer le coût du réseau électrique actuel");
             System.out.println("2) Modifier une connexion");
             System.out.println("3) Afficher le réseau");
-            System.out.println("4) Quitter le programme");
+            System.out.println("4) Ajouter/Mettre à jour un générateur (ré-optimisation locale)");
+            System.out.println("5) Ajouter/Mettre à jour une maison (ré-optimisation locale)");
+            System.out.println("6) Quitter le programme");
             System.out.print("Votre choix: ");
 
             try {
@@ -457,10 +602,16 @@ public class MainTextuelle {
                         reseau.afficherReseau();
                         break;
                     case 4:
+                        ajouterGenerateur();
+                        break;
+                    case 5:
+                        ajouterMaison();
+                        break;
+                    case 6:
                         System.out.println("\nProgramme terminé. Au revoir.");
                         break;
                     default:
-                        System.out.println("Choix invalide. Veuillez saisir un nombre entre 1 et 4.");
+                        System.out.println("Choix invalide. Veuillez saisir un nombre entre 1 et 6.");
                 }
             } catch (InputMismatchException e) {
                 System.out.println("Erreur: Veuillez entrer un nombre entier pour le choix du menu.");
@@ -471,6 +622,20 @@ public class MainTextuelle {
         scanner.close();
     }
 
+    /**
+     * Affiche le résultat de la dernière ré-optimisation locale (déplacements, durée, nouveau coût).
+     */
+    private void afficherReoptimisation() {
+        try {
+            System.out.printf("Ré-optimisation locale : %d maison(s) déplacée(s) en %.3f ms, coût %.4f\n",
+                    reoptimiseur.getDernierNbDeplacements(),
+                    reoptimiseur.getDerniereDureeNanos() / 1e6,
+                    reoptimiseur.getCout());
+        } catch (ReseauException e) {
+            System.out.println("Ré-optimisation locale impossible : " + e.getMessage());
+        }
+    }
+
     /**
      * Lance les calculs de performance du réseau (Dispersion, Surcharge, Coût total).
      * Affiche les résultats formatés avec 4 décimales.
@@ -0,0 +1,44 @@
+package projet.application;
+
+import java.io.IOException;
+
+import projet.algo.ParametresRecuit;
+import projet.distribue.TravailleurDistribue;
+import projet.exception.ReseauException;
+
+/**
+ * Outil en ligne de commande : travailleur d'une résolution distribuée. Il se connecte au
+ * coordinateur (MainCoordinateur), cherche pendant la durée que celui-ci lui indique et lui
+ * renvoie ses meilleures solutions.
+ */
+public class MainTravailleur {
+
+    /**
+     * Point d'entrée du travailleur.
+     * Usage : MainTravailleur &lt;Hote&gt; &lt;Port&gt;
+     *
+     * @param args Les arguments de la ligne de commande
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage : java -cp bin projet.application.MainTravailleur <Hote> <Port>");
+            return;
+        }
+
+        try {
+            TravailleurDistribue travailleur = new TravailleurDistribue(args[0], Integer.parseInt(args[1]));
+            travailleur.setParametres(ParametresRecuit.parDefaut());
+            travailleur.executer();
+            System.out.printf("Travailleur terminé : %d tours, %d solutions envoyées, %d migrations reprises, meilleur coût %.4f\n",
+                    travailleur.getNbTours(), travailleur.getNbSolutionsEnvoyees(),
+                    travailleur.getNbMigrationsReprises(), travailleur.getMeilleurCout());
+
+        } catch (NumberFormatException e) {
+            System.err.println("Erreur : arguments invalides (" + e.getMessage() + ").");
+        } catch (ReseauException e) {
+            System.err.println(">> " + e.getMessage());
+        } catch (IOException e) {
+            System.err.println("Erreur de communication avec le coordinateur : " + e.getMessage());
+        }
+    }
+}
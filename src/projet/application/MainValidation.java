@@ -0,0 +1,52 @@
+package projet.application;
+
+import java.io.IOException;
+
+import projet.exception.ReseauException;
+import projet.io.ValidateurInstance;
+import projet.reseau.TypeConsommation;
+
+/**
+ * Outil en ligne de commande : validation d'une instance sans la charger (voir ValidateurInstance).
+ * Affiche les statistiques du fichier et les problèmes relevés par validerReseau.
+ * Code de sortie : 0 si l'instance est valide, 1 sinon.
+ */
+public class MainValidation {
+
+    /**
+     * Point d'entrée du validateur.
+     * Usage : MainValidation &lt;Instance.txt|Instance.txt.gz|Instance.rsb&gt;
+     *
+     * @param args Les arguments de la ligne de commande
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.out.println("Usage : java -cp bin projet.application.MainValidation <Instance.txt|Instance.txt.gz|Instance.rsb>");
+            return;
+        }
+
+        try {
+            long debut = System.nanoTime();
+            ValidateurInstance v = ValidateurInstance.valider(args[0]);
+            long duree = System.nanoTime() - debut;
+
+            System.out.printf("Générateurs : %d | capacité totale : %d kW\n", v.getNbGenerateurs(), v.getCapaciteTotale());
+            System.out.printf("Maisons : %d (BASSE %d, NORMAL %d, FORTE %d) | demande totale : %d kW\n", v.getNbMaisons(),
+                    v.getNbMaisons(TypeConsommation.BASSE), v.getNbMaisons(TypeConsommation.NORMAL),
+                    v.getNbMaisons(TypeConsommation.FORTE), v.getDemandeTotale());
+            System.out.printf("Connexions : %d maisons connectées, %d non connectées\n", v.getNbConnectees(), v.getNbNonConnectees());
+            System.out.printf("Tension (demande / capacité) : %.4f\n", v.getTension());
+            System.out.printf("Validation en %d ms, tables %.1f Mo\n", duree / 1_000_000, v.getOctetsTables() / 1e6);
+
+            v.verifier();
+            System.out.println("Instance valide.");
+
+        } catch (ReseauException e) {
+            System.err.println(">> " + e.getMessage());
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'accès au fichier : " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
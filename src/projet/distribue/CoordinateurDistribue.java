@@ -0,0 +1,452 @@
+package projet.distribue;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import projet.exception.ReseauException;
+import projet.reseau.Generateur;
+import projet.reseau.Maison;
+import projet.reseau.Reseau;
+import projet.reseau.TableNoms;
+
+/**
+ * Résolution d'un réseau par plusieurs processus travailleurs ({@link TravailleurDistribue}) reliés
+ * en TCP, sur la même machine (boucle locale) ou non.
+ *
+ * Le coordinateur envoie à chaque travailleur un instantané compact du réseau (voir
+ * {@link ProtocoleDistribue}), une graine différente et une durée. Chaque travailleur lance sa
+ * propre recherche (recuit) et renvoie ses meilleures solutions au fil de l'eau. Le coordinateur
+ * vérifie chaque solution reçue (rangs, distance maximale, coût recalculé sur sa propre copie du
+ * réseau) et garde la meilleure. En mode îles (par défaut), toute nouvelle meilleure solution est
+ * renvoyée aux autres travailleurs, qui la reprennent si elle bat la leur.
+ *
+ * Un travailleur qui disparaît en cours de route (processus tué, connexion coupée, message
+ * invalide) est simplement compté comme perdu : les solutions qu'il a déjà envoyées restent
+ * acquises et les autres continuent.
+ */
+public class CoordinateurDistribue {
+
+    // Temps laissé aux travailleurs, après la demande d'arrêt, pour envoyer leur dernière solution
+    private static final long DELAI_GRACE_MS = 5000;
+
+    /**
+     * Résultat d'une résolution distribuée.
+     */
+    public static class Resultat {
+        private final Reseau solution;
+        private final double cout;
+        private final int nbTravailleurs;
+        private final int nbPerdus;
+        private final int nbSolutionsRecues;
+        private final int nbAmeliorations;
+        private final double dureeMs;
+
+        private Resultat(Reseau solution, double cout, int nbTravailleurs, int nbPerdus,
+                         int nbSolutionsRecues, int nbAmeliorations, double dureeMs) {
+            this.solution = solution;
+            this.cout = cout;
+            this.nbTravailleurs = nbTravailleurs;
+            this.nbPerdus = nbPerdus;
+            this.nbSolutionsRecues = nbSolutionsRecues;
+            this.nbAmeliorations = nbAmeliorations;
+            this.dureeMs = dureeMs;
+        }
+
+        /** @return La copie du réseau contenant la meilleure solution reçue */
+        public Reseau getSolution() { return solution; }
+
+        /** @return Le coût de la meilleure solution, recalculé par le coordinateur */
+        public double getCout() { return cout; }
+
+        /** @return Le nombre de travailleurs connectés */
+        public int getNbTravailleurs() { return nbTravailleurs; }
+
+        /** @return Le nombre de travailleurs perdus avant leur fin normale */
+        public int getNbPerdus() { return nbPerdus; }
+
+        /** @return Le nombre de solutions valides reçues */
+        public int getNbSolutionsRecues() { return nbSolutionsRecues; }
+
+        /** @return Le nombre de fois où la meilleure solution globale a été améliorée */
+        public int getNbAmeliorations() { return nbAmeliorations; }
+
+        /** @return La durée de la résolution (connexions comprises), en millisecondes */
+        public double getDureeMs() { return dureeMs; }
+    }
+
+    private final int nbTravailleurs;
+    private long dureeMs = 10_000;
+    private int iterationsParTour = 50_000;
+    private boolean migration = true;
+    private long delaiConnexionMs = 30_000;
+    private long graine = System.nanoTime();
+    private ServerSocket serveur;
+
+    // Rangs du protocole <-> identifiants du réseau
+    private final int[] idsGenerateurs;
+    private final int[] idsMaisons;
+    private final int[] rangGenerateur;
+
+    // Meilleure solution globale (rangs), protégée par le verrou de l'objet
+    private final Reseau verification;
+    private int[] meilleure;
+    private double meilleurCout = Double.POSITIVE_INFINITY;
+    private long version;
+    private int source = -1; // travailleur qui a envoyé la meilleure solution (-1 : réseau initial)
+    private int nbSolutionsRecues;
+    private int nbAmeliorations;
+    private boolean arret;
+
+    /**
+     * Prépare la résolution distribuée d'un réseau (le réseau lui-même n'est pas modifié).
+     *
+     * @param reseau Le réseau à résoudre ; ses connexions complètes, s'il en a, servent de solution de départ
+     * @param nbTravailleurs Le nombre de travailleurs attendus
+     * @throws IllegalArgumentException Si nbTravailleurs &lt; 1
+     */
+    public CoordinateurDistribue(Reseau reseau, int nbTravailleurs) {
+        if (nbTravailleurs < 1) {
+            throw new IllegalArgumentException("Il faut au moins un travailleur.");
+        }
+        this.nbTravailleurs = nbTravailleurs;
+
+        // Rangs, instantané, vérification et solution finale : tous sur les identifiants de la copie
+        this.verification = reseau.copier();
+        TableNoms<Generateur> generateurs = verification.getGenerateursMap();
+        TableNoms<Maison> maisons = verification.getMaisonsMap();
+        this.idsGenerateurs = new int[generateurs.size()];
+        this.rangGenerateur = new int[generateurs.getNbIds()];
+        int rang = 0;
+        for (int id = 0; id < generateurs.getNbIds(); id++) {
+            if (generateurs.parId(id) == null) continue;
+            idsGenerateurs[rang] = id;
+            rangGenerateur[id] = rang++;
+        }
+        this.idsMaisons = new int[maisons.size()];
+        rang = 0;
+        for (int id = 0; id < maisons.getNbIds(); id++) {
+            if (maisons.parId(id) != null) idsMaisons[rang++] = id;
+        }
+    }
+
+    /** @param dureeMs La durée de recherche de chaque travailleur, en millisecondes */
+    public void setDureeMs(long dureeMs) {
+        this.dureeMs = dureeMs;
+    }
+
+    /** @param iterationsParTour Le nombre d'itérations de chaque recuit d'un travailleur (un tour) */
+    public void setIterationsParTour(int iterationsParTour) {
+        this.iterationsParTour = iterationsParTour;
+    }
+
+    /** @param migration true pour renvoyer la meilleure solution aux autres travailleurs (îles), false pour des recherches indépendantes */
+    public void setMigration(boolean migration) {
+        this.migration = migration;
+    }
+
+    /** @param delaiConnexionMs Le temps d'attente maximal des connexions des travailleurs, en millisecondes */
+    public void setDelaiConnexionMs(long delaiConnexionMs) {
+        this.delaiConnexionMs = delaiConnexionMs;
+    }
+
+    /** @param graine La graine de départ (le travailleur k reçoit graine + k), pour des exécutions reproductibles */
+    public void setGraine(long graine) {
+        this.graine = graine;
+    }
+
+    /**
+     * Ouvre le port d'écoute sur la boucle locale, avant de lancer les travailleurs.
+     *
+     * @param port Le port, ou 0 pour un port libre choisi par le système (voir {@link #getPort()})
+     * @throws IOException Si le port ne peut pas être ouvert
+     */
+    public void ouvrir(int port) throws IOException {
+        ouvrir(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    /**
+     * Ouvre le port d'écoute sur une adresse donnée (travailleurs sur d'autres machines).
+     *
+     * @param adresse L'adresse et le port d'écoute
+     * @throws IOException Si le port ne peut pas être ouvert
+     */
+    public void ouvrir(InetSocketAddress adresse) throws IOException {
+        serveur = new ServerSocket();
+        serveur.bind(adresse);
+    }
+
+    /**
+     * @return Le port d'écoute
+     * @throws IllegalStateException Si le port n'a pas été ouvert
+     */
+    public int getPort() {
+        if (serveur == null) throw new IllegalStateException("Le port d'écoute n'est pas ouvert.");
+        return serveur.getLocalPort();
+    }
+
+    /**
+     * Attend les travailleurs, les fait chercher pendant la durée prévue et renvoie la meilleure solution.
+     * La recherche commence dès qu'un travailleur est connecté ; on cesse d'en attendre de nouveaux
+     * quand ils sont tous là ou que le délai de connexion est écoulé.
+     *
+     * @return Le résultat
+     * @throws IOException Si aucun travailleur ne s'est connecté, ou si aucune solution n'a été obtenue
+     * @throws ReseauException En cas d'erreur lors du calcul du coût initial (ex: capacité nulle)
+     */
+    public Resultat executer() throws IOException, ReseauException {
+        long debut = System.nanoTime();
+        if (serveur == null) ouvrir(0);
+        verification.verifierCapacites();
+        if (verification.getConnexionsMap().size() == idsMaisons.length && idsMaisons.length > 0) {
+            // Le réseau est déjà résolu : sa solution est la première référence
+            meilleure = new int[idsMaisons.length];
+            for (int r = 0; r < idsMaisons.length; r++) meilleure[r] = rangGenerateur[verification.getIdGenerateur(idsMaisons[r])];
+            meilleurCout = verification.calculerCout();
+        }
+
+        byte[] instantane = construireInstantane();
+        List<Connexion> connexions = new ArrayList<>();
+        try {
+            long finConnexions = System.currentTimeMillis() + delaiConnexionMs;
+            while (connexions.size() < nbTravailleurs) {
+                long reste = finConnexions - System.currentTimeMillis();
+                if (reste <= 0) break;
+                serveur.setSoTimeout((int) Math.min(reste, Integer.MAX_VALUE));
+                Socket socket;
+                try {
+                    socket = serveur.accept();
+                } catch (SocketTimeoutException e) {
+                    break;
+                }
+                Connexion c = new Connexion(connexions.size(), socket, instantane);
+                connexions.add(c);
+                c.demarrer();
+            }
+            if (connexions.isEmpty()) {
+                throw new IOException("Aucun travailleur ne s'est connecté en " + delaiConnexionMs + " ms.");
+            }
+
+            // Chaque travailleur cherche pendant dureeMs à partir de la réception de l'instantané :
+            // on attend un peu plus, ou moins si tous ont déjà fini
+            long fin = System.currentTimeMillis() + dureeMs + DELAI_GRACE_MS;
+            for (Connexion c : connexions) c.attendre(fin);
+
+            synchronized (this) {
+                arret = true;
+                notifyAll();
+            }
+            long finGrace = System.currentTimeMillis() + DELAI_GRACE_MS;
+            for (Connexion c : connexions) c.attendre(finGrace);
+        } finally {
+            for (Connexion c : connexions) c.fermer();
+            serveur.close();
+            serveur = null;
+        }
+
+        int nbPerdus = 0;
+        for (Connexion c : connexions) {
+            if (!c.termine) nbPerdus++;
+        }
+
+        synchronized (this) {
+            if (meilleure == null) {
+                throw new IOException("Aucune solution reçue des " + connexions.size() + " travailleurs.");
+            }
+            verification.appliquerAffectation(versIdentifiants(meilleure));
+            Reseau solution = verification.copier();
+            return new Resultat(solution, meilleurCout, connexions.size(), nbPerdus, nbSolutionsRecues,
+                    nbAmeliorations, (System.nanoTime() - debut) / 1e6);
+        }
+    }
+
+    /**
+     * Sérialise une fois pour toutes l'instantané commun à tous les travailleurs (avant la
+     * première solution reçue, la copie de vérification porte encore les connexions initiales).
+     */
+    private byte[] construireInstantane() throws IOException {
+        ByteArrayOutputStream octets = new ByteArrayOutputStream(16 + 12 * (idsGenerateurs.length + idsMaisons.length));
+        DataOutputStream out = new DataOutputStream(octets);
+        ProtocoleDistribue.ecrireInstantane(out, verification, idsGenerateurs, idsMaisons, rangGenerateur);
+        out.flush();
+        return octets.toByteArray();
+    }
+
+    /**
+     * Traduit une affectation par rangs en affectation par identifiants.
+     */
+    private int[] versIdentifiants(int[] rangs) {
+        int[] affectation = new int[verification.getMaisonsMap().getNbIds()];
+        Arrays.fill(affectation, -1);
+        for (int r = 0; r < rangs.length; r++) {
+            if (rangs[r] >= 0) affectation[idsMaisons[r]] = idsGenerateurs[rangs[r]];
+        }
+        return affectation;
+    }
+
+    /**
+     * Vérifie une solution reçue et la garde si elle bat la meilleure.
+     *
+     * @throws ReseauException Si une maison est reliée à un générateur hors de portée
+     */
+    private synchronized void proposer(int travailleur, int[] rangs) throws ReseauException {
+        if (verification.getDistanceMax() != Double.POSITIVE_INFINITY) {
+            TableNoms<Maison> maisons = verification.getMaisonsMap();
+            TableNoms<Generateur> generateurs = verification.getGenerateursMap();
+            for (int r = 0; r < rangs.length; r++) {
+                if (rangs[r] < 0) continue;
+                Maison m = maisons.parId(idsMaisons[r]);
+                if (!verification.estAPortee(m, generateurs.parId(idsGenerateurs[rangs[r]]))) {
+                    throw new ReseauException.Logique("La maison " + m.getNom() + " est reliée à un générateur hors de portée.");
+                }
+            }
+        }
+        // Le coût annoncé par le travailleur n'est pas pris sur parole
+        verification.appliquerAffectation(versIdentifiants(rangs));
+        double cout = verification.calculerCout();
+        nbSolutionsRecues++;
+        if (cout < meilleurCout) {
+            meilleurCout = cout;
+            meilleure = rangs;
+            source = travailleur;
+            version++;
+            nbAmeliorations++;
+            notifyAll();
+        }
+    }
+
+    /**
+     * La connexion d'un travailleur : un thread écrit (instantané, migrations, arrêt), un autre lit
+     * ses solutions. Les deux s'arrêtent d'eux-mêmes si la connexion est coupée.
+     */
+    private class Connexion {
+        private final int numero;
+        private final Socket socket;
+        private final byte[] instantane;
+        private final Thread lecteur;
+        private final Thread ecrivain;
+        private volatile boolean termine; // FIN reçu
+
+        Connexion(int numero, Socket socket, byte[] instantane) {
+            this.numero = numero;
+            this.socket = socket;
+            this.instantane = instantane;
+            this.lecteur = new Thread(this::lire, "coordinateur-lecture-" + numero);
+            this.ecrivain = new Thread(this::ecrire, "coordinateur-ecriture-" + numero);
+            lecteur.setDaemon(true);
+            ecrivain.setDaemon(true);
+        }
+
+        void demarrer() {
+            ecrivain.start();
+            lecteur.start();
+        }
+
+        /** Attend la fin de la lecture (FIN reçu ou connexion perdue), au plus jusqu'à l'instant donné. */
+        void attendre(long finMillis) {
+            long reste = finMillis - System.currentTimeMillis();
+            try {
+                if (reste > 0) lecteur.join(reste);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void fermer() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Connexion déjà coupée
+            }
+            try {
+                lecteur.join(1000);
+                ecrivain.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void ecrire() {
+            try {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+                out.writeInt(ProtocoleDistribue.MAGIC);
+                out.writeInt(ProtocoleDistribue.VERSION);
+                out.writeLong(graine + numero);
+                out.writeInt(iterationsParTour);
+                out.writeLong(dureeMs);
+                out.write(instantane);
+                out.flush();
+
+                long versionEnvoyee = 0;
+                while (true) {
+                    int[] aEnvoyer;
+                    double cout;
+                    synchronized (CoordinateurDistribue.this) {
+                        while (!arret && !termine && (!migration || version == versionEnvoyee)) {
+                            CoordinateurDistribue.this.wait(200);
+                        }
+                        if (arret || termine) break;
+                        versionEnvoyee = version;
+                        if (source == numero) continue; // sa propre solution
+                        aEnvoyer = meilleure;
+                        cout = meilleurCout;
+                    }
+                    ProtocoleDistribue.ecrireSolution(out, ProtocoleDistribue.MEILLEURE, cout, aEnvoyer);
+                }
+                if (!termine) {
+                    out.writeByte(ProtocoleDistribue.ARRET);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                // Travailleur perdu : la lecture le constate aussi
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void lire() {
+            try {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+                if (in.readInt() != ProtocoleDistribue.MAGIC || in.readInt() != ProtocoleDistribue.VERSION) return;
+                while (true) {
+                    byte type = in.readByte();
+                    if (type == ProtocoleDistribue.FIN) {
+                        termine = true;
+                        synchronized (CoordinateurDistribue.this) {
+                            CoordinateurDistribue.this.notifyAll();
+                        }
+                        return;
+                    }
+                    if (type != ProtocoleDistribue.SOLUTION) return;
+                    in.readDouble(); // coût annoncé, recalculé par proposer
+                    int[] rangs = ProtocoleDistribue.lireAffectation(in, idsMaisons.length, idsGenerateurs.length);
+                    proposer(numero, rangs);
+                }
+            } catch (EOFException e) {
+                // Travailleur arrêté sans FIN
+            } catch (IOException | ReseauException | RuntimeException e) {
+                // Connexion coupée, solution invalide ou erreur de traitement : le travailleur est abandonné
+            } finally {
+                if (!termine) {
+                    try {
+                        socket.close();
+                    } catch (IOException e) {
+                        // Déjà fermée
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package projet.distribue;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import projet.exception.ReseauException;
+import projet.reseau.Generateur;
+import projet.reseau.Maison;
+import projet.reseau.Reseau;
+import projet.reseau.TableNoms;
+import projet.reseau.TypeConsommation;
+
+/**
+ * Messages échangés entre le coordinateur et les travailleurs (gros-boutiste, flux Data*Stream).
+ *
+ * Les éléments ne sont pas désignés par leur nom mais par leur rang : rang d'un générateur ou d'une
+ * maison dans l'ordre croissant des identifiants du réseau du coordinateur. Le travailleur les
+ * recrée sous les noms "g" + rang et "m" + rang (noms compacts) : ses identifiants sont les rangs.
+ *
+ * Instantané du réseau (envoyé une fois à chaque travailleur, après l'en-tête et les paramètres) :
+ * - Lambda, distance maximale, indicateurs (positions, demandes horaires, affectation initiale) ;
+ * - G générateurs : capacité (int), puis x et y (double, NaN si non placé) avec les positions ;
+ * - M maisons : type (octet), puis avec les demandes horaires le nombre de valeurs (0 : demande du
+ *   type) et les valeurs, puis la position ;
+ * - avec l'affectation initiale, M puis le rang du générateur de chaque maison (-1 : non connectée).
+ *
+ * Messages suivants : un octet de type, puis pour une solution son coût et le rang du générateur
+ * de chaque maison.
+ */
+final class ProtocoleDistribue {
+
+    static final int MAGIC = 0x52535031; // "RSP1" (distinct de DeltaSolution "RSD1")
+    static final int VERSION = 1;
+
+    /** Travailleur vers coordinateur : une solution meilleure que les précédentes. */
+    static final byte SOLUTION = 1;
+    /** Travailleur vers coordinateur : fin normale de la recherche. */
+    static final byte FIN = 2;
+    /** Coordinateur vers travailleur : la meilleure solution globale (migration entre îles). */
+    static final byte MEILLEURE = 3;
+    /** Coordinateur vers travailleur : arrêt demandé. */
+    static final byte ARRET = 4;
+
+    private static final int AVEC_POSITIONS = 1;
+    private static final int AVEC_PROFILS = 2;
+    private static final int AVEC_AFFECTATION = 4;
+    private static final TypeConsommation[] TYPES = TypeConsommation.values();
+
+    private ProtocoleDistribue() {
+    }
+
+    /**
+     * Écrit l'instantané d'un réseau.
+     *
+     * @param reseau Le réseau du coordinateur
+     * @param idsGenerateurs L'identifiant du générateur de chaque rang
+     * @param idsMaisons L'identifiant de la maison de chaque rang
+     * @param rangGenerateur Le rang de chaque générateur, par identifiant
+     */
+    static void ecrireInstantane(DataOutputStream out, Reseau reseau, int[] idsGenerateurs, int[] idsMaisons,
+                                 int[] rangGenerateur) throws IOException {
+        TableNoms<Generateur> generateurs = reseau.getGenerateursMap();
+        TableNoms<Maison> maisons = reseau.getMaisonsMap();
+        boolean positions = reseau.aDesPositions();
+        boolean profils = reseau.aDesProfils();
+        boolean affectation = !reseau.getConnexionsMap().isEmpty();
+
+        out.writeDouble(reseau.getLambda());
+        out.writeDouble(reseau.getDistanceMax());
+        out.writeByte((positions ? AVEC_POSITIONS : 0) | (profils ? AVEC_PROFILS : 0) | (affectation ? AVEC_AFFECTATION : 0));
+
+        out.writeInt(idsGenerateurs.length);
+        for (int id : idsGenerateurs) {
+            Generateur g = generateurs.parId(id);
+            out.writeInt((int) g.getCapaciteMaximale());
+            if (positions) {
+                out.writeDouble(g.getX());
+                out.writeDouble(g.getY());
+            }
+        }
+
+        out.writeInt(idsMaisons.length);
+        for (int id : idsMaisons) {
+            Maison m = maisons.parId(id);
+            out.writeByte(m.getConsommation().ordinal());
+            if (profils) {
+                int[] profil = m.getProfil();
+                out.writeInt(profil == null ? 0 : profil.length);
+                if (profil != null) for (int demande : profil) out.writeInt(demande);
+            }
+            if (positions) {
+                out.writeDouble(m.getX());
+                out.writeDouble(m.getY());
+            }
+        }
+
+        if (affectation) {
+            out.writeInt(idsMaisons.length);
+            for (int id : idsMaisons) {
+                int g = reseau.getIdGenerateur(id);
+                out.writeInt(g < 0 ? -1 : rangGenerateur[g]);
+            }
+        }
+    }
+
+    /**
+     * Lit un instantané et reconstruit le réseau (identifiants = rangs).
+     *
+     * @throws ReseauException Si l'instantané décrit un réseau invalide
+     */
+    static Reseau lireInstantane(DataInputStream in) throws IOException, ReseauException {
+        Reseau reseau = new Reseau();
+        reseau.setLambda(in.readDouble());
+        double distanceMax = in.readDouble();
+        int indicateurs = in.readByte();
+        boolean positions = (indicateurs & AVEC_POSITIONS) != 0;
+        boolean profils = (indicateurs & AVEC_PROFILS) != 0;
+
+        int nbGenerateurs = in.readInt();
+        for (int rang = 0; rang < nbGenerateurs; rang++) {
+            String nom = "g" + rang;
+            reseau.ajouterOuMajGenerateur(nom, in.readInt());
+            if (positions) placer(reseau, nom, true, in.readDouble(), in.readDouble());
+        }
+
+        int nbMaisons = in.readInt();
+        for (int rang = 0; rang < nbMaisons; rang++) {
+            String nom = "m" + rang;
+            int type = in.readByte();
+            if (type < 0 || type >= TYPES.length) {
+                throw new ReseauException.DonneeInvalide("Type de consommation inconnu dans l'instantané : " + type + ".");
+            }
+            int[] profil = null;
+            if (profils) {
+                int longueur = in.readInt();
+                if (longueur > 0) {
+                    profil = new int[longueur];
+                    for (int t = 0; t < longueur; t++) profil[t] = in.readInt();
+                }
+            }
+            reseau.ajouterOuMajMaison(nom, TYPES[type], profil);
+            if (positions) placer(reseau, nom, false, in.readDouble(), in.readDouble());
+        }
+        if (distanceMax != Double.POSITIVE_INFINITY) reseau.setDistanceMax(distanceMax);
+
+        if ((indicateurs & AVEC_AFFECTATION) != 0) {
+            int[] affectation = lireAffectation(in, nbMaisons, nbGenerateurs);
+            reseau.appliquerAffectation(affectation);
+        }
+        return reseau;
+    }
+
+    private static void placer(Reseau reseau, String nom, boolean generateur, double x, double y) throws ReseauException {
+        if (Double.isNaN(x) && Double.isNaN(y)) return;
+        if (generateur) reseau.placerGenerateur(nom, x, y);
+        else reseau.placerMaison(nom, x, y);
+    }
+
+    /**
+     * Écrit une solution (SOLUTION ou MEILLEURE) : type, coût, rang du générateur de chaque maison.
+     */
+    static void ecrireSolution(DataOutputStream out, byte type, double cout, int[] affectation) throws IOException {
+        out.writeByte(type);
+        out.writeDouble(cout);
+        out.writeInt(affectation.length);
+        for (int g : affectation) out.writeInt(g);
+        out.flush();
+    }
+
+    /**
+     * Lit le corps d'une solution (après son octet de type) : le rang du générateur de chaque maison.
+     *
+     * @throws ReseauException Si le nombre de maisons ou un rang de générateur est invalide
+     */
+    static int[] lireAffectation(DataInputStream in, int nbMaisons, int nbGenerateurs) throws IOException, ReseauException {
+        int n = in.readInt();
+        if (n != nbMaisons) {
+            throw new ReseauException.DonneeInvalide("Solution de " + n + " maisons au lieu de " + nbMaisons + ".");
+        }
+        int[] affectation = new int[n];
+        for (int k = 0; k < n; k++) {
+            int g = in.readInt();
+            if (g < -1 || g >= nbGenerateurs) {
+                throw new ReseauException.DonneeInvalide("Générateur de rang " + g + " inconnu dans une solution.");
+            }
+            affectation[k] = g;
+        }
+        return affectation;
+    }
+}
@@ -0,0 +1,251 @@
+package projet.distribue;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+
+import projet.algo.AlgoOptimiseur;
+import projet.algo.ParametresRecuit;
+import projet.exception.ReseauException;
+import projet.reseau.Generateur;
+import projet.reseau.InstantaneReseau;
+import projet.reseau.Maison;
+import projet.reseau.PublicationReseau;
+import projet.reseau.Reseau;
+
+/**
+ * Travailleur d'une résolution distribuée (voir {@link CoordinateurDistribue}).
+ *
+ * Il reçoit l'instantané du réseau, puis enchaîne des tours de recuit jusqu'à la fin de sa durée
+ * ou à la demande d'arrêt du coordinateur, chaque tour repartant de la meilleure solution
+ * (la sienne, ou celle reçue du coordinateur si elle est meilleure). Pendant un tour, le recuit
+ * publie ses améliorations ({@link PublicationReseau}, au plus toutes les 100 ms) ; un thread
+ * d'envoi les transmet au coordinateur sans ralentir la recherche.
+ */
+public class TravailleurDistribue {
+
+    // Intervalle de consultation des publications du recuit par le thread d'envoi
+    private static final long INTERVALLE_ENVOI_MS = 50;
+
+    private final String hote;
+    private final int port;
+    private ParametresRecuit parametres = ParametresRecuit.historiques();
+    private int nbTours;
+    private int nbSolutionsEnvoyees;
+    private int nbMigrationsReprises;
+    private double meilleurCout = Double.POSITIVE_INFINITY;
+
+    // Dernière solution reçue du coordinateur et demande d'arrêt
+    private volatile Migration recue;
+    private volatile boolean arretDemande;
+
+    /**
+     * Une solution reçue du coordinateur (rangs = identifiants) avec son coût.
+     */
+    private static final class Migration {
+        final int[] affectation;
+        final double cout;
+
+        Migration(int[] affectation, double cout) {
+            this.affectation = affectation;
+            this.cout = cout;
+        }
+    }
+
+    /**
+     * @param hote L'adresse du coordinateur
+     * @param port Le port du coordinateur
+     */
+    public TravailleurDistribue(String hote, int port) {
+        this.hote = hote;
+        this.port = port;
+    }
+
+    /**
+     * Fixe les paramètres du recuit (les constantes historiques par défaut). Le nombre
+     * d'itérations d'un tour est celui envoyé par le coordinateur.
+     *
+     * @param parametres Les hyper-paramètres du recuit
+     */
+    public void setParametres(ParametresRecuit parametres) {
+        this.parametres = parametres;
+    }
+
+    /**
+     * Se connecte au coordinateur et cherche jusqu'à la fin de la durée reçue ou à la demande d'arrêt.
+     *
+     * @throws IOException Si la connexion échoue, est coupée, ou si le coordinateur parle un autre protocole
+     * @throws ReseauException Si l'instantané reçu décrit un réseau invalide
+     */
+    public void executer() throws IOException, ReseauException {
+        try (Socket socket = new Socket(hote, port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+            out.writeInt(ProtocoleDistribue.MAGIC);
+            out.writeInt(ProtocoleDistribue.VERSION);
+            out.flush();
+
+            if (in.readInt() != ProtocoleDistribue.MAGIC) {
+                throw new IOException("Le serveur " + hote + ":" + port + " n'est pas un coordinateur.");
+            }
+            int versionProtocole = in.readInt();
+            if (versionProtocole != ProtocoleDistribue.VERSION) {
+                throw new IOException("Version de protocole " + versionProtocole + " non prise en charge.");
+            }
+            long graine = in.readLong();
+            int iterationsParTour = in.readInt();
+            long dureeMs = in.readLong();
+            Reseau reseau = ProtocoleDistribue.lireInstantane(in);
+            long fin = System.currentTimeMillis() + dureeMs;
+
+            Thread lecteur = new Thread(() -> lireMessages(in, reseau), "travailleur-lecture");
+            lecteur.setDaemon(true);
+            lecteur.start();
+
+            PublicationReseau publication = new PublicationReseau();
+            Envoi envoi = new Envoi(out, publication, reseau);
+            Thread emetteur = new Thread(envoi::boucler, "travailleur-envoi");
+            emetteur.setDaemon(true);
+            emetteur.start();
+
+            AlgoOptimiseur algo = new AlgoOptimiseur(reseau, parametres);
+            algo.setAffichageConsole(false);
+            algo.setPublication(publication);
+            boolean reprise = reseau.getConnexionsMap().size() == reseau.getMaisonsMap().size();
+            try {
+                while (!arretDemande && System.currentTimeMillis() < fin) {
+                    Migration migration = recue;
+                    if (migration != null && migration.cout < meilleurCout) {
+                        // Migration : on reprend la meilleure solution globale
+                        reseau.appliquerAffectation(migration.affectation);
+                        meilleurCout = migration.cout;
+                        reprise = true;
+                        nbMigrationsReprises++;
+                    }
+
+                    algo.setGraine(graine + nbTours * 0x9E3779B97F4A7C15L);
+                    algo.setDureeMax(Math.max(1, fin - System.currentTimeMillis()));
+                    algo.resoudre(iterationsParTour, reprise);
+                    meilleurCout = Math.min(meilleurCout, reseau.calculerCout());
+                    reprise = true;
+                    nbTours++;
+                }
+            } finally {
+                envoi.arreter();
+                try {
+                    emetteur.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            // Dernière solution (le réseau contient la meilleure du dernier tour), puis fin normale
+            synchronized (out) {
+                envoi.envoyerSiMeilleure(publication.publier(reseau));
+                out.writeByte(ProtocoleDistribue.FIN);
+                out.flush();
+            }
+            if (envoi.erreur != null) throw envoi.erreur;
+        }
+    }
+
+    /**
+     * Lit les messages du coordinateur (migrations et arrêt) jusqu'à la fermeture de la connexion.
+     */
+    private void lireMessages(DataInputStream in, Reseau reseau) {
+        int nbMaisons = reseau.getMaisonsMap().size();
+        int nbGenerateurs = reseau.getGenerateursMap().size();
+        try {
+            while (true) {
+                byte type = in.readByte();
+                if (type == ProtocoleDistribue.ARRET) break;
+                if (type != ProtocoleDistribue.MEILLEURE) break;
+                double cout = in.readDouble();
+                recue = new Migration(ProtocoleDistribue.lireAffectation(in, nbMaisons, nbGenerateurs), cout);
+            }
+        } catch (IOException | ReseauException e) {
+            // Coordinateur disparu ou message invalide : on s'arrête aussi
+        }
+        arretDemande = true;
+    }
+
+    /** @return Le nombre de tours de recuit effectués */
+    public int getNbTours() { return nbTours; }
+
+    /** @return Le nombre de solutions envoyées au coordinateur */
+    public int getNbSolutionsEnvoyees() { return nbSolutionsEnvoyees; }
+
+    /** @return Le nombre de solutions du coordinateur reprises (migrations) */
+    public int getNbMigrationsReprises() { return nbMigrationsReprises; }
+
+    /** @return Le coût de la meilleure solution de ce travailleur */
+    public double getMeilleurCout() { return meilleurCout; }
+
+    /**
+     * Envoi des améliorations publiées par le recuit. Les instantanés numérotent les éléments dans
+     * l'ordre de parcours des tables ; on les ramène aux identifiants, qui sont les rangs du protocole.
+     */
+    private class Envoi {
+        private final DataOutputStream out;
+        private final PublicationReseau publication;
+        private final int[] idMaisonParRang;
+        private final int[] idGenerateurParRang;
+        private volatile boolean actif = true;
+        private long versionEnvoyee;
+        private double coutEnvoye = Double.POSITIVE_INFINITY;
+        private IOException erreur;
+
+        Envoi(DataOutputStream out, PublicationReseau publication, Reseau reseau) {
+            this.out = out;
+            this.publication = publication;
+            this.idMaisonParRang = new int[reseau.getMaisonsMap().size()];
+            this.idGenerateurParRang = new int[reseau.getGenerateursMap().size()];
+            int rang = 0;
+            for (Maison m : reseau.getMaisonsMap().values()) idMaisonParRang[rang++] = m.getId();
+            rang = 0;
+            for (Generateur g : reseau.getGenerateursMap().values()) idGenerateurParRang[rang++] = g.getId();
+        }
+
+        void boucler() {
+            try {
+                while (actif) {
+                    InstantaneReseau dernier = publication.getDernier();
+                    if (dernier != null && dernier.getVersion() != versionEnvoyee) {
+                        synchronized (out) {
+                            envoyerSiMeilleure(dernier);
+                        }
+                    }
+                    Thread.sleep(INTERVALLE_ENVOI_MS);
+                }
+            } catch (IOException e) {
+                erreur = e;
+                arretDemande = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void arreter() {
+            actif = false;
+        }
+
+        /** Envoie un instantané s'il bat la dernière solution envoyée. A appeler sous le verrou de out. */
+        void envoyerSiMeilleure(InstantaneReseau instantane) throws IOException {
+            versionEnvoyee = instantane.getVersion();
+            double cout = instantane.getCout();
+            if (!(cout < coutEnvoye)) return;
+            int[] affectation = new int[idMaisonParRang.length];
+            for (int r = 0; r < affectation.length; r++) {
+                int g = instantane.getGenerateurDe(r);
+                affectation[idMaisonParRang[r]] = (g < 0) ? -1 : idGenerateurParRang[g];
+            }
+            ProtocoleDistribue.ecrireSolution(out, ProtocoleDistribue.SOLUTION, cout, affectation);
+            coutEnvoye = cout;
+            nbSolutionsEnvoyees++;
+        }
+    }
+}
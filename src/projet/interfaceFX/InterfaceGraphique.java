@@ -18,7 +18,11 @@ import javafx.scene.image.Image;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import projet.algo.AlgoOptimiseur;
+import projet.algo.ParametresRecuit;
+import projet.algo.ReoptimiseurLocal;
 import projet.io.GestionFichier;
+import projet.reseau.InstantaneReseau;
+import projet.reseau.PublicationReseau;
 import projet.reseau.Reseau;
 import projet.reseau.TypeConsommation;
 
@@ -31,11 +35,16 @@ import projet.reseau.TypeConsommation;
  */
 public class InterfaceGraphique extends BorderPane {
 
+    // Le réseau n'est lu et modifié que par le thread JavaFX ; la vue dessine ses instantanés
     private Reseau reseau;
+    private PublicationReseau publication;
     private VueReseau vueReseau;
     private Label messageLabel;
     private HBox bottomBar;
     private boolean modeFichier;
+    // Créé au passage en mode Gestion : chaque modification y est suivie d'une ré-optimisation locale
+    private ReoptimiseurLocal reoptimiseur;
+    private ParametresRecuit parametres;
 
     // Constructeur
     /**
@@ -45,13 +54,17 @@ public class InterfaceGraphique extends BorderPane {
      *
      * @param reseau L'objet Reseau contenant les données à afficher et manipuler
      * @param modeFichier Indique si l'application est en mode "Fichier" (true) ou "Manuel" (false)
+     * @param parametres Les paramètres du recuit utilisés par l'optimisation
      */
-    public InterfaceGraphique(Reseau reseau, boolean modeFichier) {
+    public InterfaceGraphique(Reseau reseau, boolean modeFichier, ParametresRecuit parametres) {
         this.reseau = reseau;
         this.modeFichier = modeFichier;
+        this.parametres = parametres;
         
         // Vue Centrale
-        this.vueReseau = new VueReseau(reseau);
+        this.publication = new PublicationReseau();
+        this.publication.publier(reseau);
+        this.vueReseau = new VueReseau(publication);
         this.setCenter(vueReseau);
 
         // Barre du Haut (Messages)
@@ -100,23 +113,26 @@ public class InterfaceGraphique extends BorderPane {
         btnResoudre.setOnAction(e -> {
             afficherMessage("Optimisation en cours... Veuillez patienter.", false);
             
-            // On lance le calcul dans un Thread séparé pour ne pas bloquer l'interface
+            // On lance le calcul dans un Thread séparé pour ne pas bloquer l'interface.
+            // Le solveur travaille sur sa propre copie et publie ses meilleures solutions :
+            // la vue les affiche au fur et à mesure sans jamais lire un réseau en cours de modification.
+            Reseau copie = reseau.copier();
             new Thread(() -> {
                 try {
                     // On lance l'algorithme
-                    AlgoOptimiseur algo = new AlgoOptimiseur(reseau);
-                    algo.resoudre(50000); 
+                    AlgoOptimiseur algo = new AlgoOptimiseur(copie, parametres);
+                    algo.setPublication(publication);
+                    algo.resoudre(); 
                     
-                    // Une fois fini, on met à jour l'interface (sur le thread JavaFX principal)
+                    // Une fois fini, on reprend la solution dans le réseau (sur le thread JavaFX principal)
                     Platform.runLater(() -> {
-                        vueReseau.rafraichir(); 
-                        // On redessine les nouvelles connexions
+                        reseau.copierConnexionsDepuis(copie);
+                        InstantaneReseau instantane = actualiserVue();
                         
-                        try {
-                            double nouveauCout = reseau.calculerCout();
-                            afficherMessage("Optimisation terminée ! Nouveau coût : " + String.format("%.9f", nouveauCout), false);
-                        } catch (Exception ex) {
-                            afficherMessage(ex.getMessage(), true);
+                        if (instantane.getErreurCout() == null) {
+                            afficherMessage("Optimisation terminée ! Nouveau coût : " + String.format("%.9f", instantane.getCout()), false);
+                        } else {
+                            afficherMessage(instantane.getErreurCout(), true);
                         }
                     });
                     
@@ -196,34 +212,51 @@ public class InterfaceGraphique extends BorderPane {
 
     /**
      * Configure la barre de boutons pour la phase 2 du mode Manuel (Gestion).
-     * Accessible uniquement après validation du réseau. Permet le calcul des coûts 
-     * et la modification des connexions.
+     * Accessible uniquement après validation du réseau. Permet le calcul des coûts, 
+     * la modification des connexions et l'ajout d'éléments avec ré-optimisation locale.
      */
     private void chargerMenuGestionManuel() {
         bottomBar.getChildren().clear();
         afficherMessage("Mode Gestion : Optimisez votre réseau.", false);
+        reoptimiseur = new ReoptimiseurLocal(reseau);
 
         Button btnCout = creerBouton("Calculer Coût");
         Button btnModif = creerBouton("Modifier Connexion");
+        Button btnGen = creerBouton("Ajouter Générateur");
+        Button btnMaison = creerBouton("Ajouter Maison");
         Button btnQuitter = creerBouton("Quitter");
 
         btnCout.setOnAction(e -> {
-            try {
-                double cout = reseau.calculerCout();
-                afficherMessage("Coût total actuel : " + String.format("%.4f", cout), false);
-            } catch (Exception ex) {
-                afficherMessage(ex.getMessage(), true);
+            // Coût du dernier instantané publié (publié après chaque modification)
+            InstantaneReseau instantane = publication.getDernier();
+            if (instantane.getErreurCout() == null) {
+                afficherMessage("Coût total actuel : " + String.format("%.4f", instantane.getCout()), false);
+            } else {
+                afficherMessage(instantane.getErreurCout(), true);
             }
         });
 
         btnModif.setOnAction(e -> ouvrirFormulaireModification());
+        btnGen.setOnAction(e -> ouvrirFormulaireGenerateur());
+        btnMaison.setOnAction(e -> ouvrirFormulaireMaison());
         
         btnQuitter.setOnAction(e -> System.exit(0));
 
-        bottomBar.getChildren().addAll(btnCout, btnModif, btnQuitter);
+        bottomBar.getChildren().addAll(btnCout, btnModif, btnGen, btnMaison, btnQuitter);
     }
     
     
+    /**
+     * Publie l'état actuel du réseau (après une modification sur le thread JavaFX) et le dessine.
+     *
+     * @return L'instantané publié
+     */
+    private InstantaneReseau actualiserVue() {
+        InstantaneReseau instantane = publication.publier(reseau);
+        vueReseau.rafraichir();
+        return instantane;
+    }
+
     // utilitaire !!!
     /**
      * Méthode utilitaire pour créer un bouton avec le style visuel de l'application.
@@ -268,6 +301,20 @@ public class InterfaceGraphique extends BorderPane {
         }
     }
     
+    /**
+     * Résume la dernière ré-optimisation locale pour la barre de messages.
+     *
+     * @return Un texte du type " (2 maison(s) déplacée(s) en 0.050 ms, coût 1.2345)"
+     */
+    private String resumeReoptimisation() {
+        try {
+            return String.format(" (%d maison(s) déplacée(s) en %.3f ms, coût %.4f)",
+                    reoptimiseur.getDernierNbDeplacements(), reoptimiseur.getDerniereDureeNanos() / 1e6, reoptimiseur.getCout());
+        } catch (Exception ex) {
+            return "";
+        }
+    }
+
     /**
      * Ouvre une fenêtre contenant le formulaire d'ajout ou de mise à jour d'un générateur.
      * Gère la saisie du nom et de la capacité, ainsi que la validation des données.
@@ -288,11 +335,12 @@ public class InterfaceGraphique extends BorderPane {
                 String nom = champNom.getText();
                 int cap = Integer.parseInt(champCapacite.getText());
                 
-                // Appel Logique
-                String resultat = reseau.ajouterOuMajGenerateur(nom, cap);
+                // Appel Logique (avec ré-optimisation locale en mode Gestion)
+                String resultat = (reoptimiseur != null) ? reoptimiseur.ajouterOuMajGenerateur(nom, cap) + resumeReoptimisation()
+                                                         : reseau.ajouterOuMajGenerateur(nom, cap);
                 
                 // Mise à jour Vue
-                vueReseau.rafraichir();
+                actualiserVue();
                 afficherMessage(resultat, false);
                 fenetre.close();
             } catch (NumberFormatException nfe) {
@@ -329,9 +377,10 @@ public class InterfaceGraphique extends BorderPane {
                 String nom = champNom.getText();
                 TypeConsommation type = comboType.getValue();
                 
-                String resultat = reseau.ajouterOuMajMaison(nom, type);
+                String resultat = (reoptimiseur != null) ? reoptimiseur.ajouterOuMajMaison(nom, type) + resumeReoptimisation()
+                                                         : reseau.ajouterOuMajMaison(nom, type);
                 
-                vueReseau.rafraichir();
+                actualiserVue();
                 afficherMessage(resultat, false);
                 fenetre.close();
             } catch (Exception ex) {
@@ -376,7 +425,7 @@ public class InterfaceGraphique extends BorderPane {
                     res = reseau.ajouterConnexion(n1, n2);
                 }
                 
-                vueReseau.rafraichir();
+                actualiserVue();
                 afficherMessage(res, false);
                 fenetre.close();
             } catch (Exception ex) {
@@ -432,10 +481,11 @@ public class InterfaceGraphique extends BorderPane {
                     throw new Exception("L'ancienne connexion n'existe pas !");
                 }
 
-                String res = reseau.ajouterConnexion(nouv1, nouv2);
+                String res = (reoptimiseur != null) ? reoptimiseur.ajouterConnexion(nouv1, nouv2) + resumeReoptimisation()
+                                                    : reseau.ajouterConnexion(nouv1, nouv2);
                 
                 // Mise à jour de l'interface
-                vueReseau.rafraichir();
+                actualiserVue();
                 afficherMessage("Modification réussie : " + res, false);
                 fenetre.close();
                 
@@ -1,10 +1,9 @@
 package projet.interfaceFX;
 
 import java.util.ArrayList;   
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
+import javafx.animation.AnimationTimer;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
@@ -13,9 +12,8 @@ import javafx.scene.paint.Color;
 import javafx.scene.shape.Line;
 import javafx.scene.text.Text;
 import javafx.scene.text.TextAlignment;
-import projet.reseau.Generateur;
-import projet.reseau.Maison;
-import projet.reseau.Reseau;
+import projet.reseau.InstantaneReseau;
+import projet.reseau.PublicationReseau;
 import projet.reseau.TypeConsommation;
 
 
@@ -25,10 +23,14 @@ import projet.reseau.TypeConsommation;
  * de nombreux éléments. 
  * Elle dessine les générateurs, les maisons et les connexions
  * sous forme de graphe interactif.
+ *
+ * La vue ne lit jamais le réseau lui-même (un solveur peut le modifier dans un autre thread) :
+ * elle dessine le dernier instantané publié, et se redessine dès qu'une nouvelle version paraît.
  */
 public class VueReseau extends ScrollPane {
 
-    private Reseau reseau;
+    private PublicationReseau publication;
+    private long versionAffichee = -1;
     private Pane toileDessin; 
     
     private Image imgGenerateur;
@@ -36,19 +38,20 @@ public class VueReseau extends ScrollPane {
     private Image imgMaisonNormal;
     private Image imgMaisonForte;
 
-    private Map<Object, List<Line>> lignesAssociees = new HashMap<>();
+    // Lignes de connexion par rang de générateur et par rang de maison (dans l'instantané affiché)
+    private List<List<Line>> lignesParGenerateur = new ArrayList<>();
+    private List<List<Line>> lignesParMaison = new ArrayList<>();
     private List<Line> toutesLesLignes = new ArrayList<>();
-    private Map<Object, ImageView> elementsGraphiques = new HashMap<>();
 
     /**
-     * Construit une nouvelle vue pour le réseau spécifié.
+     * Construit une nouvelle vue pour les instantanés d'un réseau.
      * Initialise le ScrollPane, charge les images des icônes et configure
      * l'écouteur de redimensionnement pour adapter l'affichage à la taille de la fenêtre.
      *
-     * @param reseau Le réseau électrique à visualiser
+     * @param publication Le point de publication des instantanés du réseau à visualiser
      */
-    public VueReseau(Reseau reseau) {
-        this.reseau = reseau;
+    public VueReseau(PublicationReseau publication) {
+        this.publication = publication;
         
         this.setFitToWidth(true); 
         this.setStyle("-fx-background-color: #333333; -fx-background: #333333;"); 
@@ -62,6 +65,15 @@ public class VueReseau extends ScrollPane {
             rafraichir();
         });
 
+        // A chaque image, on vérifie si une nouvelle version a été publiée (lecture sans verrou)
+        new AnimationTimer() {
+            @Override
+            public void handle(long maintenant) {
+                InstantaneReseau dernier = VueReseau.this.publication.getDernier();
+                if (dernier != null && dernier.getVersion() != versionAffichee) rafraichir();
+            }
+        }.start();
+
         try {
             imgGenerateur = new Image("file:icones/generateur.png");
             imgMaisonFaible = new Image("file:icones/faible.png");
@@ -75,23 +87,28 @@ public class VueReseau extends ScrollPane {
     /**
      * Redessine entièrement le contenu de la vue.
      * Cette méthode efface tous les éléments graphiques actuels et les recrée
-     * en fonction de l'état actuel de l'objet Reseau. Elle recalcule également
+     * en fonction du dernier instantané publié. Elle recalcule également
      * les positions des éléments et la hauteur totale nécessaire pour le défilement.
      */
     public void rafraichir() {
         toileDessin.getChildren().clear();
-        elementsGraphiques.clear();
-        lignesAssociees.clear();
+        lignesParGenerateur.clear();
+        lignesParMaison.clear();
         toutesLesLignes.clear();
         
-        if (reseau == null) return;
+        // Une seule lecture de la référence : tout le dessin vient du même instantané
+        InstantaneReseau instantane = (publication != null) ? publication.getDernier() : null;
+        if (instantane == null) return;
+        versionAffichee = instantane.getVersion();
 
-        List<Generateur> generateurs = new ArrayList<>(reseau.getGenerateursMap().values());
-        List<Maison> maisons = new ArrayList<>(reseau.getMaisonsMap().values());
+        int nbGenerateurs = instantane.getNbGenerateurs();
+        int nbMaisons = instantane.getNbMaisons();
+        ImageView[] vuesGenerateurs = new ImageView[nbGenerateurs];
+        ImageView[] vuesMaisons = new ImageView[nbMaisons];
 
         // Calcul Hauteur
         double hauteurParElement = 120; 
-        int maxElements = Math.max(generateurs.size(), maisons.size());
+        int maxElements = Math.max(nbGenerateurs, nbMaisons);
         double hauteurTotale = Math.max(600, maxElements * hauteurParElement + 100);
         toileDessin.setPrefHeight(hauteurTotale);
 
@@ -105,59 +122,59 @@ public class VueReseau extends ScrollPane {
         // -60 pour compenser la largeur de l'icône
 
         // DESSIN DES GéNéRATEURS
-        for (int i = 0; i < generateurs.size(); i++) {
-            Generateur g = generateurs.get(i);
+        for (int i = 0; i < nbGenerateurs; i++) {
+            List<Line> lignes = new ArrayList<>();
+            lignesParGenerateur.add(lignes);
             double y = (i * hauteurParElement) + 80; 
 
             ImageView iv = creerIcone(imgGenerateur, 60);
             iv.setX(xGen);
             iv.setY(y);
 
-            Text nom = new Text(g.getNom() + "\n" + (int)g.getCapaciteMaximale() + "kW");
+            Text nom = new Text(instantane.getNomGenerateur(i) + "\n" + (int)instantane.getCapacite(i) + "kW");
             nom.setFill(Color.WHITE);
             nom.setX(xGen + 10);
             nom.setY(y + 80); 
             nom.setTextAlignment(TextAlignment.CENTER);
 
-            iv.setOnMouseEntered(e -> mettreEnValeurConnexions(g));
+            iv.setOnMouseEntered(e -> mettreEnValeurConnexions(lignes));
             iv.setOnMouseExited(e -> reinitialiserVue());
 
             toileDessin.getChildren().addAll(iv, nom);
-            elementsGraphiques.put(g, iv);
+            vuesGenerateurs[i] = iv;
         }
 
         // DESSIN DES MAISONS
-        for (int i = 0; i < maisons.size(); i++) {
-            Maison m = maisons.get(i);
+        for (int i = 0; i < nbMaisons; i++) {
+            List<Line> lignes = new ArrayList<>();
+            lignesParMaison.add(lignes);
             double y = (i * hauteurParElement) + 80;
 
             Image imgChoisie = imgMaisonNormal;
-            if (m.getConsommation() == TypeConsommation.BASSE) imgChoisie = imgMaisonFaible;
-            else if (m.getConsommation() == TypeConsommation.FORTE) imgChoisie = imgMaisonForte;
+            if (instantane.getType(i) == TypeConsommation.BASSE) imgChoisie = imgMaisonFaible;
+            else if (instantane.getType(i) == TypeConsommation.FORTE) imgChoisie = imgMaisonForte;
 
             ImageView iv = creerIcone(imgChoisie, 50);
             iv.setX(xMaison);
             iv.setY(y);
 
-            Text nom = new Text(m.getNom());
+            Text nom = new Text(instantane.getNomMaison(i));
             nom.setFill(Color.WHITE);
             nom.setX(xMaison + 10);
             nom.setY(y + 70);
 
-            iv.setOnMouseEntered(e -> mettreEnValeurConnexions(m));
+            iv.setOnMouseEntered(e -> mettreEnValeurConnexions(lignes));
             iv.setOnMouseExited(e -> reinitialiserVue());
 
             toileDessin.getChildren().addAll(iv, nom);
-            elementsGraphiques.put(m, iv);
+            vuesMaisons[i] = iv;
         }
 
         // TRACAGE DES LIGNES
-        for (Map.Entry<Maison, Generateur> entry : reseau.getConnexionsMap().entrySet()) {
-            Maison m = entry.getKey();
-            Generateur g = entry.getValue();
-
-            ImageView viewGen = elementsGraphiques.get(g);
-            ImageView viewMaison = elementsGraphiques.get(m);
+        for (int i = 0; i < nbMaisons; i++) {
+            int g = instantane.getGenerateurDe(i);
+            ImageView viewGen = (g >= 0) ? vuesGenerateurs[g] : null;
+            ImageView viewMaison = vuesMaisons[i];
 
             if (viewGen != null && viewMaison != null) {
                 double decalageY = 10;
@@ -175,40 +192,26 @@ public class VueReseau extends ScrollPane {
 
                 toileDessin.getChildren().add(0, ligne); 
                 
-                stockerLignePourObjet(g, ligne);
-                stockerLignePourObjet(m, ligne);
+                lignesParGenerateur.get(g).add(ligne);
+                lignesParMaison.get(i).add(ligne);
                 toutesLesLignes.add(ligne);
             }
         }
     }
 
     /**
-     * Associe une ligne de connexion à un objet métier (Maison ou Générateur).
-     * Cette association permet de retrouver toutes les lignes connectées à un élément
-     * pour l'effet de surbrillance au survol de la souris.
-     *
-     * @param obj L'objet métier (Maison ou Generateur)
-     * @param ligne La ligne graphique représentant la connexion
-     */
-    private void stockerLignePourObjet(Object obj, Line ligne) {
-        lignesAssociees.putIfAbsent(obj, new ArrayList<>());
-        lignesAssociees.get(obj).add(ligne);
-    }
-
-    /**
-     * Active l'effet de surbrillance pour les connexions d'un objet spécifique.
+     * Active l'effet de surbrillance pour les connexions d'un élément spécifique.
      * Lorsqu'un élément est survolé, ses connexions passent en rouge et deviennent plus épaisses,
      * tandis que les autres connexions sont grisées pour améliorer la lisibilité.
      *
-     * @param obj L'objet survolé dont on veut mettre en valeur les connexions
+     * @param lignesCibles Les lignes de connexion de l'élément survolé
      */
-    private void mettreEnValeurConnexions(Object obj) {
+    private void mettreEnValeurConnexions(List<Line> lignesCibles) {
         for (Line l : toutesLesLignes) {
             l.setStroke(Color.DARKGRAY);
             l.setOpacity(0.1);
             l.setStrokeWidth(1);
         }
-        List<Line> lignesCibles = lignesAssociees.get(obj);
         if (lignesCibles != null) {
             for (Line l : lignesCibles) {
                 l.setStroke(Color.RED); 
@@ -248,12 +251,12 @@ public class VueReseau extends ScrollPane {
     }
 
     /**
-     * Met à jour le réseau associé à cette vue et déclenche un rafraîchissement.
+     * Change le point de publication suivi par cette vue et déclenche un rafraîchissement.
      *
-     * @param reseau Le nouveau réseau à afficher
+     * @param publication Les instantanés du nouveau réseau à afficher
      */
-    public void setReseau(Reseau reseau) {
-        this.reseau = reseau;
+    public void setPublication(PublicationReseau publication) {
+        this.publication = publication;
         rafraichir();
     }
 }
\ No newline at end of file
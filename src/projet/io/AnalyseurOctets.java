@@ -0,0 +1,375 @@
+package projet.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import projet.exception.ReseauException;
+import projet.reseau.TypeConsommation;
+
+/**
+ * Analyse d'instances directement sur les octets (fichier projeté en mémoire, tableau...).
+ *
+ * Reproduit exactement les règles de GestionFichier.lireFichier, sans passer par des String
+ * intermédiaires : seuls les noms sont décodés. Correspondances avec la version texte :
+ * - trim() enlève les caractères &lt;= ' ', c'est-à-dire les octets &lt;= 0x20 (les séquences
+ *   multi-octets UTF-8 ne contiennent que des octets &gt;= 0x80) ;
+ * - les fins de ligne sont celles de readLine() : "\n", "\r" ou "\r\n" ;
+ * - split(",") supprime les champs vides en fin de liste ;
+ * - les entiers suivent Integer.parseInt (signe optionnel, dépassement refusé). Un champ contenant
+ *   un octet non ASCII (chiffres Unicode, lettres dont la majuscule est ASCII...) repasse par la
+ *   version String pour garder exactement le même résultat.
+ * Les messages d'erreur et les numéros de ligne sont identiques.
+ *
+ * Une instance d'analyseur garde l'étape courante (générateurs, maisons, connexions) et le numéro
+ * de la dernière ligne lue :
+ * elle doit voir les lignes dans l'ordre du fichier.
+ */
+final class AnalyseurOctets {
+
+    private static final byte[] MOT_GENERATEUR = "generateur".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MOT_MAISON = "maison".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MOT_CONNEXION = "connexion".getBytes(StandardCharsets.US_ASCII);
+    private static final TypeConsommation[] TYPES = TypeConsommation.values();
+
+    private final RecepteurInstance recepteur;
+    // Même décodage que FileReader (jeu de caractères par défaut)
+    private final Charset charset = Charset.defaultCharset();
+    private byte[] tampon = new byte[64];
+    private int etape = GestionFichier.ETAPE_GENERATEUR;
+    private int numLigne = 0;
+    // Premières lignes "generateur" et "maison" vues (pour contrôler l'ordre entre morceaux d'un fichier)
+    private int premiereLigneGenerateur = Integer.MAX_VALUE;
+    private int premiereLigneMaison = Integer.MAX_VALUE;
+
+    // Bornes des deux premiers arguments de la ligne en cours (après trim), et des deux suivants (bruts)
+    private int debutArg0, finArg0, debutArg1, finArg1, debutArg2, finArg2, debutArg3, finArg3;
+
+    AnalyseurOctets(RecepteurInstance recepteur) {
+        this(recepteur, 1);
+    }
+
+    /**
+     * Analyseur d'un morceau de fichier commençant à la ligne premiereLigne.
+     * L'étape part des générateurs : les erreurs d'ordre qui dépendent des lignes précédentes
+     * sont à vérifier par l'appelant (voir getPremiereLigneGenerateur et getPremiereLigneMaison).
+     */
+    AnalyseurOctets(RecepteurInstance recepteur, int premiereLigne) {
+        this.recepteur = recepteur;
+        this.numLigne = premiereLigne - 1;
+    }
+
+    /**
+     * Analyse les lignes de buf[debut, fin). La zone doit commencer au début d'une ligne.
+     * Si la zone n'est pas la fin du fichier, la dernière ligne incomplète (sans fin de ligne,
+     * ou terminée par un '\r' qui pourrait précéder un '\n') n'est pas lue : sa position est renvoyée
+     * pour que l'appelant reprenne à partir d'elle.
+     *
+     * @param buf Les octets
+     * @param debut La position du premier octet
+     * @param fin La position après le dernier octet
+     * @param finDeFichier true si fin est la fin du fichier
+     * @return La position de la première ligne non lue (fin si tout a été lu)
+     * @throws ReseauException À la première ligne invalide, avec son numéro
+     */
+    int analyserZone(ByteBuffer buf, int debut, int fin, boolean finDeFichier) throws ReseauException {
+        int pos = debut;
+        while (pos < fin) {
+            int finLigne = finDeLigne(buf, pos, fin);
+            if (!finDeFichier && (finLigne == fin || (finLigne == fin - 1 && buf.get(finLigne) == '\r'))) {
+                return pos;
+            }
+            numLigne++;
+            analyserLigneProtegee(buf, pos, finLigne, numLigne);
+            pos = apresFinDeLigne(buf, finLigne, fin);
+        }
+        return fin;
+    }
+
+    /** @return Le numéro de la dernière ligne lue */
+    int getNumLigne() {
+        return numLigne;
+    }
+
+    /** @return L'étape atteinte (GestionFichier.ETAPE_*) */
+    int getEtape() {
+        return etape;
+    }
+
+    /** @return La première ligne "generateur" lue, même invalide (Integer.MAX_VALUE si aucune) */
+    int getPremiereLigneGenerateur() {
+        return premiereLigneGenerateur;
+    }
+
+    /** @return La première ligne "maison" lue, même invalide (Integer.MAX_VALUE si aucune) */
+    int getPremiereLigneMaison() {
+        return premiereLigneMaison;
+    }
+
+    /**
+     * L'erreur d'ordre levée pour une ligne "generateur" (ETAPE_GENERATEUR) ou "maison" (ETAPE_MAISON)
+     * arrivant trop tard.
+     */
+    static ReseauException erreurOrdre(int etapeLigne, int numLigne) {
+        if (etapeLigne == GestionFichier.ETAPE_GENERATEUR) {
+            return new ReseauException.Ordre("générateur", "Les générateurs doivent être définis au début du fichier.", numLigne);
+        }
+        return new ReseauException.Ordre("maison", "Les maisons doivent être définies avant les connexions.", numLigne);
+    }
+
+    /**
+     * Analyse une ligne, en convertissant les erreurs imprévues comme le fait GestionFichier.
+     */
+    void analyserLigneProtegee(ByteBuffer buf, int debut, int fin, int numLigne) throws ReseauException {
+        try {
+            analyserLigne(buf, debut, fin, numLigne);
+        } catch (ReseauException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new ReseauException("Erreur critique inattendue : " + e.getMessage(), numLigne);
+        }
+    }
+
+    /**
+     * @return La position du premier '\n' ou '\r' à partir de pos (ou limite s'il n'y en a pas)
+     */
+    static int finDeLigne(ByteBuffer buf, int pos, int limite) {
+        while (pos < limite) {
+            byte c = buf.get(pos);
+            if (c == '\n' || c == '\r') return pos;
+            pos++;
+        }
+        return limite;
+    }
+
+    /**
+     * @return La position du début de la ligne suivante ("\r\n" compte pour une seule fin de ligne)
+     */
+    static int apresFinDeLigne(ByteBuffer buf, int finLigne, int limite) {
+        if (finLigne >= limite) return limite;
+        if (buf.get(finLigne) == '\r' && finLigne + 1 < limite && buf.get(finLigne + 1) == '\n') {
+            return finLigne + 2;
+        }
+        return finLigne + 1;
+    }
+
+    /**
+     * Analyse une ligne (sans son caractère de fin de ligne).
+     */
+    private void analyserLigne(ByteBuffer buf, int debut, int fin, int numLigne) throws ReseauException {
+        // trim()
+        int s = sauterBlancs(buf, debut, fin);
+        int e = reculerBlancs(buf, s, fin);
+        if (s == e) return; // ligne vide
+
+        if (buf.get(e - 1) != '.') {
+            throw new ReseauException.Syntaxe("La ligne doit se terminer par un point '.'", numLigne);
+        }
+        // On retire le point puis trim() à nouveau
+        e = reculerBlancs(buf, s, e - 1);
+
+        if (commencePar(buf, s, e, MOT_GENERATEUR)) {
+            premiereLigneGenerateur = Math.min(premiereLigneGenerateur, numLigne);
+            if (etape > GestionFichier.ETAPE_GENERATEUR) {
+                throw erreurOrdre(GestionFichier.ETAPE_GENERATEUR, numLigne);
+            }
+            etape = GestionFichier.ETAPE_GENERATEUR;
+            int nbArguments = extraireArguments(buf, s, e, numLigne, "generateur");
+            if (nbArguments != 2 && nbArguments != 3) {
+                throw new ReseauException.Syntaxe("generateur", GestionFichier.FORMAT_GENERATEUR, numLigne);
+            }
+            String nom = decoder(buf, debutArg0, finArg0);
+            int capacite;
+            try {
+                capacite = lireEntier(buf, debutArg1, finArg1);
+            } catch (NumberFormatException ex) {
+                throw new ReseauException.DonneeInvalide("capacité du générateur", numLigne);
+            }
+            // Position : facultative, on reprend l'analyse de la version texte sur le champ décodé
+            double[] position = (nbArguments == 3)
+                    ? GestionFichier.lirePosition(decoder(buf, debutArg2, finArg2), "generateur", GestionFichier.FORMAT_GENERATEUR, numLigne)
+                    : null;
+            recepteur.generateur(nom, capacite, position, numLigne);
+
+        } else if (commencePar(buf, s, e, MOT_MAISON)) {
+            premiereLigneMaison = Math.min(premiereLigneMaison, numLigne);
+            if (etape > GestionFichier.ETAPE_MAISON) {
+                throw erreurOrdre(GestionFichier.ETAPE_MAISON, numLigne);
+            }
+            etape = GestionFichier.ETAPE_MAISON;
+            int nbArguments = extraireArguments(buf, s, e, numLigne, "maison");
+            if (nbArguments < 2 || nbArguments > 4) {
+                throw new ReseauException.Syntaxe("maison", GestionFichier.FORMAT_MAISON, numLigne);
+            }
+            String nom = decoder(buf, debutArg0, finArg0);
+            // Demande horaire et position : rares, on reprend l'analyse de la version texte sur les champs décodés
+            String champ2 = (nbArguments >= 3) ? decoder(buf, debutArg2, finArg2) : null;
+            int[] profil = (champ2 != null && GestionFichier.estProfil(champ2)) ? GestionFichier.lireProfil(champ2, numLigne) : null;
+            int indicePosition = (profil != null) ? 3 : 2;
+            if (nbArguments > indicePosition + 1) {
+                throw new ReseauException.Syntaxe("maison", GestionFichier.FORMAT_MAISON, numLigne);
+            }
+            double[] position = null;
+            if (nbArguments == indicePosition + 1) {
+                String champ = (indicePosition == 2) ? champ2 : decoder(buf, debutArg3, finArg3);
+                position = GestionFichier.lirePosition(champ, "maison", GestionFichier.FORMAT_MAISON, numLigne);
+            }
+            TypeConsommation type = lireType(buf, debutArg1, finArg1);
+            if (type == null) {
+                String typeStr = decoder(buf, debutArg1, finArg1).toUpperCase();
+                throw new ReseauException.DonneeInvalide(typeStr, "BASSE, NORMAL, ou FORTE", numLigne);
+            }
+            recepteur.maison(nom, type, profil, position, numLigne);
+
+        } else if (commencePar(buf, s, e, MOT_CONNEXION)) {
+            etape = GestionFichier.ETAPE_CONNEXION;
+            if (extraireArguments(buf, s, e, numLigne, "connexion") != 2) {
+                throw new ReseauException.Syntaxe("connexion", "connexion(nom1,nom2)", numLigne);
+            }
+            recepteur.connexion(decoder(buf, debutArg0, finArg0), decoder(buf, debutArg1, finArg1), numLigne);
+
+        } else {
+            // Mot inconnu : même expression que GestionFichier (cas d'erreur, le coût n'importe pas)
+            String ligne = decoder(buf, s, e);
+            throw new ReseauException.Syntaxe("Mot-clé inconnu '" + ligne.split("\\(")[0] + "'", numLigne);
+        }
+    }
+
+    /**
+     * Équivalent de GestionFichier.extraireArguments suivi de trim() sur les deux premiers champs.
+     * Renseigne debutArg0/finArg0 et debutArg1/finArg1, et debutArg2/finArg2 et debutArg3/finArg3 (sans trim).
+     *
+     * @return Le nombre d'arguments que renverrait split(",")
+     */
+    private int extraireArguments(ByteBuffer buf, int s, int e, int numLigne, String motCle) throws ReseauException {
+        int debutPar = -1;
+        for (int i = s; i < e; i++) {
+            if (buf.get(i) == '(') { debutPar = i; break; }
+        }
+        int finPar = -1;
+        for (int i = e - 1; i >= s; i--) {
+            if (buf.get(i) == ')') { finPar = i; break; }
+        }
+        if (debutPar == -1 || finPar == -1 || finPar < debutPar) {
+            throw new ReseauException.Syntaxe("Parenthèses manquantes ou mal placées pour '" + motCle + "'", numLigne);
+        }
+
+        int debut = debutPar + 1;
+        int fin = finPar;
+        if (sauterBlancs(buf, debut, fin) == fin) return 0; // contenu vide
+
+        // split(",") : on compte les champs en ignorant les champs vides de fin
+        int nbChamps = 0;
+        int nbChampsNonVides = 0; // nombre de champs jusqu'au dernier champ non vide
+        int debutChamp = debut;
+        for (int i = debut; i <= fin; i++) {
+            if (i == fin || buf.get(i) == ',') {
+                if (nbChamps == 0) { debutArg0 = debutChamp; finArg0 = i; }
+                else if (nbChamps == 1) { debutArg1 = debutChamp; finArg1 = i; }
+                else if (nbChamps == 2) { debutArg2 = debutChamp; finArg2 = i; }
+                else if (nbChamps == 3) { debutArg3 = debutChamp; finArg3 = i; }
+                nbChamps++;
+                if (i > debutChamp) nbChampsNonVides = nbChamps;
+                debutChamp = i + 1;
+            }
+        }
+
+        // trim() des deux premiers champs
+        debutArg0 = sauterBlancs(buf, debutArg0, finArg0);
+        finArg0 = reculerBlancs(buf, debutArg0, finArg0);
+        if (nbChamps > 1) {
+            debutArg1 = sauterBlancs(buf, debutArg1, finArg1);
+            finArg1 = reculerBlancs(buf, debutArg1, finArg1);
+        }
+        return nbChampsNonVides;
+    }
+
+    /**
+     * Integer.parseInt sur les octets [s, e).
+     */
+    private int lireEntier(ByteBuffer buf, int s, int e) {
+        if (s >= e) throw new NumberFormatException();
+        int i = s;
+        boolean negatif = false;
+        byte c = buf.get(i);
+        if (c == '-' || c == '+') {
+            negatif = (c == '-');
+            if (++i == e) throw new NumberFormatException();
+        }
+        long valeur = 0;
+        for (; i < e; i++) {
+            c = buf.get(i);
+            if (c < '0' || c > '9') {
+                // Octet non ASCII : peut-être un chiffre Unicode, que parseInt accepte
+                if (c < 0) return Integer.parseInt(decoder(buf, s, e));
+                throw new NumberFormatException();
+            }
+            valeur = valeur * 10 + (c - '0');
+            if (valeur > 1L + Integer.MAX_VALUE) throw new NumberFormatException();
+        }
+        if (negatif) valeur = -valeur;
+        if (valeur > Integer.MAX_VALUE) throw new NumberFormatException();
+        return (int) valeur;
+    }
+
+    /**
+     * TypeConsommation.valueOf(champ.toUpperCase()) sur les octets [s, e), ou null si invalide.
+     */
+    private TypeConsommation lireType(ByteBuffer buf, int s, int e) {
+        for (int i = s; i < e; i++) {
+            if (buf.get(i) < 0) {
+                // Non ASCII : toUpperCase peut produire des lettres ASCII (ex: 'ſ' -> 'S')
+                try {
+                    return TypeConsommation.valueOf(decoder(buf, s, e).toUpperCase());
+                } catch (IllegalArgumentException ex) {
+                    return null;
+                }
+            }
+        }
+        for (TypeConsommation type : TYPES) {
+            String nom = type.name();
+            if (nom.length() != e - s) continue;
+            boolean egal = true;
+            for (int k = 0; k < nom.length() && egal; k++) {
+                int c = buf.get(s + k);
+                if (c >= 'a' && c <= 'z') c -= 'a' - 'A';
+                egal = (c == nom.charAt(k));
+            }
+            if (egal) return type;
+        }
+        return null;
+    }
+
+    /**
+     * Décode les octets [s, e) ; les noms purement ASCII évitent le décodeur.
+     */
+    private String decoder(ByteBuffer buf, int s, int e) {
+        int n = e - s;
+        if (tampon.length < n) tampon = new byte[Math.max(n, tampon.length * 2)];
+        boolean ascii = true;
+        for (int i = 0; i < n; i++) {
+            byte c = buf.get(s + i);
+            tampon[i] = c;
+            ascii &= (c >= 0);
+        }
+        return new String(tampon, 0, n, ascii ? StandardCharsets.ISO_8859_1 : charset);
+    }
+
+    private static boolean commencePar(ByteBuffer buf, int s, int e, byte[] mot) {
+        if (e - s < mot.length) return false;
+        for (int k = 0; k < mot.length; k++) {
+            if (buf.get(s + k) != mot[k]) return false;
+        }
+        return true;
+    }
+
+    private static int sauterBlancs(ByteBuffer buf, int s, int e) {
+        while (s < e && (buf.get(s) & 0xFF) <= ' ') s++;
+        return s;
+    }
+
+    private static int reculerBlancs(ByteBuffer buf, int s, int e) {
+        while (e > s && (buf.get(e - 1) & 0xFF) <= ' ') e--;
+        return e;
+    }
+}
@@ -0,0 +1,184 @@
+package projet.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import projet.reseau.EmpreinteReseau;
+import projet.reseau.Generateur;
+import projet.reseau.Maison;
+import projet.reseau.Reseau;
+
+/**
+ * Cache disque de solutions, indexé par l'empreinte canonique du réseau et par Lambda.
+ *
+ * Une entrée contient l'affectation dans l'ordre canonique (maison i -> générateur j) :
+ * elle s'applique à tout réseau de même empreinte, quels que soient les noms.
+ * La taille totale du dossier est bornée ; les entrées les moins récemment utilisées
+ * (date de modification du fichier, mise à jour à chaque succès) sont supprimées en premier.
+ *
+ * Les méthodes sont synchronisées : un même cache peut être partagé entre plusieurs threads.
+ */
+public class CacheSolutions {
+
+    /** Dossier utilisé par défaut par les outils en ligne de commande. */
+    public static final String DOSSIER_DEFAUT = "cache_solutions";
+    /** Taille maximale par défaut du dossier (64 Mo). */
+    public static final long TAILLE_MAX_DEFAUT = 64L * 1024 * 1024;
+
+    private static final int MAGIC = 0x52534331; // "RSC1"
+    private static final String EXTENSION = ".sol";
+
+    private File dossier;
+    private long tailleMaxOctets;
+    private int nbSucces;
+    private int nbEchecs;
+
+    /**
+     * Ouvre (et crée si besoin) un cache de solutions.
+     *
+     * @param dossier Le dossier où sont stockées les entrées
+     * @param tailleMaxOctets La taille totale maximale des entrées
+     * @throws IOException Si le dossier ne peut pas être créé
+     */
+    public CacheSolutions(String dossier, long tailleMaxOctets) throws IOException {
+        this.dossier = new File(dossier);
+        this.tailleMaxOctets = tailleMaxOctets;
+        if (!this.dossier.isDirectory() && !this.dossier.mkdirs()) {
+            throw new IOException("Impossible de créer le dossier de cache " + dossier);
+        }
+    }
+
+    /**
+     * Cherche une solution pour ce réseau (même empreinte, même Lambda) et, si elle existe,
+     * remplace les connexions du réseau par cette solution.
+     *
+     * @param reseau Le réseau à résoudre
+     * @return true en cas de succès (connexions reconstruites), false si absent du cache
+     */
+    public synchronized boolean appliquer(Reseau reseau) {
+        EmpreinteReseau empreinte = EmpreinteReseau.calculer(reseau);
+        File fichier = fichierPour(empreinte, reseau.getLambda());
+        if (!fichier.isFile()) {
+            nbEchecs++;
+            return false;
+        }
+
+        List<Maison> maisons = empreinte.getMaisonsCanoniques();
+        List<Generateur> generateurs = empreinte.getGenerateursCanoniques();
+        int[] affectation;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(fichier)))) {
+            if (in.readInt() != MAGIC || in.readInt() != maisons.size() || in.readInt() != generateurs.size()) {
+                nbEchecs++;
+                return false;
+            }
+            in.readDouble(); // coût enregistré (informatif)
+            affectation = new int[maisons.size()];
+            for (int i = 0; i < affectation.length; i++) {
+                affectation[i] = in.readInt();
+                if (affectation[i] < 0 || affectation[i] >= generateurs.size()) {
+                    nbEchecs++;
+                    return false;
+                }
+            }
+        } catch (IOException e) {
+            // Entrée corrompue ou tronquée : on la traite comme absente
+            nbEchecs++;
+            return false;
+        }
+
+        reseau.getConnexionsMap().clear();
+        for (int i = 0; i < affectation.length; i++) {
+            reseau.getConnexionsMap().put(maisons.get(i), generateurs.get(affectation[i]));
+        }
+
+        fichier.setLastModified(System.currentTimeMillis()); // LRU
+        nbSucces++;
+        return true;
+    }
+
+    /**
+     * Enregistre la solution actuelle du réseau (toutes les maisons doivent être connectées).
+     * Le cache est ensuite ramené sous sa taille maximale.
+     *
+     * @param reseau Le réseau résolu
+     * @param cout Le coût de la solution (conservé à titre indicatif)
+     * @return true si la solution a été enregistrée
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public synchronized boolean enregistrer(Reseau reseau, double cout) throws IOException {
+        if (reseau.getConnexionsMap().size() != reseau.getMaisonsMap().size()) return false;
+
+        EmpreinteReseau empreinte = EmpreinteReseau.calculer(reseau);
+        List<Maison> maisons = empreinte.getMaisonsCanoniques();
+        List<Generateur> generateurs = empreinte.getGenerateursCanoniques();
+
+        // Rang canonique de chaque générateur, par identifiant
+        int[] indexGen = new int[reseau.getGenerateursMap().getNbIds()];
+        for (int j = 0; j < generateurs.size(); j++) indexGen[generateurs.get(j).getId()] = j;
+
+        File fichier = fichierPour(empreinte, reseau.getLambda());
+        File temporaire = new File(dossier, fichier.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaire)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(maisons.size());
+            out.writeInt(generateurs.size());
+            out.writeDouble(cout);
+            for (Maison m : maisons) {
+                out.writeInt(indexGen[reseau.getIdGenerateur(m.getId())]);
+            }
+        }
+        // Remplacement atomique : un lecteur ne voit jamais une entrée à moitié écrite
+        Files.move(temporaire.toPath(), fichier.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        evincer();
+        return true;
+    }
+
+    /** @return Le nombre de recherches ayant abouti */
+    public synchronized int getNbSucces() { return nbSucces; }
+
+    /** @return Le nombre de recherches infructueuses */
+    public synchronized int getNbEchecs() { return nbEchecs; }
+
+    /**
+     * @return Le taux de succès (entre 0 et 1, 0 si aucune recherche)
+     */
+    public synchronized double getTauxSucces() {
+        int total = nbSucces + nbEchecs;
+        return (total == 0) ? 0.0 : (double) nbSucces / total;
+    }
+
+    /**
+     * Supprime les entrées les moins récemment utilisées tant que la taille maximale est dépassée.
+     */
+    private void evincer() {
+        File[] entrees = dossier.listFiles((d, nom) -> nom.endsWith(EXTENSION));
+        if (entrees == null) return;
+
+        long total = 0;
+        for (File f : entrees) total += f.length();
+        if (total <= tailleMaxOctets) return;
+
+        Arrays.sort(entrees, Comparator.comparingLong(File::lastModified));
+        for (File f : entrees) {
+            if (total <= tailleMaxOctets) break;
+            long taille = f.length();
+            if (f.delete()) total -= taille;
+        }
+    }
+
+    private File fichierPour(EmpreinteReseau empreinte, double lambda) {
+        return new File(dossier, empreinte.getEmpreinte() + "_" + Long.toHexString(Double.doubleToLongBits(lambda)) + EXTENSION);
+    }
+}
@@ -0,0 +1,68 @@
+package projet.io;
+
+import projet.exception.ReseauException;
+import projet.reseau.Reseau;
+import projet.reseau.TypeConsommation;
+
+/**
+ * Construit un Reseau à partir des éléments lus. Les règles (existence des éléments d'une connexion,
+ * messages d'erreur, numéros de ligne) sont celles de GestionFichier, partagées par tous les lecteurs.
+ */
+class ConstructeurReseau implements RecepteurInstance {
+
+    private final Reseau reseau;
+
+    ConstructeurReseau(Reseau reseau) {
+        this.reseau = reseau;
+    }
+
+    /** @return Le réseau en cours de construction */
+    Reseau getReseau() {
+        return reseau;
+    }
+
+    @Override
+    public void generateur(String nom, int capacite, double[] position, int numLigne) throws ReseauException {
+        reseau.ajouterOuMajGenerateur(nom, capacite);
+        // Une ligne décrit tout l'élément : redéclaré sans position, il perd la sienne
+        if (position != null) reseau.placerGenerateur(nom, position[0], position[1]);
+        else if (reseau.aDesPositions()) reseau.placerGenerateur(nom, Double.NaN, Double.NaN);
+    }
+
+    @Override
+    public void maison(String nom, TypeConsommation type, int[] profil, double[] position, int numLigne) throws ReseauException {
+        // Tous les profils d'un fichier ont la même longueur : erreur située dans le fichier
+        if (profil != null && reseau.aDesProfils() && profil.length != reseau.getNbPeriodes()) {
+            throw new ReseauException("Le profil de la maison " + nom + " a " + profil.length
+                    + " périodes au lieu de " + reseau.getNbPeriodes() + ".", numLigne);
+        }
+        reseau.ajouterOuMajMaison(nom, type, profil);
+        if (position != null) reseau.placerMaison(nom, position[0], position[1]);
+        else if (reseau.aDesPositions()) reseau.placerMaison(nom, Double.NaN, Double.NaN);
+    }
+
+    @Override
+    public void connexion(String nom1, String nom2, int numLigne) throws ReseauException {
+        // VALIDATION AVANCEE : On vérifie l'existence AVANT d'essayer d'ajouter la connexion
+        // Cela permet de lancer ElementIntrouvable avec le numéro de ligne exact du fichier
+        // Générateurs d'abord : la table est petite, un nom de maison y est écarté sans parcourir celle des maisons
+        boolean nom1Existe = reseau.getGenerateursMap().containsKey(nom1) || reseau.getMaisonsMap().containsKey(nom1);
+        boolean nom2Existe = reseau.getGenerateursMap().containsKey(nom2) || reseau.getMaisonsMap().containsKey(nom2);
+
+        if (!nom1Existe) {
+            throw new ReseauException.ElementIntrouvable("élément", nom1, numLigne);
+        }
+        if (!nom2Existe) {
+            throw new ReseauException.ElementIntrouvable("élément", nom2, numLigne);
+        }
+
+        // Si tout existe, on tente la connexion
+        // Note: Reseau.ajouterConnexion retourne une String, on doit l'analyser
+        String resultat = reseau.ajouterConnexion(nom1, nom2);
+
+        if (resultat != null && resultat.startsWith("Erreur")) {
+            // Si c'est une erreur logique (ex: maison déjà connectée), on lève une exception générique avec le message
+            throw new ReseauException(resultat.replace("Erreur: ", ""), numLigne);
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package projet.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import projet.exception.ReseauException;
+import projet.reseau.ElementNomme;
+import projet.reseau.Generateur;
+import projet.reseau.Maison;
+import projet.reseau.Reseau;
+import projet.reseau.TableNoms;
+
+/**
+ * Fichier de solution seule (extension .delta), rattaché à son instance de base par une empreinte
+ * de contenu : au lieu de réécrire tout le réseau après chaque résolution, on ne garde que
+ * l'affectation, ou seulement ce qui diffère des connexions de l'instance.
+ *
+ * Deux modes :
+ * - AFFECTATION : toutes les connexions de la solution (les maisons absentes ne sont pas connectées) ;
+ * - DIFFERENCES : les seules maisons dont le générateur diffère de celui de l'instance de base
+ *   (ou qui y sont déconnectées).
+ *
+ * L'empreinte de contenu ({@link #empreinteContenu(Reseau)}) porte sur les noms, capacités, types
+ * (et demandes horaires, positions) et connexions de l'instance, sans dépendre de l'ordre. On la calcule une fois au chargement de
+ * l'instance : {@link #appliquer(Reseau, String)} ne coûte ensuite que le nombre d'entrées
+ * (recherches par nom, puis mise à jour des connexions), et renvoie le delta qui l'annule.
+ *
+ * Disposition (DataOutputStream) : magic "RSD1", empreinte de base, mode, Lambda de la solution,
+ * dictionnaire des générateurs cités, puis les entrées (nom de maison, indice du générateur dans
+ * le dictionnaire ou -1 si la maison n'est pas connectée).
+ */
+public class DeltaSolution {
+
+    /** Extension des fichiers de solution seule. */
+    public static final String EXTENSION = ".delta";
+
+    private static final int MAGIC = 0x52534431; // "RSD1"
+
+    /**
+     * Contenu d'un fichier de solution.
+     */
+    public enum Mode {
+        /** Toutes les connexions de la solution. */
+        AFFECTATION,
+        /** Les connexions qui diffèrent de l'instance de base. */
+        DIFFERENCES
+    }
+
+    private final String empreinteBase;
+    private final Mode mode;
+    private final double lambda;
+    private final String[] generateurs; // dictionnaire des générateurs cités
+    private final String[] maisons;
+    private final int[] indices; // indice dans generateurs, -1 : maison non connectée
+
+    private DeltaSolution(String empreinteBase, Mode mode, double lambda, String[] generateurs, String[] maisons, int[] indices) {
+        this.empreinteBase = empreinteBase;
+        this.mode = mode;
+        this.lambda = lambda;
+        this.generateurs = generateurs;
+        this.maisons = maisons;
+        this.indices = indices;
+    }
+
+    /**
+     * Calcule l'empreinte de contenu d'une instance : noms et capacités des générateurs, noms et
+     * types des maisons, connexions. Indépendante de l'ordre (somme d'empreintes d'éléments), en O(N).
+     *
+     * @param reseau Le réseau dans son état de base
+     * @return L'empreinte (128 bits, en hexadécimal)
+     */
+    public static String empreinteContenu(Reseau reseau) {
+        long a = 0;
+        long b = 0;
+        for (Generateur g : reseau.getGenerateursMap().values()) {
+            long e = ValidateurInstance.empreinte(g.getNom()) + 0x9E3779B97F4A7C15L * (1 + (long) g.getCapaciteMaximale());
+            e = melangerPosition(e, g);
+            a += brasser(e);
+            b += brasser(e ^ 0x5851F42D4C957F2DL);
+        }
+        int periodes = reseau.getNbPeriodes();
+        for (Maison m : reseau.getMaisonsMap().values()) {
+            long e = ValidateurInstance.empreinte(m.getNom()) * 31 + 1 + m.getConsommation().ordinal();
+            if (m.aUnProfil()) {
+                // Demande horaire : mélangée à l'empreinte de la maison (inchangée sans profil)
+                for (int t = 0; t < periodes; t++) e = brasser(e + 0x9E3779B97F4A7C15L * (1 + (long) m.getDemandeKw(t)));
+            }
+            e = melangerPosition(e, m);
+            a += brasser(e ^ 0x2545F4914F6CDD1DL);
+            b += brasser(e ^ 0x14057B7EF767814FL);
+        }
+        for (Map.Entry<Maison, Generateur> c : reseau.getConnexionsMap().entrySet()) {
+            long e = brasser(ValidateurInstance.empreinte(c.getKey().getNom())) ^ ValidateurInstance.empreinte(c.getValue().getNom());
+            a += brasser(e ^ 0x7FB5D329728EA185L);
+            b += brasser(e ^ 0x81DADEF4BC2DD44DL);
+        }
+        return String.format("%016x%016x", a, b);
+    }
+
+    /**
+     * Mélange la position d'un élément placé à son empreinte (inchangée sans position).
+     */
+    private static long melangerPosition(long e, ElementNomme element) {
+        if (!element.aUnePosition()) return e;
+        e = brasser(e + 0x632BE59BD9B4E019L * (1 + Double.doubleToLongBits(element.getX())));
+        return brasser(e + 0x632BE59BD9B4E019L * (1 + Double.doubleToLongBits(element.getY())));
+    }
+
+    /**
+     * Construit le delta d'une solution par rapport à son instance de base (deux réseaux distincts,
+     * appariés par nom, par exemple l'instance chargée et la copie résolue).
+     *
+     * @param base L'instance de base (connexions d'origine)
+     * @param solution La solution, sur les mêmes maisons et générateurs
+     * @return Le delta en mode DIFFERENCES
+     * @throws ReseauException Si la solution ne porte pas sur les éléments de la base
+     */
+    public static DeltaSolution differences(Reseau base, Reseau solution) throws ReseauException {
+        TableNoms<Maison> maisonsBase = base.getMaisonsMap();
+        if (solution.getMaisonsMap().size() != maisonsBase.size()
+                || solution.getGenerateursMap().size() != base.getGenerateursMap().size()) {
+            throw new ReseauException.Logique("La solution ne porte pas sur les maisons et générateurs de l'instance de base.");
+        }
+
+        Map<Maison, Generateur> connexionsBase = base.getConnexionsMap();
+        Map<Maison, Generateur> connexions = solution.getConnexionsMap();
+        List<String> noms = new ArrayList<>();
+        List<String> nomsGen = new ArrayList<>();
+        for (Maison m : solution.getMaisonsMap().valeursTriees()) {
+            Maison mBase = maisonsBase.getMemeNom(m);
+            if (mBase == null) throw new ReseauException.ElementIntrouvable("maison", m.getNom());
+            Generateur g = connexions.get(m);
+            Generateur gBase = connexionsBase.get(mBase);
+            if (g == null ? gBase == null : gBase != null && g.memeNom(gBase)) continue;
+            if (g != null && base.getGenerateursMap().getMemeNom(g) == null) {
+                throw new ReseauException.ElementIntrouvable("générateur", g.getNom());
+            }
+            noms.add(m.getNom());
+            nomsGen.add(g == null ? null : g.getNom());
+        }
+        return construire(empreinteContenu(base), Mode.DIFFERENCES, solution.getLambda(), noms, nomsGen);
+    }
+
+    /**
+     * Construit le delta complet d'une solution : toutes ses connexions.
+     *
+     * @param empreinteBase L'empreinte de contenu de l'instance de base (voir empreinteContenu)
+     * @param solution La solution
+     * @return Le delta en mode AFFECTATION
+     */
+    public static DeltaSolution affectation(String empreinteBase, Reseau solution) {
+        Map<Maison, Generateur> connexions = solution.getConnexionsMap();
+        List<String> noms = new ArrayList<>();
+        List<String> nomsGen = new ArrayList<>();
+        for (Maison m : solution.getMaisonsMap().valeursTriees()) {
+            Generateur g = connexions.get(m);
+            if (g == null) continue;
+            noms.add(m.getNom());
+            nomsGen.add(g.getNom());
+        }
+        return construire(empreinteBase, Mode.AFFECTATION, solution.getLambda(), noms, nomsGen);
+    }
+
+    /**
+     * Applique le delta à un réseau dans l'état de son instance de base, en calculant d'abord son
+     * empreinte de contenu (O(N)). Pour appliquer plusieurs solutions à la même instance, calculer
+     * l'empreinte une fois et utiliser {@link #appliquer(Reseau, String)}.
+     *
+     * @param reseau Le réseau dans l'état de l'instance de base
+     * @return Le delta qui annule cette application
+     * @throws ReseauException Si le réseau n'est pas l'instance de base ou qu'un élément manque
+     */
+    public DeltaSolution appliquer(Reseau reseau) throws ReseauException {
+        return appliquer(reseau, empreinteContenu(reseau));
+    }
+
+    /**
+     * Applique le delta à un réseau dont l'empreinte de contenu est déjà connue, en O(nombre d'entrées)
+     * (en mode AFFECTATION, les anciennes connexions sont aussi retirées). Tous les noms sont résolus
+     * avant la moindre modification : en cas d'erreur, le réseau est inchangé.
+     *
+     * @param reseau Le réseau dans l'état de l'instance de base
+     * @param empreinteReseau L'empreinte de contenu du réseau, calculée au chargement
+     * @return Le delta qui annule cette application (mode DIFFERENCES, même empreinte de base)
+     * @throws ReseauException Si l'empreinte n'est pas celle de la base ou qu'un élément manque
+     */
+    public DeltaSolution appliquer(Reseau reseau, String empreinteReseau) throws ReseauException {
+        if (!empreinteBase.equals(empreinteReseau)) {
+            throw new ReseauException.Logique("La solution porte sur une autre instance (empreinte " + empreinteBase
+                    + ", réseau " + empreinteReseau + ").");
+        }
+
+        Generateur[] gens = new Generateur[generateurs.length];
+        for (int j = 0; j < gens.length; j++) {
+            gens[j] = reseau.getGenerateursMap().get(generateurs[j]);
+            if (gens[j] == null) throw new ReseauException.ElementIntrouvable("générateur", generateurs[j]);
+        }
+        Maison[] ms = new Maison[maisons.length];
+        for (int i = 0; i < ms.length; i++) {
+            ms[i] = reseau.getMaisonsMap().get(maisons[i]);
+            if (ms[i] == null) throw new ReseauException.ElementIntrouvable("maison", maisons[i]);
+        }
+
+        // Annulation : ancien générateur (ou aucun) de chaque maison touchée
+        Map<Maison, Generateur> connexions = reseau.getConnexionsMap();
+        List<String> noms = new ArrayList<>();
+        List<String> nomsGen = new ArrayList<>();
+        if (mode == Mode.AFFECTATION) {
+            for (Map.Entry<Maison, Generateur> c : connexions.entrySet()) {
+                noms.add(c.getKey().getNom());
+                nomsGen.add(c.getValue().getNom());
+            }
+            for (Maison m : ms) {
+                if (!connexions.containsKey(m)) {
+                    noms.add(m.getNom());
+                    nomsGen.add(null);
+                }
+            }
+            connexions.clear();
+        } else {
+            for (Maison m : ms) {
+                Generateur ancien = connexions.get(m);
+                noms.add(m.getNom());
+                nomsGen.add(ancien == null ? null : ancien.getNom());
+            }
+        }
+
+        for (int i = 0; i < ms.length; i++) {
+            if (indices[i] < 0) {
+                connexions.remove(ms[i]);
+            } else {
+                connexions.put(ms[i], gens[indices[i]]);
+            }
+        }
+        return construire(empreinteBase, Mode.DIFFERENCES, reseau.getLambda(), noms, nomsGen);
+    }
+
+    /**
+     * Écrit le delta (remplacement atomique du fichier).
+     *
+     * @param chemin Le chemin du fichier
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public void ecrire(String chemin) throws IOException {
+        File fichier = new File(chemin);
+        File temporaire = new File(fichier.getAbsoluteFile().getParentFile(), "." + fichier.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaire)))) {
+            out.writeInt(MAGIC);
+            out.writeUTF(empreinteBase);
+            out.writeByte(mode.ordinal());
+            out.writeDouble(lambda);
+            out.writeInt(generateurs.length);
+            for (String nom : generateurs) out.writeUTF(nom);
+            out.writeInt(maisons.length);
+            for (int i = 0; i < maisons.length; i++) {
+                out.writeUTF(maisons[i]);
+                out.writeInt(indices[i]);
+            }
+        }
+        Files.move(temporaire.toPath(), fichier.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Lit un fichier de solution.
+     *
+     * @param chemin Le chemin du fichier
+     * @return Le delta lu
+     * @throws IOException En cas d'erreur de lecture
+     * @throws ReseauException Si le fichier n'est pas un fichier de solution valide
+     */
+    public static DeltaSolution lire(String chemin) throws IOException, ReseauException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(chemin)))) {
+            if (in.readInt() != MAGIC) {
+                throw new ReseauException.DonneeInvalide("Fichier de solution invalide (en-tête absent).");
+            }
+            String empreinte = in.readUTF();
+            int rangMode = in.readUnsignedByte();
+            if (rangMode >= Mode.values().length) {
+                throw new ReseauException.DonneeInvalide("Fichier de solution invalide (mode " + rangMode + ").");
+            }
+            double lambda = in.readDouble();
+
+            String[] generateurs = new String[lireTaille(in)];
+            for (int j = 0; j < generateurs.length; j++) generateurs[j] = in.readUTF();
+            int n = lireTaille(in);
+            String[] maisons = new String[n];
+            int[] indices = new int[n];
+            for (int i = 0; i < n; i++) {
+                maisons[i] = in.readUTF();
+                indices[i] = in.readInt();
+                if (indices[i] < -1 || indices[i] >= generateurs.length) {
+                    throw new ReseauException.DonneeInvalide("Fichier de solution invalide (générateur " + indices[i] + ").");
+                }
+            }
+            return new DeltaSolution(empreinte, Mode.values()[rangMode], lambda, generateurs, maisons, indices);
+        } catch (EOFException e) {
+            throw new ReseauException.DonneeInvalide("Fichier de solution tronqué.");
+        }
+    }
+
+    /** @return L'empreinte de contenu de l'instance de base */
+    public String getEmpreinteBase() { return empreinteBase; }
+
+    /** @return Le mode du delta */
+    public Mode getMode() { return mode; }
+
+    /** @return Le Lambda de la solution (informatif) */
+    public double getLambda() { return lambda; }
+
+    /** @return Le nombre d'entrées (connexions ou différences) */
+    public int getNbEntrees() { return maisons.length; }
+
+    private static int lireTaille(DataInputStream in) throws IOException, ReseauException {
+        int n = in.readInt();
+        if (n < 0) throw new ReseauException.DonneeInvalide("Fichier de solution invalide (taille " + n + ").");
+        return n;
+    }
+
+    /**
+     * Construit un delta à partir de paires (maison, générateur ou null), avec son dictionnaire de générateurs.
+     */
+    private static DeltaSolution construire(String empreinte, Mode mode, double lambda, List<String> noms, List<String> nomsGen) {
+        Map<String, Integer> dictionnaire = new HashMap<>();
+        List<String> generateurs = new ArrayList<>();
+        int[] indices = new int[noms.size()];
+        for (int i = 0; i < indices.length; i++) {
+            String nomGen = nomsGen.get(i);
+            if (nomGen == null) {
+                indices[i] = -1;
+                continue;
+            }
+            Integer j = dictionnaire.get(nomGen);
+            if (j == null) {
+                j = generateurs.size();
+                dictionnaire.put(nomGen, j);
+                generateurs.add(nomGen);
+            }
+            indices[i] = j;
+        }
+        return new DeltaSolution(empreinte, mode, lambda, generateurs.toArray(new String[0]), noms.toArray(new String[0]), indices);
+    }
+
+    /**
+     * Brassage final de MurmurHash3 (64 bits).
+     */
+    private static long brasser(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe53a87L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,212 @@
+package projet.io;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import projet.exception.ReseauException;
+
+/**
+ * Différence entre deux versions d'un fichier d'instance texte, traduite en événements.
+ *
+ * On garde la version de référence (ses octets et les empreintes 64 bits de ses lignes, triées).
+ * Pour une nouvelle version, seules les empreintes des lignes sont calculées ; les lignes qui
+ * n'existent que d'un côté sont ensuite les seules à être décodées et analysées :
+ * - ligne ajoutée generateur(..) / maison(..) : événement GENERATEUR / MAISON (ajout ou mise à jour) ;
+ * - ligne ajoutée connexion(..) : événement CONNEXION (connexion imposée) ;
+ * - ligne retirée generateur(..) / maison(..) dont le nom n'est plus déclaré : suppression ;
+ * - ligne retirée connexion(..) : aucun événement, la connexion n'est plus imposée mais la maison
+ *   reste là où l'optimisation l'a placée.
+ *
+ * Les lignes sont comparées comme un ensemble (l'ordre et les lignes vides ne comptent pas).
+ * La syntaxe des lignes modifiées est vérifiée, mais pas l'ordre de déclaration du fichier.
+ */
+public class DiffInstance {
+
+    // Même jeu de caractères que la lecture (FileReader)
+    private final Charset charset = Charset.defaultCharset();
+
+    private byte[] contenu;
+    private long[] empreintesTriees;
+
+    // Version comparée en dernier, en attente de validation
+    private byte[] contenuCompare;
+    private long[] empreintesComparees;
+    private int nbLignesModifiees;
+
+    /**
+     * @param contenu Le contenu de la version de référence (celle qui a été chargée)
+     */
+    public DiffInstance(byte[] contenu) {
+        this.contenu = contenu;
+        this.empreintesTriees = empreintesTriees(contenu);
+    }
+
+    /**
+     * Compare une nouvelle version à la référence. La référence ne change pas tant que
+     * {@link #valider()} n'est pas appelé après une comparaison réussie (une version invalide
+     * pourra être corrigée ensuite).
+     *
+     * @param nouveau Le contenu de la nouvelle version
+     * @return Les événements qui font passer de la référence à la nouvelle version
+     * @throws ReseauException Si une ligne modifiée est mal formée (numéro de ligne de la nouvelle version)
+     */
+    public List<EvenementReseau> comparer(byte[] nouveau) throws ReseauException {
+        long[] empreintes = empreintesTriees(nouveau);
+        long[] ajoutees = difference(empreintes, empreintesTriees);
+        long[] retirees = difference(empreintesTriees, empreintes);
+        contenuCompare = null;
+        nbLignesModifiees = ajoutees.length + retirees.length;
+
+        List<EvenementReseau> evenements = new ArrayList<>();
+        if (nbLignesModifiees == 0) {
+            attendreValidation(nouveau, empreintes);
+            return evenements;
+        }
+
+        List<EvenementReseau> lignesAjoutees = analyser(nouveau, ajoutees);
+        List<EvenementReseau> lignesRetirees = analyser(contenu, retirees);
+
+        // Ajouts et mises à jour, dans l'ordre des déclarations d'un fichier d'instance
+        Set<String> declares = new HashSet<>();
+        for (EvenementReseau.Nature nature : new EvenementReseau.Nature[] {
+                EvenementReseau.Nature.GENERATEUR, EvenementReseau.Nature.MAISON, EvenementReseau.Nature.CONNEXION}) {
+            for (EvenementReseau e : lignesAjoutees) {
+                if (e.getNature() != nature) continue;
+                evenements.add(e);
+                if (nature != EvenementReseau.Nature.CONNEXION) declares.add(nature + e.getNom());
+            }
+        }
+        // Retraits : seulement si l'élément n'est pas redéclaré (ligne simplement modifiée)
+        for (EvenementReseau e : lignesRetirees) {
+            if (declares.contains(e.getNature() + e.getNom())) continue;
+            if (e.getNature() == EvenementReseau.Nature.MAISON) {
+                evenements.add(EvenementReseau.suppressionMaison(e.getNom(), e.getNumLigne()));
+            } else if (e.getNature() == EvenementReseau.Nature.GENERATEUR) {
+                evenements.add(EvenementReseau.suppressionGenerateur(e.getNom(), e.getNumLigne()));
+            }
+        }
+        attendreValidation(nouveau, empreintes);
+        return evenements;
+    }
+
+    /**
+     * La dernière version comparée devient la référence.
+     */
+    public void valider() {
+        if (contenuCompare == null) return;
+        contenu = contenuCompare;
+        empreintesTriees = empreintesComparees;
+        contenuCompare = null;
+        empreintesComparees = null;
+    }
+
+    private void attendreValidation(byte[] nouveau, long[] empreintes) {
+        contenuCompare = nouveau;
+        empreintesComparees = empreintes;
+    }
+
+    /** @return Le nombre de lignes ajoutées ou retirées lors de la dernière comparaison */
+    public int getNbLignesModifiees() { return nbLignesModifiees; }
+
+    /** @return Le nombre de lignes non vides de la référence */
+    public int getNbLignes() { return empreintesTriees.length; }
+
+    /**
+     * Décode et analyse les lignes du contenu dont l'empreinte fait partie de la sélection.
+     */
+    private List<EvenementReseau> analyser(byte[] octets, long[] selection) throws ReseauException {
+        List<EvenementReseau> evenements = new ArrayList<>();
+        if (selection.length == 0) return evenements;
+        int numLigne = 0;
+        int debut = 0;
+        while (debut < octets.length) {
+            int fin = finDeLigne(octets, debut);
+            numLigne++;
+            int d = debut;
+            int f = fin;
+            while (d < f && (octets[d] & 0xff) <= ' ') d++;
+            while (f > d && (octets[f - 1] & 0xff) <= ' ') f--;
+            if (d < f && Arrays.binarySearch(selection, empreinte(octets, d, f)) >= 0) {
+                String ligne = new String(octets, d, f - d, charset);
+                EvenementReseau e = LecteurEvenements.analyser(ligne, numLigne);
+                if (e.getNature() != EvenementReseau.Nature.GENERATEUR && e.getNature() != EvenementReseau.Nature.MAISON
+                        && e.getNature() != EvenementReseau.Nature.CONNEXION) {
+                    // Les suppressions sont des événements de flux, pas des lignes d'instance
+                    throw new ReseauException.Syntaxe("Mot-clé inconnu '" + ligne.split("\\(")[0] + "'", numLigne);
+                }
+                evenements.add(e);
+            }
+            debut = fin + 1;
+        }
+        return evenements;
+    }
+
+    /**
+     * Empreintes des lignes non vides (sans les espaces autour), triées.
+     */
+    private static long[] empreintesTriees(byte[] octets) {
+        long[] empreintes = new long[1024];
+        int n = 0;
+        int debut = 0;
+        while (debut < octets.length) {
+            int fin = finDeLigne(octets, debut);
+            int d = debut;
+            int f = fin;
+            while (d < f && (octets[d] & 0xff) <= ' ') d++;
+            while (f > d && (octets[f - 1] & 0xff) <= ' ') f--;
+            if (d < f) {
+                if (n == empreintes.length) empreintes = Arrays.copyOf(empreintes, n * 2);
+                empreintes[n++] = empreinte(octets, d, f);
+            }
+            debut = fin + 1;
+        }
+        empreintes = Arrays.copyOf(empreintes, n);
+        Arrays.sort(empreintes);
+        return empreintes;
+    }
+
+    /**
+     * Valeurs distinctes de a absentes de b (deux tableaux triés).
+     */
+    private static long[] difference(long[] a, long[] b) {
+        long[] resultat = new long[16];
+        int n = 0;
+        int j = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (i > 0 && a[i] == a[i - 1]) continue;
+            while (j < b.length && b[j] < a[i]) j++;
+            if (j < b.length && b[j] == a[i]) continue;
+            if (n == resultat.length) resultat = Arrays.copyOf(resultat, n * 2);
+            resultat[n++] = a[i];
+        }
+        return Arrays.copyOf(resultat, n);
+    }
+
+    private static int finDeLigne(byte[] octets, int debut) {
+        int fin = debut;
+        while (fin < octets.length && octets[fin] != '\n') fin++;
+        return fin;
+    }
+
+    /**
+     * Empreinte 64 bits d'une ligne : FNV-1a sur les octets puis brassage de MurmurHash3
+     * (comme ValidateurInstance pour les noms).
+     */
+    private static long empreinte(byte[] octets, int debut, int fin) {
+        long h = 0xcbf29ce484222325L;
+        for (int k = debut; k < fin; k++) {
+            h ^= octets[k] & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe53a87L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
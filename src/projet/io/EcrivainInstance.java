@@ -0,0 +1,234 @@
+package projet.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import projet.reseau.ElementNomme;
+import projet.reseau.Generateur;
+import projet.reseau.Maison;
+import projet.reseau.Reseau;
+
+/**
+ * Écriture rapide d'un réseau au format texte : les lignes sont construites directement en octets
+ * dans un tampon réutilisé (sans String.format ni String intermédiaire), puis écrites par un
+ * FileChannel. Un fichier .gz est compressé au fil de l'écriture.
+ *
+ * Avec le tri (activé par défaut), la sortie est déterministe : générateurs et maisons par nom,
+ * connexions dans l'ordre des maisons. Sans tri, on suit l'ordre des maps du réseau.
+ */
+public class EcrivainInstance {
+
+    /** Extension des fichiers compressés. */
+    public static final String EXTENSION_GZIP = ".gz";
+
+    private static final int TAILLE_TAMPON = 1 << 16;
+    private static final byte[] GENERATEUR = "generateur(".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MAISON = "maison(".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CONNEXION = "connexion(".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PROFIL = ("," + GestionFichier.PREFIXE_PROFIL).getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FIN_LIGNE = ").\n".getBytes(StandardCharsets.US_ASCII);
+
+    // Même jeu de caractères que la lecture (FileReader)
+    private final Charset charset = Charset.defaultCharset();
+    private final byte[] tampon = new byte[TAILLE_TAMPON];
+    private final byte[] chiffres = new byte[11];
+    private int taille;
+    private boolean tri = true;
+    private FileChannel canal;
+    private OutputStream gzip;
+
+    /**
+     * @param tri true pour une sortie déterministe (triée par nom), false pour l'ordre des maps (plus rapide)
+     */
+    public void setTri(boolean tri) {
+        this.tri = tri;
+    }
+
+    /**
+     * Écrit le réseau dans un fichier, compressé si le chemin se termine par .gz.
+     *
+     * @param reseau Le réseau à écrire
+     * @param chemin Le fichier de destination (remplacé s'il existe)
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public void ecrire(Reseau reseau, String chemin) throws IOException {
+        try (FileChannel fc = FileChannel.open(Paths.get(chemin), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            canal = fc;
+            taille = 0;
+            if (chemin.endsWith(EXTENSION_GZIP)) {
+                // Compression rapide : le texte est très redondant, le gain d'un niveau plus élevé est faible
+                gzip = new GZIPOutputStream(Channels.newOutputStream(fc), TAILLE_TAMPON) {
+                    {
+                        def.setLevel(Deflater.BEST_SPEED);
+                    }
+                };
+            }
+            try {
+                ecrireLignes(reseau);
+                vider();
+                if (gzip != null) gzip.close(); // écrit la fin du flux gzip
+            } finally {
+                gzip = null;
+                canal = null;
+            }
+        }
+    }
+
+    private void ecrireLignes(Reseau reseau) throws IOException {
+        List<Generateur> generateurs;
+        List<Maison> maisons;
+        if (tri) {
+            generateurs = reseau.getGenerateursMap().valeursTriees();
+            maisons = reseau.getMaisonsMap().valeursTriees();
+        } else {
+            generateurs = new ArrayList<>(reseau.getGenerateursMap().values());
+            maisons = new ArrayList<>(reseau.getMaisonsMap().values());
+        }
+
+        for (Generateur g : generateurs) {
+            ajouter(GENERATEUR);
+            ajouter(g);
+            ajouter((byte) ',');
+            ajouter((int) g.getCapaciteMaximale());
+            ajouterPosition(g);
+            ajouter(FIN_LIGNE);
+        }
+
+        int periodes = reseau.getNbPeriodes();
+        for (Maison m : maisons) {
+            ajouter(MAISON);
+            ajouter(m);
+            ajouter((byte) ',');
+            ajouter(m.getConsommation().name());
+            if (m.aUnProfil()) {
+                ajouter(PROFIL);
+                for (int t = 0; t < periodes; t++) {
+                    if (t > 0) ajouter((byte) ' ');
+                    ajouter(m.getDemandeKw(t));
+                }
+            }
+            ajouterPosition(m);
+            ajouter(FIN_LIGNE);
+        }
+
+        Map<Maison, Generateur> connexions = reseau.getConnexionsMap();
+        if (tri) {
+            for (Maison m : maisons) {
+                Generateur g = connexions.get(m);
+                if (g != null) ajouterConnexion(g, m);
+            }
+        } else {
+            for (Map.Entry<Maison, Generateur> entry : connexions.entrySet()) {
+                ajouterConnexion(entry.getValue(), entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Ajoute le champ ",pos=x y" d'un élément placé (rare : la chaîne de GestionFichier suffit).
+     */
+    private void ajouterPosition(ElementNomme element) throws IOException {
+        if (!element.aUnePosition()) return;
+        ajouter((byte) ',');
+        ajouter(GestionFichier.formaterPosition(element.getX(), element.getY()));
+    }
+
+    private void ajouterConnexion(Generateur g, Maison m) throws IOException {
+        ajouter(CONNEXION);
+        ajouter(g);
+        ajouter((byte) ',');
+        ajouter(m);
+        ajouter(FIN_LIGNE);
+    }
+
+    private void ajouter(byte octet) throws IOException {
+        if (taille == tampon.length) vider();
+        tampon[taille++] = octet;
+    }
+
+    private void ajouter(byte[] octets) throws IOException {
+        if (taille + octets.length > tampon.length) vider();
+        if (octets.length > tampon.length) {
+            ecrireBrut(octets, octets.length);
+            return;
+        }
+        System.arraycopy(octets, 0, tampon, taille, octets.length);
+        taille += octets.length;
+    }
+
+    /**
+     * Ajoute le nom d'un élément, écrit directement depuis sa forme compacte quand il est ASCII.
+     */
+    private void ajouter(ElementNomme element) throws IOException {
+        int fin = element.ecrireNomAscii(tampon, taille);
+        if (fin < 0) {
+            ajouter(element.getNom()); // nom non ASCII, ou fin du tampon
+            return;
+        }
+        taille = fin;
+    }
+
+    /**
+     * Ajoute un nom : copie directe des caractères ASCII, sinon encodage avec le jeu de caractères par défaut.
+     */
+    private void ajouter(String texte) throws IOException {
+        int n = texte.length();
+        if (taille + n > tampon.length) vider();
+        if (n <= tampon.length) {
+            int debut = taille;
+            for (int k = 0; k < n; k++) {
+                char c = texte.charAt(k);
+                if (c >= 0x80) {
+                    taille = debut;
+                    ajouter(texte.getBytes(charset));
+                    return;
+                }
+                tampon[taille++] = (byte) c;
+            }
+            return;
+        }
+        ajouter(texte.getBytes(charset));
+    }
+
+    private void ajouter(int valeur) throws IOException {
+        if (taille + chiffres.length > tampon.length) vider();
+        long v = valeur;
+        if (v < 0) {
+            tampon[taille++] = '-';
+            v = -v;
+        }
+        int n = 0;
+        do {
+            chiffres[n++] = (byte) ('0' + v % 10);
+            v /= 10;
+        } while (v != 0);
+        while (n > 0) tampon[taille++] = chiffres[--n];
+    }
+
+    private void vider() throws IOException {
+        ecrireBrut(tampon, taille);
+        taille = 0;
+    }
+
+    private void ecrireBrut(byte[] octets, int longueur) throws IOException {
+        if (gzip != null) {
+            gzip.write(octets, 0, longueur);
+            return;
+        }
+        ByteBuffer bb = ByteBuffer.wrap(octets, 0, longueur);
+        while (bb.hasRemaining()) canal.write(bb);
+    }
+}
@@ -0,0 +1,110 @@
+package projet.io;
+
+import projet.reseau.TypeConsommation;
+
+/**
+ * Représente une modification élémentaire du réseau lue dans un flux d'événements.
+ * Le format des lignes est celui des fichiers d'instance, complété par la suppression :
+ * - "generateur(nom,capacite)." : ajout ou changement de capacité
+ *   (avec "generateur(nom,capacite,pos=x y)." : et de position)
+ * - "maison(nom,TYPE)." : ajout ou changement de type de consommation
+ *   (avec "maison(nom,TYPE,profil=d1 d2 ...,pos=x y)." : et de demande horaire et/ou de position)
+ * - "connexion(nom1,nom2)." : connexion forcée
+ * - "suppression(nom)." : retrait d'une maison
+ * - "suppressionGenerateur(nom)." : retrait d'un générateur (ses maisons sont déconnectées)
+ * - "deconnexion(nom1,nom2)." : suppression d'une connexion
+ */
+public class EvenementReseau {
+
+    /**
+     * Les différentes natures d'événement.
+     */
+    public enum Nature {
+        GENERATEUR, MAISON, CONNEXION, SUPPRESSION_MAISON, SUPPRESSION_GENERATEUR, DECONNEXION
+    }
+
+    private final Nature nature;
+    private final String nom;
+    private final String nom2;
+    private final int capacite;
+    private final TypeConsommation consommation;
+    private final int[] profil;
+    private final double[] position;
+    private final int numLigne;
+
+    private EvenementReseau(Nature nature, String nom, String nom2, int capacite, TypeConsommation consommation, int numLigne) {
+        this(nature, nom, nom2, capacite, consommation, null, null, numLigne);
+    }
+
+    private EvenementReseau(Nature nature, String nom, String nom2, int capacite, TypeConsommation consommation,
+            int[] profil, double[] position, int numLigne) {
+        this.nature = nature;
+        this.nom = nom;
+        this.nom2 = nom2;
+        this.capacite = capacite;
+        this.consommation = consommation;
+        this.profil = profil;
+        this.position = position;
+        this.numLigne = numLigne;
+    }
+
+    static EvenementReseau generateur(String nom, int capacite, int numLigne) {
+        return new EvenementReseau(Nature.GENERATEUR, nom, null, capacite, null, numLigne);
+    }
+
+    static EvenementReseau generateur(String nom, int capacite, double[] position, int numLigne) {
+        return new EvenementReseau(Nature.GENERATEUR, nom, null, capacite, null, null, position, numLigne);
+    }
+
+    static EvenementReseau maison(String nom, TypeConsommation consommation, int numLigne) {
+        return new EvenementReseau(Nature.MAISON, nom, null, 0, consommation, numLigne);
+    }
+
+    static EvenementReseau maison(String nom, TypeConsommation consommation, int[] profil, int numLigne) {
+        return new EvenementReseau(Nature.MAISON, nom, null, 0, consommation, profil, null, numLigne);
+    }
+
+    static EvenementReseau maison(String nom, TypeConsommation consommation, int[] profil, double[] position, int numLigne) {
+        return new EvenementReseau(Nature.MAISON, nom, null, 0, consommation, profil, position, numLigne);
+    }
+
+    static EvenementReseau connexion(String nom1, String nom2, int numLigne) {
+        return new EvenementReseau(Nature.CONNEXION, nom1, nom2, 0, null, numLigne);
+    }
+
+    static EvenementReseau suppressionMaison(String nom, int numLigne) {
+        return new EvenementReseau(Nature.SUPPRESSION_MAISON, nom, null, 0, null, numLigne);
+    }
+
+    static EvenementReseau suppressionGenerateur(String nom, int numLigne) {
+        return new EvenementReseau(Nature.SUPPRESSION_GENERATEUR, nom, null, 0, null, numLigne);
+    }
+
+    static EvenementReseau deconnexion(String nom1, String nom2, int numLigne) {
+        return new EvenementReseau(Nature.DECONNEXION, nom1, nom2, 0, null, numLigne);
+    }
+
+    /** @return La nature de l'événement */
+    public Nature getNature() { return nature; }
+
+    /** @return Le nom de l'élément concerné (premier élément pour une connexion) */
+    public String getNom() { return nom; }
+
+    /** @return Le second élément d'une connexion (null sinon) */
+    public String getNom2() { return nom2; }
+
+    /** @return La capacité (événement GENERATEUR) */
+    public int getCapacite() { return capacite; }
+
+    /** @return Le type de consommation (événement MAISON) */
+    public TypeConsommation getConsommation() { return consommation; }
+
+    /** @return Une copie de la demande horaire (événement MAISON), ou null si la ligne n'en a pas */
+    public int[] getProfil() { return (profil != null) ? profil.clone() : null; }
+
+    /** @return Une copie de la position {x, y} (événements GENERATEUR et MAISON), ou null si la ligne n'en a pas */
+    public double[] getPosition() { return (position != null) ? position.clone() : null; }
+
+    /** @return Le numéro de ligne dans le flux */
+    public int getNumLigne() { return numLigne; }
+}
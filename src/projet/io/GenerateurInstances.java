@@ -0,0 +1,309 @@
+package projet.io;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Random;
+
+import projet.exception.ReseauException;
+import projet.reseau.TypeConsommation;
+
+/**
+ * Génère des instances synthétiques au format de GestionFichier, pour les tests de montée en charge.
+ *
+ * Paramètres : nombre de maisons et de générateurs, répartition des types de maisons,
+ * distribution des capacités, tension (demande totale / capacité totale), graine,
+ * connexions initiales et positions (uniformes dans un carré) optionnelles.
+ *
+ * L'écriture est en flux : seules les capacités des générateurs sont gardées en mémoire.
+ * Les types des maisons sont tirés sans remise (les effectifs demandés sont exacts) ; pour écrire
+ * les connexions, la même suite de types est rejouée à partir de la graine au lieu d'être stockée.
+ */
+public class GenerateurInstances {
+
+    /**
+     * Forme de la distribution des capacités (avant mise à l'échelle sur la capacité totale visée).
+     */
+    public enum DistributionCapacite {
+        /** Capacités uniformes entre 0,5 et 1,5 fois la moyenne. */
+        UNIFORME,
+        /** Capacités gaussiennes autour de la moyenne (écart-type 25 %). */
+        NORMALE,
+        /** Quelques très gros générateurs et beaucoup de petits (Pareto, alpha = 2). */
+        PARETO
+    }
+
+    private int nbMaisons;
+    private int nbGenerateurs;
+    private double[] proportionsTypes = {1, 1, 1}; // BASSE, NORMAL, FORTE
+    private DistributionCapacite distribution = DistributionCapacite.UNIFORME;
+    private double tension = 0.8;
+    private long graine = 42;
+    private boolean avecConnexions;
+    private double cote; // 0 = pas de positions
+
+    // Résultats de la dernière génération
+    private long demandeTotale;
+    private long capaciteTotale;
+
+    /**
+     * Prépare un générateur d'instances.
+     *
+     * @param nbMaisons Le nombre de maisons (au moins 1)
+     * @param nbGenerateurs Le nombre de générateurs (au moins 1)
+     * @throws ReseauException Si l'un des nombres est invalide
+     */
+    public GenerateurInstances(int nbMaisons, int nbGenerateurs) throws ReseauException {
+        if (nbMaisons < 1 || nbGenerateurs < 1) {
+            throw new ReseauException.Logique("il faut au moins une maison et un générateur.");
+        }
+        this.nbMaisons = nbMaisons;
+        this.nbGenerateurs = nbGenerateurs;
+    }
+
+    /**
+     * Définit la répartition des types de maisons (poids relatifs, ex: 1,2,1).
+     *
+     * @param basse Le poids des maisons BASSE
+     * @param normal Le poids des maisons NORMAL
+     * @param forte Le poids des maisons FORTE
+     * @throws ReseauException Si un poids est négatif ou si tous sont nuls
+     */
+    public void setProportionsTypes(double basse, double normal, double forte) throws ReseauException {
+        if (basse < 0 || normal < 0 || forte < 0 || basse + normal + forte <= 0) {
+            throw new ReseauException.Logique("les proportions de types doivent être positives et non toutes nulles.");
+        }
+        this.proportionsTypes = new double[] {basse, normal, forte};
+    }
+
+    /** @param distribution La forme de la distribution des capacités */
+    public void setDistribution(DistributionCapacite distribution) {
+        this.distribution = distribution;
+    }
+
+    /**
+     * Définit la tension visée : demande totale / capacité totale.
+     * Au-delà de 1, le réseau est forcément en surcharge.
+     *
+     * @param tension La tension (strictement positive)
+     * @throws ReseauException Si la tension n'est pas strictement positive
+     */
+    public void setTension(double tension) throws ReseauException {
+        if (!(tension > 0)) {
+            throw new ReseauException.Logique("la tension doit être strictement positive.");
+        }
+        this.tension = tension;
+    }
+
+    /** @param graine La graine : même graine et mêmes paramètres donnent le même fichier */
+    public void setGraine(long graine) {
+        this.graine = graine;
+    }
+
+    /** @param avecConnexions true pour écrire aussi une affectation initiale de chaque maison */
+    public void setAvecConnexions(boolean avecConnexions) {
+        this.avecConnexions = avecConnexions;
+    }
+
+    /**
+     * Place les générateurs et les maisons uniformément dans le carré [0, cote[ x [0, cote[
+     * (coordonnées au centième). Les connexions initiales ne tiennent pas compte des positions.
+     *
+     * @param cote Le côté du carré, ou 0 pour ne pas écrire de positions
+     * @throws ReseauException Si le côté est négatif ou n'est pas fini
+     */
+    public void setCote(double cote) throws ReseauException {
+        if (!(cote >= 0) || Double.isInfinite(cote)) {
+            throw new ReseauException.Logique("le côté du carré doit être positif ou nul.");
+        }
+        this.cote = cote;
+    }
+
+    /**
+     * Écrit l'instance dans un fichier.
+     *
+     * @param chemin Le fichier de destination
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public void ecrire(String chemin) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(chemin), 1 << 20)) {
+            ecrire(writer);
+        }
+    }
+
+    /**
+     * Écrit l'instance dans un flux de caractères (non fermé).
+     *
+     * @param writer La destination
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public void ecrire(Writer writer) throws IOException {
+        TypeConsommation[] types = TypeConsommation.values();
+        long[] effectifs = effectifsParType();
+
+        demandeTotale = 0;
+        for (int t = 0; t < types.length; t++) demandeTotale += effectifs[t] * types[t].getDemandeKw();
+
+        int[] capacites = tirerCapacites();
+        capaciteTotale = 0;
+        for (int c : capacites) capaciteTotale += c;
+
+        // Générateurs (positions tirées à part : sans positions, le fichier reste le même)
+        Random aleaPositions = new Random(graine + 2);
+        for (int j = 0; j < nbGenerateurs; j++) {
+            writer.write("generateur(gen");
+            writer.write(Integer.toString(j + 1));
+            writer.write(',');
+            writer.write(Integer.toString(capacites[j]));
+            ecrirePosition(writer, aleaPositions);
+            writer.write(").\n");
+        }
+
+        // Maisons (types tirés sans remise)
+        Random aleaTypes = new Random(graine + 1);
+        long[] restants = effectifs.clone();
+        for (int i = 0; i < nbMaisons; i++) {
+            TypeConsommation type = types[tirerType(aleaTypes, restants, nbMaisons - i)];
+            writer.write("maison(maison");
+            writer.write(Integer.toString(i + 1));
+            writer.write(',');
+            writer.write(type.name());
+            ecrirePosition(writer, aleaPositions);
+            writer.write(").\n");
+        }
+
+        if (avecConnexions) {
+            ecrireConnexions(writer, capacites, effectifs);
+        }
+    }
+
+    /**
+     * Écrit ",pos=x y" avec une position uniforme dans le carré, si les positions sont demandées.
+     */
+    private void ecrirePosition(Writer writer, Random alea) throws IOException {
+        if (cote <= 0) return;
+        double x = Math.floor(alea.nextDouble() * cote * 100) / 100;
+        double y = Math.floor(alea.nextDouble() * cote * 100) / 100;
+        writer.write(',');
+        writer.write(GestionFichier.formaterPosition(x, y));
+    }
+
+    /** @return La demande totale de la dernière instance générée (kW) */
+    public long getDemandeTotale() { return demandeTotale; }
+
+    /** @return La capacité totale de la dernière instance générée (kW) */
+    public long getCapaciteTotale() { return capaciteTotale; }
+
+    /**
+     * Connexions initiales par remplissage séquentiel : chaque générateur reçoit des maisons
+     * jusqu'à atteindre la tension visée, puis on passe au suivant.
+     * La suite des types est rejouée avec la même graine (rien n'est stocké par maison).
+     */
+    private void ecrireConnexions(Writer writer, int[] capacites, long[] effectifs) throws IOException {
+        TypeConsommation[] types = TypeConsommation.values();
+        Random aleaTypes = new Random(graine + 1);
+        long[] restants = effectifs.clone();
+
+        int j = 0;
+        double charge = 0;
+        for (int i = 0; i < nbMaisons; i++) {
+            int demande = types[tirerType(aleaTypes, restants, nbMaisons - i)].getDemandeKw();
+            if (charge + demande > capacites[j] * tension && charge > 0 && j < nbGenerateurs - 1) {
+                j++;
+                charge = 0;
+            }
+            charge += demande;
+
+            writer.write("connexion(gen");
+            writer.write(Integer.toString(j + 1));
+            writer.write(",maison");
+            writer.write(Integer.toString(i + 1));
+            writer.write(").\n");
+        }
+    }
+
+    /**
+     * Tire le type de la prochaine maison sans remise, selon les effectifs restants.
+     */
+    private static int tirerType(Random alea, long[] restants, long totalRestant) {
+        long tirage = alea.nextLong(totalRestant);
+        int t = 0;
+        while (tirage >= restants[t]) {
+            tirage -= restants[t];
+            t++;
+        }
+        restants[t]--;
+        return t;
+    }
+
+    /**
+     * Convertit les proportions en effectifs exacts (méthode du plus grand reste).
+     */
+    private long[] effectifsParType() {
+        double somme = 0;
+        for (double p : proportionsTypes) somme += p;
+
+        long[] effectifs = new long[proportionsTypes.length];
+        double[] restes = new double[proportionsTypes.length];
+        long attribues = 0;
+        for (int t = 0; t < effectifs.length; t++) {
+            double exact = nbMaisons * proportionsTypes[t] / somme;
+            effectifs[t] = (long) Math.floor(exact);
+            restes[t] = exact - effectifs[t];
+            attribues += effectifs[t];
+        }
+        for (long k = attribues; k < nbMaisons; k++) {
+            int meilleur = 0;
+            for (int t = 1; t < restes.length; t++) {
+                if (restes[t] > restes[meilleur]) meilleur = t;
+            }
+            effectifs[meilleur]++;
+            restes[meilleur] = -1;
+        }
+        return effectifs;
+    }
+
+    /**
+     * Tire les capacités selon la distribution choisie puis les met à l'échelle pour que
+     * leur somme vaille demande totale / tension (chaque capacité vaut au moins 1).
+     */
+    private int[] tirerCapacites() {
+        Random alea = new Random(graine);
+        double[] poids = new double[nbGenerateurs];
+        double sommePoids = 0;
+        for (int j = 0; j < nbGenerateurs; j++) {
+            switch (distribution) {
+                case NORMALE:
+                    poids[j] = Math.max(0.05, 1 + 0.25 * alea.nextGaussian());
+                    break;
+                case PARETO:
+                    poids[j] = 1 / Math.sqrt(1 - alea.nextDouble());
+                    break;
+                default:
+                    poids[j] = 0.5 + alea.nextDouble();
+            }
+            sommePoids += poids[j];
+        }
+
+        long cible = Math.max(nbGenerateurs, Math.round(demandeTotale / tension));
+        int[] capacites = new int[nbGenerateurs];
+        long total = 0;
+        for (int j = 0; j < nbGenerateurs; j++) {
+            double exact = poids[j] / sommePoids * cible;
+            capacites[j] = (int) Math.max(1, Math.min(Integer.MAX_VALUE, Math.floor(exact)));
+            poids[j] = exact - Math.floor(exact); // on garde la partie fractionnaire
+            total += capacites[j];
+        }
+        // Répartir le reste d'arrondi sur les plus grandes parties fractionnaires
+        long manque = cible - total;
+        if (manque > 0) {
+            Integer[] ordre = new Integer[nbGenerateurs];
+            for (int j = 0; j < nbGenerateurs; j++) ordre[j] = j;
+            Arrays.sort(ordre, (a, b) -> Double.compare(poids[b], poids[a]));
+            for (int k = 0; k < manque && k < nbGenerateurs; k++) capacites[ordre[k]]++;
+        }
+        return capacites;
+    }
+}
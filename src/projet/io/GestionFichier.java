@@ -1,15 +1,13 @@
 package projet.io;
 
 import java.io.BufferedReader; 
+import java.io.FileInputStream;
 import java.io.FileReader;
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.Map;
+import java.io.InputStreamReader;
+import java.util.zip.GZIPInputStream;
 
 import projet.exception.ReseauException;
-import projet.reseau.Generateur;
-import projet.reseau.Maison;
 import projet.reseau.Reseau;
 import projet.reseau.TypeConsommation;
 
@@ -20,28 +18,57 @@ import projet.reseau.TypeConsommation;
  */
 public class GestionFichier {
 
-    // Constantes pour suivre l'ordre imposé dans le fichier
-    private static final int ETAPE_GENERATEUR = 0;
-    private static final int ETAPE_MAISON = 1;
-    private static final int ETAPE_CONNEXION = 2;
+    // Constantes pour suivre l'ordre imposé dans le fichier (partagées avec AnalyseurOctets)
+    static final int ETAPE_GENERATEUR = 0;
+    static final int ETAPE_MAISON = 1;
+    static final int ETAPE_CONNEXION = 2;
+
+    /** Préfixe du troisième argument d'une maison (demande horaire, voir lireProfil). */
+    static final String PREFIXE_PROFIL = "profil=";
+    /** Préfixe du dernier argument facultatif d'un générateur ou d'une maison (voir lirePosition). */
+    static final String PREFIXE_POSITION = "pos=";
+
+    /** Formats attendus, pour les erreurs de syntaxe de tous les lecteurs. */
+    static final String FORMAT_GENERATEUR = "generateur(nom,capacite) ou generateur(nom,capacite,pos=x y)";
+    static final String FORMAT_MAISON = "maison(nom,TYPE), suivi si besoin de ,profil=d1 d2 ... puis de ,pos=x y";
 
     /**
      * Lit un fichier texte ligne par ligne pour construire un objet Reseau complet.
      * Vérifie la syntaxe, l'ordre des définitions (Générateurs -> Maisons -> Connexions) et la validité des données.
+     * Un fichier .txt.gz est décompressé au fil de la lecture, un fichier .rsb est lu au format binaire
+     * (voir InstanceBinaire).
      *
-     * @param cheminFichier Le chemin d'accès au fichier de configuration (.txt)
+     * @param cheminFichier Le chemin d'accès au fichier de configuration (.txt, .txt.gz ou .rsb)
      * @return L'objet Reseau initialisé avec les données du fichier
      * @throws IOException En cas de problème d'accès au fichier (lecture impossible, fichier absent)
      * @throws ReseauException En cas d'erreur de format, de syntaxe ou de logique métier dans le fichier
      */
     public static Reseau lireFichier(String cheminFichier) throws IOException, ReseauException {
+        if (cheminFichier.endsWith(InstanceBinaire.EXTENSION)) {
+            return InstanceBinaire.lire(cheminFichier);
+        }
         Reseau reseau = new Reseau();
-        
-        int numLigne = 0;
 
         // Try-with-resources pour fermer automatiquement le fichier à la fin
-        try (BufferedReader reader = new BufferedReader(new FileReader(cheminFichier))) {
-            
+        try (BufferedReader reader = ouvrirLecture(cheminFichier)) {
+            analyser(reader, new ConstructeurReseau(reseau));
+        }
+        return reseau;
+    }
+
+    /**
+     * Analyse les lignes d'une instance (syntaxe et ordre des sections) et transmet chaque élément
+     * au récepteur, qui applique les règles métier (construction du réseau, validation seule...).
+     *
+     * @param reader La source des lignes
+     * @param constructeur Le destinataire des éléments lus
+     * @throws IOException En cas de problème de lecture
+     * @throws ReseauException À la première ligne invalide
+     */
+    static void analyser(BufferedReader reader, RecepteurInstance constructeur) throws IOException, ReseauException {
+        int numLigne = 0;
+
+        try {
             String ligne;
             //int numLigne = 0;
             int etapeActuelle = ETAPE_GENERATEUR; // On doit commencer par les générateurs 
@@ -67,18 +94,18 @@ public class GestionFichier {
                         throw new ReseauException.Ordre("générateur", "Les générateurs doivent être définis au début du fichier.", numLigne);
                     }
                     etapeActuelle = ETAPE_GENERATEUR;
-                    traiterGenerateur(ligne, numLigne, reseau);
+                    traiterGenerateur(ligne, numLigne, constructeur);
 
                 } else if (ligne.startsWith("maison")) {
                     if (etapeActuelle > ETAPE_MAISON) {
                         throw new ReseauException.Ordre("maison", "Les maisons doivent être définies avant les connexions.", numLigne);
                     }
                     etapeActuelle = ETAPE_MAISON;
-                    traiterMaison(ligne, numLigne, reseau);
+                    traiterMaison(ligne, numLigne, constructeur);
 
                 } else if (ligne.startsWith("connexion")) {
                     etapeActuelle = ETAPE_CONNEXION;
-                    traiterConnexion(ligne, numLigne, reseau);
+                    traiterConnexion(ligne, numLigne, constructeur);
 
                 } else {
                     // Mot inconnu
@@ -93,65 +120,194 @@ public class GestionFichier {
              // Catch global pour les erreurs imprévues (ex: index out of bounds)
         	throw new ReseauException("Erreur critique inattendue : " + e.getMessage(), numLigne);
         }
+    }
 
-        return reseau;
+
+    /**
+     * Ouvre le fichier en lecture (jeu de caractères par défaut), avec décompression s'il se termine par .gz.
+     */
+    static BufferedReader ouvrirLecture(String cheminFichier) throws IOException {
+        if (cheminFichier.endsWith(EcrivainInstance.EXTENSION_GZIP)) {
+            return new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(cheminFichier), 1 << 16)));
+        }
+        return new BufferedReader(new FileReader(cheminFichier));
     }
 
-    
     /**
      * Analyse une ligne décrivant un générateur et l'ajoute au réseau.
-     * Format attendu : "generateur(nom,capacite)."
+     * Format attendu : "generateur(nom,capacite)." ou, avec une position, "generateur(nom,capacite,pos=x y)."
      *
      * @param ligne La ligne de texte brute à analyser
      * @param numLigne Le numéro de la ligne dans le fichier (pour les messages d'erreur)
-     * @param reseau Le réseau en cours de construction
+     * @param constructeur Le destinataire des éléments lus (construction du réseau)
      * @throws ReseauException Si le format est incorrect ou la capacité invalide
      */
-    private static void traiterGenerateur(String ligne, int numLigne, Reseau reseau) throws ReseauException {
+    private static void traiterGenerateur(String ligne, int numLigne, RecepteurInstance constructeur) throws ReseauException {
         String[] args = extraireArguments(ligne, numLigne, "generateur");
         
         // Vérification du nombre d'arguments 
-        if (args.length != 2) {
-            throw new ReseauException.Syntaxe("generateur", "generateur(nom,capacite)", numLigne);
+        if (args.length != 2 && args.length != 3) {
+            throw new ReseauException.Syntaxe("generateur", FORMAT_GENERATEUR, numLigne);
         }
 
         String nom = args[0].trim();
         String capStr = args[1].trim();
 
+        int capacite;
         try {
-            int capacite = Integer.parseInt(capStr);
-            reseau.ajouterOuMajGenerateur(nom, capacite);
+            capacite = Integer.parseInt(capStr);
         } catch (NumberFormatException e) {
             throw new ReseauException.DonneeInvalide("capacité du générateur", numLigne);
         }
+        double[] position = (args.length == 3) ? lirePosition(args[2], "generateur", FORMAT_GENERATEUR, numLigne) : null;
+        constructeur.generateur(nom, capacite, position, numLigne);
     }
 
     /**
      * Analyse une ligne décrivant une maison et l'ajoute au réseau.
-     * Format attendu : "maison(nom,TYPE_CONSOMMATION)."
+     * Format attendu : "maison(nom,TYPE_CONSOMMATION)." ou, avec une demande horaire et/ou une position,
+     * "maison(nom,TYPE_CONSOMMATION,profil=d1 d2 ... dT,pos=x y)." (dans cet ordre).
      *
      * @param ligne La ligne de texte brute à analyser
      * @param numLigne Le numéro de la ligne dans le fichier
-     * @param reseau Le réseau en cours de construction
+     * @param constructeur Le destinataire des éléments lus (construction du réseau)
      * @throws ReseauException Si le format est incorrect ou le type de consommation inconnu
      */
-    private static void traiterMaison(String ligne, int numLigne, Reseau reseau) throws ReseauException {
+    private static void traiterMaison(String ligne, int numLigne, RecepteurInstance constructeur) throws ReseauException {
         String[] args = extraireArguments(ligne, numLigne, "maison");
 
-        if (args.length != 2) {
-            throw new ReseauException.Syntaxe("maison", "maison(nom,TYPE)", numLigne);
+        if (args.length < 2 || args.length > 4) {
+            throw new ReseauException.Syntaxe("maison", FORMAT_MAISON, numLigne);
         }
 
         String nom = args[0].trim();
         String typeStr = args[1].trim().toUpperCase();
+        int[] profil = (args.length >= 3 && estProfil(args[2])) ? lireProfil(args[2], numLigne) : null;
+        double[] position = lirePositionMaison(args, (profil != null) ? 3 : 2, numLigne);
 
+        TypeConsommation type;
         try {
             // Conversion String -> Enum
-            TypeConsommation type = TypeConsommation.valueOf(typeStr);
-            reseau.ajouterOuMajMaison(nom, type);
+            type = TypeConsommation.valueOf(typeStr);
         } catch (IllegalArgumentException e) {
             throw new ReseauException.DonneeInvalide(typeStr, "BASSE, NORMAL, ou FORTE", numLigne);
         }
+        constructeur.maison(nom, type, profil, position, numLigne);
+    }
+
+    /**
+     * @return true si l'argument est une demande horaire ("profil=...")
+     */
+    static boolean estProfil(String champ) {
+        return champ.trim().startsWith(PREFIXE_PROFIL);
+    }
+
+    /**
+     * Lit la position facultative d'une maison : le seul argument restant à partir de l'indice donné.
+     *
+     * @param args Tous les arguments de la ligne
+     * @param indice L'indice de la position (après le type et l'éventuel profil)
+     * @return {x, y}, ou null si la ligne n'a pas de position
+     * @throws ReseauException S'il reste plus d'un argument, ou si ce n'est pas une position
+     */
+    static double[] lirePositionMaison(String[] args, int indice, int numLigne) throws ReseauException {
+        if (args.length > indice + 1) {
+            throw new ReseauException.Syntaxe("maison", FORMAT_MAISON, numLigne);
+        }
+        return (args.length == indice + 1) ? lirePosition(args[indice], "maison", FORMAT_MAISON, numLigne) : null;
+    }
+
+    /**
+     * Lit une position : "pos=x y", deux nombres décimaux finis séparés par des espaces.
+     *
+     * @param champ L'argument brut
+     * @param motCle Le mot-clé de la ligne, pour l'erreur de syntaxe
+     * @param formatAttendu Le format de la ligne, pour l'erreur de syntaxe
+     * @param numLigne Le numéro de la ligne pour les messages d'erreur
+     * @return {x, y}
+     * @throws ReseauException Si le champ n'a pas ce format
+     */
+    static double[] lirePosition(String champ, String motCle, String formatAttendu, int numLigne) throws ReseauException {
+        String contenu = champ.trim();
+        if (!contenu.startsWith(PREFIXE_POSITION)) {
+            throw new ReseauException.Syntaxe(motCle, formatAttendu, numLigne);
+        }
+        String[] valeurs = contenu.substring(PREFIXE_POSITION.length()).trim().split("\\s+");
+        try {
+            if (valeurs.length != 2) throw new NumberFormatException();
+            double x = Double.parseDouble(valeurs[0]);
+            double y = Double.parseDouble(valeurs[1]);
+            if (!Double.isFinite(x) || !Double.isFinite(y)) throw new NumberFormatException();
+            return new double[] {x, y};
+        } catch (NumberFormatException e) {
+            // DonneeInvalide ne sait dire que "doit être un nombre entier"
+            throw new ReseauException.Syntaxe("La position doit être " + PREFIXE_POSITION + "x y, avec deux nombres décimaux finis", numLigne);
+        }
+    }
+
+    /**
+     * Écrit une position au format de lirePosition (entiers sans ".0", sinon écriture la plus courte
+     * qui redonne exactement le même double).
+     *
+     * @param x L'abscisse
+     * @param y L'ordonnée
+     * @return Le champ "pos=x y"
+     */
+    static String formaterPosition(double x, double y) {
+        return PREFIXE_POSITION + formaterCoordonnee(x) + " " + formaterCoordonnee(y);
+    }
+
+    private static String formaterCoordonnee(double v) {
+        if (v == Math.rint(v) && Math.abs(v) < 1e15) return Long.toString((long) v);
+        return Double.toString(v);
+    }
+
+    /**
+     * Lit le troisième argument facultatif d'une maison : sa demande horaire.
+     * Format attendu : "profil=d1 d2 ... dT", demandes entières positives ou nulles en kW,
+     * séparées par des espaces.
+     *
+     * @param champ L'argument brut
+     * @param numLigne Le numéro de la ligne pour les messages d'erreur
+     * @return Les demandes par période
+     * @throws ReseauException Si le champ n'a pas ce format
+     */
+    static int[] lireProfil(String champ, int numLigne) throws ReseauException {
+        String contenu = champ.trim();
+        if (!contenu.startsWith(PREFIXE_PROFIL)) {
+            throw new ReseauException.Syntaxe("maison", FORMAT_MAISON, numLigne);
+        }
+        contenu = contenu.substring(PREFIXE_PROFIL.length()).trim();
+        if (contenu.isEmpty()) {
+            throw new ReseauException.DonneeInvalide("demande horaire de la maison", numLigne);
+        }
+        String[] valeurs = contenu.split("\\s+");
+        int[] profil = new int[valeurs.length];
+        try {
+            for (int t = 0; t < valeurs.length; t++) {
+                profil[t] = Integer.parseInt(valeurs[t]);
+                if (profil[t] < 0) throw new NumberFormatException();
+            }
+        } catch (NumberFormatException e) {
+            // Négatif compris : une demande est un nombre entier de kW
+            throw new ReseauException.DonneeInvalide("demande horaire de la maison", numLigne);
+        }
+        return profil;
+    }
+
+    /**
+     * Écrit une demande horaire au format du troisième argument d'une maison (voir lireProfil).
+     *
+     * @param profil Les demandes par période
+     * @return Le champ "profil=d1 d2 ... dT"
+     */
+    static String formaterProfil(int[] profil) {
+        StringBuilder sb = new StringBuilder(PREFIXE_PROFIL);
+        for (int t = 0; t < profil.length; t++) {
+            if (t > 0) sb.append(' ');
+            sb.append(profil[t]);
+        }
+        return sb.toString();
     }
 
     /**
@@ -160,10 +316,10 @@ public class GestionFichier {
      *
      * @param ligne La ligne de texte brute à analyser
      * @param numLigne Le numéro de la ligne dans le fichier
-     * @param reseau Le réseau en cours de construction
+     * @param constructeur Le destinataire des éléments lus (construction du réseau)
      * @throws ReseauException Si le format est incorrect ou si un des éléments n'existe pas
      */
-    private static void traiterConnexion(String ligne, int numLigne, Reseau reseau) throws ReseauException {
+    private static void traiterConnexion(String ligne, int numLigne, RecepteurInstance constructeur) throws ReseauException {
         String[] args = extraireArguments(ligne, numLigne, "connexion");
 
         if (args.length != 2) {
@@ -173,26 +329,8 @@ public class GestionFichier {
         String nom1 = args[0].trim();
         String nom2 = args[1].trim();
 
-        // VALIDATION AVANCEE : On vérifie l'existence AVANT d'essayer d'ajouter la connexion
-        // Cela permet de lancer ElementIntrouvable avec le numéro de ligne exact du fichier
-        boolean nom1Existe = reseau.getMaisonsMap().containsKey(nom1) || reseau.getGenerateursMap().containsKey(nom1);
-        boolean nom2Existe = reseau.getMaisonsMap().containsKey(nom2) || reseau.getGenerateursMap().containsKey(nom2);
-
-        if (!nom1Existe) {
-            throw new ReseauException.ElementIntrouvable("élément", nom1, numLigne);
-        }
-        if (!nom2Existe) {
-            throw new ReseauException.ElementIntrouvable("élément", nom2, numLigne);
-        }
-
-        // Si tout existe, on tente la connexion
-        // Note: Reseau.ajouterConnexion retourne une String, on doit l'analyser
-        String resultat = reseau.ajouterConnexion(nom1, nom2);
-        
-        if (resultat != null && resultat.startsWith("Erreur")) {
-            // Si c'est une erreur logique (ex: maison déjà connectée), on lève une exception générique avec le message
-            throw new ReseauException(resultat.replace("Erreur: ", ""), numLigne);
-        }
+        // Existence des éléments et connexion : règles partagées par tous les lecteurs
+        constructeur.connexion(nom1, nom2, numLigne);
     }
 
     /**
@@ -205,7 +343,7 @@ public class GestionFichier {
      * @return Un tableau de chaînes contenant les arguments extraits
      * @throws ReseauException.Syntaxe Si les parenthèses sont absentes ou mal placées
      */
-    private static String[] extraireArguments(String ligne, int numLigne, String motCle) throws ReseauException {
+    static String[] extraireArguments(String ligne, int numLigne, String motCle) throws ReseauException {
         int debutPar = ligne.indexOf('(');
         int finPar = ligne.lastIndexOf(')');
 
@@ -225,46 +363,25 @@ public class GestionFichier {
 
     /**
      * Sauvegarde l'état actuel du réseau dans un fichier texte.
-     * Le fichier généré respecte le format standard (Générateurs, puis Maisons, puis Connexions).
+     * Le fichier généré respecte le format standard (Générateurs, puis Maisons, puis Connexions),
+     * chaque section triée par nom. Un chemin en .gz est compressé (voir EcrivainInstance),
+     * un chemin en .rsb produit le format binaire (voir InstanceBinaire).
      *
      * @param reseau L'objet Reseau contenant les données à sauvegarder
      * @param cheminFichier Le chemin ou nom du fichier de destination (ajoute .txt si manquant)
      * @throws IOException En cas d'erreur lors de l'écriture sur le disque
      */
     public static void ecrireFichier(Reseau reseau, String cheminFichier) throws IOException {
-        if (!cheminFichier.endsWith(".txt")) {
-            cheminFichier += ".txt";
-        }
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(cheminFichier))) {
-            
-            // Ecrire les Générateurs
-            for (Generateur g : reseau.getGenerateursMap().values()) {
-                String ligne = String.format("generateur(%s,%d).", g.getNom(), (int) g.getCapaciteMaximale());
-                writer.write(ligne);
-                writer.newLine();
-            }
-
-            // Ecrire les Maisons
-            for (Maison m : reseau.getMaisonsMap().values()) {
-                String typeStr = "";
-                int demande = m.getConsommation().getDemandeKw();
-                if (demande == 10) typeStr = "BASSE";
-                else if (demande == 40) typeStr = "FORTE";
-                else typeStr = "NORMAL";
-
-                String ligne = String.format("maison(%s,%s).", m.getNom(), typeStr);
-                writer.write(ligne);
-                writer.newLine();
-            }
-
-            // Ecrire les Connexions
-            for (Map.Entry<Maison, Generateur> entry : reseau.getConnexionsMap().entrySet()) {
-                String ligne = String.format("connexion(%s,%s).", entry.getValue().getNom(), entry.getKey().getNom());
-                writer.write(ligne);
-                writer.newLine();
-            }
-            
+        if (cheminFichier.endsWith(InstanceBinaire.EXTENSION)) {
+            InstanceBinaire.ecrire(reseau, cheminFichier);
             System.out.println("Succès : Réseau sauvegardé dans " + cheminFichier);
+            return;
+        }
+        if (!cheminFichier.endsWith(".txt") && !cheminFichier.endsWith(EcrivainInstance.EXTENSION_GZIP)) {
+            cheminFichier += ".txt";
         }
+        // Lignes construites en octets, sortie triée par nom (déterministe), compressée si .gz
+        new EcrivainInstance().ecrire(reseau, cheminFichier);
+        System.out.println("Succès : Réseau sauvegardé dans " + cheminFichier);
     }
 }
\ No newline at end of file
@@ -0,0 +1,345 @@
+package projet.io;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import projet.exception.ReseauException;
+import projet.reseau.Generateur;
+import projet.reseau.Maison;
+import projet.reseau.Reseau;
+import projet.reseau.TableNoms;
+import projet.reseau.TypeConsommation;
+
+/**
+ * Format binaire compact d'une instance et de sa solution (extension .rsb), lu par projection en mémoire.
+ *
+ * Disposition (petit-boutiste, tableaux alignés sur 8 octets) :
+ * - en-tête : magic "RSB1", version, nombre de générateurs G et de maisons M, Lambda,
+ *   statistiques (capacité totale, demande totale, maisons connectées, maisons par type),
+ *   longueur du bloc de noms ;
+ * - dictionnaire : G + M + 1 positions (int) dans le bloc de noms, puis le bloc (UTF-8),
+ *   générateurs d'abord, puis maisons ;
+ * - capacités : un int par générateur ;
+ * - types : un octet par maison (rang dans TypeConsommation) ;
+ * - affectation : un int par maison, indice du générateur ou -1 si la maison n'est pas connectée.
+ *
+ * {@link #ouvrir(String)} ne fait que projeter le fichier et vérifier l'en-tête : les tableaux sont
+ * lus directement dans la projection, sans analyse. {@link #versReseau()} construit le Reseau
+ * correspondant quand on en a besoin.
+ */
+public class InstanceBinaire {
+
+    /** Extension des fichiers binaires. */
+    public static final String EXTENSION = ".rsb";
+
+    private static final int MAGIC = 0x31425352; // "RSB1" en petit-boutiste
+    private static final int VERSION = 1;
+    private static final int TAILLE_EN_TETE = 80;
+    private static final TypeConsommation[] TYPES = TypeConsommation.values();
+
+    private final ByteBuffer donnees;
+    private final int nbGenerateurs;
+    private final int nbMaisons;
+    private final double lambda;
+    private final long capaciteTotale;
+    private final long demandeTotale;
+    private final int nbConnectees;
+    private final int[] nbParType = new int[TYPES.length];
+    // Positions des sections dans le fichier
+    private final int posIndexNoms;
+    private final int posNoms;
+    private final int posCapacites;
+    private final int posTypes;
+    private final int posAffectation;
+
+    private InstanceBinaire(ByteBuffer donnees) throws ReseauException {
+        this.donnees = donnees.order(ByteOrder.LITTLE_ENDIAN);
+        if (donnees.capacity() < TAILLE_EN_TETE || donnees.getInt(0) != MAGIC) {
+            throw new ReseauException.DonneeInvalide("Fichier binaire invalide (en-tête absent).");
+        }
+        if (donnees.getInt(4) != VERSION) {
+            throw new ReseauException.DonneeInvalide("Version de fichier binaire non prise en charge : " + donnees.getInt(4));
+        }
+        nbGenerateurs = donnees.getInt(8);
+        nbMaisons = donnees.getInt(12);
+        lambda = donnees.getDouble(16);
+        capaciteTotale = donnees.getLong(24);
+        demandeTotale = donnees.getLong(32);
+        nbConnectees = donnees.getInt(40);
+        for (int t = 0; t < TYPES.length; t++) nbParType[t] = donnees.getInt(44 + 4 * t);
+        long tailleNoms = donnees.getLong(72);
+
+        long nbNoms = (long) nbGenerateurs + nbMaisons;
+        long pos = TAILLE_EN_TETE;
+        long indexNoms = pos;
+        pos = aligner(pos + 4 * (nbNoms + 1));
+        long noms = pos;
+        pos = aligner(pos + tailleNoms);
+        long capacites = pos;
+        pos = aligner(pos + 4L * nbGenerateurs);
+        long types = pos;
+        pos = aligner(pos + nbMaisons);
+        long affectation = pos;
+        pos += 4L * nbMaisons;
+        if (nbGenerateurs < 0 || nbMaisons < 0 || tailleNoms < 0 || pos != donnees.capacity()) {
+            throw new ReseauException.DonneeInvalide("Fichier binaire invalide (taille incohérente avec l'en-tête).");
+        }
+        posIndexNoms = (int) indexNoms;
+        posNoms = (int) noms;
+        posCapacites = (int) capacites;
+        posTypes = (int) types;
+        posAffectation = (int) affectation;
+    }
+
+    /**
+     * Projette un fichier binaire en mémoire et vérifie son en-tête.
+     *
+     * @param chemin Le chemin du fichier .rsb
+     * @return La vue sur le fichier
+     * @throws IOException En cas de problème d'accès au fichier
+     * @throws ReseauException Si le fichier n'est pas un fichier binaire valide
+     */
+    public static InstanceBinaire ouvrir(String chemin) throws IOException, ReseauException {
+        try (FileChannel canal = FileChannel.open(Paths.get(chemin), StandardOpenOption.READ)) {
+            if (canal.size() > Integer.MAX_VALUE) {
+                throw new ReseauException.DonneeInvalide("Fichier binaire trop volumineux (plus de 2 Go).");
+            }
+            // La projection reste valide après la fermeture du canal
+            return new InstanceBinaire(canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()));
+        }
+    }
+
+    /**
+     * Lit un fichier binaire et construit le réseau (instance, Lambda et connexions).
+     *
+     * @param chemin Le chemin du fichier .rsb
+     * @return Le réseau
+     * @throws IOException En cas de problème d'accès au fichier
+     * @throws ReseauException Si le fichier est invalide
+     */
+    public static Reseau lire(String chemin) throws IOException, ReseauException {
+        return ouvrir(chemin).versReseau();
+    }
+
+    /**
+     * Écrit le réseau (instance, Lambda et connexions) au format binaire.
+     *
+     * @param reseau Le réseau à écrire
+     * @param chemin Le chemin du fichier de destination
+     * @throws IOException En cas d'erreur d'écriture, si le réseau dépasse 2 Go une fois encodé
+     *                     ou s'il a des demandes horaires ou des positions (que le format ne conserve pas)
+     */
+    public static void ecrire(Reseau reseau, String chemin) throws IOException {
+        if (reseau.aDesProfils()) {
+            throw new IOException("Le format binaire ne conserve pas les demandes horaires : utilisez le format texte.");
+        }
+        if (reseau.aDesPositions()) {
+            throw new IOException("Le format binaire ne conserve pas les positions : utilisez le format texte.");
+        }
+        List<Generateur> generateurs = new ArrayList<>(reseau.getGenerateursMap().values());
+        List<Maison> maisons = new ArrayList<>(reseau.getMaisonsMap().values());
+        Map<Generateur, Integer> indexGen = new HashMap<>();
+        for (int j = 0; j < generateurs.size(); j++) indexGen.put(generateurs.get(j), j);
+
+        int nbNoms = generateurs.size() + maisons.size();
+        byte[][] noms = new byte[nbNoms][];
+        long tailleNoms = 0;
+        for (int k = 0; k < nbNoms; k++) {
+            String nom = (k < generateurs.size()) ? generateurs.get(k).getNom() : maisons.get(k - generateurs.size()).getNom();
+            noms[k] = nom.getBytes(StandardCharsets.UTF_8);
+            tailleNoms += noms[k].length;
+        }
+
+        long taille = TAILLE_EN_TETE;
+        taille = aligner(taille + 4L * (nbNoms + 1));
+        taille = aligner(taille + tailleNoms);
+        taille = aligner(taille + 4L * generateurs.size());
+        taille = aligner(taille + maisons.size());
+        taille += 4L * maisons.size();
+        if (taille > Integer.MAX_VALUE) {
+            throw new IOException("Réseau trop volumineux pour le format binaire (plus de 2 Go).");
+        }
+
+        try (RandomAccessFile fichier = new RandomAccessFile(chemin, "rw")) {
+            fichier.setLength(taille);
+            MappedByteBuffer sortie = fichier.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, taille);
+            sortie.order(ByteOrder.LITTLE_ENDIAN);
+
+            // Statistiques
+            long capaciteTotale = 0;
+            for (Generateur g : generateurs) capaciteTotale += (long) g.getCapaciteMaximale();
+            long demandeTotale = 0;
+            int[] nbParType = new int[TYPES.length];
+            for (Maison m : maisons) {
+                demandeTotale += m.getConsommation().getDemandeKw();
+                nbParType[m.getConsommation().ordinal()]++;
+            }
+
+            sortie.putInt(MAGIC).putInt(VERSION).putInt(generateurs.size()).putInt(maisons.size());
+            sortie.putDouble(reseau.getLambda());
+            sortie.putLong(capaciteTotale).putLong(demandeTotale);
+            sortie.putInt(reseau.getConnexionsMap().size());
+            for (int t = 0; t < TYPES.length; t++) sortie.putInt(nbParType[t]);
+            sortie.position(72);
+            sortie.putLong(tailleNoms);
+
+            // Dictionnaire
+            sortie.position(TAILLE_EN_TETE);
+            int position = 0;
+            for (byte[] nom : noms) {
+                sortie.putInt(position);
+                position += nom.length;
+            }
+            sortie.putInt(position);
+            sortie.position((int) aligner(sortie.position()));
+            for (byte[] nom : noms) sortie.put(nom);
+
+            sortie.position((int) aligner(sortie.position()));
+            for (Generateur g : generateurs) sortie.putInt((int) g.getCapaciteMaximale());
+
+            sortie.position((int) aligner(sortie.position()));
+            for (Maison m : maisons) sortie.put((byte) m.getConsommation().ordinal());
+
+            sortie.position((int) aligner(sortie.position()));
+            for (Maison m : maisons) {
+                Generateur g = reseau.getConnexionsMap().get(m);
+                sortie.putInt(g == null ? -1 : indexGen.get(g));
+            }
+            sortie.force();
+        }
+    }
+
+    /**
+     * Construit le réseau décrit par le fichier.
+     *
+     * @return Un nouveau réseau (instance, Lambda et connexions)
+     * @throws ReseauException Si le contenu est invalide (nom vide ou en double, type ou indice hors bornes)
+     */
+    public Reseau versReseau() throws ReseauException {
+        Reseau reseau = new Reseau();
+        reseau.setLambda(lambda);
+
+        try {
+            Generateur[] generateurs = new Generateur[nbGenerateurs];
+            for (int j = 0; j < nbGenerateurs; j++) {
+                String nom = getNomGenerateur(j);
+                reseau.ajouterOuMajGenerateur(nom, getCapacite(j));
+                generateurs[j] = reseau.getGenerateursMap().get(nom);
+            }
+            if (reseau.getGenerateursMap().size() != nbGenerateurs) {
+                throw new ReseauException.DonneeInvalide("Fichier binaire invalide (nom de générateur en double).");
+            }
+
+            // Les noms sont décodés depuis une seule copie du bloc de noms
+            int debutNoms = donnees.getInt(posIndexNoms + 4 * nbGenerateurs);
+            int finNoms = donnees.getInt(posIndexNoms + 4 * (nbGenerateurs + nbMaisons));
+            byte[] bloc = new byte[finNoms - debutNoms];
+            donnees.get(posNoms + debutNoms, bloc);
+
+            TableNoms<Maison> tableMaisons = reseau.getMaisonsMap();
+            Map<Maison, Generateur> connexions = reseau.getConnexionsMap();
+            int debut = 0;
+            for (int i = 0; i < nbMaisons; i++) {
+                int fin = donnees.getInt(posIndexNoms + 4 * (nbGenerateurs + i + 1)) - debutNoms;
+                Maison m = new Maison(new String(bloc, debut, fin - debut, StandardCharsets.UTF_8), getType(i));
+                debut = fin;
+                if (tableMaisons.ajouter(m) != null) {
+                    throw new ReseauException.DonneeInvalide("Fichier binaire invalide (maison '" + m.getNom() + "' en double).");
+                }
+                int j = getAffectation(i);
+                if (j >= 0) connexions.put(m, generateurs[j]);
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            // Fichier corrompu : positions de noms, type ou indice de générateur hors bornes
+            throw new ReseauException.DonneeInvalide("Fichier binaire invalide : " + e.getMessage());
+        }
+        return reseau;
+    }
+
+    /** @return Le nombre de générateurs */
+    public int getNbGenerateurs() { return nbGenerateurs; }
+
+    /** @return Le nombre de maisons */
+    public int getNbMaisons() { return nbMaisons; }
+
+    /** @return Le Lambda enregistré */
+    public double getLambda() { return lambda; }
+
+    /** @return La somme des capacités des générateurs (kW) */
+    public long getCapaciteTotale() { return capaciteTotale; }
+
+    /** @return La somme des demandes des maisons (kW) */
+    public long getDemandeTotale() { return demandeTotale; }
+
+    /** @return Le nombre de maisons connectées */
+    public int getNbConnectees() { return nbConnectees; }
+
+    /**
+     * @param type Le type de consommation
+     * @return Le nombre de maisons de ce type
+     */
+    public int getNbMaisons(TypeConsommation type) { return nbParType[type.ordinal()]; }
+
+    /**
+     * @param j L'indice du générateur (0 &lt;= j &lt; getNbGenerateurs())
+     * @return Son nom
+     */
+    public String getNomGenerateur(int j) { return nom(j); }
+
+    /**
+     * @param i L'indice de la maison (0 &lt;= i &lt; getNbMaisons())
+     * @return Son nom
+     */
+    public String getNomMaison(int i) { return nom(nbGenerateurs + i); }
+
+    /**
+     * @param j L'indice du générateur
+     * @return Sa capacité (kW)
+     */
+    public int getCapacite(int j) {
+        return donnees.getInt(posCapacites + 4 * j);
+    }
+
+    /**
+     * @param i L'indice de la maison
+     * @return Son type de consommation
+     */
+    public TypeConsommation getType(int i) {
+        return TYPES[donnees.get(posTypes + i)];
+    }
+
+    /**
+     * @param i L'indice de la maison
+     * @return L'indice de son générateur, ou -1 si elle n'est pas connectée
+     */
+    public int getAffectation(int i) {
+        int j = donnees.getInt(posAffectation + 4 * i);
+        if (j < -1 || j >= nbGenerateurs) {
+            throw new IndexOutOfBoundsException("générateur " + j + " inexistant pour la maison " + i);
+        }
+        return j;
+    }
+
+    private String nom(int k) {
+        int debut = donnees.getInt(posIndexNoms + 4 * k);
+        int fin = donnees.getInt(posIndexNoms + 4 * (k + 1));
+        byte[] octets = new byte[fin - debut];
+        donnees.get(posNoms + debut, octets);
+        return new String(octets, StandardCharsets.UTF_8);
+    }
+
+    private static long aligner(long position) {
+        return (position + 7) & ~7L;
+    }
+}
@@ -0,0 +1,414 @@
+package projet.io;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import projet.exception.ReseauException;
+import projet.reseau.Generateur;
+import projet.reseau.Maison;
+import projet.reseau.Reseau;
+import projet.reseau.TypeConsommation;
+
+/**
+ * Sauvegarde incrémentale d'un réseau : un instantané complet (fichier d'instance .txt, .gz ou .rsb)
+ * complété par un journal en ajout seul des modifications faites depuis.
+ *
+ * Chaque mutation passe par le journal, qui l'applique au réseau puis la garde en attente ;
+ * enregistrer() ajoute les lignes en attente au fichier journal (au format de LecteurEvenements)
+ * et force leur écriture sur le disque : une sauvegarde coûte le nombre de modifications,
+ * pas la taille du réseau. Quand le journal dépasse un seuil, il est compacté dans un nouvel
+ * instantané. Le chargement relit l'instantané puis rejoue le journal.
+ *
+ * Reprise après un arrêt brutal :
+ * - une dernière ligne incomplète du journal (écriture interrompue) est ignorée puis effacée ;
+ * - la compaction écrit l'instantané dans un fichier temporaire, met le journal de côté (.ancien),
+ *   remplace l'instantané puis supprime l'ancien journal. Selon les fichiers présents à l'ouverture,
+ *   on sait quelle étape a été interrompue et on retrouve un état cohérent.
+ *
+ * Ne sont pas journalisés (donc perdus à la réouverture s'ils ont changé depuis l'instantané) :
+ * Lambda et la distance maximale, qui sont des réglages de résolution et non des modifications
+ * de l'instance (seul un instantané .rsb garde Lambda), ainsi que le retrait d'une position,
+ * que le format des lignes ne sait pas décrire.
+ */
+public class JournalReseau implements Closeable {
+
+    /** Extension ajoutée au chemin de l'instantané pour nommer le journal. */
+    public static final String EXTENSION = ".journal";
+    /** Nombre de lignes du journal au-delà duquel enregistrer() déclenche une compaction. */
+    public static final int SEUIL_COMPACTION_DEFAUT = 100000;
+
+    private final Path instantane;
+    private final Path journal;
+    private final Path journalAncien;
+    private final Path temporaire;
+
+    private final Reseau reseau;
+    private final StringBuilder enAttente = new StringBuilder();
+    private int nbEnAttente;
+    private int nbLignesJournal;
+    private int seuilCompaction = SEUIL_COMPACTION_DEFAUT;
+    private FileChannel canal;
+
+    private JournalReseau(Path instantane, Reseau reseau) {
+        this.instantane = instantane;
+        this.journal = Paths.get(instantane + EXTENSION);
+        this.journalAncien = Paths.get(instantane + EXTENSION + ".ancien");
+        // Même extension que l'instantané : même format d'écriture
+        this.temporaire = instantane.resolveSibling(".tmp_" + instantane.getFileName());
+        this.reseau = reseau;
+    }
+
+    /**
+     * Ouvre (ou crée) la sauvegarde d'un réseau : relit l'instantané s'il existe,
+     * rejoue le journal, et termine une compaction interrompue le cas échéant.
+     *
+     * @param cheminInstantane Le fichier de l'instantané (.txt, .gz ou .rsb) ; le journal est à côté
+     * @return Le journal ouvert, prêt à recevoir des modifications
+     * @throws IOException En cas d'erreur d'accès aux fichiers
+     * @throws ReseauException Si l'instantané est invalide ou si une ligne complète du journal ne peut être rejouée
+     */
+    public static JournalReseau ouvrir(String cheminInstantane) throws IOException, ReseauException {
+        Path instantane = Paths.get(cheminInstantane);
+        JournalReseau j = new JournalReseau(instantane, null);
+        j.reprendreCompaction();
+
+        Reseau reseau = Files.exists(instantane) ? GestionFichier.lireFichier(cheminInstantane) : new Reseau();
+        JournalReseau ouvert = new JournalReseau(instantane, reseau);
+        ouvert.rejouer();
+        ouvert.canal = FileChannel.open(ouvert.journal, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return ouvert;
+    }
+
+    /**
+     * Ajoute un générateur ou met à jour sa capacité (voir {@link Reseau#ajouterOuMajGenerateur}).
+     *
+     * @param nom Le nom du générateur
+     * @param capacite La capacité maximale en kW
+     * @return Le message renvoyé par le réseau
+     * @throws ReseauException Si la modification est refusée (rien n'est journalisé)
+     */
+    public String ajouterOuMajGenerateur(String nom, int capacite) throws ReseauException {
+        String resultat = reseau.ajouterOuMajGenerateur(nom, capacite);
+        journaliser("generateur(", nom, Integer.toString(capacite));
+        return resultat;
+    }
+
+    /**
+     * Ajoute une maison ou met à jour son type (voir {@link Reseau#ajouterOuMajMaison}).
+     *
+     * @param nom Le nom de la maison
+     * @param type Le type de consommation
+     * @return Le message renvoyé par le réseau
+     * @throws ReseauException Si la modification est refusée (rien n'est journalisé)
+     */
+    public String ajouterOuMajMaison(String nom, TypeConsommation type) throws ReseauException {
+        return ajouterOuMajMaison(nom, type, null);
+    }
+
+    /**
+     * Ajoute une maison ou la met à jour, avec une demande horaire (voir {@link Reseau#ajouterOuMajMaison}).
+     *
+     * @param nom Le nom de la maison
+     * @param type Le type de consommation
+     * @param profil La demande en kW de chaque période, ou null pour la demande du type
+     * @return Le message renvoyé par le réseau
+     * @throws ReseauException Si la modification est refusée (rien n'est journalisé)
+     */
+    public String ajouterOuMajMaison(String nom, TypeConsommation type, int[] profil) throws ReseauException {
+        String resultat = reseau.ajouterOuMajMaison(nom, type, profil);
+        journaliser("maison(", nom, (profil != null) ? type.name() + "," + GestionFichier.formaterProfil(profil) : type.name());
+        return resultat;
+    }
+
+    /**
+     * Place une maison (voir {@link Reseau#placerMaison}). La ligne journalisée redéclare la maison
+     * avec son type, sa demande horaire et sa position.
+     *
+     * @param nom Le nom de la maison
+     * @param x L'abscisse
+     * @param y L'ordonnée
+     * @throws ReseauException Si la maison n'existe pas ou si les coordonnées ne sont pas finies,
+     *                         retrait (Double.NaN) compris (rien n'est journalisé)
+     */
+    public void placerMaison(String nom, double x, double y) throws ReseauException {
+        verifierPosition(nom, x, y);
+        reseau.placerMaison(nom, x, y);
+        Maison m = reseau.getMaisonsMap().get(nom);
+        int[] profil = m.getProfil();
+        String type = m.getConsommation().name();
+        journaliser("maison(", nom, ((profil != null) ? type + "," + GestionFichier.formaterProfil(profil) : type)
+                + "," + GestionFichier.formaterPosition(x, y));
+    }
+
+    /**
+     * Place un générateur (voir {@link Reseau#placerGenerateur}). La ligne journalisée redéclare
+     * le générateur avec sa capacité et sa position.
+     *
+     * @param nom Le nom du générateur
+     * @param x L'abscisse
+     * @param y L'ordonnée
+     * @throws ReseauException Si le générateur n'existe pas ou si les coordonnées ne sont pas finies,
+     *                         retrait (Double.NaN) compris (rien n'est journalisé)
+     */
+    public void placerGenerateur(String nom, double x, double y) throws ReseauException {
+        verifierPosition(nom, x, y);
+        reseau.placerGenerateur(nom, x, y);
+        Generateur g = reseau.getGenerateursMap().get(nom);
+        journaliser("generateur(", nom, (int) g.getCapaciteMaximale() + "," + GestionFichier.formaterPosition(x, y));
+    }
+
+    /**
+     * Crée ou remplace une connexion (voir {@link Reseau#ajouterConnexion}).
+     *
+     * @param nom1 Le premier élément (maison ou générateur)
+     * @param nom2 Le second élément
+     * @return Le message renvoyé par le réseau
+     * @throws ReseauException Si la modification est refusée (rien n'est journalisé)
+     */
+    public String ajouterConnexion(String nom1, String nom2) throws ReseauException {
+        String resultat = reseau.ajouterConnexion(nom1, nom2);
+        journaliser("connexion(", nom1, nom2);
+        return resultat;
+    }
+
+    /**
+     * Supprime une connexion (voir {@link Reseau#suppConnexion}).
+     *
+     * @param nom1 Le premier élément (maison ou générateur)
+     * @param nom2 Le second élément
+     * @return Le message renvoyé par le réseau
+     * @throws ReseauException Si la modification est refusée (rien n'est journalisé)
+     */
+    public String suppConnexion(String nom1, String nom2) throws ReseauException {
+        String resultat = reseau.suppConnexion(nom1, nom2);
+        journaliser("deconnexion(", nom1, nom2);
+        return resultat;
+    }
+
+    /**
+     * Supprime une maison et sa connexion (voir {@link Reseau#supprimerMaison}).
+     *
+     * @param nom Le nom de la maison
+     * @return Le message renvoyé par le réseau
+     * @throws ReseauException Si la maison n'existe pas (rien n'est journalisé)
+     */
+    public String supprimerMaison(String nom) throws ReseauException {
+        String resultat = reseau.supprimerMaison(nom);
+        journaliser("suppression(", nom, null);
+        return resultat;
+    }
+
+    /**
+     * Supprime un générateur et déconnecte ses maisons (voir {@link Reseau#supprimerGenerateur}).
+     *
+     * @param nom Le nom du générateur
+     * @return Le message renvoyé par le réseau
+     * @throws ReseauException Si le générateur n'existe pas (rien n'est journalisé)
+     */
+    public String supprimerGenerateur(String nom) throws ReseauException {
+        String resultat = reseau.supprimerGenerateur(nom);
+        journaliser("suppressionGenerateur(", nom, null);
+        return resultat;
+    }
+
+    /**
+     * Sauvegarde les modifications en attente : ajout au journal puis synchronisation disque.
+     * Compacte ensuite si le journal a dépassé le seuil.
+     *
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public void enregistrer() throws IOException {
+        if (nbEnAttente > 0) {
+            ByteBuffer octets = ByteBuffer.wrap(enAttente.toString().getBytes(StandardCharsets.UTF_8));
+            while (octets.hasRemaining()) canal.write(octets);
+            canal.force(false);
+            nbLignesJournal += nbEnAttente;
+            enAttente.setLength(0);
+            nbEnAttente = 0;
+        }
+        if (nbLignesJournal >= seuilCompaction) {
+            compacter();
+        }
+    }
+
+    /**
+     * Réécrit l'instantané complet (modifications en attente comprises) et vide le journal.
+     *
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    public void compacter() throws IOException {
+        // 1) Nouvel instantané dans un fichier temporaire, forcé sur le disque
+        if (instantane.toString().endsWith(InstanceBinaire.EXTENSION)) {
+            InstanceBinaire.ecrire(reseau, temporaire.toString());
+        } else {
+            new EcrivainInstance().ecrire(reseau, temporaire.toString());
+        }
+        try (FileChannel fc = FileChannel.open(temporaire, StandardOpenOption.WRITE)) {
+            fc.force(true);
+        }
+
+        // 2) Journal mis de côté, 3) instantané remplacé, 4) ancien journal supprimé
+        canal.close();
+        Files.move(journal, journalAncien, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(temporaire, instantane, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        Files.delete(journalAncien);
+
+        canal = FileChannel.open(journal, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        enAttente.setLength(0);
+        nbEnAttente = 0;
+        nbLignesJournal = 0;
+    }
+
+    /**
+     * Enregistre les modifications en attente puis ferme le journal.
+     *
+     * @throws IOException En cas d'erreur d'écriture
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            enregistrer();
+        } finally {
+            canal.close();
+        }
+    }
+
+    /**
+     * @param seuil Le nombre de lignes du journal qui déclenche une compaction (au moins 1)
+     */
+    public void setSeuilCompaction(int seuil) {
+        this.seuilCompaction = Math.max(1, seuil);
+    }
+
+    /** @return Le réseau courant (à modifier uniquement par les méthodes du journal ; Lambda n'est pas journalisé) */
+    public Reseau getReseau() { return reseau; }
+
+    /** @return Le nombre de lignes enregistrées dans le journal depuis le dernier instantané */
+    public int getNbLignesJournal() { return nbLignesJournal; }
+
+    /** @return Le nombre de modifications pas encore enregistrées */
+    public int getNbEnAttente() { return nbEnAttente; }
+
+    private static void verifierPosition(String nom, double x, double y) throws ReseauException {
+        if (!(Double.isFinite(x) && Double.isFinite(y))) {
+            throw new ReseauException.DonneeInvalide("La position de " + nom + " doit avoir deux coordonnées finies"
+                    + " (le journal ne peut pas enregistrer un retrait de position).");
+        }
+    }
+
+    private void journaliser(String motCle, String nom1, String nom2) {
+        enAttente.append(motCle).append(nom1);
+        if (nom2 != null) enAttente.append(',').append(nom2);
+        enAttente.append(").\n");
+        nbEnAttente++;
+    }
+
+    /**
+     * Termine ou annule une compaction interrompue, d'après les fichiers restés sur le disque.
+     */
+    private void reprendreCompaction() throws IOException {
+        if (Files.exists(journalAncien)) {
+            if (Files.exists(temporaire)) {
+                // Arrêt avant le remplacement : l'instantané est encore l'ancien, on garde son journal
+                Files.delete(temporaire);
+                Files.move(journalAncien, journal, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                // Arrêt après le remplacement : le nouvel instantané contient déjà tout
+                Files.delete(journalAncien);
+            }
+        } else {
+            // Arrêt pendant l'écriture de l'instantané : l'ancien reste valable avec son journal
+            Files.deleteIfExists(temporaire);
+        }
+    }
+
+    /**
+     * Rejoue le journal sur le réseau chargé depuis l'instantané.
+     * Une dernière ligne sans fin de ligne est une écriture interrompue : elle est retirée du fichier.
+     */
+    private void rejouer() throws IOException, ReseauException {
+        if (!Files.exists(journal)) return;
+        tronquerLigneIncomplete();
+
+        try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+            LecteurEvenements lecteur = new LecteurEvenements(reader);
+            EvenementReseau evenement;
+            while ((evenement = lecteur.suivant()) != null) {
+                try {
+                    appliquer(evenement);
+                } catch (ReseauException e) {
+                    throw new ReseauException.Logique("modification du journal impossible à rejouer (" + e.getMessage() + ")",
+                            evenement.getNumLigne());
+                }
+                nbLignesJournal++;
+            }
+        }
+    }
+
+    private void tronquerLigneIncomplete() throws IOException {
+        try (FileChannel fc = FileChannel.open(journal, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long fin = fc.size();
+            ByteBuffer bloc = ByteBuffer.allocate(4096);
+            while (fin > 0) {
+                int n = (int) Math.min(bloc.capacity(), fin);
+                bloc.clear().limit(n);
+                while (bloc.hasRemaining()) {
+                    if (fc.read(bloc, fin - n + bloc.position()) < 0) break;
+                }
+                int k = n - 1;
+                while (k >= 0 && bloc.get(k) != '\n') k--;
+                if (k >= 0) {
+                    fin = fin - n + k + 1;
+                    break;
+                }
+                fin -= n;
+            }
+            if (fin < fc.size()) {
+                fc.truncate(fin);
+                fc.force(false);
+            }
+        }
+    }
+
+    private void appliquer(EvenementReseau evenement) throws ReseauException {
+        switch (evenement.getNature()) {
+            case GENERATEUR:
+                reseau.ajouterOuMajGenerateur(evenement.getNom(), evenement.getCapacite());
+                // Position : seulement si la ligne en donne une (comme l'API, qui garde celle de l'élément)
+                if (evenement.getPosition() != null) {
+                    double[] p = evenement.getPosition();
+                    reseau.placerGenerateur(evenement.getNom(), p[0], p[1]);
+                }
+                break;
+            case MAISON:
+                reseau.ajouterOuMajMaison(evenement.getNom(), evenement.getConsommation(), evenement.getProfil());
+                if (evenement.getPosition() != null) {
+                    double[] p = evenement.getPosition();
+                    reseau.placerMaison(evenement.getNom(), p[0], p[1]);
+                }
+                break;
+            case CONNEXION:
+                reseau.ajouterConnexion(evenement.getNom(), evenement.getNom2());
+                break;
+            case DECONNEXION:
+                reseau.suppConnexion(evenement.getNom(), evenement.getNom2());
+                break;
+            case SUPPRESSION_MAISON:
+                reseau.supprimerMaison(evenement.getNom());
+                break;
+            case SUPPRESSION_GENERATEUR:
+                reseau.supprimerGenerateur(evenement.getNom());
+                break;
+        }
+    }
+}
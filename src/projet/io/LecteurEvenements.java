@@ -0,0 +1,122 @@
+package projet.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+import projet.exception.ReseauException;
+import projet.reseau.TypeConsommation;
+
+/**
+ * Lit un flux d'événements (fichier ou entrée standard) ligne par ligne.
+ * Mêmes règles de syntaxe que les fichiers d'instance (point final, parenthèses, virgules),
+ * mais sans contrainte d'ordre : chaque ligne est une modification indépendante.
+ */
+public class LecteurEvenements {
+
+    private BufferedReader reader;
+    private int numLigne;
+
+    /**
+     * Prépare la lecture d'un flux d'événements.
+     *
+     * @param reader La source des lignes (fichier, System.in...)
+     */
+    public LecteurEvenements(BufferedReader reader) {
+        this.reader = reader;
+        this.numLigne = 0;
+    }
+
+    /**
+     * Lit l'événement suivant en sautant les lignes vides.
+     *
+     * @return L'événement lu, ou null à la fin du flux
+     * @throws IOException En cas d'erreur de lecture
+     * @throws ReseauException Si la ligne est mal formée (la lecture peut continuer ensuite)
+     */
+    public EvenementReseau suivant() throws IOException, ReseauException {
+        String ligne;
+        while ((ligne = reader.readLine()) != null) {
+            numLigne++;
+            ligne = ligne.trim();
+            if (ligne.isEmpty()) continue;
+            return analyser(ligne, numLigne);
+        }
+        return null;
+    }
+
+    /**
+     * Analyse une ligne d'événement.
+     *
+     * @param ligne La ligne (sans espaces autour)
+     * @param numLigne Le numéro de la ligne pour les messages d'erreur
+     * @return L'événement correspondant
+     * @throws ReseauException Si la ligne est mal formée
+     */
+    public static EvenementReseau analyser(String ligne, int numLigne) throws ReseauException {
+        if (!ligne.endsWith(".")) {
+            throw new ReseauException.Syntaxe("La ligne doit se terminer par un point '.'", numLigne);
+        }
+        ligne = ligne.substring(0, ligne.length() - 1).trim();
+
+        if (ligne.startsWith("generateur")) {
+            String[] args = GestionFichier.extraireArguments(ligne, numLigne, "generateur");
+            if (args.length != 2 && args.length != 3) {
+                throw new ReseauException.Syntaxe("generateur", GestionFichier.FORMAT_GENERATEUR, numLigne);
+            }
+            int capacite;
+            try {
+                capacite = Integer.parseInt(args[1].trim());
+            } catch (NumberFormatException e) {
+                throw new ReseauException.DonneeInvalide("capacité du générateur", numLigne);
+            }
+            double[] position = (args.length == 3)
+                    ? GestionFichier.lirePosition(args[2], "generateur", GestionFichier.FORMAT_GENERATEUR, numLigne)
+                    : null;
+            return EvenementReseau.generateur(args[0].trim(), capacite, position, numLigne);
+
+        } else if (ligne.startsWith("maison")) {
+            String[] args = GestionFichier.extraireArguments(ligne, numLigne, "maison");
+            if (args.length < 2 || args.length > 4) {
+                throw new ReseauException.Syntaxe("maison", GestionFichier.FORMAT_MAISON, numLigne);
+            }
+            int[] profil = (args.length >= 3 && GestionFichier.estProfil(args[2])) ? GestionFichier.lireProfil(args[2], numLigne) : null;
+            double[] position = GestionFichier.lirePositionMaison(args, (profil != null) ? 3 : 2, numLigne);
+            String typeStr = args[1].trim().toUpperCase();
+            TypeConsommation type = TypeConsommation.fromString(typeStr);
+            if (type == null) {
+                throw new ReseauException.DonneeInvalide(typeStr, "BASSE, NORMAL, ou FORTE", numLigne);
+            }
+            return EvenementReseau.maison(args[0].trim(), type, profil, position, numLigne);
+
+        } else if (ligne.startsWith("connexion")) {
+            String[] args = GestionFichier.extraireArguments(ligne, numLigne, "connexion");
+            if (args.length != 2) {
+                throw new ReseauException.Syntaxe("connexion", "connexion(nom1,nom2)", numLigne);
+            }
+            return EvenementReseau.connexion(args[0].trim(), args[1].trim(), numLigne);
+
+        } else if (ligne.startsWith("deconnexion")) {
+            String[] args = GestionFichier.extraireArguments(ligne, numLigne, "deconnexion");
+            if (args.length != 2) {
+                throw new ReseauException.Syntaxe("deconnexion", "deconnexion(nom1,nom2)", numLigne);
+            }
+            return EvenementReseau.deconnexion(args[0].trim(), args[1].trim(), numLigne);
+
+        } else if (ligne.startsWith("suppressionGenerateur")) {
+            String[] args = GestionFichier.extraireArguments(ligne, numLigne, "suppressionGenerateur");
+            if (args.length != 1) {
+                throw new ReseauException.Syntaxe("suppressionGenerateur", "suppressionGenerateur(nomGenerateur)", numLigne);
+            }
+            return EvenementReseau.suppressionGenerateur(args[0].trim(), numLigne);
+
+        } else if (ligne.startsWith("suppression")) {
+            String[] args = GestionFichier.extraireArguments(ligne, numLigne, "suppression");
+            if (args.length != 1) {
+                throw new ReseauException.Syntaxe("suppression", "suppression(nomMaison)", numLigne);
+            }
+            return EvenementReseau.suppressionMaison(args[0].trim(), numLigne);
+        }
+
+        throw new ReseauException.Syntaxe("Mot-clé inconnu '" + ligne.split("\\(")[0] + "'", numLigne);
+    }
+}
@@ -0,0 +1,78 @@
+package projet.io;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import projet.exception.ReseauException;
+import projet.reseau.Reseau;
+
+/**
+ * Lecture d'une instance par projection du fichier en mémoire (FileChannel.map).
+ *
+ * Même format, mêmes règles et mêmes exceptions (message et numéro de ligne) que
+ * {@link GestionFichier#lireFichier(String)}, mais l'analyse se fait directement sur les octets
+ * (voir AnalyseurOctets) : pas de BufferedReader, ni de String par ligne ou par champ numérique.
+ * Prévu pour les grosses instances ; le format doit utiliser un jeu de caractères compatible ASCII
+ * (UTF-8, ISO-8859-1...).
+ */
+public class LecteurMappe {
+
+    // Taille maximale d'une projection (un MappedByteBuffer est indexé par un int)
+    static final int TAILLE_FENETRE = 1 << 30;
+
+    /**
+     * Lit un fichier d'instance en le projetant en mémoire.
+     *
+     * @param cheminFichier Le chemin d'accès au fichier
+     * @return L'objet Reseau initialisé avec les données du fichier
+     * @throws IOException En cas de problème d'accès au fichier
+     * @throws ReseauException En cas d'erreur de format, de syntaxe ou de logique métier dans le fichier
+     */
+    public static Reseau lireFichier(String cheminFichier) throws IOException, ReseauException {
+        return lireFichier(cheminFichier, TAILLE_FENETRE);
+    }
+
+    /**
+     * Variante avec une taille de fenêtre imposée (tests du passage d'une fenêtre à la suivante).
+     */
+    static Reseau lireFichier(String cheminFichier, int tailleFenetre) throws IOException, ReseauException {
+        ConstructeurReseau constructeur = new ConstructeurReseau(new Reseau());
+        analyser(cheminFichier, tailleFenetre, constructeur);
+        return constructeur.getReseau();
+    }
+
+    /**
+     * Analyse le fichier projeté fenêtre par fenêtre et transmet chaque élément au récepteur.
+     *
+     * @param cheminFichier Le chemin d'accès au fichier
+     * @param tailleFenetre La taille maximale d'une projection
+     * @param recepteur Le destinataire des éléments lus
+     * @throws IOException En cas de problème d'accès au fichier
+     * @throws ReseauException À la première ligne invalide
+     */
+    static void analyser(String cheminFichier, int tailleFenetre, RecepteurInstance recepteur) throws IOException, ReseauException {
+        AnalyseurOctets analyseur = new AnalyseurOctets(recepteur);
+
+        try (FileChannel canal = FileChannel.open(Paths.get(cheminFichier), StandardOpenOption.READ)) {
+            long taille = canal.size();
+            long position = 0;
+
+            // Fenêtres successives : chacune reprend au début de la première ligne non lue
+            while (position < taille) {
+                int longueur = (int) Math.min(tailleFenetre, taille - position);
+                boolean derniere = (position + longueur == taille);
+                MappedByteBuffer fenetre = canal.map(FileChannel.MapMode.READ_ONLY, position, longueur);
+
+                int lu = analyseur.analyserZone(fenetre, 0, longueur, derniere);
+                if (lu == 0 && !derniere) {
+                    throw new ReseauException("Ligne trop longue (plus de " + tailleFenetre + " octets)",
+                            analyseur.getNumLigne() + 1);
+                }
+                position += lu;
+            }
+        }
+    }
+}
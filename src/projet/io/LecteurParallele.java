@@ -0,0 +1,424 @@
+package projet.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import projet.exception.ReseauException;
+import projet.reseau.Generateur;
+import projet.reseau.Maison;
+import projet.reseau.Reseau;
+import projet.reseau.TableNoms;
+import projet.reseau.TypeConsommation;
+
+/**
+ * Lecture parallèle d'une grosse instance : le fichier est projeté en mémoire puis découpé en morceaux
+ * aux frontières de ligne, analysés simultanément.
+ *
+ * Déroulement :
+ * 1. comptage des lignes de chaque morceau (en parallèle), pour connaître le numéro global de la
+ *    première ligne de chaque morceau ;
+ * 2. analyse des morceaux (en parallèle, AnalyseurOctets) : chaque morceau garde ses éléments et
+ *    sa première erreur ;
+ * 3. fusion dans l'ordre du fichier : contrôle de l'ordre des sections d'un morceau à l'autre,
+ *    création des générateurs et des maisons (séquentielle, ce sont les tables de noms) ;
+ * 4. résolution des connexions sur ces tables, en lecture seule (en parallèle), puis ajout au réseau.
+ *
+ * Le résultat et les exceptions (type, message, numéro de ligne) sont ceux de
+ * {@link GestionFichier#lireFichier(String)} : c'est toujours l'erreur de la première ligne fautive
+ * qui est levée, quel que soit le morceau où elle se trouve.
+ */
+public class LecteurParallele {
+
+    // En dessous, un morceau ne vaut pas le coût d'une tâche
+    private static final int TAILLE_MIN_MORCEAU = 1 << 16;
+    // Morceaux par thread, pour équilibrer la charge (les connexions sont plus longues à traiter)
+    private static final int MORCEAUX_PAR_THREAD = 4;
+
+    /**
+     * Les éléments d'un morceau, dans l'ordre du fichier, et sa première erreur.
+     */
+    private static class Morceau implements RecepteurInstance {
+        final long debut;
+        final int longueur;
+        MappedByteBuffer octets;
+        int premiereLigne;
+        int nbLignes;
+
+        int nbGenerateurs;
+        String[] nomsGenerateurs = new String[16];
+        int[] capacites = new int[16];
+        double[][] positionsGenerateurs = new double[16][];
+        int[] lignesGenerateurs = new int[16];
+
+        int nbMaisons;
+        // Maisons créées pendant l'analyse (null si le nom est refusé, l'erreur est levée à la fusion,
+        // ou si la maison a une demande horaire ou une position : le réseau doit les compter)
+        Maison[] objetsMaisons = new Maison[16];
+        String[] nomsMaisons = new String[16];
+        TypeConsommation[] types = new TypeConsommation[16];
+        int[][] profils = new int[16][];
+        double[][] positionsMaisons = new double[16][];
+        int[] lignesMaisons = new int[16];
+
+        int nbConnexions;
+        String[] noms1 = new String[16];
+        String[] noms2 = new String[16];
+        int[] lignesConnexions = new int[16];
+        // Résolution des connexions (étape 4)
+        Maison[] maisons;
+        Generateur[] generateurs;
+        int nbResolues;
+
+        // Résultat de l'analyse
+        int etapeSortie;
+        int premiereLigneGenerateur;
+        int premiereLigneMaison;
+        ReseauException erreur;
+        int ligneErreur = Integer.MAX_VALUE;
+
+        Morceau(long debut, int longueur) {
+            this.debut = debut;
+            this.longueur = longueur;
+        }
+
+        @Override
+        public void generateur(String nom, int capacite, double[] position, int numLigne) {
+            if (nbGenerateurs == nomsGenerateurs.length) {
+                int n = 2 * nbGenerateurs;
+                nomsGenerateurs = Arrays.copyOf(nomsGenerateurs, n);
+                capacites = Arrays.copyOf(capacites, n);
+                positionsGenerateurs = Arrays.copyOf(positionsGenerateurs, n);
+                lignesGenerateurs = Arrays.copyOf(lignesGenerateurs, n);
+            }
+            nomsGenerateurs[nbGenerateurs] = nom;
+            capacites[nbGenerateurs] = capacite;
+            positionsGenerateurs[nbGenerateurs] = position;
+            lignesGenerateurs[nbGenerateurs++] = numLigne;
+        }
+
+        @Override
+        public void maison(String nom, TypeConsommation type, int[] profil, double[] position, int numLigne) {
+            if (nbMaisons == nomsMaisons.length) {
+                int n = 2 * nbMaisons;
+                objetsMaisons = Arrays.copyOf(objetsMaisons, n);
+                nomsMaisons = Arrays.copyOf(nomsMaisons, n);
+                types = Arrays.copyOf(types, n);
+                profils = Arrays.copyOf(profils, n);
+                positionsMaisons = Arrays.copyOf(positionsMaisons, n);
+                lignesMaisons = Arrays.copyOf(lignesMaisons, n);
+            }
+            objetsMaisons[nbMaisons] = (nom.trim().isEmpty() || profil != null || position != null) ? null : new Maison(nom, type);
+            nomsMaisons[nbMaisons] = nom;
+            types[nbMaisons] = type;
+            profils[nbMaisons] = profil;
+            positionsMaisons[nbMaisons] = position;
+            lignesMaisons[nbMaisons++] = numLigne;
+        }
+
+        @Override
+        public void connexion(String nom1, String nom2, int numLigne) {
+            if (nbConnexions == noms1.length) {
+                int n = 2 * nbConnexions;
+                noms1 = Arrays.copyOf(noms1, n);
+                noms2 = Arrays.copyOf(noms2, n);
+                lignesConnexions = Arrays.copyOf(lignesConnexions, n);
+            }
+            noms1[nbConnexions] = nom1;
+            noms2[nbConnexions] = nom2;
+            lignesConnexions[nbConnexions++] = numLigne;
+        }
+    }
+
+    /**
+     * Lit un fichier d'instance avec autant de threads que de processeurs disponibles.
+     *
+     * @param cheminFichier Le chemin d'accès au fichier
+     * @return L'objet Reseau initialisé avec les données du fichier
+     * @throws IOException En cas de problème d'accès au fichier
+     * @throws ReseauException En cas d'erreur de format, de syntaxe ou de logique métier dans le fichier
+     */
+    public static Reseau lireFichier(String cheminFichier) throws IOException, ReseauException {
+        return lireFichier(cheminFichier, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Lit un fichier d'instance en parallèle.
+     *
+     * @param cheminFichier Le chemin d'accès au fichier
+     * @param nbThreads Le nombre de threads (au moins 1)
+     * @return L'objet Reseau initialisé avec les données du fichier
+     * @throws IOException En cas de problème d'accès au fichier
+     * @throws ReseauException En cas d'erreur de format, de syntaxe ou de logique métier dans le fichier
+     */
+    public static Reseau lireFichier(String cheminFichier, int nbThreads) throws IOException, ReseauException {
+        return lireFichier(cheminFichier, nbThreads, 0);
+    }
+
+    /**
+     * Variante avec un nombre de morceaux imposé (0 : choisi selon la taille et le nombre de threads).
+     */
+    static Reseau lireFichier(String cheminFichier, int nbThreads, int nbMorceaux) throws IOException, ReseauException {
+        nbThreads = Math.max(1, nbThreads);
+
+        try (FileChannel canal = FileChannel.open(Paths.get(cheminFichier), StandardOpenOption.READ)) {
+            long taille = canal.size();
+            if (nbMorceaux <= 0) {
+                nbMorceaux = (int) Math.min(nbThreads * MORCEAUX_PAR_THREAD, taille / TAILLE_MIN_MORCEAU + 1);
+            }
+            // Un morceau est projeté d'un seul tenant
+            nbMorceaux = (int) Math.max(nbMorceaux, taille / LecteurMappe.TAILLE_FENETRE + 1);
+            List<Morceau> morceaux = decouper(canal, taille, nbMorceaux);
+
+            ExecutorService pool = Executors.newFixedThreadPool(nbThreads);
+            try {
+                // 1. Comptage des lignes
+                List<Callable<Void>> comptages = new ArrayList<>();
+                for (Morceau m : morceaux) {
+                    comptages.add(() -> {
+                        m.octets = canal.map(FileChannel.MapMode.READ_ONLY, m.debut, m.longueur);
+                        m.nbLignes = compterLignes(m.octets, m.longueur, m.debut + m.longueur == taille);
+                        return null;
+                    });
+                }
+                executer(pool, comptages);
+                int ligne = 1;
+                for (Morceau m : morceaux) {
+                    m.premiereLigne = ligne;
+                    ligne += m.nbLignes;
+                }
+
+                // 2. Analyse
+                List<Callable<Void>> analyses = new ArrayList<>();
+                for (Morceau m : morceaux) {
+                    analyses.add(() -> {
+                        analyser(m);
+                        return null;
+                    });
+                }
+                executer(pool, analyses);
+
+                // 3. Fusion
+                Reseau reseau = new Reseau();
+                ConstructeurReseau constructeur = new ConstructeurReseau(reseau);
+                ReseauException erreur = null;
+                int ligneErreur = Integer.MAX_VALUE;
+                int etape = GestionFichier.ETAPE_GENERATEUR;
+                int nbUtiles = 0;
+
+                for (Morceau m : morceaux) {
+                    nbUtiles++;
+                    // Lignes refusées compte tenu de l'étape atteinte par les morceaux précédents
+                    int ligneOrdre = Integer.MAX_VALUE;
+                    int etapeLigne = GestionFichier.ETAPE_GENERATEUR;
+                    if (etape >= GestionFichier.ETAPE_MAISON) {
+                        ligneOrdre = m.premiereLigneGenerateur;
+                    }
+                    if (etape >= GestionFichier.ETAPE_CONNEXION && m.premiereLigneMaison < ligneOrdre) {
+                        ligneOrdre = m.premiereLigneMaison;
+                        etapeLigne = GestionFichier.ETAPE_MAISON;
+                    }
+                    // À ligne égale, l'erreur d'ordre passe avant celle des arguments
+                    if (ligneOrdre <= m.ligneErreur) {
+                        if (ligneOrdre != Integer.MAX_VALUE) {
+                            erreur = AnalyseurOctets.erreurOrdre(etapeLigne, ligneOrdre);
+                            ligneErreur = ligneOrdre;
+                            break;
+                        }
+                    } else {
+                        erreur = m.erreur;
+                        ligneErreur = m.ligneErreur;
+                        break;
+                    }
+                    etape = Math.max(etape, m.etapeSortie);
+                }
+                List<Morceau> utiles = morceaux.subList(0, nbUtiles);
+
+                // Tables de noms : toutes les lignes generateur et maison précèdent les connexions
+                // (sinon l'erreur d'ordre est levée avant)
+                TableNoms<Maison> tableMaisons = reseau.getMaisonsMap();
+                for (Morceau m : utiles) {
+                    for (int i = 0; i < m.nbGenerateurs && m.lignesGenerateurs[i] < ligneErreur; i++) {
+                        constructeur.generateur(m.nomsGenerateurs[i], m.capacites[i], m.positionsGenerateurs[i], m.lignesGenerateurs[i]);
+                    }
+                    for (int i = 0; i < m.nbMaisons && m.lignesMaisons[i] < ligneErreur; i++) {
+                        Maison maison = m.objetsMaisons[i];
+                        if (maison == null) {
+                            constructeur.maison(m.nomsMaisons[i], m.types[i], m.profils[i], m.positionsMaisons[i], m.lignesMaisons[i]);
+                            continue;
+                        }
+                        // Même effet que Reseau.ajouterOuMajMaison, avec l'objet déjà créé ;
+                        // une maison redéclarée y repasse (elle peut perdre une demande horaire ou une position)
+                        if (tableMaisons.ajouterSiAbsent(maison) != null) {
+                            constructeur.maison(m.nomsMaisons[i], m.types[i], null, null, m.lignesMaisons[i]);
+                        }
+                    }
+                }
+
+                // 4. Connexions : résolution en parallèle (tables en lecture seule), ajout dans l'ordre
+                final int limite = ligneErreur;
+                List<Callable<Void>> resolutions = new ArrayList<>();
+                for (Morceau m : utiles) {
+                    resolutions.add(() -> {
+                        resoudre(m, reseau, limite);
+                        return null;
+                    });
+                }
+                executer(pool, resolutions);
+
+                Map<Maison, Generateur> connexions = reseau.getConnexionsMap();
+                for (Morceau m : utiles) {
+                    for (int i = 0; i < m.nbResolues; i++) {
+                        connexions.put(m.maisons[i], m.generateurs[i]);
+                    }
+                    if (m.nbResolues < m.nbConnexions && m.lignesConnexions[m.nbResolues] < ligneErreur) {
+                        // Connexion refusée : on la rejoue pour lever exactement la même exception
+                        int i = m.nbResolues;
+                        constructeur.connexion(m.noms1[i], m.noms2[i], m.lignesConnexions[i]);
+                    }
+                }
+
+                if (erreur != null) throw erreur;
+                return reseau;
+
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Découpe le fichier en morceaux qui commencent tous au début d'une ligne.
+     */
+    private static List<Morceau> decouper(FileChannel canal, long taille, int nbMorceaux) throws IOException {
+        List<Morceau> morceaux = new ArrayList<>();
+        ByteBuffer tampon = ByteBuffer.allocate(8192);
+        long debut = 0;
+        for (int k = 1; k <= nbMorceaux && debut < taille; k++) {
+            long fin = (k == nbMorceaux) ? taille : Math.max(debut, taille / nbMorceaux * k);
+            if (fin < taille) fin = debutLigneSuivante(canal, tampon, fin, taille);
+            if (fin > debut) {
+                morceaux.add(new Morceau(debut, (int) (fin - debut)));
+                debut = fin;
+            }
+        }
+        return morceaux;
+    }
+
+    /**
+     * @return Le début de la première ligne commençant après la position (fin de fichier s'il n'y en a pas)
+     */
+    private static long debutLigneSuivante(FileChannel canal, ByteBuffer tampon, long position, long taille) throws IOException {
+        long pos = position;
+        boolean apresCR = false;
+        while (pos < taille) {
+            tampon.clear();
+            int lus = canal.read(tampon, pos);
+            if (lus <= 0) break;
+            for (int i = 0; i < lus; i++, pos++) {
+                byte c = tampon.get(i);
+                if (apresCR) {
+                    return (c == '\n') ? pos + 1 : pos;
+                }
+                if (c == '\n') return pos + 1;
+                if (c == '\r') apresCR = true;
+            }
+        }
+        return taille;
+    }
+
+    /**
+     * Nombre de lignes commençant dans le morceau (comme readLine : "\n", "\r" ou "\r\n").
+     */
+    private static int compterLignes(ByteBuffer octets, int longueur, boolean finDeFichier) {
+        int nb = 0;
+        for (int i = 0; i < longueur; i++) {
+            byte c = octets.get(i);
+            if (c == '\n') {
+                nb++;
+            } else if (c == '\r') {
+                nb++;
+                if (i + 1 < longueur && octets.get(i + 1) == '\n') i++;
+            }
+        }
+        // Dernière ligne sans fin de ligne (seul le dernier morceau peut en avoir une)
+        if (finDeFichier && longueur > 0) {
+            byte dernier = octets.get(longueur - 1);
+            if (dernier != '\n' && dernier != '\r') nb++;
+        }
+        return nb;
+    }
+
+    private static void analyser(Morceau m) {
+        AnalyseurOctets analyseur = new AnalyseurOctets(m, m.premiereLigne);
+        try {
+            analyseur.analyserZone(m.octets, 0, m.longueur, true);
+        } catch (ReseauException e) {
+            m.erreur = e;
+            m.ligneErreur = analyseur.getNumLigne();
+        }
+        m.etapeSortie = analyseur.getEtape();
+        m.premiereLigneGenerateur = analyseur.getPremiereLigneGenerateur();
+        m.premiereLigneMaison = analyseur.getPremiereLigneMaison();
+        m.octets = null;
+    }
+
+    /**
+     * Associe chaque connexion du morceau à sa maison et son générateur, comme
+     * ConstructeurReseau.connexion puis Reseau.ajouterConnexion, jusqu'à la première refusée.
+     */
+    private static void resoudre(Morceau m, Reseau reseau, int limite) {
+        Map<String, Maison> maisons = reseau.getMaisonsMap();
+        Map<String, Generateur> generateurs = reseau.getGenerateursMap();
+        m.maisons = new Maison[m.nbConnexions];
+        m.generateurs = new Generateur[m.nbConnexions];
+
+        int i = 0;
+        for (; i < m.nbConnexions && m.lignesConnexions[i] < limite; i++) {
+            String nom1 = m.noms1[i];
+            String nom2 = m.noms2[i];
+            // Générateur d'abord, comme Reseau.ajouterConnexion : un nom de maison y est vite écarté
+            Generateur generateur = generateurs.get(nom2);
+            Maison maison = (generateur != null) ? maisons.get(nom1) : null;
+            if (maison == null) {
+                generateur = generateurs.get(nom1);
+                maison = (generateur != null) ? maisons.get(nom2) : null;
+            }
+            if (maison == null) break;
+            m.maisons[i] = maison;
+            m.generateurs[i] = generateur;
+        }
+        m.nbResolues = i;
+    }
+
+    /**
+     * Exécute les tâches et attend qu'elles soient toutes terminées.
+     */
+    private static void executer(ExecutorService pool, List<Callable<Void>> taches) throws IOException, ReseauException {
+        try {
+            for (Future<Void> f : pool.invokeAll(taches)) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReseauException("Lecture interrompue.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new ReseauException("Erreur critique inattendue : " + e.getCause().getMessage());
+        }
+    }
+}
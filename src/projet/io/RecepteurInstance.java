@@ -0,0 +1,42 @@
+package projet.io;
+
+import projet.exception.ReseauException;
+import projet.reseau.TypeConsommation;
+
+/**
+ * Reçoit les éléments d'une instance au fur et à mesure de leur lecture, déjà validés
+ * syntaxiquement (nombre d'arguments, capacité entière, type connu, profil et position bien formés,
+ * ordre des sections).
+ *
+ * Permet de partager l'analyse du format entre plusieurs lecteurs (texte, octets, parallèle)
+ * et plusieurs usages (construction d'un Reseau, validation seule...).
+ */
+interface RecepteurInstance {
+
+    /**
+     * @param nom Le nom du générateur (sans espaces autour)
+     * @param capacite La capacité lue
+     * @param position La position lue {x, y}, ou null si la ligne n'en a pas
+     * @param numLigne Le numéro de la ligne dans le fichier
+     * @throws ReseauException Si l'élément est refusé
+     */
+    void generateur(String nom, int capacite, double[] position, int numLigne) throws ReseauException;
+
+    /**
+     * @param nom Le nom de la maison (sans espaces autour)
+     * @param type Le type de consommation lu
+     * @param profil La demande horaire lue (à ne pas modifier), ou null si la ligne n'en a pas
+     * @param position La position lue {x, y}, ou null si la ligne n'en a pas
+     * @param numLigne Le numéro de la ligne dans le fichier
+     * @throws ReseauException Si l'élément est refusé
+     */
+    void maison(String nom, TypeConsommation type, int[] profil, double[] position, int numLigne) throws ReseauException;
+
+    /**
+     * @param nom1 Le premier nom (maison ou générateur)
+     * @param nom2 Le second nom (générateur ou maison)
+     * @param numLigne Le numéro de la ligne dans le fichier
+     * @throws ReseauException Si la connexion est refusée
+     */
+    void connexion(String nom1, String nom2, int numLigne) throws ReseauException;
+}
@@ -0,0 +1,374 @@
+package projet.io;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import projet.exception.ReseauException;
+import projet.reseau.TypeConsommation;
+
+/**
+ * Validation seule d'un fichier d'instance, en mémoire quasi constante : mêmes règles de syntaxe,
+ * d'ordre et de références que {@link GestionFichier#lireFichier(String)} (mêmes exceptions),
+ * mais sans construire de Reseau.
+ *
+ * Au lieu d'un objet Maison ou Generateur par ligne, chaque nom est réduit à une empreinte
+ * de 64 bits rangée dans une table à adressage ouvert (tableaux primitifs) : une quinzaine
+ * d'octets par élément au lieu de plusieurs centaines. Deux noms différents de même empreinte
+ * seraient confondus ; avec 64 bits, la probabilité est négligeable (environ n² / 2^65).
+ *
+ * Le résultat donne les effectifs, la capacité et la demande totales, la tension
+ * (demande / capacité) et les maisons non connectées, c'est-à-dire les contrôles de
+ * {@link projet.reseau.Reseau#validerReseau()}.
+ */
+public class ValidateurInstance {
+
+    /** Nombre de lignes de maisons non connectées conservées pour le rapport. */
+    public static final int NB_LIGNES_SIGNALEES = 10;
+
+    private static final TypeConsommation[] TYPES = TypeConsommation.values();
+    // Bit ajouté au type d'une maison qui a une demande horaire
+    private static final int AVEC_PROFIL = 0x40;
+
+    private final TableEmpreintes generateurs = new TableEmpreintes();
+    private final TableEmpreintes maisons = new TableEmpreintes();
+
+    private long capaciteTotale;
+    private long demandeTotale;
+    private int nbConnexions;
+    private int nbConnectees;
+    private final int[] nbParType = new int[TYPES.length];
+    private int nbMaisonsAvecProfil;
+    private int nbPeriodes;
+    private int[] lignesNonConnectees = new int[0];
+
+    private ValidateurInstance() {
+    }
+
+    /**
+     * Valide un fichier d'instance (.txt, .txt.gz ou .rsb) sans le charger.
+     * Un fichier .rsb, écrit à partir d'un réseau déjà valide, n'est lu que dans son en-tête.
+     *
+     * @param cheminFichier Le chemin d'accès au fichier
+     * @return Les statistiques de l'instance (les maisons non connectées n'empêchent pas la lecture)
+     * @throws IOException En cas de problème d'accès au fichier
+     * @throws ReseauException À la première erreur de format, d'ordre ou de référence (comme lireFichier)
+     */
+    public static ValidateurInstance valider(String cheminFichier) throws IOException, ReseauException {
+        ValidateurInstance v = new ValidateurInstance();
+
+        if (cheminFichier.endsWith(InstanceBinaire.EXTENSION)) {
+            InstanceBinaire vue = InstanceBinaire.ouvrir(cheminFichier);
+            v.generateurs.taille = vue.getNbGenerateurs();
+            v.maisons.taille = vue.getNbMaisons();
+            v.capaciteTotale = vue.getCapaciteTotale();
+            v.demandeTotale = vue.getDemandeTotale();
+            v.nbConnexions = vue.getNbConnectees();
+            v.nbConnectees = vue.getNbConnectees();
+            for (TypeConsommation t : TYPES) v.nbParType[t.ordinal()] = vue.getNbMaisons(t);
+            return v;
+        }
+
+        Recepteur recepteur = v.new Recepteur();
+        if (cheminFichier.endsWith(EcrivainInstance.EXTENSION_GZIP)) {
+            try (BufferedReader reader = GestionFichier.ouvrirLecture(cheminFichier)) {
+                GestionFichier.analyser(reader, recepteur);
+            }
+        } else {
+            LecteurMappe.analyser(cheminFichier, LecteurMappe.TAILLE_FENETRE, recepteur);
+        }
+        v.terminer();
+        return v;
+    }
+
+    /**
+     * Valide le contenu d'un fichier d'instance texte déjà lu en mémoire (jeu de caractères par
+     * défaut, comme la lecture), pour vérifier exactement la version que l'on va utiliser.
+     *
+     * @param contenu Les octets du fichier
+     * @return Les statistiques de l'instance
+     * @throws ReseauException À la première erreur de format, d'ordre ou de référence (comme lireFichier)
+     */
+    public static ValidateurInstance validerContenu(byte[] contenu) throws ReseauException {
+        ValidateurInstance v = new ValidateurInstance();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(contenu), Charset.defaultCharset()))) {
+            GestionFichier.analyser(reader, v.new Recepteur());
+        } catch (IOException e) {
+            // Lecture en mémoire : impossible
+            throw new IllegalStateException(e);
+        }
+        v.terminer();
+        return v;
+    }
+
+    /**
+     * Applique les contrôles de validerReseau : au moins une maison, au moins un générateur,
+     * toutes les maisons connectées.
+     *
+     * @throws ReseauException.Logique Si l'instance est invalide (liste des problèmes)
+     */
+    public void verifier() throws ReseauException {
+        if (estValide()) return;
+
+        StringBuilder sb = new StringBuilder("Le réseau est INVALIDE :");
+        if (maisons.taille == 0) {
+            sb.append("\n\t- Problème: Le réseau doit contenir au moins une maison.");
+        }
+        if (generateurs.taille == 0) {
+            sb.append("\n\t- Problème: Le réseau doit contenir au moins un générateur.");
+        }
+        if (getNbNonConnectees() > 0) {
+            sb.append("\n\t- Problème: ").append(getNbNonConnectees()).append(" maison(s) sans connexion");
+            if (lignesNonConnectees.length > 0) {
+                sb.append(" (définies lignes");
+                for (int ligne : lignesNonConnectees) sb.append(' ').append(ligne);
+                if (lignesNonConnectees.length < getNbNonConnectees()) sb.append(" ...");
+                sb.append(')');
+            }
+            sb.append('.');
+        }
+        throw new ReseauException.Logique(sb.toString());
+    }
+
+    /** @return true si l'instance passe les contrôles de validerReseau */
+    public boolean estValide() {
+        return maisons.taille > 0 && generateurs.taille > 0 && getNbNonConnectees() == 0;
+    }
+
+    /** @return Le nombre de générateurs distincts */
+    public int getNbGenerateurs() { return generateurs.taille; }
+
+    /** @return Le nombre de maisons distinctes */
+    public int getNbMaisons() { return maisons.taille; }
+
+    /**
+     * @param type Un type de consommation
+     * @return Le nombre de maisons de ce type
+     */
+    public int getNbMaisons(TypeConsommation type) { return nbParType[type.ordinal()]; }
+
+    /** @return La longueur des demandes horaires, ou 1 si aucune maison n'en a */
+    public int getNbPeriodes() { return (nbMaisonsAvecProfil > 0) ? nbPeriodes : 1; }
+
+    /** @return Le nombre de lignes de connexion (une maison reconnectée compte plusieurs fois) */
+    public int getNbConnexions() { return nbConnexions; }
+
+    /** @return Le nombre de maisons connectées à un générateur */
+    public int getNbConnectees() { return nbConnectees; }
+
+    /** @return Le nombre de maisons sans connexion */
+    public int getNbNonConnectees() { return maisons.taille - nbConnectees; }
+
+    /** @return Les premières lignes (au plus NB_LIGNES_SIGNALEES, croissantes) définissant une maison non connectée */
+    public int[] getLignesNonConnectees() { return lignesNonConnectees.clone(); }
+
+    /** @return La capacité totale des générateurs (kW) */
+    public long getCapaciteTotale() { return capaciteTotale; }
+
+    /** @return La demande totale des maisons (kW) */
+    public long getDemandeTotale() { return demandeTotale; }
+
+    /** @return La tension de l'instance : demande totale / capacité totale (infini si aucune capacité) */
+    public double getTension() {
+        return (capaciteTotale == 0) ? Double.POSITIVE_INFINITY : (double) demandeTotale / capaciteTotale;
+    }
+
+    /** @return La mémoire occupée par les tables d'empreintes, en octets */
+    public long getOctetsTables() {
+        return generateurs.octets() + maisons.octets();
+    }
+
+    /**
+     * Compte les maisons connectées et garde les premières lignes des maisons non connectées.
+     */
+    private void terminer() {
+        int[] premieres = new int[NB_LIGNES_SIGNALEES];
+        int n = 0;
+        for (int k = 0; k < maisons.cles.length; k++) {
+            if (maisons.cles[k] == 0) continue;
+            int ligne = maisons.valeurs[k];
+            if (ligne < 0) {
+                nbConnectees++;
+                continue;
+            }
+            // Insertion dans les NB_LIGNES_SIGNALEES plus petites lignes
+            if (n < premieres.length || ligne < premieres[n - 1]) {
+                int i = (n < premieres.length) ? n++ : n - 1;
+                while (i > 0 && premieres[i - 1] > ligne) {
+                    premieres[i] = premieres[i - 1];
+                    i--;
+                }
+                premieres[i] = ligne;
+            }
+        }
+        lignesNonConnectees = Arrays.copyOf(premieres, n);
+    }
+
+    /**
+     * Empreinte de 64 bits d'un nom : FNV-1a sur les caractères puis brassage final (MurmurHash3).
+     * 0 est réservé aux cases vides.
+     */
+    static long empreinte(String nom) {
+        long h = 0xcbf29ce484222325L;
+        for (int k = 0; k < nom.length(); k++) {
+            h ^= nom.charAt(k);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe53a87L;
+        h ^= h >>> 33;
+        return (h == 0) ? 1 : h;
+    }
+
+    /**
+     * Applique les règles de ConstructeurReseau (et de Reseau) sur les empreintes, avec les mêmes messages.
+     */
+    private class Recepteur implements RecepteurInstance {
+
+        @Override
+        public void generateur(String nom, int capacite, double[] position, int numLigne) throws ReseauException {
+            if (nom == null || nom.trim().isEmpty()) {
+                throw new ReseauException.DonneeInvalide("Le nom du générateur ne peut pas être vide.", 0);
+            }
+            long cle = empreinte(nom);
+            int k = generateurs.chercher(cle);
+            if (k >= 0) {
+                if (capacite < 0) {
+                    throw new ReseauException("Impossible de mettre à jour le générateur : La capacité ne peut pas être négative.");
+                }
+                capaciteTotale += capacite - generateurs.valeurs[k];
+                generateurs.valeurs[k] = capacite;
+            } else {
+                if (capacite < 0) {
+                    throw new ReseauException("Impossible de créer le générateur : La capacité ne peut pas être négative.");
+                }
+                generateurs.ajouter(cle, capacite, (byte) 0);
+                capaciteTotale += capacite;
+            }
+        }
+
+        @Override
+        public void maison(String nom, TypeConsommation type, int[] profil, double[] position, int numLigne) throws ReseauException {
+            if (profil != null && nbMaisonsAvecProfil > 0 && profil.length != nbPeriodes) {
+                throw new ReseauException("Le profil de la maison " + nom + " a " + profil.length
+                        + " périodes au lieu de " + nbPeriodes + ".", numLigne);
+            }
+            if (nom == null || nom.trim().isEmpty()) {
+                throw new ReseauException.DonneeInvalide("Le nom de la maison ne peut pas être vide.");
+            }
+            // La demande totale reste celle des types (comme les charges affichées par Reseau)
+            int code = type.ordinal() | ((profil != null) ? AVEC_PROFIL : 0);
+            long cle = empreinte(nom);
+            int k = maisons.chercher(cle);
+            if (k >= 0) {
+                if ((maisons.types[k] & AVEC_PROFIL) != 0) nbMaisonsAvecProfil--;
+                TypeConsommation ancien = TYPES[maisons.types[k] & ~AVEC_PROFIL];
+                demandeTotale += type.getDemandeKw() - ancien.getDemandeKw();
+                nbParType[ancien.ordinal()]--;
+                maisons.types[k] = (byte) code;
+            } else {
+                // Valeur : ligne de définition, passée en négatif une fois la maison connectée
+                maisons.ajouter(cle, numLigne, (byte) code);
+                demandeTotale += type.getDemandeKw();
+            }
+            nbParType[type.ordinal()]++;
+            if (profil != null) {
+                nbMaisonsAvecProfil++;
+                nbPeriodes = profil.length;
+            }
+        }
+
+        @Override
+        public void connexion(String nom1, String nom2, int numLigne) throws ReseauException {
+            long cle1 = empreinte(nom1);
+            long cle2 = empreinte(nom2);
+            int m1 = maisons.chercher(cle1);
+            int m2 = maisons.chercher(cle2);
+            boolean g1 = generateurs.chercher(cle1) >= 0;
+            boolean g2 = generateurs.chercher(cle2) >= 0;
+
+            if (m1 < 0 && !g1) {
+                throw new ReseauException.ElementIntrouvable("élément", nom1, numLigne);
+            }
+            if (m2 < 0 && !g2) {
+                throw new ReseauException.ElementIntrouvable("élément", nom2, numLigne);
+            }
+
+            // Même ordre de résolution que Reseau.ajouterConnexion
+            int m;
+            if (m1 >= 0 && g2) {
+                m = m1;
+            } else if (m2 >= 0 && g1) {
+                m = m2;
+            } else {
+                if (m1 >= 0) throw new ReseauException.ElementIntrouvable("générateur", nom2);
+                if (g1) throw new ReseauException.ElementIntrouvable("maison", nom2);
+                if (m2 >= 0) throw new ReseauException.ElementIntrouvable("générateur", nom1);
+                if (g2) throw new ReseauException.ElementIntrouvable("maison", nom1);
+                throw new ReseauException.ElementIntrouvable("élément", nom1 + " ou " + nom2);
+            }
+
+            if (maisons.valeurs[m] > 0) maisons.valeurs[m] = -maisons.valeurs[m];
+            nbConnexions++;
+        }
+    }
+
+    /**
+     * Table à adressage ouvert (sondage linéaire) d'empreintes de 64 bits,
+     * avec un entier et un octet associés à chaque empreinte.
+     */
+    private static class TableEmpreintes {
+
+        long[] cles = new long[1024];
+        int[] valeurs = new int[1024];
+        byte[] types = new byte[1024];
+        int taille;
+
+        /** @return L'indice de la case de l'empreinte, ou -1 si elle est absente */
+        int chercher(long cle) {
+            int masque = cles.length - 1;
+            for (int k = (int) cle & masque; ; k = (k + 1) & masque) {
+                if (cles[k] == cle) return k;
+                if (cles[k] == 0) return -1;
+            }
+        }
+
+        void ajouter(long cle, int valeur, byte type) {
+            // Taux de remplissage maximal : 1/2
+            if (2 * (taille + 1) > cles.length) agrandir();
+            placer(cle, valeur, type);
+            taille++;
+        }
+
+        private void placer(long cle, int valeur, byte type) {
+            int masque = cles.length - 1;
+            int k = (int) cle & masque;
+            while (cles[k] != 0) k = (k + 1) & masque;
+            cles[k] = cle;
+            valeurs[k] = valeur;
+            types[k] = type;
+        }
+
+        private void agrandir() {
+            long[] anciennesCles = cles;
+            int[] anciennesValeurs = valeurs;
+            byte[] anciensTypes = types;
+            cles = new long[2 * anciennesCles.length];
+            valeurs = new int[cles.length];
+            types = new byte[cles.length];
+            for (int k = 0; k < anciennesCles.length; k++) {
+                if (anciennesCles[k] != 0) placer(anciennesCles[k], anciennesValeurs[k], anciensTypes[k]);
+            }
+        }
+
+        long octets() {
+            return 13L * cles.length;
+        }
+    }
+}
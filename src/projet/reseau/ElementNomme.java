@@ -0,0 +1,361 @@
+package projet.reseau;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Élément du réseau identifié par un nom (Maison, Generateur), stocké sous forme compacte.
+ *
+ * Les noms suivent le plus souvent un motif préfixe + numéro ("maison12", "gen3") : le préfixe est
+ * alors enregistré une fois pour toutes dans un dictionnaire partagé, et l'élément ne garde qu'un
+ * long (numéro du préfixe, valeur du suffixe). Les autres noms sont gardés en octets UTF-8.
+ * Dans les deux cas, il n'y a plus de String par élément : getNom() reconstruit le nom à la demande.
+ *
+ * Le hachage du nom (celui de String) est calculé une fois à la construction.
+ *
+ * Un élément peut aussi avoir une position (coordonnées planes, voir Reseau#getDistanceMax()).
+ */
+public abstract class ElementNomme {
+
+    // Code : numéro du préfixe sur les bits 48 à 62, suffixe sur les bits 0 à 47
+    private static final int DECALAGE_PREFIXE = 48;
+    private static final long MASQUE_SUFFIXE = (1L << DECALAGE_PREFIXE) - 1;
+    // Au plus 14 chiffres : 10^14 - 1 < 2^48
+    private static final int MAX_CHIFFRES = 14;
+    private static final int MAX_PREFIXES = 1 << 15;
+    private static final long[] PUISSANCES_DE_10 = new long[MAX_CHIFFRES + 1];
+    static {
+        PUISSANCES_DE_10[0] = 1;
+        for (int k = 1; k <= MAX_CHIFFRES; k++) PUISSANCES_DE_10[k] = 10 * PUISSANCES_DE_10[k - 1];
+    }
+
+    // Dictionnaire des préfixes, partagé par tous les réseaux (jamais vidé : il reste petit)
+    private static final ConcurrentHashMap<String, Integer> ID_PREFIXES = new ConcurrentHashMap<>();
+    private static volatile String[] prefixes = new String[16];
+    // Octets des préfixes ASCII (null sinon), pour l'écriture sans String
+    private static volatile byte[][] prefixesAscii = new byte[16][];
+    private static int nbPrefixes;
+    // Derniers préfixes trouvés, un par longueur (modulo 8) : une instance n'a souvent que deux
+    // préfixes ("gen", "maison"), qui alternent dans les connexions
+    private static final int[] DERNIERS_IDS = {-1, -1, -1, -1, -1, -1, -1, -1};
+
+    private final long code;
+    private final byte[] octets; // null si le nom suit le motif préfixe + numéro
+    private final int hachage;
+    // Identifiant dense attribué par la table du réseau qui contient l'élément (-1 : hors réseau)
+    int id = -1;
+    // Position facultative (NaN : non placé), modifiée par le réseau (voir Reseau#placerMaison)
+    private double x = Double.NaN;
+    private double y = Double.NaN;
+
+    /**
+     * @param nom Le nom de l'élément (non null)
+     */
+    protected ElementNomme(String nom) {
+        long c = coder(nom);
+        this.code = c;
+        this.octets = (c < 0) ? nom.getBytes(StandardCharsets.UTF_8) : null;
+        this.hachage = nom.hashCode();
+    }
+
+    /**
+     * Reprend le nom et la position d'un autre élément, sans reconstruire ni recoder le nom.
+     *
+     * @param modele L'élément dont on copie le nom
+     */
+    protected ElementNomme(ElementNomme modele) {
+        this.code = modele.code;
+        this.octets = modele.octets;
+        this.hachage = modele.hachage;
+        this.x = modele.x;
+        this.y = modele.y;
+    }
+
+    /**
+     * Identifiant entier de l'élément dans son réseau, attribué à l'ajout (0, 1, 2...) et stable tant
+     * que l'élément y reste ; celui d'un élément retiré est réutilisé par un ajout suivant.
+     * Sert d'indice dans les tableaux du réseau et des algorithmes (affectation, charges...).
+     *
+     * @return L'identifiant, ou -1 si l'élément n'appartient à aucun réseau
+     */
+    public int getId() {
+        return id;
+    }
+
+    /** @return true si l'élément a une position */
+    public boolean aUnePosition() {
+        return !Double.isNaN(x);
+    }
+
+    /** @return L'abscisse de l'élément (NaN s'il n'a pas de position) */
+    public double getX() {
+        return x;
+    }
+
+    /** @return L'ordonnée de l'élément (NaN s'il n'a pas de position) */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Distance euclidienne entre deux éléments placés.
+     *
+     * @param autre L'autre élément
+     * @return La distance, ou NaN si l'un des deux n'a pas de position
+     */
+    public double distance(ElementNomme autre) {
+        return Math.hypot(x - autre.x, y - autre.y);
+    }
+
+    /** Place l'élément (x et y finis), ou retire sa position (x et y NaN). */
+    void placer(double x, double y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Reconstruit le nom de l'élément (nouvelle String à chaque appel).
+     *
+     * @return Le nom de l'élément
+     */
+    public String getNom() {
+        if (octets != null) {
+            return new String(octets, StandardCharsets.UTF_8);
+        }
+        return prefixes[(int) (code >>> DECALAGE_PREFIXE)].concat(Long.toString(code & MASQUE_SUFFIXE));
+    }
+
+    /**
+     * Écrit le nom en ASCII dans un tableau d'octets, sans reconstruire de String.
+     *
+     * @param dest Le tableau de destination
+     * @param debut La position d'écriture
+     * @return La position qui suit le nom, ou -1 si le nom n'est pas ASCII ou ne tient pas
+     *         (le contenu de dest après debut est alors indéfini)
+     */
+    public int ecrireNomAscii(byte[] dest, int debut) {
+        if (octets != null) {
+            if (debut + octets.length > dest.length) return -1;
+            for (int k = 0; k < octets.length; k++) {
+                if (octets[k] < 0) return -1;
+                dest[debut + k] = octets[k];
+            }
+            return debut + octets.length;
+        }
+        byte[] prefixe = prefixesAscii[(int) (code >>> DECALAGE_PREFIXE)];
+        long suffixe = code & MASQUE_SUFFIXE;
+        int fin = (prefixe == null) ? -1 : debut + prefixe.length + nbChiffres(suffixe);
+        if (fin < 0 || fin > dest.length) return -1;
+        System.arraycopy(prefixe, 0, dest, debut, prefixe.length);
+        for (int k = fin - 1; k >= debut + prefixe.length; k--) {
+            dest[k] = (byte) ('0' + suffixe % 10);
+            suffixe /= 10;
+        }
+        return fin;
+    }
+
+    /**
+     * Compare le nom de l'élément à une chaîne, sans reconstruire le nom.
+     *
+     * @param nom Le nom à comparer
+     * @return true si l'élément porte ce nom
+     */
+    public boolean aPourNom(String nom) {
+        if (nom.hashCode() != hachage) return false;
+        if (octets != null) {
+            int n = nom.length();
+            if (n == octets.length) {
+                int k = 0;
+                while (k < n && nom.charAt(k) == octets[k]) k++; // octets ASCII (positifs)
+                if (k == n) return true;
+            }
+            return Arrays.equals(octets, nom.getBytes(StandardCharsets.UTF_8));
+        }
+        String prefixe = prefixes[(int) (code >>> DECALAGE_PREFIXE)];
+        if (!nom.startsWith(prefixe)) return false;
+        return suffixe(nom, prefixe.length()) == (code & MASQUE_SUFFIXE);
+    }
+
+    /**
+     * Compare les noms de deux éléments, sans les reconstruire.
+     *
+     * @param autre L'autre élément
+     * @return true si les deux éléments portent le même nom
+     */
+    public boolean memeNom(ElementNomme autre) {
+        if (hachage != autre.hachage) return false;
+        if (octets == null && autre.octets == null) return code == autre.code;
+        if (octets != null && autre.octets != null) return Arrays.equals(octets, autre.octets);
+        return aPourNom(autre.getNom()); // dictionnaire des préfixes rempli entre les deux créations
+    }
+
+    /**
+     * Compare les noms de deux éléments dans l'ordre de String.compareTo, sans les reconstruire
+     * dans les cas courants (même préfixe, ou noms ASCII).
+     *
+     * @param autre L'autre élément
+     * @return Un entier négatif, nul ou positif, comme getNom().compareTo(autre.getNom())
+     */
+    public int comparerNom(ElementNomme autre) {
+        if (octets == null && autre.octets == null && (code >>> DECALAGE_PREFIXE) == (autre.code >>> DECALAGE_PREFIXE)) {
+            return comparerChiffres(code & MASQUE_SUFFIXE, autre.code & MASQUE_SUFFIXE);
+        }
+        if (octets != null && autre.octets != null) {
+            int n = Math.min(octets.length, autre.octets.length);
+            for (int k = 0; k < n; k++) {
+                if (octets[k] != autre.octets[k]) {
+                    // Octets ASCII : même ordre que les caractères
+                    if (octets[k] >= 0 && autre.octets[k] >= 0) return octets[k] - autre.octets[k];
+                    return getNom().compareTo(autre.getNom());
+                }
+            }
+            return octets.length - autre.octets.length;
+        }
+        return getNom().compareTo(autre.getNom());
+    }
+
+    /**
+     * Trie des éléments par nom quand ils partagent tous le même préfixe : tri d'entiers (clé du
+     * suffixe et position d'origine) au lieu de comparaisons entre objets dispersés en mémoire.
+     *
+     * @param tab Les éléments, triés sur place
+     * @return false si le tri n'a pas été fait (noms hors motif, préfixes différents, clés trop longues)
+     */
+    static boolean trierMemePrefixe(ElementNomme[] tab) {
+        int n = tab.length;
+        if (n == 0) return true;
+        long prefixe = tab[0].code >>> DECALAGE_PREFIXE;
+        int maxChiffres = 1;
+        for (ElementNomme e : tab) {
+            if (e.octets != null || (e.code >>> DECALAGE_PREFIXE) != prefixe) return false;
+            maxChiffres = Math.max(maxChiffres, nbChiffres(e.code & MASQUE_SUFFIXE));
+        }
+        // Clé : suffixe complété par des zéros jusqu'à maxChiffres (ordre alphabétique), puis sa longueur
+        int bitsPosition = 32 - Integer.numberOfLeadingZeros(n);
+        int bitsCle = 64 - Long.numberOfLeadingZeros(16 * PUISSANCES_DE_10[maxChiffres]);
+        if (bitsCle + bitsPosition > 63) return false;
+
+        long[] cles = new long[n];
+        for (int i = 0; i < n; i++) {
+            long suffixe = tab[i].code & MASQUE_SUFFIXE;
+            int longueur = nbChiffres(suffixe);
+            long cle = 16 * suffixe * PUISSANCES_DE_10[maxChiffres - longueur] + longueur;
+            cles[i] = (cle << bitsPosition) | i;
+        }
+        Arrays.sort(cles);
+        ElementNomme[] copie = tab.clone();
+        long masque = (1L << bitsPosition) - 1;
+        for (int i = 0; i < n; i++) tab[i] = copie[(int) (cles[i] & masque)];
+        return true;
+    }
+
+    /**
+     * Compare deux nombres selon l'ordre alphabétique de leur écriture décimale ("10" &lt; "9").
+     */
+    private static int comparerChiffres(long a, long b) {
+        int la = nbChiffres(a);
+        int lb = nbChiffres(b);
+        if (la == lb) return Long.compare(a, b);
+        // Début du plus long ramené à la longueur du plus court ; à égalité, le plus court d'abord
+        if (la > lb) {
+            long pa = a / PUISSANCES_DE_10[la - lb];
+            return (pa != b) ? Long.compare(pa, b) : 1;
+        }
+        long pb = b / PUISSANCES_DE_10[lb - la];
+        return (a != pb) ? Long.compare(a, pb) : -1;
+    }
+
+    private static int nbChiffres(long v) {
+        int n = 1;
+        while (n <= MAX_CHIFFRES && v >= PUISSANCES_DE_10[n]) n++;
+        return n;
+    }
+
+    /**
+     * Hachage du nom, identique à getNom().hashCode().
+     *
+     * @return Le hachage du nom
+     */
+    public final int hachageNom() {
+        return hachage;
+    }
+
+    /**
+     * @return Le nombre d'octets occupés par le nom en plus de l'objet (0 pour un nom codé)
+     */
+    long octetsNom() {
+        // En-tête d'un tableau (16 octets) puis contenu arrondi à 8
+        return (octets == null) ? 0 : 16 + ((octets.length + 7) & ~7);
+    }
+
+    /**
+     * Code un nom de la forme préfixe + numéro (sans zéro non significatif).
+     *
+     * @return Le code, ou -1 si le nom ne suit pas le motif
+     */
+    private static long coder(String nom) {
+        int debut = nom.length();
+        while (debut > 0 && nom.charAt(debut - 1) >= '0' && nom.charAt(debut - 1) <= '9') debut--;
+        long suffixe = suffixe(nom, debut);
+        if (suffixe < 0) return -1;
+
+        int id = idPrefixe(nom, debut);
+        return (id < 0) ? -1 : ((long) id << DECALAGE_PREFIXE) | suffixe;
+    }
+
+    /**
+     * Lit le numéro qui termine un nom à partir d'une position.
+     *
+     * @return La valeur, ou -1 si ce n'est pas un numéro canonique (vide, trop long, zéro en tête)
+     */
+    private static long suffixe(String nom, int debut) {
+        int n = nom.length() - debut;
+        if (n == 0 || n > MAX_CHIFFRES) return -1;
+        if (n > 1 && nom.charAt(debut) == '0') return -1;
+        long valeur = 0;
+        for (int k = debut; k < nom.length(); k++) {
+            char c = nom.charAt(k);
+            if (c < '0' || c > '9') return -1;
+            valeur = valeur * 10 + (c - '0');
+        }
+        return valeur;
+    }
+
+    private static int idPrefixe(String nom, int longueur) {
+        int emplacement = longueur & 7;
+        int dernier = DERNIERS_IDS[emplacement];
+        String[] table = prefixes;
+        // Case écrite par un autre fil : le préfixe peut ne pas encore être visible ici
+        if (dernier >= 0 && dernier < table.length && table[dernier] != null) {
+            String prefixe = table[dernier];
+            if (prefixe.length() == longueur && nom.startsWith(prefixe)) return dernier;
+        }
+        String prefixe = nom.substring(0, longueur);
+        Integer id = ID_PREFIXES.get(prefixe);
+        int resultat = (id != null) ? id : enregistrer(prefixe);
+        if (resultat >= 0) DERNIERS_IDS[emplacement] = resultat;
+        return resultat;
+    }
+
+    private static synchronized int enregistrer(String prefixe) {
+        Integer id = ID_PREFIXES.get(prefixe);
+        if (id != null) return id;
+        if (nbPrefixes == MAX_PREFIXES) return -1; // dictionnaire plein : noms gardés en octets
+
+        String[] table = prefixes;
+        byte[][] tableAscii = prefixesAscii;
+        if (nbPrefixes == table.length) {
+            table = Arrays.copyOf(table, 2 * table.length);
+            tableAscii = Arrays.copyOf(tableAscii, 2 * tableAscii.length);
+        }
+        table[nbPrefixes] = prefixe;
+        boolean ascii = prefixe.chars().allMatch(c -> c < 0x80);
+        tableAscii[nbPrefixes] = ascii ? prefixe.getBytes(StandardCharsets.US_ASCII) : null;
+        // Publication (volatile) avant que le numéro ne soit visible
+        prefixesAscii = tableAscii;
+        prefixes = table;
+        ID_PREFIXES.put(prefixe, nbPrefixes);
+        return nbPrefixes++;
+    }
+}
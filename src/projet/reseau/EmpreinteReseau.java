@@ -0,0 +1,148 @@
+package projet.reseau;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Empreinte canonique de la structure d'un réseau, indépendante des noms et de l'ordre.
+ *
+ * Deux réseaux ont la même empreinte s'ils ont le même multi-ensemble de capacités de générateurs
+ * et le même nombre de maisons de chaque type : ils ont alors exactement les mêmes solutions,
+ * à un renommage près. Les connexions ne font pas partie de l'empreinte.
+ *
+ * Avec des demandes horaires, les profils des maisons (dans l'ordre canonique) en font aussi partie.
+ * Avec des positions et une distance maximale, celle-ci et les positions de tous les éléments aussi :
+ * elles décident des connexions possibles (sans distance maximale, elles ne changent rien).
+ *
+ * L'ordre canonique (générateurs par capacité, position puis nom, maisons par demande, profil,
+ * position puis nom) sert de correspondance de noms pour transposer une solution d'un réseau à l'autre.
+ */
+public final class EmpreinteReseau {
+
+    private final String empreinte;
+    private final List<Maison> maisonsCanoniques;
+    private final List<Generateur> generateursCanoniques;
+
+    private EmpreinteReseau(String empreinte, List<Maison> maisons, List<Generateur> generateurs) {
+        this.empreinte = empreinte;
+        this.maisonsCanoniques = maisons;
+        this.generateursCanoniques = generateurs;
+    }
+
+    /**
+     * Calcule l'empreinte canonique d'un réseau.
+     *
+     * @param reseau Le réseau
+     * @return L'empreinte et l'ordre canonique de ses éléments
+     */
+    public static EmpreinteReseau calculer(Reseau reseau) {
+        boolean avecPositions = reseau.aDesPositions() && reseau.getDistanceMax() != Double.POSITIVE_INFINITY;
+        List<Generateur> generateurs = new ArrayList<>(reseau.getGenerateursMap().values());
+        generateurs.sort((g1, g2) -> {
+            int c = Double.compare(g1.getCapaciteMaximale(), g2.getCapaciteMaximale());
+            if (c == 0 && avecPositions) c = comparerPositions(g1, g2);
+            return (c != 0) ? c : g1.comparerNom(g2);
+        });
+
+        int periodes = reseau.getNbPeriodes();
+        List<Maison> maisons = new ArrayList<>(reseau.getMaisonsMap().values());
+        maisons.sort((m1, m2) -> {
+            int c = Integer.compare(m1.getConsommation().getDemandeKw(), m2.getConsommation().getDemandeKw());
+            if (c == 0) c = comparerProfils(m1, m2, periodes);
+            if (c == 0 && avecPositions) c = comparerPositions(m1, m2);
+            return (c != 0) ? c : m1.comparerNom(m2);
+        });
+
+        // Capacités triées + nombre de maisons par type : c'est tout ce qui compte pour le coût
+        int[] parType = new int[TypeConsommation.values().length];
+        for (Maison m : maisons) parType[m.getConsommation().ordinal()]++;
+
+        ByteBuffer tampon = ByteBuffer.allocate(8 + 8 * generateurs.size() + 4 * parType.length);
+        tampon.putInt(generateurs.size()).putInt(maisons.size());
+        for (Generateur g : generateurs) tampon.putDouble(g.getCapaciteMaximale());
+        for (int n : parType) tampon.putInt(n);
+
+        MessageDigest sha = sha256();
+        sha.update(tampon.array());
+        if (reseau.aDesProfils()) {
+            // Sans profil, le réseau garde l'empreinte d'avant les demandes horaires
+            ByteBuffer profil = ByteBuffer.allocate(1 + 4 * periodes);
+            sha.update(ByteBuffer.allocate(4).putInt(periodes).array());
+            for (Maison m : maisons) {
+                profil.clear();
+                profil.put((byte) (m.aUnProfil() ? 1 : 0));
+                if (m.aUnProfil()) {
+                    for (int t = 0; t < periodes; t++) profil.putInt(m.getDemandeKw(t));
+                }
+                sha.update(profil.array(), 0, profil.position());
+            }
+        }
+        if (avecPositions) {
+            // Sans distance maximale, le réseau garde l'empreinte d'avant les positions
+            ByteBuffer position = ByteBuffer.allocate(17);
+            sha.update(ByteBuffer.allocate(8).putDouble(reseau.getDistanceMax()).array());
+            List<ElementNomme> elements = new ArrayList<>(generateurs);
+            elements.addAll(maisons);
+            for (ElementNomme e : elements) {
+                position.clear();
+                position.put((byte) (e.aUnePosition() ? 1 : 0));
+                if (e.aUnePosition()) position.putDouble(e.getX()).putDouble(e.getY());
+                sha.update(position.array(), 0, position.position());
+            }
+        }
+
+        return new EmpreinteReseau(hexadecimal(sha.digest()),
+                Collections.unmodifiableList(maisons), Collections.unmodifiableList(generateurs));
+    }
+
+    /**
+     * Ordre des profils à demande égale : maisons sans profil d'abord, puis ordre lexicographique.
+     */
+    private static int comparerProfils(Maison m1, Maison m2, int periodes) {
+        if (m1.aUnProfil() != m2.aUnProfil()) return m1.aUnProfil() ? 1 : -1;
+        if (!m1.aUnProfil()) return 0;
+        for (int t = 0; t < periodes; t++) {
+            int c = Integer.compare(m1.getDemandeKw(t), m2.getDemandeKw(t));
+            if (c != 0) return c;
+        }
+        return 0;
+    }
+
+    /**
+     * Ordre des positions : éléments non placés d'abord, puis par abscisse et ordonnée.
+     */
+    private static int comparerPositions(ElementNomme e1, ElementNomme e2) {
+        if (e1.aUnePosition() != e2.aUnePosition()) return e1.aUnePosition() ? 1 : -1;
+        if (!e1.aUnePosition()) return 0;
+        int c = Double.compare(e1.getX(), e2.getX());
+        return (c != 0) ? c : Double.compare(e1.getY(), e2.getY());
+    }
+
+    /** @return L'empreinte sous forme hexadécimale (SHA-256) */
+    public String getEmpreinte() { return empreinte; }
+
+    /** @return Les maisons dans l'ordre canonique */
+    public List<Maison> getMaisonsCanoniques() { return maisonsCanoniques; }
+
+    /** @return Les générateurs dans l'ordre canonique */
+    public List<Generateur> getGenerateursCanoniques() { return generateursCanoniques; }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 est garanti par toutes les JVM
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hexadecimal(byte[] hash) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : hash) sb.append(String.format("%02x", b));
+        return sb.toString();
+    }
+}
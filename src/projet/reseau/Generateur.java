@@ -4,8 +4,7 @@ package projet.reseau;
  * Représente un générateur électrique (source d'énergie) dans le réseau.
  * Un générateur est défini par son nom et sa capacité maximale de production en kW.
  */
-public class Generateur {
-    private String nom;
+public class Generateur extends ElementNomme {
     private double capaciteMaximale;
 
     /**
@@ -16,23 +15,28 @@ public class Generateur {
      * @throws IllegalArgumentException Si la capacité fournie est négative
      */
     public Generateur(String nom, double capaciteMaximale) {
+        super(nom);
         if (capaciteMaximale < 0) {
             throw new IllegalArgumentException("La capacité ne peut pas être négative.");
         }
-        this.nom = nom;
         this.capaciteMaximale = capaciteMaximale;
     }
 
-    // Getters, Setters
     /**
-     * Récupère le nom du générateur.
+     * Construit un générateur de même nom qu'un autre (copie d'un réseau), sans recoder le nom.
      *
-     * @return Le nom du générateur
+     * @param modele Le générateur dont on reprend le nom
+     * @param capaciteMaximale La capacité maximale (en kW)
      */
-    public String getNom() {
-        return nom;
+    Generateur(Generateur modele, double capaciteMaximale) {
+        super(modele);
+        if (capaciteMaximale < 0) {
+            throw new IllegalArgumentException("La capacité ne peut pas être négative.");
+        }
+        this.capaciteMaximale = capaciteMaximale;
     }
 
+    // Getters, Setters
     /**
      * Récupère la capacité maximale de production actuelle.
      *
@@ -0,0 +1,134 @@
+package projet.reseau;
+
+import projet.exception.ReseauException;
+
+/**
+ * Instantané immuable d'un réseau : éléments, affectation, charges et coût à un moment donné.
+ *
+ * Un instantané ne partage rien de modifiable avec le réseau d'origine : il peut être lu par
+ * n'importe quel thread (l'interface graphique par exemple) pendant que le réseau continue
+ * d'être modifié ailleurs. Les éléments sont numérotés par leur rang dans l'ordre de parcours
+ * des tables du réseau, l'affectation renvoie le rang du générateur de chaque maison.
+ *
+ * Les instantanés sont créés et numérotés par {@link PublicationReseau}.
+ */
+public final class InstantaneReseau {
+
+    private final long version;
+    private final double lambda;
+
+    private final String[] nomsGenerateurs;
+    private final double[] capacites;
+    private final double[] charges;
+
+    private final String[] nomsMaisons;
+    private final TypeConsommation[] types;
+    private final int[] generateurDe; // rang du générateur de chaque maison, -1 si non connectée
+    private final int nbConnexions;
+
+    private final double cout; // NaN si le coût n'est pas calculable
+    private final String erreurCout;
+
+    /**
+     * Capture un réseau avec une affectation donnée, en O(maisons + générateurs).
+     *
+     * @param reseau Le réseau (éléments et Lambda)
+     * @param affectation Le générateur de chaque maison, par identifiants (voir {@link Reseau#copierAffectation()})
+     * @param version Le numéro de version de l'instantané
+     */
+    InstantaneReseau(Reseau reseau, int[] affectation, long version) {
+        this.version = version;
+        this.lambda = reseau.getLambda();
+
+        TableNoms<Generateur> tableGenerateurs = reseau.getGenerateursMap();
+        double[] chargesParId = new double[tableGenerateurs.getNbIds()];
+        int[] rangParId = new int[tableGenerateurs.getNbIds()];
+        nomsGenerateurs = new String[tableGenerateurs.size()];
+        capacites = new double[tableGenerateurs.size()];
+        int rang = 0;
+        for (Generateur g : tableGenerateurs.values()) {
+            rangParId[g.getId()] = rang;
+            nomsGenerateurs[rang] = g.getNom();
+            capacites[rang] = g.getCapaciteMaximale();
+            rang++;
+        }
+
+        TableNoms<Maison> tableMaisons = reseau.getMaisonsMap();
+        nomsMaisons = new String[tableMaisons.size()];
+        types = new TypeConsommation[tableMaisons.size()];
+        generateurDe = new int[tableMaisons.size()];
+        int connectees = 0;
+        rang = 0;
+        for (Maison m : tableMaisons.values()) {
+            int idGen = (m.getId() < affectation.length) ? affectation[m.getId()] : -1;
+            nomsMaisons[rang] = m.getNom();
+            types[rang] = m.getConsommation();
+            generateurDe[rang] = (idGen >= 0) ? rangParId[idGen] : -1;
+            if (idGen >= 0) {
+                chargesParId[idGen] += m.getConsommation().getDemandeKw();
+                connectees++;
+            }
+            rang++;
+        }
+        nbConnexions = connectees;
+
+        charges = new double[nomsGenerateurs.length];
+        for (Generateur g : tableGenerateurs.values()) charges[rangParId[g.getId()]] = chargesParId[g.getId()];
+
+        double c;
+        String erreur = null;
+        try {
+            c = reseau.aDesProfils() ? reseau.calculerCoutParPeriode(affectation) : reseau.calculerCout(chargesParId);
+        } catch (ReseauException e) {
+            c = Double.NaN;
+            erreur = e.getMessage();
+        }
+        this.cout = c;
+        this.erreurCout = erreur;
+    }
+
+    /** @return Le numéro de version (croissant dans une même publication) */
+    public long getVersion() { return version; }
+
+    /** @return Le Lambda du réseau capturé */
+    public double getLambda() { return lambda; }
+
+    /** @return Le nombre de générateurs */
+    public int getNbGenerateurs() { return nomsGenerateurs.length; }
+
+    /** @return Le nombre de maisons */
+    public int getNbMaisons() { return nomsMaisons.length; }
+
+    /** @return Le nombre de maisons connectées */
+    public int getNbConnexions() { return nbConnexions; }
+
+    /** @return Le nom du générateur de ce rang */
+    public String getNomGenerateur(int rang) { return nomsGenerateurs[rang]; }
+
+    /** @return La capacité du générateur en kW */
+    public double getCapacite(int rang) { return capacites[rang]; }
+
+    /** @return La charge du générateur en kW */
+    public double getCharge(int rang) { return charges[rang]; }
+
+    /** @return Le nom de la maison de ce rang */
+    public String getNomMaison(int rang) { return nomsMaisons[rang]; }
+
+    /** @return Le type de consommation de la maison */
+    public TypeConsommation getType(int rang) { return types[rang]; }
+
+    /**
+     * @param rang Le rang d'une maison
+     * @return Le rang de son générateur, ou -1 si elle n'est pas connectée
+     */
+    public int getGenerateurDe(int rang) { return generateurDe[rang]; }
+
+    /**
+     * @return Le coût (Dispersion + Lambda * Surcharge), ou NaN s'il n'est pas calculable
+     *         (voir {@link #getErreurCout()})
+     */
+    public double getCout() { return cout; }
+
+    /** @return Le message d'erreur du calcul de coût (ex: capacité nulle), ou null */
+    public String getErreurCout() { return erreurCout; }
+}
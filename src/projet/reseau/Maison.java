@@ -3,10 +3,12 @@ package projet.reseau;
 /**
  * Représente une maison (consommateur) dans le réseau électrique.
  * Une maison est identifiée par un nom unique et possède un profil de consommation (BASSE, NORMAL, FORTE).
+ * Elle peut en plus porter une demande horaire (une valeur en kW par période), qui remplace la
+ * demande de son type dans le calcul du coût.
  */
-public class Maison {
-    private String nom;
+public class Maison extends ElementNomme {
     private TypeConsommation consommation;
+    private int[] profil; // demande par période en kW, null si la demande est celle du type
 
     /**
      * Construit une nouvelle maison avec un nom et un type de consommation.
@@ -16,26 +18,37 @@ public class Maison {
      * @throws IllegalArgumentException Si le nom est vide ou la consommation nulle
      */
     public Maison(String nom, TypeConsommation consommation) {
-        if (nom == null || nom.trim().isEmpty()) {
-            throw new IllegalArgumentException("Le nom de la maison ne peut pas être vide.");
-        }
+        super(verifierNom(nom));
         if (consommation == null) {
             throw new IllegalArgumentException("Le type de consommation ne peut pas être nul.");
         }
-        this.nom = nom;
         this.consommation = consommation;
     }
 
-    // Getters, Setters 
     /**
-     * Récupère le nom de la maison.
+     * Construit une maison de même nom qu'une autre (copie d'un réseau), sans recoder le nom.
      *
-     * @return Le nom de la maison
+     * @param modele La maison dont on reprend le nom
+     * @param consommation Le type de consommation (ne peut pas être null)
      */
-    public String getNom() {
+    Maison(Maison modele, TypeConsommation consommation) {
+        super(modele);
+        if (consommation == null) {
+            throw new IllegalArgumentException("Le type de consommation ne peut pas être nul.");
+        }
+        this.consommation = consommation;
+        this.profil = modele.profil; // jamais modifié en place : partageable
+    }
+
+    private static String verifierNom(String nom) {
+        if (nom == null || nom.trim().isEmpty()) {
+            throw new IllegalArgumentException("Le nom de la maison ne peut pas être vide.");
+        }
         return nom;
     }
 
+    // Getters, Setters 
+
     /**
      * Récupère le type de consommation actuel de la maison.
      *
@@ -57,4 +70,52 @@ public class Maison {
         }
         this.consommation = consommation;
     }
+
+    /**
+     * Récupère la demande horaire de la maison.
+     *
+     * @return Une copie de la demande par période en kW, ou null si la maison n'a pas de profil
+     */
+    public int[] getProfil() {
+        return (profil != null) ? profil.clone() : null;
+    }
+
+    /**
+     * @return true si la maison a une demande horaire
+     */
+    public boolean aUnProfil() {
+        return profil != null;
+    }
+
+    /**
+     * Demande de la maison pendant une période.
+     *
+     * @param periode L'indice de la période (0 à longueur du profil - 1)
+     * @return La valeur du profil, ou la demande du type si la maison n'a pas de profil
+     */
+    public int getDemandeKw(int periode) {
+        return (profil != null) ? profil[periode] : consommation.getDemandeKw();
+    }
+
+    /**
+     * Remplace la demande horaire. Réservé au réseau, qui vérifie que tous les profils ont la
+     * même longueur.
+     *
+     * @param profil La demande par période (recopiée), ou null pour revenir à la demande du type
+     */
+    void setProfil(int[] profil) {
+        this.profil = (profil != null) ? profil.clone() : null;
+    }
+
+    /**
+     * Hachage basé sur le nom (fixé à la construction), l'égalité restant l'identité de l'objet.
+     * Évite le calcul du hachage d'identité, coûteux quand on remplit la map des connexions
+     * avec des millions de maisons qui viennent d'être créées.
+     *
+     * @return Le hachage du nom
+     */
+    @Override
+    public int hashCode() {
+        return hachageNom();
+    }
 }
@@ -0,0 +1,56 @@
+package projet.reseau;
+
+/**
+ * Point de publication des instantanés d'un réseau, entre le thread qui le modifie (solveur,
+ * saisie) et les lecteurs (affichage).
+ *
+ * Le dernier instantané est tenu par une référence volatile : un lecteur obtient toujours un
+ * instantané complet et cohérent, sans verrou, et ne voit jamais le réseau en cours de
+ * modification. Les versions sont croissantes ; un lecteur qui compare la version à celle qu'il
+ * a affichée sait s'il doit se redessiner.
+ */
+public class PublicationReseau {
+
+    private volatile InstantaneReseau dernier;
+    private long version; // protégé par le verrou de l'objet (publications)
+
+    /**
+     * Publie l'état actuel d'un réseau. A appeler depuis le thread qui modifie ce réseau.
+     *
+     * @param reseau Le réseau
+     * @return L'instantané publié
+     */
+    public InstantaneReseau publier(Reseau reseau) {
+        return publier(reseau, reseau.copierAffectation());
+    }
+
+    /**
+     * Publie un réseau avec une autre affectation que la sienne (solution de travail d'un solveur).
+     *
+     * @param reseau Le réseau (éléments et Lambda)
+     * @param affectation Le générateur de chaque maison, par identifiants (-1 : non connectée) ;
+     *                    il est lu pendant l'appel seulement
+     * @return L'instantané publié
+     */
+    public InstantaneReseau publier(Reseau reseau, int[] affectation) {
+        long v;
+        synchronized (this) {
+            v = ++version;
+        }
+        InstantaneReseau instantane = new InstantaneReseau(reseau, affectation, v);
+        synchronized (this) {
+            // Deux publications simultanées : la plus récente (en version) reste la dernière
+            if (dernier == null || dernier.getVersion() < v) dernier = instantane;
+        }
+        return instantane;
+    }
+
+    /**
+     * Renvoie le dernier instantané publié (lecture sans verrou, depuis n'importe quel thread).
+     *
+     * @return L'instantané, ou null si rien n'a encore été publié
+     */
+    public InstantaneReseau getDernier() {
+        return dernier;
+    }
+}
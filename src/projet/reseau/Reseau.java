@@ -1,25 +1,149 @@
 package projet.reseau;
 
-import java.util.HashMap; 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
 import projet.exception.ReseauException;
 
 
 public class Reseau {
 
-    private static double LAMBDA = 10.0;
+    /** Valeur de Lambda utilisée par défaut pour tout nouveau réseau. */
+    public static final double LAMBDA_DEFAUT = 10.0;
+
+    // Lambda propre à chaque réseau (deux réseaux peuvent avoir des pénalités différentes)
+    private double lambda;
 
-    private Map<String, Maison> maisons;
-    private Map<String, Generateur> generateurs;
+    // Index par nom à noms compacts (voir TableNoms), vus de l'extérieur comme des Map<String, ...>.
+    // Chaque élément y reçoit un identifiant dense (ElementNomme.getId).
+    private TableNoms<Maison> maisons;
+    private TableNoms<Generateur> generateurs;
+
+    // Affectation par identifiant de maison : identifiant du générateur, -1 si non connectée
+    private int[] affectation;
+    private int nbConnexions;
+    private int nbModificationsConnexions;
+    // Vue Map<Maison, Generateur> de l'affectation (voir getConnexionsMap)
     private Map<Maison, Generateur> connexions;
 
+    // Demandes horaires : tous les profils ont nbPeriodes valeurs (voir getNbPeriodes)
+    private int nbMaisonsAvecProfil;
+    private int nbPeriodes;
+
+    // Positions : nombre d'éléments placés, distance maximale d'une connexion (voir getDistanceMax)
+    private int nbElementsPlaces;
+    private double distanceMax = Double.POSITIVE_INFINITY;
+
     /**
      * Initialise un nouveau réseau électrique vide.
      */
     public Reseau() {
-        this.maisons = new HashMap<>();
-        this.generateurs = new HashMap<>();
-        this.connexions = new HashMap<>();
+        this.maisons = new TableNoms<>();
+        this.generateurs = new TableNoms<>();
+        this.affectation = new int[16];
+        Arrays.fill(this.affectation, -1);
+        this.connexions = new VueConnexions();
+        this.lambda = LAMBDA_DEFAUT;
+    }
+
+    /**
+     * Crée une copie indépendante du réseau (nouveaux objets Maison et Generateur, mêmes noms
+     * et positions). Les connexions, le Lambda et la distance maximale sont recopiés : la copie peut
+     * être optimisée dans un autre thread sans jamais toucher au réseau d'origine.
+     * Les éléments gardent leurs identifiants, même après des retraits : une affectation par
+     * identifiants (copierAffectation) de l'un s'applique telle quelle à l'autre.
+     *
+     * @return Une copie profonde du réseau
+     */
+    public Reseau copier() {
+        Reseau copie = new Reseau();
+        copie.lambda = this.lambda;
+
+        copie.generateurs.copierAvecIds(this.generateurs, g -> new Generateur(g, g.getCapaciteMaximale()));
+        copie.maisons.copierAvecIds(this.maisons, m -> new Maison(m, m.getConsommation()));
+        copie.nbMaisonsAvecProfil = this.nbMaisonsAvecProfil;
+        copie.nbPeriodes = this.nbPeriodes;
+        copie.nbElementsPlaces = this.nbElementsPlaces;
+        copie.distanceMax = this.distanceMax;
+        copie.copierConnexionsDepuis(this);
+        return copie;
+    }
+
+    /**
+     * Crée un sous-réseau indépendant avec une partie des éléments (mêmes noms, positions et
+     * demandes), le même Lambda et la même distance maximale. Les éléments y reçoivent les
+     * identifiants 0, 1, 2... dans l'ordre des tableaux ; seules les connexions entre éléments
+     * extraits sont recopiées.
+     *
+     * @param idsGenerateurs Les identifiants des générateurs à extraire (distincts)
+     * @param idsMaisons Les identifiants des maisons à extraire (distincts)
+     * @return Le sous-réseau
+     * @throws IllegalArgumentException Si un identifiant ne désigne aucun élément du réseau
+     */
+    public Reseau extraire(int[] idsGenerateurs, int[] idsMaisons) {
+        Reseau sous = new Reseau();
+        sous.lambda = this.lambda;
+        sous.distanceMax = this.distanceMax;
+
+        int[] nouvelId = new int[this.generateurs.getNbIds()];
+        Arrays.fill(nouvelId, -1);
+        for (int id : idsGenerateurs) {
+            Generateur g = this.generateurs.parId(id);
+            if (g == null) throw new IllegalArgumentException("Aucun générateur d'identifiant " + id + ".");
+            Generateur copie = new Generateur(g, g.getCapaciteMaximale());
+            sous.generateurs.ajouter(copie);
+            nouvelId[id] = copie.getId();
+            if (g.aUnePosition()) sous.nbElementsPlaces++;
+        }
+        sous.affectation = new int[Math.max(16, idsMaisons.length)];
+        Arrays.fill(sous.affectation, -1);
+        for (int id : idsMaisons) {
+            Maison m = this.maisons.parId(id);
+            if (m == null) throw new IllegalArgumentException("Aucune maison d'identifiant " + id + ".");
+            Maison copie = new Maison(m, m.getConsommation());
+            sous.maisons.ajouter(copie);
+            if (m.aUnePosition()) sous.nbElementsPlaces++;
+            if (m.aUnProfil()) {
+                sous.nbMaisonsAvecProfil++;
+                sous.nbPeriodes = this.nbPeriodes;
+            }
+            int g = getIdGenerateur(id);
+            if (g >= 0 && nouvelId[g] >= 0) sous.connecter(copie.getId(), nouvelId[g]);
+        }
+        return sous;
+    }
+
+    /**
+     * Remplace les connexions de ce réseau par celles d'un autre réseau de même structure.
+     * La correspondance se fait par les noms : les éléments absents de ce réseau sont ignorés,
+     * ainsi que les connexions hors de portée ici (éléments déplacés, voir {@link #estAPortee}).
+     *
+     * @param source Le réseau dont on reprend les connexions
+     */
+    public void copierConnexionsDepuis(Reseau source) {
+        this.connexions.clear();
+        for (int id = 0; id < source.maisons.getNbIds(); id++) {
+            int idGen = source.getIdGenerateur(id);
+            if (idGen < 0) continue;
+            // Même identifiant et même nom (copie) : pas de recherche par nom
+            Maison mSource = source.maisons.parId(id);
+            Maison m = this.maisons.parId(id);
+            if (m == null || !m.memeNom(mSource)) m = this.maisons.getMemeNom(mSource);
+            Generateur gSource = source.generateurs.parId(idGen);
+            Generateur g = this.generateurs.parId(idGen);
+            if (g == null || !g.memeNom(gSource)) g = this.generateurs.getMemeNom(gSource);
+            if (m != null && g != null && estAPortee(m, g)) {
+                connecter(m.getId(), g.getId());
+            }
+        }
     }
 
     /**
@@ -54,7 +178,7 @@ public class Reseau {
         } else {
             // Création du nouvel objet
             try {
-                this.generateurs.put(nom, new Generateur(nom, capacite));
+                this.generateurs.ajouter(new Generateur(nom, capacite));
                 
             } catch (IllegalArgumentException e) {
                 throw new ReseauException("Impossible de créer le générateur : " + e.getMessage());
@@ -66,6 +190,7 @@ public class Reseau {
 
     /**
      * Ajoute une nouvelle maison ou met à jour son type de consommation si elle existe déjà.
+     * Une maison redéclarée sans profil perd sa demande horaire.
      *
      * @param nom Le nom unique de la maison
      * @param typeConsommation Le type de consommation (BASSE, NORMAL, FORTE)
@@ -73,18 +198,35 @@ public class Reseau {
      * @throws ReseauException Si le nom est vide ou le type null
      */
     public String ajouterOuMajMaison(String nom, TypeConsommation typeConsommation) throws ReseauException {
+        return ajouterOuMajMaison(nom, typeConsommation, null);
+    }
+
+    /**
+     * Ajoute une nouvelle maison ou la met à jour, avec une demande horaire.
+     *
+     * @param nom Le nom unique de la maison
+     * @param typeConsommation Le type de consommation (BASSE, NORMAL, FORTE)
+     * @param profil La demande en kW de chaque période (recopiée), ou null pour la demande du type
+     * @return Un message confirmant la création ou la mise à jour
+     * @throws ReseauException Si le nom est vide, le type null, ou le profil invalide (vide,
+     *                         valeur négative, ou longueur différente des autres profils)
+     */
+    public String ajouterOuMajMaison(String nom, TypeConsommation typeConsommation, int[] profil) throws ReseauException {
         if (nom == null || nom.trim().isEmpty()) {
             throw new ReseauException.DonneeInvalide("Le nom de la maison ne peut pas être vide.");
         }
 
-        boolean existait = this.maisons.containsKey(nom);
+        Maison mExistante = this.maisons.get(nom);
+        if (profil != null) verifierProfil(nom, profil, mExistante != null && mExistante.aUnProfil());
         try {
-        	if (existait) {
-                Maison mExistante = this.maisons.get(nom);
+        	if (mExistante != null) {
                 mExistante.setConsommation(typeConsommation);
+                changerProfil(mExistante, profil);
                 return "MAJ: Consommation de la maison " + nom + " mise à jour.";
             } else {
-                this.maisons.put(nom, new Maison(nom, typeConsommation));
+                Maison m = new Maison(nom, typeConsommation);
+                this.maisons.ajouter(m);
+                changerProfil(m, profil);
                 return "OK: Maison " + nom + " créée.";
             }
         }catch (IllegalArgumentException e ) {
@@ -93,6 +235,96 @@ public class Reseau {
         
     }
 
+    /**
+     * Vérifie un profil avant de l'attribuer à une maison.
+     *
+     * @param remplaceProfil true si la maison a déjà un profil (qui sera remplacé)
+     */
+    private void verifierProfil(String nom, int[] profil, boolean remplaceProfil) throws ReseauException {
+        if (profil.length == 0) {
+            throw new ReseauException.DonneeInvalide("Le profil de la maison " + nom + " est vide.");
+        }
+        for (int demande : profil) {
+            if (demande < 0) {
+                throw new ReseauException.DonneeInvalide("Le profil de la maison " + nom + " contient une demande négative.");
+            }
+        }
+        // Seul profil du réseau : il peut changer de longueur
+        boolean autresProfils = this.nbMaisonsAvecProfil > (remplaceProfil ? 1 : 0);
+        if (autresProfils && profil.length != this.nbPeriodes) {
+            throw new ReseauException.DonneeInvalide("Le profil de la maison " + nom + " a " + profil.length
+                    + " périodes au lieu de " + this.nbPeriodes + ".");
+        }
+    }
+
+    private void changerProfil(Maison m, int[] profil) {
+        if (m.aUnProfil()) this.nbMaisonsAvecProfil--;
+        m.setProfil(profil);
+        if (profil != null) {
+            this.nbMaisonsAvecProfil++;
+            this.nbPeriodes = profil.length;
+        }
+    }
+
+    /**
+     * Place une maison (coordonnées planes), ou retire sa position.
+     * Une maison placée ne peut être connectée qu'aux générateurs à portée (voir getDistanceMax).
+     *
+     * @param nom Le nom de la maison
+     * @param x L'abscisse (Double.NaN, avec y, pour retirer la position)
+     * @param y L'ordonnée
+     * @throws ReseauException Si la maison n'existe pas ou les coordonnées ne sont pas finies
+     */
+    public void placerMaison(String nom, double x, double y) throws ReseauException {
+        Maison m = this.maisons.get(nom);
+        if (m == null) {
+            throw new ReseauException.ElementIntrouvable("maison", nom);
+        }
+        placer(m, x, y);
+    }
+
+    /**
+     * Place un générateur (coordonnées planes), ou retire sa position.
+     *
+     * @param nom Le nom du générateur
+     * @param x L'abscisse (Double.NaN, avec y, pour retirer la position)
+     * @param y L'ordonnée
+     * @throws ReseauException Si le générateur n'existe pas ou les coordonnées ne sont pas finies
+     */
+    public void placerGenerateur(String nom, double x, double y) throws ReseauException {
+        Generateur g = this.generateurs.get(nom);
+        if (g == null) {
+            throw new ReseauException.ElementIntrouvable("générateur", nom);
+        }
+        placer(g, x, y);
+    }
+
+    private void placer(ElementNomme e, double x, double y) throws ReseauException {
+        boolean retrait = Double.isNaN(x) && Double.isNaN(y);
+        if (!retrait && !(Double.isFinite(x) && Double.isFinite(y))) {
+            throw new ReseauException.DonneeInvalide("La position de " + e.getNom() + " doit avoir deux coordonnées finies.");
+        }
+        if (e.aUnePosition()) this.nbElementsPlaces--;
+        // + 0.0 : -0.0 devient 0.0 (même écriture, même empreinte)
+        e.placer(x + 0.0, y + 0.0);
+        if (!retrait) this.nbElementsPlaces++;
+    }
+
+    /**
+     * Indique si une maison peut être connectée à un générateur : toujours, sauf si les deux sont
+     * placés et plus éloignés que la distance maximale.
+     *
+     * @param m La maison
+     * @param g Le générateur
+     * @return true si la connexion est possible
+     */
+    public boolean estAPortee(Maison m, Generateur g) {
+        if (this.distanceMax == Double.POSITIVE_INFINITY || !m.aUnePosition() || !g.aUnePosition()) return true;
+        double dx = m.getX() - g.getX();
+        double dy = m.getY() - g.getY();
+        return dx * dx + dy * dy <= this.distanceMax * this.distanceMax;
+    }
+
     /**
      * Crée ou met à jour une connexion entre une maison et un générateur.
      * L'ordre des paramètres n'a pas d'importance.
@@ -100,19 +332,18 @@ public class Reseau {
      * @param nom1 Le nom du premier élément (Maison ou Générateur)
      * @param nom2 Le nom du second élément (Générateur ou Maison)
      * @return Un message confirmant la connexion
-     * @throws ReseauException Si un élément est introuvable ou les noms invalides
+     * @throws ReseauException Si un élément est introuvable, les noms invalides, ou le générateur
+     *                         hors de portée de la maison
      */
     public String ajouterConnexion(String nom1, String nom2) throws ReseauException {
-        Maison m = null;
-        Generateur g = null;
-
-        if (this.maisons.containsKey(nom1) && this.generateurs.containsKey(nom2)) {
-            m = this.maisons.get(nom1);
-            g = this.generateurs.get(nom2);
-        } else if (this.maisons.containsKey(nom2) && this.generateurs.containsKey(nom1)) {
-            m = this.maisons.get(nom2);
+        Generateur g = this.generateurs.get(nom2);
+        Maison m = (g != null) ? this.maisons.get(nom1) : null;
+        if (m == null) {
             g = this.generateurs.get(nom1);
-        } else {
+            m = (g != null) ? this.maisons.get(nom2) : null;
+        }
+
+        if (m == null) {
             // Si nom1 est une Maison valide, c'est que nom2 (le générateur) est faux
             if (this.maisons.containsKey(nom1)) {
                 throw new ReseauException.ElementIntrouvable("générateur", nom2);
@@ -132,13 +363,15 @@ public class Reseau {
 
             throw new ReseauException.ElementIntrouvable("élément", nom1 + " ou " + nom2);
         }
+        if (!estAPortee(m, g)) {
+            throw new ReseauException.Logique("Le générateur " + g.getNom() + " est à " + String.format("%.2f", m.distance(g))
+                    + " de la maison " + m.getNom() + " (distance maximale " + this.distanceMax + ").");
+        }
 
-        if (this.connexions.containsKey(m)) {
-            this.connexions.put(m, g);
-            // met à jour le g du m déja existant (propriété de la méthode put pour les map)
+        // Une maison n'a qu'un générateur : la connexion remplace l'éventuelle précédente
+        if (connecter(m.getId(), g.getId()) >= 0) {
             return "MAJ: Maison " + m.getNom() + " désormais connectée à " + g.getNom() + ".";
         } else {
-            this.connexions.put(m, g);
             return "OK: Connexion entre " + m.getNom() + " et " + g.getNom() + " créée.";
         }
     }
@@ -152,18 +385,14 @@ public class Reseau {
      * @throws ReseauException Si un élément est introuvable ou si la connexion n'existe pas
      */
     public String suppConnexion(String nom1, String nom2) throws ReseauException {
-        Maison m = null;
-        Generateur g = null;
-
-        if (this.maisons.containsKey(nom1) && this.generateurs.containsKey(nom2)) {
-            m = this.maisons.get(nom1);
-            g = this.generateurs.get(nom2);
-        } else if (this.maisons.containsKey(nom2) && this.generateurs.containsKey(nom1)) {
-            m = this.maisons.get(nom2);
+        Generateur g = this.generateurs.get(nom2);
+        Maison m = (g != null) ? this.maisons.get(nom1) : null;
+        if (m == null) {
             g = this.generateurs.get(nom1);
+            m = (g != null) ? this.maisons.get(nom2) : null;
         }
 
-        if (m == null || g == null) {
+        if (m == null) {
         	// même logique que dans ajouterConnexion pour trouver l'élement manquant
             if (this.maisons.containsKey(nom1) || this.maisons.containsKey(nom2)) {
                 // Si on a trouvé la maison, c'est le générateur qui manque
@@ -179,16 +408,55 @@ public class Reseau {
         }
 
         // Vérification si la connexion existe
-        Generateur gActuel = this.connexions.get(m);
-        if (gActuel == null || !gActuel.equals(g)) {
+        if (getIdGenerateur(m.getId()) != g.getId()) {
             throw new ReseauException.Logique("La connexion entre " + m.getNom() + " et " + g.getNom() + " n'existe pas.");
         }
 
-        this.connexions.remove(m, g);
+        connecter(m.getId(), -1);
         return "La connexion entre la maison "+m.getNom()+" et le generateur "+g.getNom()+" a ete supprimee avec succes.";
         
     }
 
+    /**
+     * Supprime une maison du réseau, ainsi que sa connexion éventuelle.
+     *
+     * @param nom Le nom de la maison à supprimer
+     * @return Un message confirmant la suppression
+     * @throws ReseauException Si la maison n'existe pas
+     */
+    public String supprimerMaison(String nom) throws ReseauException {
+        Maison m = this.maisons.get(nom);
+        if (m == null) {
+            throw new ReseauException.ElementIntrouvable("maison", nom);
+        }
+        connecter(m.getId(), -1);
+        if (m.aUnProfil()) this.nbMaisonsAvecProfil--;
+        if (m.aUnePosition()) this.nbElementsPlaces--;
+        this.maisons.remove(nom);
+        return "OK: Maison " + nom + " supprimée.";
+    }
+
+    /**
+     * Supprime un générateur du réseau, ainsi que les connexions des maisons qu'il alimentait
+     * (ces maisons restent dans le réseau, non connectées).
+     *
+     * @param nom Le nom du générateur à supprimer
+     * @return Un message confirmant la suppression
+     * @throws ReseauException Si le générateur n'existe pas
+     */
+    public String supprimerGenerateur(String nom) throws ReseauException {
+        Generateur g = this.generateurs.get(nom);
+        if (g == null) {
+            throw new ReseauException.ElementIntrouvable("générateur", nom);
+        }
+        for (int id = 0; id < this.maisons.getNbIds(); id++) {
+            if (getIdGenerateur(id) == g.getId()) connecter(id, -1);
+        }
+        if (g.aUnePosition()) this.nbElementsPlaces--;
+        this.generateurs.remove(nom);
+        return "OK: Générateur " + nom + " supprimé.";
+    }
+
     /**
      * Vérifie la validité globale du réseau (présence d'éléments, couverture totale des maisons).
      *
@@ -205,13 +473,11 @@ public class Reseau {
         }
         
         // La contrainte "une maison est connectée à un seul générateur au maximum"
-        // est gérée par la conception de la Map et non par la méthode de validation
-        // Remplacement Automatique : Si on appelle this.connexions.put(M1, G1) puis
-        // this.connexions.put(M1, G2)
-        // la deuxième opération remplace la valeur de la clé M1 de G1 par G2.
-        // La maison M1 est alors connectée uniquement à G2.
+        // est gérée par la conception de l'affectation et non par la méthode de validation :
+        // chaque maison n'a qu'une case (l'identifiant de son générateur), qu'une nouvelle
+        // connexion remplace.
         for (Maison m : this.maisons.values()) {
-            if (!this.connexions.containsKey(m)) {
+            if (getIdGenerateur(m.getId()) < 0) {
                 erreurs.add("Problème: Maison " + m.getNom() + " n'a aucune connexion.");
             }
         }
@@ -238,32 +504,25 @@ public class Reseau {
     public boolean isConnexionExiste(String nom1, String nom2) {
 
         // Trouver les objets Maison et Generateur 
-        Maison m = null;
-        Generateur g = null;
-        
         if (nom1 == null || nom2 == null) return false;
 
-        if (this.maisons.containsKey(nom1) && this.generateurs.containsKey(nom2)) {
-            m = this.maisons.get(nom1);
-            g = this.generateurs.get(nom2);
-        } else if (this.maisons.containsKey(nom2) && this.generateurs.containsKey(nom1)) {
-            m = this.maisons.get(nom2);
+        // Le générateur d'abord : sa table est petite, un nom de maison y est vite écarté
+        Generateur g = this.generateurs.get(nom2);
+        Maison m = (g != null) ? this.maisons.get(nom1) : null;
+        if (m == null) {
             g = this.generateurs.get(nom1);
+            m = (g != null) ? this.maisons.get(nom2) : null;
         }
 
         // Gérer les objets non trouvés
         // Si la maison ou le générateur n'existe même pas, la connexion est impossible.
-        if (m == null || g == null) {
+        if (m == null) {
             return false;
         }
         
-        // Vérifier la connexion
-        // On récupère le générateur ACTUELLEMENT connecté à cette maison
-        // S'il n'y a pas de connexion, gActuel sera 'null'
-        Generateur gActuel = this.connexions.get(m);
-        
-        // La connexion existe si gActuel n'est pas nul et que gAcuel est le meme g qu'on a trouvé auparavant
-        return gActuel != null && gActuel.equals(g);
+        // Vérifier la connexion : le générateur ACTUELLEMENT connecté à cette maison
+        // (-1 s'il n'y a pas de connexion) doit être celui qu'on a trouvé auparavant
+        return getIdGenerateur(m.getId()) == g.getId();
     }
 
     /////////////////////// 
@@ -278,28 +537,71 @@ public class Reseau {
      */
     public double calculerChargeActuelle(Generateur g) {
         double charge = 0.0;
+        int idGen = g.getId();
+        if (idGen < 0) return charge;
 
-        // Map.Entry permet d'accéder simultanément aux clés (Maison) et aux valeurs
-        // (Generateur)
-        // Maison m = entry.getKey();
-        // Generateur g = entry.getValue();
-        // this.connexions.entrySet(), exécute le corps de la boucle
-        for (Map.Entry<Maison, Generateur> entry : this.connexions.entrySet()) {
-            if (entry.getValue().equals(g)) {
-                charge += entry.getKey().getConsommation().getDemandeKw();
+        // Les maisons au-delà du tableau d'affectation n'ont jamais été connectées
+        int borne = Math.min(this.affectation.length, this.maisons.getNbIds());
+        for (int id = 0; id < borne; id++) {
+            if (this.affectation[id] == idGen) {
+                charge += this.maisons.parId(id).getConsommation().getDemandeKw();
             }
         }
         return charge;
     }
 
+    /**
+     * Calcule en un seul parcours des maisons la charge de tous les générateurs.
+     *
+     * @return Les charges en kW, indexées par identifiant de générateur
+     */
+    public double[] calculerCharges() {
+        double[] charges = new double[this.generateurs.getNbIds()];
+        int borne = Math.min(this.affectation.length, this.maisons.getNbIds());
+        for (int id = 0; id < borne; id++) {
+            int idGen = this.affectation[id];
+            if (idGen >= 0) {
+                charges[idGen] += this.maisons.parId(id).getConsommation().getDemandeKw();
+            }
+        }
+        return charges;
+    }
+
+    /**
+     * Calcule les charges de tous les générateurs à chaque période (demandes horaires des maisons,
+     * ou demande du type pour celles qui n'ont pas de profil).
+     *
+     * @param affectation Le générateur de chaque maison, par identifiants (-1 : non connectée)
+     * @return Les charges en kW, la période t occupant les cases [t * nbIds, (t + 1) * nbIds[
+     *         où nbIds est getGenerateursMap().getNbIds()
+     */
+    private double[] calculerChargesParPeriode(int[] affectation) {
+        int nbIds = this.generateurs.getNbIds();
+        int periodes = getNbPeriodes();
+        double[] charges = new double[periodes * nbIds];
+        int borne = Math.min(affectation.length, this.maisons.getNbIds());
+        for (int id = 0; id < borne; id++) {
+            int idGen = affectation[id];
+            if (idGen < 0) continue;
+            Maison m = this.maisons.parId(id);
+            for (int t = 0; t < periodes; t++) charges[t * nbIds + idGen] += m.getDemandeKw(t);
+        }
+        return charges;
+    }
+
     /**
      * Calcule le taux d'utilisation d'un générateur (Charge / Capacité).
+     * Avec des demandes horaires, c'est le taux des demandes des types (voir getNbPeriodes).
      *
      * @param g Le générateur concerné
      * @return Le taux d'utilisation (1.0 équivaut à 100%)
      * @throws ReseauException Si la capacité du générateur est de 0
      */
     public double calculerTauxUtilisation(Generateur g) throws ReseauException{
+        return calculerTauxUtilisation(g, calculerChargeActuelle(g));
+    }
+
+    private static double calculerTauxUtilisation(Generateur g, double charge) throws ReseauException {
         double capacite = g.getCapaciteMaximale();
 
         // partie 2 traiter le l'erreur ou capacite = 0
@@ -307,22 +609,47 @@ public class Reseau {
             throw new ReseauException.Logique("Le générateur " + g.getNom() + " a une capacité de 0 kW. Calcul impossible.", 0);
         }
 
-        double charge = calculerChargeActuelle(g);
         return charge / capacite;
     }
 
+    /**
+     * Vérifie qu'aucun générateur n'a une capacité nulle (même erreur que les calculs de taux,
+     * pour le premier générateur fautif dans l'ordre de parcours).
+     *
+     * @throws ReseauException Si un générateur a une capacité de 0
+     */
+    public void verifierCapacites() throws ReseauException {
+        for (Generateur g : this.generateurs.values()) {
+            calculerTauxUtilisation(g, 0.0);
+        }
+    }
+
     /**
      * Calcule la dispersion des taux d'utilisation des générateurs (écart moyen à la moyenne).
+     * Avec des demandes horaires, c'est la moyenne des dispersions de chaque période.
      *
      * @return La valeur de dispersion (plus elle est basse, plus le réseau est équilibré)
      * @throws ReseauException En cas d'erreur de calcul sur un générateur
      */
     public double calculerDispersion() throws ReseauException{
-        java.util.List<Double> taux = new java.util.ArrayList<>();
+        if (!aDesProfils()) return calculerDispersion(calculerCharges(), 0);
+        int periodes = getNbPeriodes();
+
+        double[] charges = calculerChargesParPeriode(this.affectation);
+        double somme = 0.0;
+        for (int t = 0; t < periodes; t++) somme += calculerDispersion(charges, t * this.generateurs.getNbIds());
+        return somme / periodes;
+    }
+
+    /**
+     * @param decalage Position de la première charge de la période dans le tableau
+     */
+    private double calculerDispersion(double[] charges, int decalage) throws ReseauException {
+        List<Double> taux = new ArrayList<>();
 
         // on rempli la liste "taux " avec les taux des générateurs
         for (Generateur g : this.generateurs.values())
-            taux.add(calculerTauxUtilisation(g));
+            taux.add(calculerTauxUtilisation(g, charges[decalage + g.getId()]));
         // le cas liste vide
         if (taux.isEmpty())
             return 0.0;
@@ -345,15 +672,26 @@ public class Reseau {
 
     /**
      * Calcule la pénalité totale liée à la surcharge des générateurs.
+     * Avec des demandes horaires, c'est la moyenne des pénalités de chaque période.
      *
      * @return La somme des surplus de charge
      * @throws ReseauException En cas d'erreur de calcul sur un générateur
      */
     public double calculerSurcharge() throws ReseauException{
+        if (!aDesProfils()) return calculerSurcharge(calculerCharges(), 0);
+        int periodes = getNbPeriodes();
+
+        double[] charges = calculerChargesParPeriode(this.affectation);
+        double somme = 0.0;
+        for (int t = 0; t < periodes; t++) somme += calculerSurcharge(charges, t * this.generateurs.getNbIds());
+        return somme / periodes;
+    }
+
+    private double calculerSurcharge(double[] charges, int decalage) throws ReseauException {
         double surcharge = 0.0;
 
         for (Generateur g : this.generateurs.values()) {
-            double penalite = calculerTauxUtilisation(g) - 1;
+            double penalite = calculerTauxUtilisation(g, charges[decalage + g.getId()]) - 1;
             surcharge += Math.max(penalite, 0);
         }
 
@@ -367,7 +705,34 @@ public class Reseau {
      * @throws ReseauException En cas d'erreur de calcul
      */
     public double calculerCout() throws ReseauException{
-        return calculerDispersion() + LAMBDA * calculerSurcharge();
+        if (aDesProfils()) return calculerCoutParPeriode(this.affectation);
+        // Charges calculées une fois (O(maisons + générateurs)) pour les deux termes
+        return calculerCout(calculerCharges());
+    }
+
+    /**
+     * Coût pour des charges données (indexées par identifiant de générateur), mêmes calculs.
+     * Sans signification avec des demandes horaires (voir calculerCoutParPeriode).
+     */
+    double calculerCout(double[] charges) throws ReseauException {
+        return calculerDispersion(charges, 0) + this.lambda * calculerSurcharge(charges, 0);
+    }
+
+    /**
+     * Coût avec des demandes horaires, pour une affectation donnée : moyenne sur les périodes de
+     * Dispersion + Lambda * Surcharge, en O(maisons * périodes).
+     *
+     * @param affectation Le générateur de chaque maison, par identifiants (-1 : non connectée)
+     */
+    double calculerCoutParPeriode(int[] affectation) throws ReseauException {
+        int periodes = getNbPeriodes();
+        int nbIds = this.generateurs.getNbIds();
+        double[] charges = calculerChargesParPeriode(affectation);
+        double somme = 0.0;
+        for (int t = 0; t < periodes; t++) {
+            somme += calculerDispersion(charges, t * nbIds) + this.lambda * calculerSurcharge(charges, t * nbIds);
+        }
+        return somme / periodes;
     }
 
     /**
@@ -382,7 +747,7 @@ public class Reseau {
         // Affichage des Maisons
         System.out.println("--- Maisons (" + this.maisons.size() + ") ---");
         for (Maison m : this.maisons.values()) {
-            Generateur gConnecte = this.connexions.get(m);
+            Generateur gConnecte = this.generateurs.parId(getIdGenerateur(m.getId()));
             String statut;
             if (gConnecte != null) {
                 statut = "Connectée à " + gConnecte.getNom();
@@ -396,13 +761,14 @@ public class Reseau {
 
         // Affichage des Générateurs
         System.out.println("\n--- Générateurs (" + this.generateurs.size() + ") ---");
+        double[] charges = calculerCharges();
         for (Generateur g : this.generateurs.values()) {
-            double charge = calculerChargeActuelle(g);
+            double charge = charges[g.getId()];
             String tauxStr;
             String etat;
 
             try {
-                double taux = calculerTauxUtilisation(g);
+                double taux = calculerTauxUtilisation(g, charge);
                 tauxStr = String.format("%.2f", taux * 100);
 
                 if (taux > 1.0) {
@@ -426,15 +792,17 @@ public class Reseau {
 
         // Affichage des Connexions
         System.out.println("\n--- Détail des Connexions ---");
+        // Maisons regroupées par générateur en un seul parcours
+        List<List<String>> parGenerateur = new ArrayList<>();
+        for (int id = 0; id < this.generateurs.getNbIds(); id++) parGenerateur.add(new ArrayList<>());
+        for (int id = 0; id < this.maisons.getNbIds(); id++) {
+            int idGen = getIdGenerateur(id);
+            if (idGen >= 0) parGenerateur.get(idGen).add(this.maisons.parId(id).getNom());
+        }
         for (Generateur g : this.generateurs.values()) {
             System.out.print("-> Générateur " + g.getNom() + " alimente: ");
 
-            java.util.List<String> maisonsConnectees = new java.util.ArrayList<>();
-            for (Map.Entry<Maison, Generateur> entry : this.connexions.entrySet()) {
-                if (entry.getValue().equals(g)) {
-                    maisonsConnectees.add(entry.getKey().getNom());
-                }
-            }
+            List<String> maisonsConnectees = parGenerateur.get(g.getId());
 
             if (maisonsConnectees.isEmpty()) {
                 System.out.println("Aucune maison connectée.");
@@ -453,46 +821,315 @@ public class Reseau {
     /**
      * Récupère la map des maisons du réseau.
      *
-     * @return La map associant nom -> objet Maison
+     * @return La map associant nom -> objet Maison (table à noms compacts)
      */
-    public Map<String, Maison> getMaisonsMap() {
+    public TableNoms<Maison> getMaisonsMap() {
         return this.maisons;
     }
 
     /**
      * Récupère la map des générateurs du réseau.
      *
-     * @return La map associant nom -> objet Generateur
+     * @return La map associant nom -> objet Generateur (table à noms compacts)
      */
-    public Map<String, Generateur> getGenerateursMap() {
+    public TableNoms<Generateur> getGenerateursMap() {
         return this.generateurs;
     }
 
     /**
      * Récupère la map des connexions actives.
+     * C'est une vue de l'affectation par identifiants : les modifications (put, remove, clear...)
+     * sont reportées dans le réseau, et le parcours suit l'ordre des identifiants de maisons.
+     *
+     * Contrairement à l'ancienne HashMap, seuls les éléments de ce réseau y sont acceptés : put
+     * lève IllegalArgumentException pour une maison ou un générateur d'un autre réseau (une copie,
+     * par exemple) ou déjà supprimé, et NullPointerException pour un générateur null (une maison
+     * se déconnecte par remove).
      *
      * @return La map associant Maison -> Generateur
      */
     public Map<Maison, Generateur> getConnexionsMap() {
         return this.connexions;
     }
+
+    /**
+     * Renvoie le générateur d'une maison, par identifiants.
+     *
+     * @param idMaison L'identifiant de la maison
+     * @return L'identifiant de son générateur, ou -1 si elle n'est pas connectée (ou inconnue)
+     */
+    public int getIdGenerateur(int idMaison) {
+        return (idMaison >= 0 && idMaison < this.affectation.length) ? this.affectation[idMaison] : -1;
+    }
+
+    /**
+     * Connecte une maison à un générateur (ou la déconnecte), par identifiants.
+     *
+     * @param idMaison L'identifiant d'une maison du réseau
+     * @param idGenerateur L'identifiant d'un générateur du réseau, ou -1 pour déconnecter
+     * @return L'identifiant de l'ancien générateur, ou -1
+     * @throws IllegalArgumentException Si un identifiant ne désigne aucun élément du réseau
+     */
+    public int connecter(int idMaison, int idGenerateur) {
+        if (this.maisons.parId(idMaison) == null) {
+            throw new IllegalArgumentException("Aucune maison d'identifiant " + idMaison + ".");
+        }
+        if (idGenerateur != -1 && this.generateurs.parId(idGenerateur) == null) {
+            throw new IllegalArgumentException("Aucun générateur d'identifiant " + idGenerateur + ".");
+        }
+        if (idMaison >= this.affectation.length) {
+            int ancienneTaille = this.affectation.length;
+            this.affectation = Arrays.copyOf(this.affectation, Math.max(2 * ancienneTaille, this.maisons.getNbIds()));
+            Arrays.fill(this.affectation, ancienneTaille, this.affectation.length, -1);
+        }
+        int ancien = this.affectation[idMaison];
+        if (ancien == idGenerateur) return ancien;
+        if (ancien < 0) this.nbConnexions++;
+        if (idGenerateur < 0) this.nbConnexions--;
+        this.affectation[idMaison] = idGenerateur;
+        this.nbModificationsConnexions++;
+        return ancien;
+    }
+
+    /**
+     * Copie l'affectation (pour un algorithme qui travaille sur les identifiants).
+     *
+     * @return L'identifiant du générateur de chaque maison (-1 si non connectée), indexé par
+     *         identifiant de maison, de taille getMaisonsMap().getNbIds()
+     */
+    public int[] copierAffectation() {
+        int[] copie = Arrays.copyOf(this.affectation, this.maisons.getNbIds());
+        for (int id = this.affectation.length; id < copie.length; id++) copie[id] = -1;
+        return copie;
+    }
+
+    /**
+     * Remplace toute l'affectation (résultat d'un algorithme sur les identifiants).
+     *
+     * @param nouvelle L'identifiant du générateur de chaque maison (-1 si non connectée),
+     *                 indexé par identifiant de maison
+     * @throws IllegalArgumentException Si un identifiant ne désigne aucun élément du réseau
+     */
+    public void appliquerAffectation(int[] nouvelle) {
+        this.connexions.clear();
+        for (int id = 0; id < nouvelle.length; id++) {
+            if (nouvelle[id] >= 0) connecter(id, nouvelle[id]);
+        }
+    }
     
     /**
-     * Récupère le facteur de pénalité Lambda.
+     * Nombre de périodes des demandes horaires. Le coût est alors la moyenne, sur les périodes,
+     * de Dispersion + Lambda * Surcharge ; les charges et taux affichés (calculerCharges,
+     * calculerTauxUtilisation) restent ceux des demandes des types.
+     *
+     * @return La longueur commune des profils, ou 1 si aucune maison n'a de profil
+     */
+    public int getNbPeriodes() {
+        return aDesProfils() ? this.nbPeriodes : 1;
+    }
+
+    /**
+     * @return true si au moins une maison a une demande horaire
+     */
+    public boolean aDesProfils() {
+        return this.nbMaisonsAvecProfil > 0;
+    }
+
+    /**
+     * @return true si au moins une maison ou un générateur a une position
+     */
+    public boolean aDesPositions() {
+        return this.nbElementsPlaces > 0;
+    }
+
+    /**
+     * Distance maximale entre une maison et le générateur qui l'alimente, quand les deux sont
+     * placés. Comme Lambda, c'est un paramètre du réseau : il ne fait pas partie du fichier d'instance.
+     *
+     * @return La distance maximale (Double.POSITIVE_INFINITY par défaut : aucune limite)
+     */
+    public double getDistanceMax() {
+        return this.distanceMax;
+    }
+
+    /**
+     * Définit la distance maximale d'une connexion. Les connexions existantes ne sont pas vérifiées ;
+     * les solveurs ne proposent plus que des générateurs à portée.
+     *
+     * @param distanceMax La distance (strictement positive, Double.POSITIVE_INFINITY : aucune limite)
+     * @throws ReseauException Si la distance n'est pas strictement positive
+     */
+    public void setDistanceMax(double distanceMax) throws ReseauException {
+        if (!(distanceMax > 0)) {
+            throw new ReseauException.DonneeInvalide("La distance maximale doit être strictement positive.");
+        }
+        this.distanceMax = distanceMax;
+    }
+
+    /**
+     * Récupère le facteur de pénalité Lambda de ce réseau.
      *
      * @return La valeur actuelle de Lambda
      */
     public double getLambda() {
-    	return LAMBDA;
+    	return this.lambda;
     }
     
     /**
-     * Définit le facteur de pénalité Lambda pour le calcul du coût.
+     * Définit le facteur de pénalité Lambda pour le calcul du coût de ce réseau.
+     * La valeur n'est pas partagée : les autres réseaux gardent leur propre Lambda.
      *
      * @param L La nouvelle valeur de Lambda
      */
     public void setLambda(double L) {
-    	LAMBDA = L;
-    	
+    	this.lambda = L;
+    }
+
+    /**
+     * Vue Map&lt;Maison, Generateur&gt; de l'affectation. Une maison ou un générateur d'un autre
+     * réseau n'y est jamais trouvé, et ne peut pas y être ajouté.
+     */
+    private class VueConnexions extends AbstractMap<Maison, Generateur> {
+
+        @Override
+        public int size() {
+            return nbConnexions;
+        }
+
+        @Override
+        public boolean containsKey(Object cle) {
+            return get(cle) != null;
+        }
+
+        @Override
+        public Generateur get(Object cle) {
+            if (!(cle instanceof Maison)) return null;
+            Maison m = (Maison) cle;
+            if (maisons.parId(m.getId()) != m) return null;
+            return generateurs.parId(getIdGenerateur(m.getId()));
+        }
+
+        @Override
+        public Generateur put(Maison m, Generateur g) {
+            if (g == null) {
+                throw new NullPointerException("Générateur null pour la maison " + m.getNom() + " (utiliser remove).");
+            }
+            if (maisons.parId(m.getId()) != m || generateurs.parId(g.getId()) != g) {
+                throw new IllegalArgumentException("La maison " + m.getNom() + " ou le générateur " + g.getNom()
+                        + " n'appartient pas à ce réseau.");
+            }
+            return generateurs.parId(connecter(m.getId(), g.getId()));
+        }
+
+        @Override
+        public Generateur remove(Object cle) {
+            Generateur ancien = get(cle);
+            if (ancien != null) connecter(((Maison) cle).getId(), -1);
+            return ancien;
+        }
+
+        @Override
+        public void clear() {
+            Arrays.fill(affectation, -1);
+            nbConnexions = 0;
+            nbModificationsConnexions++;
+        }
+
+        @Override
+        public Set<Entry<Maison, Generateur>> entrySet() {
+            return new AbstractSet<Entry<Maison, Generateur>>() {
+                @Override
+                public Iterator<Entry<Maison, Generateur>> iterator() {
+                    return new ParcoursConnexions();
+                }
+
+                @Override
+                public int size() {
+                    return nbConnexions;
+                }
+            };
+        }
+    }
+
+    /**
+     * Parcours des maisons connectées par identifiant croissant (suppression permise).
+     */
+    private class ParcoursConnexions implements Iterator<Map.Entry<Maison, Generateur>> {
+
+        private int modificationsAttendues = nbModificationsConnexions;
+        private int suivant = avancer(0);
+        private int dernier = -1;
+
+        private int avancer(int id) {
+            int borne = Math.min(affectation.length, maisons.getNbIds());
+            while (id < borne && affectation[id] < 0) id++;
+            return (id < borne) ? id : Integer.MAX_VALUE;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return suivant != Integer.MAX_VALUE;
+        }
+
+        @Override
+        public Map.Entry<Maison, Generateur> next() {
+            if (nbModificationsConnexions != modificationsAttendues) throw new ConcurrentModificationException();
+            if (suivant == Integer.MAX_VALUE) throw new NoSuchElementException();
+            dernier = suivant;
+            suivant = avancer(suivant + 1);
+            return new Connexion(maisons.parId(dernier));
+        }
+
+        @Override
+        public void remove() {
+            if (dernier < 0) throw new IllegalStateException();
+            if (nbModificationsConnexions != modificationsAttendues) throw new ConcurrentModificationException();
+            connecter(dernier, -1);
+            modificationsAttendues = nbModificationsConnexions;
+            dernier = -1;
+        }
+    }
+
+    /**
+     * Entrée de la vue des connexions : la valeur est relue dans l'affectation, setValue la modifie.
+     */
+    private class Connexion implements Map.Entry<Maison, Generateur> {
+
+        private final Maison maison;
+
+        Connexion(Maison maison) {
+            this.maison = maison;
+        }
+
+        @Override
+        public Maison getKey() {
+            return maison;
+        }
+
+        @Override
+        public Generateur getValue() {
+            return generateurs.parId(getIdGenerateur(maison.getId()));
+        }
+
+        @Override
+        public Generateur setValue(Generateur g) {
+            // Pas une modification de structure : le parcours en cours reste valide
+            int attendues = nbModificationsConnexions;
+            Generateur ancien = connexions.put(maison, g);
+            nbModificationsConnexions = attendues;
+            return ancien;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) return false;
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            return maison.equals(e.getKey()) && java.util.Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return maison.hashCode() ^ java.util.Objects.hashCode(getValue());
+        }
     }
-}
\ No newline at end of file
+}
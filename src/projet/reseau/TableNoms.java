@@ -0,0 +1,457 @@
+package projet.reseau;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Index des éléments d'un réseau par nom, à adressage ouvert (sondage linéaire).
+ *
+ * Contrairement à un HashMap&lt;String, V&gt;, la table ne stocke ni la clé ni un nœud par entrée :
+ * deux tableaux parallèles (hachage du nom, élément), le nom étant porté par l'élément lui-même
+ * sous forme compacte (voir ElementNomme). La comparaison avec le nom cherché se fait sans
+ * reconstruire de String, et les noms de numéros voisins restent voisins dans la table.
+ *
+ * S'utilise comme une Map&lt;String, V&gt; dont la clé est toujours le nom de l'élément.
+ * values() parcourt directement les éléments ; keySet() et entrySet() reconstruisent les noms.
+ * Les itérateurs ne permettent pas la suppression.
+ *
+ * La table attribue aussi à chaque élément ajouté un identifiant dense (ElementNomme.getId) et
+ * le retrouve en O(1) par {@link #parId(int)} ; les identifiants libérés sont réutilisés.
+ * Un élément ne peut appartenir qu'à une table à la fois.
+ *
+ * @param <V> Le type des éléments (Maison, Generateur)
+ */
+public class TableNoms<V extends ElementNomme> extends AbstractMap<String, V> {
+
+    private static final int CAPACITE_INITIALE = 16;
+
+    // Hachage du nom (celui de String) à côté de chaque élément : les cases d'un autre nom sont
+    // écartées sans lire l'élément
+    private int[] hachages = new int[CAPACITE_INITIALE];
+    private Object[] elements = new Object[CAPACITE_INITIALE];
+    private int taille;
+    private int nbModifications;
+
+    // Éléments par identifiant, et pile des identifiants libérés
+    private Object[] parId = new Object[CAPACITE_INITIALE];
+    private int nbIds;
+    private int[] idsLibres = new int[0];
+    private int nbIdsLibres;
+
+    @Override
+    public int size() {
+        return taille;
+    }
+
+    @Override
+    public boolean containsKey(Object cle) {
+        return (cle instanceof String) && indice((String) cle) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object cle) {
+        if (!(cle instanceof String)) return null;
+        int k = indice((String) cle);
+        return (k < 0) ? null : (V) elements[k];
+    }
+
+    /**
+     * Ajoute ou remplace un élément.
+     *
+     * @param cle Le nom de l'élément (doit être celui de l'élément)
+     * @param element L'élément
+     * @return L'élément remplacé, ou null
+     * @throws IllegalArgumentException Si la clé n'est pas le nom de l'élément
+     */
+    @Override
+    public V put(String cle, V element) {
+        if (!element.aPourNom(cle)) {
+            throw new IllegalArgumentException("La clé '" + cle + "' n'est pas le nom de l'élément.");
+        }
+        return ajouter(element, true);
+    }
+
+    @Override
+    public V putIfAbsent(String cle, V element) {
+        if (!element.aPourNom(cle)) {
+            throw new IllegalArgumentException("La clé '" + cle + "' n'est pas le nom de l'élément.");
+        }
+        return ajouter(element, false);
+    }
+
+    /**
+     * Ajoute ou remplace un élément, indexé par son propre nom (sans reconstruire le nom).
+     *
+     * @param element L'élément
+     * @return L'élément remplacé, ou null
+     */
+    public V ajouter(V element) {
+        return ajouter(element, true);
+    }
+
+    /**
+     * Ajoute un élément s'il n'y en a pas déjà un de même nom, indexé par son propre nom.
+     *
+     * @param element L'élément
+     * @return L'élément déjà présent (laissé en place), ou null
+     */
+    public V ajouterSiAbsent(V element) {
+        return ajouter(element, false);
+    }
+
+    /**
+     * Cherche l'élément qui porte le même nom qu'un élément donné (d'un autre réseau, par exemple),
+     * sans reconstruire le nom.
+     *
+     * @param modele L'élément dont on cherche l'homonyme
+     * @return L'élément de même nom, ou null
+     */
+    @SuppressWarnings("unchecked")
+    public V getMemeNom(ElementNomme modele) {
+        int masque = elements.length - 1;
+        int h = modele.hachageNom();
+        for (int k = placer(h) & masque; ; k = (k + 1) & masque) {
+            ElementNomme e = (ElementNomme) elements[k];
+            if (e == null) return null;
+            if (hachages[k] == h && e.memeNom(modele)) return (V) e;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object cle) {
+        if (!(cle instanceof String)) return null;
+        int k = indice((String) cle);
+        if (k < 0) return null;
+        V ancien = (V) elements[k];
+        retirer(k);
+        return ancien;
+    }
+
+    @Override
+    public void clear() {
+        for (Object e : elements) {
+            if (e != null) ((ElementNomme) e).id = -1;
+        }
+        hachages = new int[CAPACITE_INITIALE];
+        elements = new Object[CAPACITE_INITIALE];
+        taille = 0;
+        parId = new Object[CAPACITE_INITIALE];
+        nbIds = 0;
+        nbIdsLibres = 0;
+        nbModifications++;
+    }
+
+    /**
+     * Retrouve un élément par son identifiant.
+     *
+     * @param id L'identifiant (voir ElementNomme.getId)
+     * @return L'élément, ou null si l'identifiant n'est pas attribué
+     */
+    @SuppressWarnings("unchecked")
+    public V parId(int id) {
+        return (id >= 0 && id < nbIds) ? (V) parId[id] : null;
+    }
+
+    /**
+     * Remplit une table vide avec les copies des éléments d'une autre table, sous les mêmes
+     * identifiants et avec la même pile d'identifiants libres : les tableaux indexés par
+     * identifiant de la table modèle restent valables pour la copie, même après des retraits.
+     *
+     * @param modele La table à recopier
+     * @param copieur Crée la copie (hors de toute table) d'un élément du modèle
+     * @throws IllegalStateException Si la table n'est pas vide
+     */
+    <W extends ElementNomme> void copierAvecIds(TableNoms<W> modele, Function<W, V> copieur) {
+        if (taille > 0 || nbIds > 0) throw new IllegalStateException("La table à remplir n'est pas vide.");
+        int capacite = CAPACITE_INITIALE;
+        while (2 * modele.taille > capacite) capacite *= 2;
+        hachages = new int[capacite];
+        elements = new Object[capacite];
+        parId = new Object[Math.max(CAPACITE_INITIALE, modele.nbIds)];
+        int masque = capacite - 1;
+        for (int id = 0; id < modele.nbIds; id++) {
+            W e = modele.parId(id);
+            if (e == null) continue;
+            V copie = copieur.apply(e);
+            // Noms distincts dans le modèle : pas de comparaison, la première case libre convient
+            int h = copie.hachageNom();
+            int k = placer(h) & masque;
+            while (elements[k] != null) k = (k + 1) & masque;
+            hachages[k] = h;
+            elements[k] = copie;
+            parId[id] = copie;
+            copie.id = id;
+            taille++;
+        }
+        nbIds = modele.nbIds;
+        idsLibres = Arrays.copyOf(modele.idsLibres, modele.idsLibres.length);
+        nbIdsLibres = modele.nbIdsLibres;
+        nbModifications++;
+    }
+
+    /**
+     * Borne des identifiants : tous les identifiants attribués sont inférieurs à cette valeur,
+     * qui dimensionne les tableaux indexés par identifiant (égale à size() sans retrait).
+     *
+     * @return Le nombre d'identifiants déjà attribués, libres compris
+     */
+    public int getNbIds() {
+        return nbIds;
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new Parcours<V>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    V convertir(Object element) {
+                        return (V) element;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return taille;
+            }
+        };
+    }
+
+    /**
+     * Éléments triés par nom (ordre de String), sans reconstruire les noms.
+     *
+     * @return Une nouvelle liste des éléments
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> valeursTriees() {
+        ElementNomme[] tab = new ElementNomme[taille];
+        int i = 0;
+        for (Object e : elements) {
+            if (e != null) tab[i++] = (ElementNomme) e;
+        }
+        if (!ElementNomme.trierMemePrefixe(tab)) Arrays.sort(tab, ElementNomme::comparerNom);
+        return (List<V>) Arrays.asList(tab);
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return new AbstractSet<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                return new Parcours<String>() {
+                    @Override
+                    String convertir(Object element) {
+                        return ((ElementNomme) element).getNom();
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object cle) {
+                return containsKey(cle);
+            }
+
+            @Override
+            public int size() {
+                return taille;
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        return new AbstractSet<Entry<String, V>>() {
+            @Override
+            public Iterator<Entry<String, V>> iterator() {
+                return new Parcours<Entry<String, V>>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    Entry<String, V> convertir(Object element) {
+                        V v = (V) element;
+                        return new SimpleImmutableEntry<>(v.getNom(), v);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return taille;
+            }
+        };
+    }
+
+    /**
+     * Estime la mémoire occupée par la table seule (tableaux, sans les éléments).
+     *
+     * @return Le nombre d'octets
+     */
+    public long octetsTable() {
+        // En-têtes des tableaux, 4 octets par hachage, 4 par référence (références compressées)
+        return 48 + 8L * elements.length + 4L * parId.length + 4L * idsLibres.length;
+    }
+
+    /**
+     * Estime la mémoire occupée par les noms stockés en octets (noms hors motif préfixe + numéro).
+     *
+     * @return Le nombre d'octets
+     */
+    public long octetsNoms() {
+        long total = 0;
+        for (Object e : elements) {
+            if (e != null) total += ((ElementNomme) e).octetsNom();
+        }
+        return total;
+    }
+
+    private int indice(String nom) {
+        int h = nom.hashCode();
+        int masque = elements.length - 1;
+        for (int k = placer(h) & masque; ; k = (k + 1) & masque) {
+            ElementNomme e = (ElementNomme) elements[k];
+            if (e == null) return -1;
+            if (hachages[k] == h && e.aPourNom(nom)) return k;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V ajouter(V element, boolean remplacer) {
+        if (element.id >= 0) {
+            if (parId(element.id) == element) return element;
+            throw new IllegalArgumentException("L'élément " + element.getNom() + " appartient déjà à un autre réseau.");
+        }
+        int h = element.hachageNom();
+        int masque = elements.length - 1;
+        int k = placer(h) & masque;
+        for (; elements[k] != null; k = (k + 1) & masque) {
+            if (hachages[k] == h && ((ElementNomme) elements[k]).memeNom(element)) {
+                V ancien = (V) elements[k];
+                if (remplacer) {
+                    // Le remplaçant reprend l'identifiant (et donc les données indexées par identifiant)
+                    elements[k] = element;
+                    element.id = ancien.id;
+                    parId[ancien.id] = element;
+                    ancien.id = -1;
+                }
+                return ancien;
+            }
+        }
+        hachages[k] = h;
+        elements[k] = element;
+        attribuerId(element);
+        taille++;
+        nbModifications++;
+        // Taux de remplissage maximal : 1/2 (sondages courts)
+        if (2 * taille > elements.length) agrandir();
+        return null;
+    }
+
+    /**
+     * Retire la case k en décalant les éléments suivants de la même suite (pas de marque de suppression).
+     */
+    private void retirer(int k) {
+        libererId((ElementNomme) elements[k]);
+        int masque = elements.length - 1;
+        int vide = k;
+        for (int j = (k + 1) & masque; elements[j] != null; j = (j + 1) & masque) {
+            int ideal = placer(hachages[j]) & masque;
+            // L'élément j peut combler le trou s'il n'est pas dans la portion (vide, j] de son idéal
+            if (((j - ideal) & masque) >= ((j - vide) & masque)) {
+                hachages[vide] = hachages[j];
+                elements[vide] = elements[j];
+                vide = j;
+            }
+        }
+        elements[vide] = null;
+        taille--;
+        nbModifications++;
+    }
+
+    private void attribuerId(ElementNomme element) {
+        int id;
+        if (nbIdsLibres > 0) {
+            id = idsLibres[--nbIdsLibres];
+        } else {
+            if (nbIds == parId.length) parId = Arrays.copyOf(parId, 2 * nbIds);
+            id = nbIds++;
+        }
+        parId[id] = element;
+        element.id = id;
+    }
+
+    private void libererId(ElementNomme element) {
+        if (nbIdsLibres == idsLibres.length) idsLibres = Arrays.copyOf(idsLibres, Math.max(8, 2 * nbIdsLibres));
+        idsLibres[nbIdsLibres++] = element.id;
+        parId[element.id] = null;
+        element.id = -1;
+    }
+
+    private void agrandir() {
+        int[] anciensHachages = hachages;
+        Object[] anciens = elements;
+        hachages = new int[2 * anciens.length];
+        elements = new Object[2 * anciens.length];
+        int masque = elements.length - 1;
+        for (int i = 0; i < anciens.length; i++) {
+            if (anciens[i] == null) continue;
+            int k = placer(anciensHachages[i]) & masque;
+            while (elements[k] != null) k = (k + 1) & masque;
+            hachages[k] = anciensHachages[i];
+            elements[k] = anciens[i];
+        }
+    }
+
+    /**
+     * Case idéale d'un hachage de nom. Les hachages de String des noms "prefixeN" se suivent quand
+     * seul le dernier chiffre change : on les garde voisins par groupes de 8 (les recherches dans
+     * l'ordre du fichier touchent les mêmes lignes de cache), et on disperse les groupes.
+     */
+    private static int placer(int h) {
+        int groupe = (h >>> 3) * 0x9E3779B9;
+        return ((groupe ^ (groupe >>> 16)) << 3) | (h & 7);
+    }
+
+    /**
+     * Parcours des cases occupées, converties en valeur, clé ou entrée.
+     */
+    private abstract class Parcours<T> implements Iterator<T> {
+
+        private final int modificationsAttendues = nbModifications;
+        private final Object[] table = elements;
+        private int suivant = avancer(0);
+
+        abstract T convertir(Object element);
+
+        private int avancer(int k) {
+            while (k < table.length && table[k] == null) k++;
+            return k;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return suivant < table.length;
+        }
+
+        @Override
+        public T next() {
+            if (nbModifications != modificationsAttendues) throw new ConcurrentModificationException();
+            if (suivant >= table.length) throw new NoSuchElementException();
+            Object e = table[suivant];
+            suivant = avancer(suivant + 1);
+            return convertir(e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package projet.algo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import projet.reseau.Reseau;
+import projet.reseau.TypeConsommation;
+
+public class AlgoOptimiseurTest {
+
+    @Test
+    public void testEvenementsJfrSeulementPendantUnEnregistrement() throws Exception {
+        Reseau reseau = new Reseau();
+        reseau.ajouterOuMajGenerateur("G1", 100);
+        reseau.ajouterOuMajGenerateur("G2", 100);
+        for (int m = 0; m < 10; m++) reseau.ajouterOuMajMaison("M" + m, TypeConsommation.NORMAL);
+        AlgoOptimiseur algo = new AlgoOptimiseur(reseau);
+        algo.setAffichageConsole(false);
+
+        Path fichier = Files.createTempFile("solveur", ".jfr");
+        try (Recording enregistrement = new Recording()) {
+            enregistrement.enable("projet.solveur.Fin");
+            enregistrement.start();
+            assertTrue(AlgoOptimiseur.enregistrementJfrEnCours());
+            algo.resoudre(1000);
+            enregistrement.stop();
+
+            // Flight Recorder reste initialisé, mais plus aucun enregistrement ne tourne
+            assertFalse(AlgoOptimiseur.enregistrementJfrEnCours());
+            enregistrement.dump(fichier);
+            List<RecordedEvent> evenements = RecordingFile.readAllEvents(fichier);
+            assertEquals(1, evenements.stream().filter(e -> e.getEventType().getName().equals("projet.solveur.Fin")).count());
+        } finally {
+            Files.delete(fichier);
+        }
+    }
+}
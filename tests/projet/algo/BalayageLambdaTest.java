@@ -0,0 +1,79 @@
+package projet.algo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import projet.algo.BalayageLambda.PointCompromis;
+import projet.exception.ReseauException;
+import projet.reseau.Reseau;
+import projet.reseau.TypeConsommation;
+
+public class BalayageLambdaTest {
+
+    private Reseau reseau;
+
+    @BeforeEach
+    public void setUp() throws ReseauException {
+        // Capacités inégales et demande (770 kW) supérieure à la capacité totale (610 kW) :
+        // équilibrer les taux surcharge tous les générateurs, concentrer l'excédent sur G3 le limite
+        Random random = new Random(7);
+        reseau = new Reseau();
+        reseau.ajouterOuMajGenerateur("G1", 60);
+        reseau.ajouterOuMajGenerateur("G2", 150);
+        reseau.ajouterOuMajGenerateur("G3", 400);
+        TypeConsommation[] types = TypeConsommation.values();
+        for (int m = 0; m < 40; m++) reseau.ajouterOuMajMaison("M" + m, types[random.nextInt(types.length)]);
+    }
+
+    private List<PointCompromis> balayer(int nbThreads, Double... lambdas) throws ReseauException {
+        BalayageLambda balayage = new BalayageLambda(reseau, 5000, nbThreads);
+        balayage.setGraine(42);
+        return balayage.executer(Arrays.asList(lambdas));
+    }
+
+    @Test
+    public void testPointsTriesParLambda() throws ReseauException {
+        List<PointCompromis> points = balayer(2, 100.0, 0.0, 10.0, 1.0);
+
+        assertEquals(4, points.size());
+        for (int i = 1; i < points.size(); i++) {
+            assertTrue(points.get(i - 1).getLambda() < points.get(i).getLambda());
+        }
+        for (PointCompromis p : points) {
+            assertEquals(p.getLambda(), p.getSolution().getLambda(), 0.0);
+            assertEquals(p.getSolution().calculerCout(), p.getCout(), 1e-9);
+        }
+    }
+
+    @Test
+    public void testMemesResultatsSequentielEtParallele() throws ReseauException {
+        List<PointCompromis> sequentiel = balayer(1, 0.0, 1.0, 10.0, 100.0);
+        List<PointCompromis> parallele = balayer(4, 0.0, 1.0, 10.0, 100.0);
+
+        assertEquals(sequentiel.size(), parallele.size());
+        for (int i = 0; i < sequentiel.size(); i++) {
+            assertEquals(sequentiel.get(i).getCout(), parallele.get(i).getCout(), 0.0);
+            assertEquals(sequentiel.get(i).getDispersion(), parallele.get(i).getDispersion(), 0.0);
+            assertEquals(sequentiel.get(i).getSurcharge(), parallele.get(i).getSurcharge(), 0.0);
+        }
+    }
+
+    @Test
+    public void testCompromisMonotoneAuxExtremes() throws ReseauException {
+        List<PointCompromis> points = balayer(2, 0.0, 1.0, 1000.0);
+        PointCompromis sansPenalite = points.get(0);
+        PointCompromis fortePenalite = points.get(points.size() - 1);
+
+        // Sans pénalité on équilibre au mieux, avec une forte pénalité on surcharge au minimum
+        assertTrue(sansPenalite.getDispersion() <= fortePenalite.getDispersion());
+        assertTrue(fortePenalite.getSurcharge() <= sansPenalite.getSurcharge());
+        assertTrue(fortePenalite.getSurcharge() < sansPenalite.getSurcharge(),
+                "l'instance doit exiger un compromis");
+    }
+}
@@ -0,0 +1,51 @@
+package projet.algo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import projet.algo.BancQualite.Resultat;
+
+public class BancQualiteTest {
+
+    private static Resultat resultat(String configuration, long budgetMs, double tauxSucces, double ecartMoyen) {
+        return new Resultat(configuration, budgetMs, 35, tauxSucces, ecartMoyen, Double.NaN);
+    }
+
+    @Test
+    public void testComparaisonAuSeuil() throws IOException {
+        Path reference = Files.createTempFile("qualite", ".txt");
+        try {
+            BancQualite.enregistrer(Arrays.asList(
+                    resultat("defaut", 10, 0.80, 0.10),
+                    resultat("defaut", 100, 1.00, 0.0)), reference.toString());
+
+            // Dans la tolérance : succès 5 points plus bas, écart 5 % plus haut
+            assertTrue(BancQualite.comparer(Arrays.asList(
+                    resultat("defaut", 10, 0.75, 0.105),
+                    resultat("defaut", 100, 0.95, 0.0)), reference.toString(), 0.10).isEmpty());
+
+            // Au-delà : chaque critère dépassé est signalé
+            List<String> regressions = BancQualite.comparer(Arrays.asList(
+                    resultat("defaut", 10, 0.60, 0.12),
+                    resultat("defaut", 100, 1.00, 1e-3)), reference.toString(), 0.10);
+            assertEquals(3, regressions.size());
+            assertTrue(regressions.get(0).contains("taux de succès"));
+            assertTrue(regressions.get(1).contains("écart moyen"));
+            assertTrue(regressions.get(2).startsWith("defaut (100 ms)"));
+
+            // Une configuration ou un budget absent de la référence n'est pas comparé
+            assertTrue(BancQualite.comparer(Arrays.asList(
+                    resultat("autre", 10, 0.0, 1.0),
+                    resultat("defaut", 1000, 0.0, 1.0)), reference.toString(), 0.10).isEmpty());
+        } finally {
+            Files.delete(reference);
+        }
+    }
+}
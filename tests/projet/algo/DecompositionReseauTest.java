@@ -0,0 +1,129 @@
+package projet.algo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import projet.exception.ReseauException;
+import projet.reseau.Generateur;
+import projet.reseau.Maison;
+import projet.reseau.Reseau;
+import projet.reseau.TypeConsommation;
+
+public class DecompositionReseauTest {
+
+    /**
+     * 8 générateurs de capacités variées et 200 maisons de types mélangés, avec des positions au besoin.
+     */
+    private static Reseau construire(boolean positions) throws ReseauException {
+        Random random = new Random(7);
+        Reseau reseau = new Reseau();
+        for (int g = 0; g < 8; g++) {
+            reseau.ajouterOuMajGenerateur("G" + g, 400 + 100 * (g % 3));
+            if (positions) reseau.placerGenerateur("G" + g, 25 + 50 * (g % 4), 25 + 50 * (g / 4));
+        }
+        TypeConsommation[] types = TypeConsommation.values();
+        for (int m = 0; m < 200; m++) {
+            reseau.ajouterOuMajMaison("M" + m, types[random.nextInt(types.length)]);
+            if (positions) reseau.placerMaison("M" + m, 200 * random.nextDouble(), 100 * random.nextDouble());
+        }
+        return reseau;
+    }
+
+    @Test
+    public void testExecuterApresRetraits() throws ReseauException {
+        Reseau reseau = construire(false);
+        reseau.supprimerMaison("M0");
+        reseau.supprimerGenerateur("G3");
+
+        DecompositionReseau.Resultat r = new DecompositionReseau(reseau, 3, 20000, 2).executer(true);
+
+        // Solution complète sur les éléments restants, coût annoncé exact, réseau d'origine intact
+        Reseau solution = r.getSolution();
+        assertEquals(199, solution.getConnexionsMap().size());
+        assertNull(solution.getMaisonsMap().get("M0"));
+        assertEquals(solution.calculerCout(), r.getCout(), 1e-12);
+        assertTrue(r.getCout() <= r.getCoutAvantCoordination() + 1e-12);
+        assertTrue(reseau.getConnexionsMap().isEmpty());
+
+        // Bilan de la comparaison
+        assertFalse(Double.isNaN(r.getCoutMonolithique()));
+        assertEquals((r.getCout() - r.getCoutMonolithique()) / r.getCoutMonolithique(), r.getEcartQualite(), 1e-12);
+        assertEquals(r.getDureeMonolithiqueMs() / r.getDureeTotaleMs(), r.getAcceleration(), 1e-12);
+    }
+
+    @Test
+    public void testPartitionEquilibree() throws ReseauException {
+        Reseau reseau = construire(false);
+        double demandeTotale = 0, capaciteTotale = 0, demandeMax = 0;
+        for (Maison m : reseau.getMaisonsMap().values()) {
+            demandeTotale += m.getConsommation().getDemandeKw();
+            demandeMax = Math.max(demandeMax, m.getConsommation().getDemandeKw());
+        }
+        for (Generateur g : reseau.getGenerateursMap().values()) capaciteTotale += g.getCapaciteMaximale();
+        double rapport = demandeTotale / capaciteTotale;
+
+        // Solveur qui enregistre les sous-réseaux (appelé depuis plusieurs threads)
+        List<Reseau> groupes = new ArrayList<>();
+        DecompositionReseau decomposition = new DecompositionReseau(reseau, 4, 20000, 2);
+        decomposition.setSolveur((sous, nbIterations) -> {
+            synchronized (groupes) {
+                groupes.add(sous.copier());
+            }
+            DecompositionReseau.RECUIT.resoudre(sous, nbIterations);
+        });
+        DecompositionReseau.Resultat r = decomposition.executer(false);
+
+        assertEquals(4, r.getNbGroupes());
+        assertFalse(r.isParRegions());
+        assertEquals(4, groupes.size());
+        int nbMaisons = 0, nbGenerateurs = 0;
+        for (Reseau sous : groupes) {
+            double demande = 0, capacite = 0;
+            for (Maison m : sous.getMaisonsMap().values()) demande += m.getConsommation().getDemandeKw();
+            for (Generateur g : sous.getGenerateursMap().values()) capacite += g.getCapaciteMaximale();
+            // Chaque groupe a le rapport demande / capacité du réseau entier, à une maison près
+            assertEquals(rapport * capacite, demande, demandeMax);
+            nbMaisons += sous.getMaisonsMap().size();
+            nbGenerateurs += sous.getGenerateursMap().size();
+        }
+        assertEquals(200, nbMaisons);
+        assertEquals(8, nbGenerateurs);
+    }
+
+    @Test
+    public void testCoordinationCorrigeLesGroupes() throws ReseauException {
+        Reseau reseau = construire(false);
+        // Solveur volontairement mauvais : tout le groupe sur son premier générateur
+        DecompositionReseau decomposition = new DecompositionReseau(reseau, 4, 1000, 1);
+        decomposition.setSolveur((sous, nbIterations) -> {
+            int premier = sous.getGenerateursMap().values().iterator().next().getId();
+            for (Maison m : sous.getMaisonsMap().values()) sous.connecter(m.getId(), premier);
+        });
+        DecompositionReseau.Resultat r = decomposition.executer(false);
+
+        assertTrue(r.getNbMaisonsDeplacees() > 0);
+        assertTrue(r.getCout() < r.getCoutAvantCoordination());
+        assertEquals(200, r.getSolution().getConnexionsMap().size());
+    }
+
+    @Test
+    public void testRegionsEtDistanceMaximale() throws ReseauException {
+        Reseau reseau = construire(true);
+        reseau.setDistanceMax(80);
+
+        DecompositionReseau.Resultat r = new DecompositionReseau(reseau, 4, 20000, 2).executer(false);
+
+        assertTrue(r.isParRegions());
+        Reseau solution = r.getSolution();
+        for (Maison m : solution.getMaisonsMap().values()) {
+            Generateur g = solution.getGenerateursMap().parId(solution.getIdGenerateur(m.getId()));
+            assertNotNull(g);
+            assertTrue(solution.estAPortee(m, g));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package projet.algo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class EnregistreurTraceTest {
+
+    /** Exporte la trace en CSV et renvoie ses lignes (en-tête compris). */
+    private static List<String> lignesCsv(EnregistreurTrace trace) throws IOException {
+        Path csv = Files.createTempFile("trace", ".csv");
+        try {
+            trace.exporter(csv.toString());
+            return Files.readAllLines(csv);
+        } finally {
+            Files.delete(csv);
+        }
+    }
+
+    @Test
+    public void testAnneauEtDecimation() throws IOException {
+        EnregistreurTrace trace = new EnregistreurTrace(4, 3);
+        for (int i = 0; i < 20; i++) {
+            trace.enregistrer(i, 100 - i, 50 - i, (i % 2 == 0) ? Double.NaN : i);
+        }
+
+        // Un appel sur 3 (0, 3, ..., 18) : 7 points, dont seuls les 4 plus récents restent, du plus ancien au plus récent
+        assertEquals(4, trace.getTaille());
+        List<String> lignes = lignesCsv(trace);
+        assertEquals("iteration,temps_ns,cout,meilleur_cout,temperature", lignes.get(0));
+        assertEquals(5, lignes.size());
+        long tempsPrecedent = -1;
+        int[] attendues = {9, 12, 15, 18};
+        for (int k = 0; k < attendues.length; k++) {
+            String[] champs = lignes.get(k + 1).split(",", -1);
+            int i = attendues[k];
+            assertEquals(Integer.toString(i), champs[0]);
+            assertEquals(100.0 - i, Double.parseDouble(champs[2]));
+            assertEquals(50.0 - i, Double.parseDouble(champs[3]));
+            // Température NaN : champ vide
+            assertEquals((i % 2 == 0) ? "" : Double.toString(i), champs[4]);
+            long temps = Long.parseLong(champs[1]);
+            assertTrue(temps >= tempsPrecedent);
+            tempsPrecedent = temps;
+        }
+    }
+
+    @Test
+    public void testAvantRemplissageEtRedemarrage() throws IOException {
+        EnregistreurTrace trace = new EnregistreurTrace(10, 2);
+        for (int i = 0; i < 5; i++) trace.enregistrer(i, i, i, 1.0);
+
+        // Anneau pas encore plein : les points 0, 2 et 4 dans l'ordre
+        List<String> lignes = lignesCsv(trace);
+        assertEquals(3, trace.getTaille());
+        assertTrue(lignes.get(1).startsWith("0,"));
+        assertTrue(lignes.get(2).startsWith("2,"));
+        assertTrue(lignes.get(3).startsWith("4,"));
+
+        // demarrer() vide la trace et enregistre de nouveau le premier appel
+        trace.demarrer();
+        assertEquals(0, trace.getTaille());
+        trace.enregistrer(7, 0, 0, 1.0);
+        assertEquals(1, trace.getTaille());
+        assertTrue(lignesCsv(trace).get(1).startsWith("7,"));
+    }
+}
@@ -0,0 +1,58 @@
+package projet.algo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import projet.exception.ReseauException;
+import projet.reseau.Reseau;
+import projet.reseau.TypeConsommation;
+
+public class EvaluateurProfilsTest {
+
+    private static final int NB_GENERATEURS = 100; // au-dessus du seuil des taux triés
+    private static final int NB_PERIODES = 24;
+    private static final int NB_MAISONS = 600;
+
+    @Test
+    public void testTauxTriesCommeLeCalculComplet() throws ReseauException {
+        Random random = new Random(11);
+        Reseau reseau = new Reseau();
+        reseau.setLambda(10);
+        for (int g = 0; g < NB_GENERATEURS; g++) reseau.ajouterOuMajGenerateur("G" + g, 50 + random.nextInt(400));
+        TypeConsommation[] types = TypeConsommation.values();
+        for (int m = 0; m < NB_MAISONS; m++) {
+            int[] profil = null;
+            // Une maison sur deux a un profil, avec des périodes sans consommation
+            if (m % 2 == 0) {
+                profil = new int[NB_PERIODES];
+                for (int t = 0; t < NB_PERIODES; t++) profil[t] = random.nextInt(4) == 0 ? 0 : random.nextInt(60);
+            }
+            reseau.ajouterOuMajMaison("M" + m, types[random.nextInt(types.length)], profil);
+            if (random.nextInt(10) != 0) reseau.connecter(m, random.nextInt(NB_GENERATEURS));
+        }
+
+        EvaluateurProfils evaluateur = new EvaluateurProfils(reseau);
+        assertEquals(reseau.calculerCout(), evaluateur.cout(), 1e-9 * reseau.calculerCout());
+
+        // Déplacements proposés puis acceptés une fois sur deux : les générateurs modifiés
+        // dépassent régulièrement sqrt(G) et les tris sont refaits par fusion
+        for (int i = 0; i < 5000; i++) {
+            int m = random.nextInt(NB_MAISONS);
+            int g = random.nextInt(20) == 0 ? -1 : random.nextInt(NB_GENERATEURS);
+            int ancien = reseau.connecter(m, g);
+            double attendu = reseau.calculerCout();
+
+            assertEquals(attendu, evaluateur.coutApres(m, g), 1e-9 * attendu, "déplacement proposé " + i);
+            if (random.nextBoolean()) {
+                evaluateur.deplacer(m, g);
+                assertEquals(attendu, evaluateur.cout(), 1e-9 * attendu, "déplacement accepté " + i);
+            } else {
+                reseau.connecter(m, ancien);
+            }
+        }
+        assertArrayEquals(reseau.copierAffectation(), evaluateur.copierAffectation());
+    }
+}
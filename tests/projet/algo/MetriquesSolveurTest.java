@@ -0,0 +1,66 @@
+package projet.algo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import projet.exception.ReseauException;
+import projet.reseau.Reseau;
+import projet.reseau.TypeConsommation;
+
+public class MetriquesSolveurTest {
+
+    private static Reseau reseau() throws ReseauException {
+        Random random = new Random(9);
+        Reseau reseau = new Reseau();
+        for (int g = 0; g < 5; g++) reseau.ajouterOuMajGenerateur("G" + g, 100 + random.nextInt(200));
+        TypeConsommation[] types = TypeConsommation.values();
+        for (int m = 0; m < 60; m++) reseau.ajouterOuMajMaison("M" + m, types[random.nextInt(types.length)]);
+        return reseau;
+    }
+
+    private static MetriquesSolveur resoudre(Reseau reseau, double temperature) throws ReseauException {
+        // Température minimale jamais atteinte : toutes les itérations sont faites
+        AlgoOptimiseur algo = new AlgoOptimiseur(reseau, new ParametresRecuit(temperature, 0.9999, 3000, 1e-300));
+        algo.setAffichageConsole(false);
+        algo.setGraine(1);
+        algo.resoudre();
+        return algo.getMetriques();
+    }
+
+    @Test
+    public void testCompteursCoherents() throws ReseauException {
+        Reseau reseau = reseau();
+        MetriquesSolveur m = resoudre(reseau, 1e-6);
+
+        assertEquals(3000, m.getNbIterations());
+        assertEquals(m.getNbIterations(), m.getNbAcceptes() + m.getNbRejets());
+        assertTrue(m.getNbAmeliorations() <= m.getNbAcceptes());
+
+        // Chaque nouveau meilleur coût est une amélioration, et la suite est strictement décroissante
+        double[] meilleurs = m.getMeilleursCouts();
+        assertTrue(m.getNbAmeliorations() >= meilleurs.length - 1);
+        for (int i = 1; i < meilleurs.length; i++) assertTrue(meilleurs[i] < meilleurs[i - 1]);
+        assertEquals(reseau.calculerCout(), m.getMeilleurCout(), 1e-9);
+        assertEquals(meilleurs.length, m.getInstantsMeilleursCouts().length);
+
+        // Même graine : mêmes compteurs
+        MetriquesSolveur m2 = resoudre(reseau(), 1e-6);
+        assertEquals(m.getNbAcceptes(), m2.getNbAcceptes());
+        assertEquals(m.getNbAmeliorations(), m2.getNbAmeliorations());
+        assertEquals(m.getNbRejets(), m2.getNbRejets());
+    }
+
+    @Test
+    public void testTemperatureEtAcceptation() throws ReseauException {
+        // Très froid : presque tout est refusé ; très chaud : presque tout est accepté
+        MetriquesSolveur froid = resoudre(reseau(), 1e-9);
+        MetriquesSolveur chaud = resoudre(reseau(), 1e9);
+        assertTrue(froid.getNbRejets() > froid.getNbAcceptes());
+        assertTrue(chaud.getNbAcceptes() > 0.99 * chaud.getNbIterations());
+        // Sans instrumentation détaillée, pas de répartition du temps
+        assertEquals(0, chaud.getNanosEvaluation());
+    }
+}
@@ -0,0 +1,115 @@
+package projet.algo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import projet.exception.ReseauException;
+import projet.io.GestionFichier;
+import projet.io.LecteurEvenements;
+import projet.reseau.Reseau;
+import projet.reseau.TypeConsommation;
+
+public class MoteurFluxTest {
+
+    private static Reseau reseauDeDepart() throws ReseauException {
+        Reseau reseau = new Reseau();
+        reseau.ajouterOuMajGenerateur("G1", 100);
+        reseau.ajouterOuMajGenerateur("G2", 100);
+        reseau.ajouterOuMajMaison("M1", TypeConsommation.FORTE);
+        reseau.ajouterConnexion("M1", "G1");
+        return reseau;
+    }
+
+    private static MoteurFlux traiter(MoteurFlux moteur, String... lignes) throws IOException {
+        moteur.traiter(new LecteurEvenements(new BufferedReader(new StringReader(String.join("\n", lignes)))));
+        return moteur;
+    }
+
+    @Test
+    public void testEvenementsAppliquesEtRefuses() throws IOException, ReseauException {
+        Reseau reseau = reseauDeDepart();
+        MoteurFlux moteur = traiter(new MoteurFlux(reseau),
+                "maison(M2,FORTE).",
+                "maison(M3,NORMAL,profil=10 30 50).",
+                "generateur(G3,80).",
+                "connexion(M9,G1).",              // maison inconnue : refusé
+                "deconnexion(M1,G1).",            // non pris en charge par le flux
+                "maison(M4,BASSE,pos=1 2).",      // position : refusée
+                "maison(M5,NORMAL",               // mal formée
+                "suppression(M2).");
+
+        assertEquals(4, moteur.getNbEvenements());
+        assertEquals(4, moteur.getNbRejets());
+        assertNull(reseau.getMaisonsMap().get("M2"));
+        assertNull(reseau.getMaisonsMap().get("M4"));
+        assertArrayEquals(new int[] {10, 30, 50}, reseau.getMaisonsMap().get("M3").getProfil());
+        // Toutes les maisons restent connectées et le coût suivi est celui du calcul complet
+        assertEquals(reseau.getMaisonsMap().size(), reseau.getConnexionsMap().size());
+        assertEquals(reseau.calculerCout(), moteur.getDernierCout(), 1e-9);
+    }
+
+    @Test
+    public void testPercentilesEtTrajectoire() throws IOException, ReseauException {
+        MoteurFlux moteur = new MoteurFlux(reseauDeDepart());
+        assertEquals(0, moteur.percentileLatenceNanos(50));
+        assertTrue(Double.isNaN(moteur.getDernierCout()));
+
+        String[] lignes = new String[25];
+        for (int i = 0; i < lignes.length; i++) lignes[i] = "maison(M" + (10 + i) + "," + TypeConsommation.values()[i % 3] + ").";
+        traiter(moteur, lignes);
+
+        Path csv = Files.createTempFile("trajectoire", ".csv");
+        try {
+            moteur.ecrireTrajectoire(csv.toString());
+            List<String> contenu = Files.readAllLines(csv);
+            assertEquals("evenement,latence_ns,cout", contenu.get(0));
+            assertEquals(26, contenu.size());
+
+            long[] latences = new long[25];
+            for (int i = 0; i < 25; i++) latences[i] = Long.parseLong(contenu.get(i + 1).split(",")[1]);
+            Arrays.sort(latences);
+            // Rang ceil(p * n / 100) parmi les latences triées
+            assertEquals(latences[12], moteur.percentileLatenceNanos(50));
+            assertEquals(latences[24], moteur.percentileLatenceNanos(99));
+            assertEquals(latences[24], moteur.percentileLatenceNanos(100));
+            assertEquals(latences[0], moteur.percentileLatenceNanos(0));
+        } finally {
+            Files.delete(csv);
+        }
+    }
+
+    @Test
+    public void testInstantanesPeriodiques() throws IOException, ReseauException {
+        Reseau reseau = reseauDeDepart();
+        Path instantane = Files.createTempFile("instantane", ".txt");
+        Files.delete(instantane);
+        try {
+            MoteurFlux moteur = new MoteurFlux(reseau);
+            moteur.setInstantanes(3, instantane.toString());
+
+            traiter(moteur, "maison(M2,BASSE).", "maison(M3,BASSE).");
+            assertFalse(Files.exists(instantane));
+            traiter(moteur, "maison(M4,BASSE).");
+            assertTrue(Files.exists(instantane));
+            assertEquals(4, GestionFichier.lireFichier(instantane.toString()).getConnexionsMap().size());
+
+            // Un événement refusé ne compte pas
+            Files.delete(instantane);
+            traiter(moteur, "maison(M5,BASSE).", "connexion(M9,G1).", "maison(M6,BASSE).");
+            assertFalse(Files.exists(instantane));
+            traiter(moteur, "maison(M7,BASSE).");
+            assertEquals(7, GestionFichier.lireFichier(instantane.toString()).getConnexionsMap().size());
+        } finally {
+            Files.deleteIfExists(instantane);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package projet.algo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import projet.exception.ReseauException;
+
+public class ParametresRecuitTest {
+
+    @Test
+    public void testSauvegardePuisChargement() throws IOException, ReseauException {
+        Path fichier = Files.createTempFile("parametres", ".properties");
+        try {
+            ParametresRecuit p = new ParametresRecuit(12.5, 0.99913, 123456, 0.002);
+            p.sauvegarder(fichier.toString(), "test");
+
+            ParametresRecuit lu = ParametresRecuit.charger(fichier.toString());
+            assertEquals(12.5, lu.getTemperatureInitiale());
+            assertEquals(0.99913, lu.getRefroidissement());
+            assertEquals(123456, lu.getNbIterations());
+            assertEquals(0.002, lu.getTemperatureMinimale());
+        } finally {
+            Files.delete(fichier);
+        }
+    }
+
+    @Test
+    public void testClesAbsentesEtValeursInvalides() throws IOException, ReseauException {
+        Path fichier = Files.createTempFile("parametres", ".properties");
+        try {
+            // Clés absentes : valeurs historiques
+            Files.write(fichier, "nbIterations=2000\n".getBytes());
+            ParametresRecuit lu = ParametresRecuit.charger(fichier.toString());
+            assertEquals(2000, lu.getNbIterations());
+            assertEquals(ParametresRecuit.historiques().getRefroidissement(), lu.getRefroidissement());
+
+            Files.write(fichier, "refroidissement=abc\n".getBytes());
+            assertThrows(ReseauException.DonneeInvalide.class, () -> ParametresRecuit.charger(fichier.toString()));
+
+            // Refroidissement hors de ]0, 1[
+            Files.write(fichier, "refroidissement=1.5\n".getBytes());
+            assertThrows(ReseauException.class, () -> ParametresRecuit.charger(fichier.toString()));
+        } finally {
+            Files.delete(fichier);
+        }
+        assertThrows(IOException.class, () -> ParametresRecuit.charger(fichier.toString()));
+    }
+}
@@ -0,0 +1,48 @@
+package projet.algo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import projet.exception.ReseauException;
+import projet.reseau.Reseau;
+import projet.reseau.TypeConsommation;
+
+public class ReglageParCourseTest {
+
+    @Test
+    public void testEliminationDuCandidatToujoursDernier() {
+        // 3 candidats sur 6 blocs : 0 et 1 se partagent la première place, 2 est toujours dernier
+        List<double[]> couts = new ArrayList<>();
+        for (int bloc = 0; bloc < 6; bloc++) {
+            couts.add(bloc % 2 == 0 ? new double[] {1.0, 2.0, 5.0} : new double[] {2.0, 1.0, 5.0});
+        }
+        assertEquals(Arrays.asList(0, 1), ReglageParCourse.eliminer(couts, Arrays.asList(0, 1, 2)));
+
+        // Tous ex aequo : personne n'est éliminé
+        List<double[]> egaux = new ArrayList<>();
+        for (int bloc = 0; bloc < 6; bloc++) egaux.add(new double[] {3.0, 3.0, 3.0});
+        assertEquals(Arrays.asList(0, 1, 2), ReglageParCourse.eliminer(egaux, Arrays.asList(0, 1, 2)));
+    }
+
+    @Test
+    public void testCourseGardeLeMeilleurCandidat() throws ReseauException {
+        Random random = new Random(5);
+        Reseau reseau = new Reseau();
+        for (int g = 0; g < 6; g++) reseau.ajouterOuMajGenerateur("G" + g, 100 + random.nextInt(300));
+        TypeConsommation[] types = TypeConsommation.values();
+        for (int m = 0; m < 80; m++) reseau.ajouterOuMajMaison("M" + m, types[random.nextInt(types.length)]);
+
+        // Un candidat sans recherche (une itération) face au jeu historique
+        ParametresRecuit sansRecherche = new ParametresRecuit(100.0, 0.9997, 1, 0.0001);
+        List<ParametresRecuit> candidats = Arrays.asList(sansRecherche, ParametresRecuit.historiques());
+
+        ReglageParCourse course = new ReglageParCourse(List.of(reseau), 2000, 1, 6, 7);
+        assertSame(candidats.get(1), course.courir(candidats));
+    }
+}
@@ -0,0 +1,159 @@
+package projet.algo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import projet.exception.ReseauException;
+import projet.reseau.Reseau;
+import projet.reseau.TypeConsommation;
+
+public class ReoptimiseurLocalTest {
+
+    private Reseau reseau;
+
+    @BeforeEach
+    public void setUp() throws ReseauException {
+        // G1 (100) porte tout, G2 (100) est vide : réseau déséquilibré
+        reseau = new Reseau();
+        reseau.ajouterOuMajGenerateur("G1", 100);
+        reseau.ajouterOuMajGenerateur("G2", 100);
+        reseau.ajouterOuMajMaison("M1", TypeConsommation.FORTE);
+        reseau.ajouterOuMajMaison("M2", TypeConsommation.FORTE);
+        reseau.ajouterConnexion("M1", "G1");
+        reseau.ajouterConnexion("M2", "G1");
+    }
+
+    @Test
+    public void testNouvelleMaisonConnecteeEtCoutCoherent() throws ReseauException {
+        ReoptimiseurLocal reopt = new ReoptimiseurLocal(reseau);
+        double coutAvant = reseau.calculerCout();
+
+        reopt.ajouterOuMajMaison("M3", TypeConsommation.NORMAL);
+
+        // La nouvelle maison est branchée et le coût incrémental correspond au calcul complet
+        assertNotNull(reseau.getConnexionsMap().get(reseau.getMaisonsMap().get("M3")));
+        assertEquals(reseau.calculerCout(), reopt.getCout(), 1e-9);
+        assertTrue(reopt.getCout() < coutAvant);
+    }
+
+    @Test
+    public void testChangementCapaciteReequilibre() throws ReseauException {
+        ReoptimiseurLocal reopt = new ReoptimiseurLocal(reseau);
+
+        // Toute mise à jour de G2 déclenche la ré-optimisation autour de lui : on doit équilibrer (40 / 40)
+        reopt.ajouterOuMajGenerateur("G2", 100);
+
+        assertEquals(0.0, reseau.calculerCout(), 1e-9);
+        assertTrue(reopt.getDernierNbDeplacements() >= 1);
+    }
+
+    @Test
+    public void testConnexionManuelleNonDeplacee() throws ReseauException {
+        ReoptimiseurLocal reopt = new ReoptimiseurLocal(reseau);
+
+        // L'utilisateur force M1 sur G1 : elle ne doit pas être déplacée par la ré-optimisation
+        reopt.ajouterConnexion("M1", "G1");
+
+        assertTrue(reseau.isConnexionExiste("M1", "G1"));
+        assertTrue(reseau.isConnexionExiste("M2", "G2"));
+        assertEquals(reseau.calculerCout(), reopt.getCout(), 1e-9);
+    }
+
+    @Test
+    public void testCoutParPeriodeAvecDemandesHoraires() throws ReseauException {
+        // Les demandes horaires de M1 et M2 ne se chevauchent pas : le meilleur choix est de les réunir
+        reseau.ajouterOuMajMaison("M1", TypeConsommation.FORTE, new int[] {50, 0, 0, 0});
+        reseau.ajouterOuMajMaison("M2", TypeConsommation.FORTE, new int[] {0, 0, 50, 0});
+        ReoptimiseurLocal reopt = new ReoptimiseurLocal(reseau);
+        assertEquals(reseau.calculerCout(), reopt.getCout(), 1e-9);
+
+        Random random = new Random(3);
+        TypeConsommation[] types = TypeConsommation.values();
+        for (int i = 0; i < 200; i++) {
+            String nom = "M" + random.nextInt(12);
+            switch (random.nextInt(5)) {
+                case 0:
+                    int[] profil = new int[4];
+                    for (int t = 0; t < profil.length; t++) profil[t] = random.nextInt(40);
+                    reopt.ajouterOuMajMaison(nom, types[random.nextInt(types.length)], profil);
+                    break;
+                case 1:
+                    reopt.ajouterOuMajMaison(nom, types[random.nextInt(types.length)]);
+                    break;
+                case 2:
+                    if (reseau.getMaisonsMap().containsKey(nom)) reopt.supprimerMaison(nom);
+                    break;
+                case 3:
+                    if (reseau.getMaisonsMap().containsKey(nom)) reopt.ajouterConnexion(nom, "G" + (1 + random.nextInt(2)));
+                    break;
+                default:
+                    reopt.ajouterOuMajGenerateur("G" + (1 + random.nextInt(3)), 50 + random.nextInt(100));
+            }
+            assertEquals(reseau.calculerCout(), reopt.getCout(), 1e-9, "modification " + i);
+        }
+        assertTrue(reseau.aDesProfils());
+    }
+
+    @Test
+    public void testChangementDeTypeGardeLeProfil() throws ReseauException {
+        reseau.ajouterOuMajMaison("M1", TypeConsommation.FORTE, new int[] {10, 80});
+        ReoptimiseurLocal reopt = new ReoptimiseurLocal(reseau);
+
+        reopt.ajouterOuMajMaison("M1", TypeConsommation.BASSE);
+
+        assertArrayEquals(new int[] {10, 80}, reseau.getMaisonsMap().get("M1").getProfil());
+        assertEquals(TypeConsommation.BASSE, reseau.getMaisonsMap().get("M1").getConsommation());
+        assertEquals(reseau.calculerCout(), reopt.getCout(), 1e-9);
+    }
+
+    @Test
+    public void testPlacerMaisonSansLaRedeclarer() throws ReseauException {
+        reseau.ajouterOuMajMaison("M3", TypeConsommation.NORMAL, new int[] {5, 60});
+        ReoptimiseurLocal reopt = new ReoptimiseurLocal(reseau);
+
+        assertTrue(reopt.placerMaison("M3"));
+
+        assertNotNull(reseau.getConnexionsMap().get(reseau.getMaisonsMap().get("M3")));
+        assertArrayEquals(new int[] {5, 60}, reseau.getMaisonsMap().get("M3").getProfil());
+        assertEquals(reseau.calculerCout(), reopt.getCout(), 1e-9);
+        assertThrows(ReseauException.class, () -> reopt.placerMaison("M3"));
+        assertThrows(ReseauException.class, () -> reopt.placerMaison("M9"));
+    }
+
+    @Test
+    public void testEcartBorneAvecUneResolutionComplete() throws ReseauException {
+        for (long graine = 1; graine <= 3; graine++) {
+            Random random = new Random(graine);
+            Reseau grand = new Reseau();
+            for (int g = 0; g < 20; g++) grand.ajouterOuMajGenerateur("G" + g, 300 + random.nextInt(600));
+            TypeConsommation[] types = TypeConsommation.values();
+            for (int m = 0; m < 400; m++) grand.ajouterOuMajMaison("M" + m, types[random.nextInt(types.length)]);
+            AlgoOptimiseur algo = new AlgoOptimiseur(grand);
+            algo.setAffichageConsole(false);
+            algo.setGraine(graine);
+            algo.resoudre();
+
+            // Quelques modifications suivies d'une ré-optimisation locale
+            ReoptimiseurLocal reopt = new ReoptimiseurLocal(grand);
+            for (int i = 0; i < 10; i++) reopt.ajouterOuMajMaison("N" + i, types[random.nextInt(types.length)]);
+            for (int i = 0; i < 5; i++) reopt.supprimerMaison("M" + (7 * i));
+            reopt.ajouterOuMajGenerateur("G1", 150);
+            reopt.ajouterOuMajGenerateur("G20", 300);
+            double local = reopt.getCout();
+            assertEquals(grand.calculerCout(), local, 1e-9);
+
+            // Même réseau résolu entièrement : la solution locale reste à moins de 25 % de son coût
+            Reseau complet = grand.copier();
+            AlgoOptimiseur plein = new AlgoOptimiseur(complet);
+            plein.setAffichageConsole(false);
+            plein.setGraine(graine);
+            plein.resoudre();
+            assertTrue(local <= 1.25 * complet.calculerCout(),
+                    "graine " + graine + " : " + local + " contre " + complet.calculerCout());
+        }
+    }
+}
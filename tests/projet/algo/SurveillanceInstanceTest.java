@@ -0,0 +1,83 @@
+package projet.algo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import projet.exception.ReseauException;
+import projet.io.GestionFichier;
+import projet.reseau.Reseau;
+
+public class SurveillanceInstanceTest {
+
+    @Test
+    public void testVersionInvalideNeModifiePasLeReseau() throws IOException, ReseauException {
+        Path dossier = Files.createTempDirectory("surveillance");
+        Path instance = dossier.resolve("instance.txt");
+        Path sortie = dossier.resolve("solution.txt");
+        try {
+            Files.write(instance, String.join("\n",
+                    "generateur(G1,100).", "generateur(G2,100).",
+                    "maison(M1,NORMAL).", "maison(M2,FORTE).", "").getBytes());
+            Reseau reseau = GestionFichier.lireFichier(instance.toString());
+            SurveillanceInstance surveillance = new SurveillanceInstance(reseau, instance.toString(), sortie.toString());
+
+            // Une maison ajoutée (événement valable seul), mais G2 déclaré après les maisons : fichier refusé par la lecture
+            Files.write(instance, String.join("\n",
+                    "generateur(G1,100).",
+                    "maison(M1,NORMAL).", "maison(M2,FORTE).", "maison(M3,BASSE).",
+                    "generateur(G2,100).", "").getBytes());
+            assertThrows(ReseauException.class, () -> GestionFichier.lireFichier(instance.toString()));
+            assertFalse(surveillance.traiterModification());
+            assertNull(surveillance.getReseau().getMaisonsMap().get("M3"));
+            assertFalse(Files.exists(sortie));
+
+            // La correction est appliquée normalement
+            Files.write(instance, String.join("\n",
+                    "generateur(G1,100).", "generateur(G2,100).",
+                    "maison(M1,NORMAL).", "maison(M2,FORTE).", "maison(M3,BASSE).", "").getBytes());
+            assertTrue(surveillance.traiterModification());
+            assertNotNull(surveillance.getReseau().getMaisonsMap().get("M3"));
+            assertTrue(Files.exists(sortie));
+        } finally {
+            for (File f : dossier.toFile().listFiles()) f.delete();
+            Files.delete(dossier);
+        }
+    }
+
+    @Test
+    public void testRelectureGardeLesDemandesHoraires() throws IOException, ReseauException {
+        Path dossier = Files.createTempDirectory("surveillance");
+        Path instance = dossier.resolve("instance.txt");
+        Path sortie = dossier.resolve("solution.txt");
+        try {
+            Files.write(instance, String.join("\n",
+                    "generateur(G1,100).", "generateur(G2,100).",
+                    "maison(M1,NORMAL,profil=10 20 30).", "maison(M2,FORTE).", "").getBytes());
+            Reseau reseau = GestionFichier.lireFichier(instance.toString());
+            SurveillanceInstance surveillance = new SurveillanceInstance(reseau, instance.toString(), sortie.toString());
+            surveillance.setParametres(new ParametresRecuit(100.0, 0.9997, 1000, 0.0001));
+
+            // Nouvelle maison avec profil : réseau à demandes horaires, donc relecture complète
+            Files.write(instance, String.join("\n",
+                    "generateur(G1,100).", "generateur(G2,100).",
+                    "maison(M1,NORMAL,profil=10 20 30).", "maison(M2,FORTE).",
+                    "maison(M3,FORTE,profil=40 0 40).", "").getBytes());
+            assertTrue(surveillance.traiterModification());
+
+            Reseau apres = surveillance.getReseau();
+            assertArrayEquals(new int[] {40, 0, 40}, apres.getMaisonsMap().get("M3").getProfil());
+            assertArrayEquals(new int[] {10, 20, 30}, apres.getMaisonsMap().get("M1").getProfil());
+            assertNotNull(apres.getConnexionsMap().get(apres.getMaisonsMap().get("M3")));
+            assertArrayEquals(new int[] {40, 0, 40}, GestionFichier.lireFichier(sortie.toString()).getMaisonsMap().get("M3").getProfil());
+        } finally {
+            for (File f : dossier.toFile().listFiles()) f.delete();
+            Files.delete(dossier);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package projet.distribue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+
+import org.junit.jupiter.api.Test;
+
+import projet.exception.ReseauException;
+import projet.reseau.Maison;
+import projet.reseau.Reseau;
+import projet.reseau.TypeConsommation;
+
+public class CoordinateurDistribueTest {
+
+    @Test
+    public void testSolutionValideMalgreUnTravailleurPerdu() throws Exception {
+        // 4 générateurs, 40 maisons toutes branchées sur G0 : solution de départ très déséquilibrée
+        Reseau reseau = new Reseau();
+        for (int g = 0; g < 4; g++) reseau.ajouterOuMajGenerateur("G" + g, 300);
+        TypeConsommation[] types = TypeConsommation.values();
+        for (int m = 0; m < 40; m++) {
+            reseau.ajouterOuMajMaison("M" + m, types[m % types.length]);
+            reseau.ajouterConnexion("M" + m, "G0");
+        }
+        double coutInitial = reseau.calculerCout();
+
+        CoordinateurDistribue coordinateur = new CoordinateurDistribue(reseau, 3);
+        coordinateur.setDureeMs(1000);
+        coordinateur.setIterationsParTour(5000);
+        coordinateur.setGraine(42);
+        coordinateur.ouvrir(0);
+        int port = coordinateur.getPort();
+
+        Thread[] travailleurs = new Thread[2];
+        for (int k = 0; k < travailleurs.length; k++) {
+            travailleurs[k] = new Thread(() -> {
+                try {
+                    new TravailleurDistribue(InetAddress.getLoopbackAddress().getHostAddress(), port).executer();
+                } catch (IOException | ReseauException e) {
+                    // Le test vérifie le résultat du coordinateur
+                }
+            });
+            travailleurs[k].start();
+        }
+        // Un travailleur qui meurt après avoir reçu le début de l'instantané
+        Thread defaillant = new Thread(() -> {
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                new DataInputStream(socket.getInputStream()).readInt();
+            } catch (IOException e) {
+                // Coupure attendue
+            }
+        });
+        defaillant.start();
+
+        CoordinateurDistribue.Resultat r = coordinateur.executer();
+        for (Thread t : travailleurs) t.join();
+        defaillant.join();
+
+        assertEquals(3, r.getNbTravailleurs());
+        assertEquals(1, r.getNbPerdus());
+        assertTrue(r.getNbSolutionsRecues() > 0);
+
+        // Solution complète, coût annoncé exact et meilleur que le départ ; le réseau d'origine est intact
+        Reseau solution = r.getSolution();
+        for (Maison m : solution.getMaisonsMap().values()) {
+            assertNotNull(solution.getConnexionsMap().get(m));
+        }
+        assertEquals(solution.calculerCout(), r.getCout(), 1e-9);
+        assertTrue(r.getCout() < coutInitial);
+        assertEquals(coutInitial, reseau.calculerCout(), 1e-12);
+    }
+
+    @Test
+    public void testReseauAvecElementsSupprimes() throws Exception {
+        // Identifiants libres dans les deux tables : les rangs ne sont plus les identifiants
+        Reseau reseau = new Reseau();
+        for (int g = 0; g < 3; g++) reseau.ajouterOuMajGenerateur("G" + g, 200);
+        for (int m = 0; m < 20; m++) reseau.ajouterOuMajMaison("M" + m, TypeConsommation.NORMAL);
+        reseau.supprimerMaison("M0");
+        reseau.supprimerMaison("M7");
+        reseau.supprimerGenerateur("G0");
+
+        CoordinateurDistribue coordinateur = new CoordinateurDistribue(reseau, 1);
+        coordinateur.setDureeMs(500);
+        coordinateur.setIterationsParTour(2000);
+        coordinateur.setGraine(1);
+        coordinateur.ouvrir(0);
+        int port = coordinateur.getPort();
+        Thread travailleur = new Thread(() -> {
+            try {
+                new TravailleurDistribue(InetAddress.getLoopbackAddress().getHostAddress(), port).executer();
+            } catch (IOException | ReseauException e) {
+                // Le test vérifie le résultat du coordinateur
+            }
+        });
+        travailleur.start();
+
+        CoordinateurDistribue.Resultat r = coordinateur.executer();
+        travailleur.join();
+
+        assertEquals(0, r.getNbPerdus());
+        Reseau solution = r.getSolution();
+        assertEquals(18, solution.getConnexionsMap().size());
+        assertNull(solution.getMaisonsMap().get("M0"));
+        assertEquals(solution.calculerCout(), r.getCout(), 1e-9);
+    }
+}
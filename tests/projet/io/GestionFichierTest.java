@@ -3,13 +3,23 @@ package projet.io;
 import org.junit.jupiter.api.AfterEach;  
 import org.junit.jupiter.api.Test;
 
+import projet.algo.AlgoOptimiseur;
 import projet.exception.ReseauException;
+import projet.reseau.Generateur;
+import projet.reseau.Maison;
 import projet.reseau.Reseau;
 import projet.reseau.TypeConsommation;
 
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -191,4 +201,436 @@ public class GestionFichierTest {
         
         fichierAttendu.delete();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testEcritureGzipDeterministe() throws IOException, ReseauException {
+        GenerateurInstances generateur = new GenerateurInstances(300, 5);
+        generateur.setAvecConnexions(true);
+        generateur.ecrire(FICHIER_TEST);
+        Reseau reseau = GestionFichier.lireFichier(FICHIER_TEST);
+        reseau.ajouterOuMajMaison("maison_non_connectée", TypeConsommation.FORTE);
+
+        File gz1 = new File("test_temp1.txt.gz");
+        File gz2 = new File("test_temp2.txt.gz");
+        try {
+            GestionFichier.ecrireFichier(reseau, gz1.getPath());
+            // Même contenu depuis un réseau relu (ordre des maps différent) : mêmes octets
+            new EcrivainInstance().ecrire(GestionFichier.lireFichier(FICHIER_TEST), FICHIER_TEST);
+            Reseau relu = GestionFichier.lireFichier(FICHIER_TEST);
+            relu.ajouterOuMajMaison("maison_non_connectée", TypeConsommation.FORTE);
+            GestionFichier.ecrireFichier(relu, gz2.getPath());
+            assertArrayEquals(Files.readAllBytes(gz1.toPath()), Files.readAllBytes(gz2.toPath()));
+
+            Reseau decompresse = GestionFichier.lireFichier(gz1.getPath());
+            assertEquals(301, decompresse.getMaisonsMap().size());
+            assertEquals(300, decompresse.getConnexionsMap().size());
+            for (Maison m : reseau.getConnexionsMap().keySet()) {
+                assertTrue(decompresse.isConnexionExiste(m.getNom(), reseau.getConnexionsMap().get(m).getNom()));
+            }
+        } finally {
+            gz1.delete();
+            gz2.delete();
+        }
+    }
+
+    // TESTS VALIDATION SEULE
+    @Test
+    public void testValidationSeuleMemesErreurs() throws IOException {
+        String[] contenus = {
+            "generateur(G1,100).\nmaison(M1,BASSE).\ngenerateur(G2,50).",
+            "generateur(G1,100).\nmaison(M1,BASSE).\nconnexion(M1,G9).",
+            "generateur(G1,100).\nmaison(M1,BASSE).\nmaison(M2,NORMAL).\nconnexion(M1,M2).",
+            "generateur(G1,-5).",
+            "generateur(G1,100)\nmaison(M1,BASSE).",
+        };
+        for (String contenu : contenus) {
+            creerFichier(contenu);
+            ReseauException attendue = assertThrows(ReseauException.class, () -> GestionFichier.lireFichier(FICHIER_TEST));
+            ReseauException obtenue = assertThrows(ReseauException.class, () -> ValidateurInstance.valider(FICHIER_TEST));
+            assertEquals(attendue.getMessage(), obtenue.getMessage(), contenu);
+        }
+    }
+
+    @Test
+    public void testValidationSeuleStatistiques() throws IOException, ReseauException {
+        creerFichier("generateur(G1,100).\ngenerateur(G2,50).\ngenerateur(G1,80).\n"
+                + "maison(M1,BASSE).\nmaison(M2,FORTE).\nmaison(M3,NORMAL).\nmaison(M2,NORMAL).\n"
+                + "connexion(M1,G1).\nconnexion(G2,M2).\nconnexion(M1,G2).");
+
+        ValidateurInstance v = ValidateurInstance.valider(FICHIER_TEST);
+        assertEquals(2, v.getNbGenerateurs());
+        assertEquals(3, v.getNbMaisons());
+        assertEquals(2, v.getNbMaisons(TypeConsommation.NORMAL));
+        assertEquals(130, v.getCapaciteTotale());
+        assertEquals(10 + 20 + 20, v.getDemandeTotale());
+        assertEquals(50.0 / 130, v.getTension(), 1e-12);
+        assertEquals(2, v.getNbConnectees());
+        assertArrayEquals(new int[] {6}, v.getLignesNonConnectees());
+        assertFalse(v.estValide());
+        assertThrows(ReseauException.Logique.class, v::verifier);
+    }
+
+    // TEST JOURNAL DE MODIFICATIONS
+    @Test
+    public void testJournalRejoueEtCompacte() throws IOException, ReseauException {
+        File instantane = new File("test_temp_journal.txt");
+        File journal = new File(instantane.getPath() + JournalReseau.EXTENSION);
+        try {
+            try (JournalReseau j = JournalReseau.ouvrir(instantane.getPath())) {
+                j.ajouterOuMajGenerateur("G1", 100);
+                j.ajouterOuMajGenerateur("G2", 50);
+                j.ajouterOuMajMaison("M1", TypeConsommation.NORMAL);
+                j.ajouterOuMajMaison("M2", TypeConsommation.FORTE);
+                j.ajouterConnexion("M1", "G1");
+                j.ajouterConnexion("G2", "M2");
+                j.enregistrer();
+                assertFalse(instantane.exists());
+
+                j.compacter();
+                assertTrue(instantane.exists());
+                assertEquals(0, journal.length());
+
+                j.suppConnexion("M1", "G1");
+                j.supprimerGenerateur("G2");
+                j.ajouterOuMajMaison("M3", TypeConsommation.BASSE);
+                assertThrows(ReseauException.class, () -> j.supprimerMaison("inconnue")); // refusée : non journalisée
+            }
+
+            // Écriture interrompue : la dernière ligne incomplète est ignorée
+            try (FileWriter fw = new FileWriter(journal, true)) {
+                fw.write("connexion(M3,G");
+            }
+
+            try (JournalReseau j = JournalReseau.ouvrir(instantane.getPath())) {
+                Reseau relu = j.getReseau();
+                assertEquals(3, j.getNbLignesJournal());
+                assertEquals(1, relu.getGenerateursMap().size());
+                assertEquals(3, relu.getMaisonsMap().size());
+                assertTrue(relu.getConnexionsMap().isEmpty());
+                assertEquals(TypeConsommation.BASSE, relu.getMaisonsMap().get("M3").getConsommation());
+            }
+        } finally {
+            instantane.delete();
+            journal.delete();
+        }
+    }
+
+    // TEST GENERATEUR D'INSTANCES
+    @Test
+    public void testInstanceGenereeRelisible() throws IOException, ReseauException {
+        GenerateurInstances generateur = new GenerateurInstances(1000, 7);
+        generateur.setProportionsTypes(1, 2, 1);
+        generateur.setTension(0.5);
+        generateur.setAvecConnexions(true);
+        generateur.ecrire(FICHIER_TEST);
+
+        Reseau reseau = GestionFichier.lireFichier(FICHIER_TEST);
+        assertEquals(7, reseau.getGenerateursMap().size());
+        assertEquals(1000, reseau.getConnexionsMap().size());
+
+        // Effectifs exacts : 250 BASSE, 500 NORMAL, 250 FORTE
+        long nbNormal = reseau.getMaisonsMap().values().stream()
+                .filter(m -> m.getConsommation() == TypeConsommation.NORMAL).count();
+        assertEquals(500, nbNormal);
+        assertEquals(2 * generateur.getDemandeTotale(), generateur.getCapaciteTotale());
+    }
+
+    // TESTS LECTEUR PROJETE EN MEMOIRE
+    @Test
+    public void testLecteurMappeMemesErreurs() throws IOException, ReseauException {
+        String[][] cas = {
+            {"generateur(G1, 100)"},                                        // point manquant
+            {"generateur(G1, 100).", "maison(M1, NORMAL).", "generateur(G2, 5)."},
+            {"generateur(G1, 99999999999)."},                               // dépassement d'entier
+            {"generateur(G1, +7).", "maison(M1, forte,,).", "connexion(M1, G2)."},
+            {"maison(M1, GIGANTESQUE)."},
+            {"usine(G1, 100)."},
+            {"((."},                                                        // erreur critique
+            {"generateur(G1 100)."},
+        };
+        for (String[] lignes : cas) {
+            creerFichier(lignes);
+            ReseauException attendue = assertThrows(ReseauException.class, () -> GestionFichier.lireFichier(FICHIER_TEST));
+            ReseauException obtenue = assertThrows(ReseauException.class, () -> LecteurMappe.lireFichier(FICHIER_TEST));
+            assertEquals(attendue.getClass(), obtenue.getClass());
+            assertEquals(attendue.getMessage(), obtenue.getMessage());
+        }
+    }
+
+    @Test
+    public void testLecteurMappeFinsDeLigneEtFenetres() throws IOException, ReseauException {
+        // Fins de ligne mélangées, lignes vides : les numéros de ligne doivent rester ceux de readLine()
+        try (FileWriter writer = new FileWriter(FICHIER_TEST)) {
+            writer.write("generateur(G1, 100).\r\n\r\nmaison(M1, basse).\rmaison(M2, NORMAL).\n\r\n");
+            writer.write("connexion(M1, G1).\r\nconnexion(M2, G1).\r\nconnexion(M3, G1).\r\n");
+        }
+        String attendu = assertThrows(ReseauException.class, () -> GestionFichier.lireFichier(FICHIER_TEST)).getMessage();
+        assertTrue(attendu.startsWith("Erreur ligne 8 "));
+
+        // Petites fenêtres : une ligne (ou un "\r\n") coupée en deux doit être relue dans la fenêtre suivante
+        for (int fenetre = 24; fenetre < 64; fenetre++) {
+            final int taille = fenetre;
+            assertEquals(attendu, assertThrows(ReseauException.class,
+                    () -> LecteurMappe.lireFichier(FICHIER_TEST, taille)).getMessage());
+        }
+
+        creerFichier("generateur(G1, 100).", "maison(M1, BASSE).", "connexion(M1, G1).");
+        Reseau reseau = LecteurMappe.lireFichier(FICHIER_TEST, 32);
+        assertTrue(reseau.isConnexionExiste("M1", "G1"));
+        assertEquals(TypeConsommation.BASSE, reseau.getMaisonsMap().get("M1").getConsommation());
+    }
+
+    // TESTS LECTEUR PARALLELE
+    @Test
+    public void testLecteurParalleleMemesErreursQuelQueSoitLeDecoupage() throws IOException {
+        String[][] cas = {
+            // Erreur d'ordre dans un morceau, visible seulement avec l'étape des morceaux précédents
+            {"generateur(G1, 100).", "maison(M1, NORMAL).", "connexion(M1, G1).", "", "maison(M2, BASSE).", "connexion(M2, G1)."},
+            // Sur la même ligne, l'erreur d'ordre passe avant l'erreur d'arguments
+            {"generateur(G1, 100).", "maison(M1, NORMAL).", "connexion(M1, G1).", "generateur(G2 5)."},
+            // Erreur de syntaxe dans un morceau, erreur d'ordre plus tôt dans un autre
+            {"maison(M1, NORMAL).", "generateur(G1, 100).", "maison(M2, BASSE).", "connexion(M1, G1).", "usine(X)."},
+            // Connexion vers un élément inconnu, avant une erreur de syntaxe plus loin
+            {"generateur(G1, 100).", "maison(M1, NORMAL).", "connexion(M1, G2).", "connexion(M1, G1).", "connexion(M1)."},
+            // Connexion entre deux maisons (refusée par Reseau.ajouterConnexion)
+            {"generateur(G1, 100).", "maison(M1, NORMAL).", "maison(M2, FORTE).", "connexion(M1, G1).", "connexion(M1, M2)."},
+        };
+        for (String[] lignes : cas) {
+            creerFichier(lignes);
+            String attendu = assertThrows(ReseauException.class, () -> GestionFichier.lireFichier(FICHIER_TEST)).getMessage();
+            for (int nbMorceaux = 1; nbMorceaux <= lignes.length + 1; nbMorceaux++) {
+                final int n = nbMorceaux;
+                assertEquals(attendu, assertThrows(ReseauException.class,
+                        () -> LecteurParallele.lireFichier(FICHIER_TEST, 2, n)).getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testLecteurParalleleInstanceGeneree() throws IOException, ReseauException {
+        GenerateurInstances generateur = new GenerateurInstances(2000, 20);
+        generateur.setAvecConnexions(true);
+        generateur.ecrire(FICHIER_TEST);
+
+        Reseau attendu = GestionFichier.lireFichier(FICHIER_TEST);
+        Reseau lu = LecteurParallele.lireFichier(FICHIER_TEST, 3, 7);
+        assertEquals(attendu.getMaisonsMap().size(), lu.getMaisonsMap().size());
+        assertEquals(attendu.getGenerateursMap().size(), lu.getGenerateursMap().size());
+        assertEquals(attendu.getConnexionsMap().size(), lu.getConnexionsMap().size());
+        for (String nom : attendu.getMaisonsMap().keySet()) {
+            String generateurAttendu = attendu.getConnexionsMap().get(attendu.getMaisonsMap().get(nom)).getNom();
+            assertTrue(lu.isConnexionExiste(nom, generateurAttendu));
+        }
+    }
+
+    // TEST FORMAT BINAIRE
+    @Test
+    public void testFormatBinaireAllerRetour() throws IOException, ReseauException {
+        GenerateurInstances generateur = new GenerateurInstances(500, 9);
+        generateur.setAvecConnexions(true);
+        generateur.ecrire(FICHIER_TEST);
+        Reseau texte = GestionFichier.lireFichier(FICHIER_TEST);
+        texte.ajouterOuMajMaison("maison_non_connectée", TypeConsommation.FORTE);
+        texte.setLambda(25.0);
+
+        File binaire = new File("test_temp.rsb");
+        try {
+            GestionFichier.ecrireFichier(texte, binaire.getPath());
+
+            // En-tête lu directement dans la projection
+            InstanceBinaire vue = InstanceBinaire.ouvrir(binaire.getPath());
+            assertEquals(9, vue.getNbGenerateurs());
+            assertEquals(501, vue.getNbMaisons());
+            assertEquals(500, vue.getNbConnectees());
+            assertEquals(generateur.getCapaciteTotale(), vue.getCapaciteTotale());
+            assertEquals(generateur.getDemandeTotale() + 40, vue.getDemandeTotale());
+
+            Reseau relu = GestionFichier.lireFichier(binaire.getPath());
+            assertEquals(25.0, relu.getLambda());
+            assertEquals(texte.getMaisonsMap().size(), relu.getMaisonsMap().size());
+            assertEquals(500, relu.getConnexionsMap().size());
+            assertEquals(TypeConsommation.FORTE, relu.getMaisonsMap().get("maison_non_connectée").getConsommation());
+            for (Maison m : texte.getConnexionsMap().keySet()) {
+                assertTrue(relu.isConnexionExiste(m.getNom(), texte.getConnexionsMap().get(m).getNom()));
+            }
+            assertEquals(texte.calculerCout(), relu.calculerCout(), 1e-9);
+        } finally {
+            binaire.delete();
+        }
+    }
+
+    @Test
+    public void testFormatBinaireInvalide() throws IOException {
+        creerFichier("generateur(G1, 100).");
+        File binaire = new File("test_temp.rsb");
+        try {
+            new File(FICHIER_TEST).renameTo(binaire);
+            assertThrows(ReseauException.class, () -> GestionFichier.lireFichier(binaire.getPath()));
+        } finally {
+            binaire.delete();
+        }
+    }
+
+    // TEST FICHIERS DE SOLUTION (DELTA)
+    @Test
+    public void testDeltaSolutionAllerRetour() throws IOException, ReseauException {
+        GenerateurInstances generateur = new GenerateurInstances(300, 5);
+        generateur.setAvecConnexions(true);
+        generateur.ecrire(FICHIER_TEST);
+        Reseau base = GestionFichier.lireFichier(FICHIER_TEST);
+        String empreinte = DeltaSolution.empreinteContenu(base);
+
+        // Solution : trois maisons changent de générateur, une est déconnectée
+        Reseau solution = base.copier();
+        List<Maison> maisons = solution.getMaisonsMap().valeursTriees();
+        List<Generateur> generateurs = solution.getGenerateursMap().valeursTriees();
+        for (int i = 0; i < 3; i++) {
+            Maison m = maisons.get(i);
+            Generateur autre = generateurs.get((generateurs.indexOf(solution.getConnexionsMap().get(m)) + 1) % generateurs.size());
+            solution.getConnexionsMap().put(m, autre);
+        }
+        solution.getConnexionsMap().remove(maisons.get(3));
+
+        File fichier = new File("test_temp" + DeltaSolution.EXTENSION);
+        try {
+            DeltaSolution delta = DeltaSolution.differences(base, solution);
+            assertEquals(4, delta.getNbEntrees());
+            assertEquals(empreinte, delta.getEmpreinteBase());
+            delta.ecrire(fichier.getPath());
+
+            // Application sur l'instance relue, puis annulation
+            Reseau reseau = GestionFichier.lireFichier(FICHIER_TEST);
+            DeltaSolution relu = DeltaSolution.lire(fichier.getPath());
+            assertEquals(DeltaSolution.Mode.DIFFERENCES, relu.getMode());
+            DeltaSolution inverse = relu.appliquer(reseau, empreinte);
+            assertEquals(connexionsParNom(solution), connexionsParNom(reseau));
+            inverse.appliquer(reseau, empreinte);
+            assertEquals(connexionsParNom(base), connexionsParNom(reseau));
+            assertEquals(empreinte, DeltaSolution.empreinteContenu(reseau));
+
+            // Affectation complète
+            DeltaSolution.affectation(empreinte, solution).ecrire(fichier.getPath());
+            relu = DeltaSolution.lire(fichier.getPath());
+            assertEquals(DeltaSolution.Mode.AFFECTATION, relu.getMode());
+            assertEquals(299, relu.getNbEntrees());
+            relu.appliquer(reseau);
+            assertEquals(connexionsParNom(solution), connexionsParNom(reseau));
+
+            // Autre instance (ici : la base modifiée) : refusé, réseau inchangé
+            DeltaSolution autre = DeltaSolution.lire(fichier.getPath());
+            assertThrows(ReseauException.Logique.class, () -> autre.appliquer(reseau));
+            assertEquals(connexionsParNom(solution), connexionsParNom(reseau));
+        } finally {
+            fichier.delete();
+        }
+    }
+
+    // TEST DIFFERENCE ENTRE DEUX VERSIONS D'UNE INSTANCE
+    @Test
+    public void testDiffInstanceEvenements() throws ReseauException {
+        DiffInstance diff = new DiffInstance(octets(
+            "generateur(G1,100).", "generateur(G2,50).", "generateur(G3,10).",
+            "maison(M1,NORMAL).", "maison(M2,FORTE).", "maison(M3,BASSE).",
+            "connexion(G1,M1).", "connexion(G2,M2).", "connexion(G1,M3)."));
+
+        // Ordre, espaces et lignes vides : aucun changement
+        assertTrue(diff.comparer(octets("", "  generateur(G2,50).", "generateur(G1,100).", "generateur(G3,10).",
+            "maison(M2,FORTE).", "maison(M1,NORMAL).", "maison(M3,BASSE).",
+            "connexion(G1,M3).", "connexion(G2,M2).", "connexion(G1,M1).  ")).isEmpty());
+
+        // Capacité modifiée, G3 et M3 retirés, M4 ajoutée, connexion de M2 déplacée
+        List<EvenementReseau> evenements = diff.comparer(octets(
+            "generateur(G1,100).", "generateur(G2,80).",
+            "maison(M1,NORMAL).", "maison(M2,FORTE).", "maison(M4,FORTE).",
+            "connexion(G1,M1).", "connexion(G1,M2).", "connexion(G1,M4)."));
+        assertEquals(9, diff.getNbLignesModifiees());
+        List<String> resume = new ArrayList<>();
+        for (EvenementReseau e : evenements) resume.add(e.getNature() + " " + e.getNom());
+        assertEquals(Arrays.asList("GENERATEUR G2", "MAISON M4", "CONNEXION G1", "CONNEXION G1",
+            "SUPPRESSION_GENERATEUR G3", "SUPPRESSION_MAISON M3"), resume);
+        assertEquals(80, evenements.get(0).getCapacite());
+
+        // Ligne modifiée mal formée : erreur au bon numéro de ligne, référence inchangée
+        ReseauException.Syntaxe erreur = assertThrows(ReseauException.Syntaxe.class, () -> diff.comparer(octets(
+            "generateur(G1,100).", "generateur(G2,80)", "generateur(G3,10).")));
+        assertTrue(erreur.getMessage().contains("2"));
+        diff.valider();
+        assertEquals(9, diff.getNbLignes());
+    }
+
+    // TEST DEMANDES HORAIRES
+    @Test
+    public void testProfilsAllerRetour() throws IOException, ReseauException {
+        creerFichier(
+            "generateur(G1,100).", "generateur(G2,50).",
+            "maison(M1,NORMAL,profil=20 20 20).", "maison(M2,FORTE).", "maison(M3,BASSE,profil=10 10 10).",
+            "connexion(G1,M1).", "connexion(G2,M2).", "connexion(G1,M3).");
+        Reseau reseau = GestionFichier.lireFichier(FICHIER_TEST);
+        assertEquals(3, reseau.getNbPeriodes());
+        assertArrayEquals(new int[] {20, 20, 20}, reseau.getMaisonsMap().get("M1").getProfil());
+        assertNull(reseau.getMaisonsMap().get("M2").getProfil());
+
+        // Profils constants égaux à la demande du type : même coût que sans profil
+        creerFichier(
+            "generateur(G1,100).", "generateur(G2,50).",
+            "maison(M1,NORMAL).", "maison(M2,FORTE).", "maison(M3,BASSE).",
+            "connexion(G1,M1).", "connexion(G2,M2).", "connexion(G1,M3).");
+        assertEquals(GestionFichier.lireFichier(FICHIER_TEST).calculerCout(), reseau.calculerCout(), 1e-12);
+
+        // Ecriture puis relecture : mêmes profils
+        reseau.ajouterOuMajMaison("M2", TypeConsommation.FORTE, new int[] {0, 80, 40});
+        GestionFichier.ecrireFichier(reseau, FICHIER_TEST);
+        Reseau relu = GestionFichier.lireFichier(FICHIER_TEST);
+        assertArrayEquals(new int[] {0, 80, 40}, relu.getMaisonsMap().get("M2").getProfil());
+        assertEquals(reseau.calculerCout(), relu.calculerCout(), 1e-12);
+
+        // Longueur différente des autres profils, demande négative
+        creerFichier("maison(M1,NORMAL,profil=20 20 20).", "maison(M2,FORTE,profil=40 40).");
+        assertThrows(ReseauException.class, () -> GestionFichier.lireFichier(FICHIER_TEST));
+        creerFichier("maison(M1,NORMAL,profil=20 -5 20).");
+        assertThrows(ReseauException.DonneeInvalide.class, () -> GestionFichier.lireFichier(FICHIER_TEST));
+    }
+
+    // TEST POSITIONS
+    @Test
+    public void testPositionsEtDistanceMax() throws IOException, ReseauException {
+        creerFichier(
+            "generateur(G1,100,pos=0 0).", "generateur(G2,100,pos=10 0).",
+            "maison(M1,NORMAL,pos=1 0).", "maison(M2,NORMAL,profil=20 20,pos=9.5 0).", "maison(M3,BASSE).",
+            "connexion(G2,M1).");
+        Reseau reseau = GestionFichier.lireFichier(FICHIER_TEST);
+        assertTrue(reseau.aDesPositions());
+        assertEquals(9.5, reseau.getMaisonsMap().get("M2").getX());
+        assertFalse(reseau.getMaisonsMap().get("M3").aUnePosition());
+
+        // Ecriture puis relecture : mêmes positions
+        GestionFichier.ecrireFichier(reseau, FICHIER_TEST);
+        Reseau relu = GestionFichier.lireFichier(FICHIER_TEST);
+        assertEquals(1.0, relu.getMaisonsMap().get("M1").getX());
+        assertEquals(10.0, relu.getGenerateursMap().get("G2").getX());
+
+        // Distance maximale : connexion hors de portée refusée, le solveur reste à portée
+        reseau.setDistanceMax(3);
+        assertThrows(ReseauException.Logique.class, () -> reseau.ajouterConnexion("M1", "G2"));
+        reseau.ajouterConnexion("M3", "G2"); // M3 sans position : toujours à portée
+        new AlgoOptimiseur(reseau).resoudre(1000, true);
+        assertEquals("G1", reseau.getConnexionsMap().get(reseau.getMaisonsMap().get("M1")).getNom());
+        assertEquals("G2", reseau.getConnexionsMap().get(reseau.getMaisonsMap().get("M2")).getNom());
+
+        // Position mal formée
+        creerFichier("generateur(G1,100,pos=1).");
+        assertThrows(ReseauException.Syntaxe.class, () -> GestionFichier.lireFichier(FICHIER_TEST));
+    }
+
+    private static byte[] octets(String... lignes) {
+        return String.join("\n", lignes).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, String> connexionsParNom(Reseau reseau) {
+        Map<String, String> noms = new HashMap<>();
+        for (Map.Entry<Maison, Generateur> c : reseau.getConnexionsMap().entrySet()) {
+            noms.put(c.getKey().getNom(), c.getValue().getNom());
+        }
+        return noms;
+    }
+}
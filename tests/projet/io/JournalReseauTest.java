@@ -0,0 +1,83 @@
+package projet.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import projet.exception.ReseauException;
+import projet.reseau.Generateur;
+import projet.reseau.Maison;
+import projet.reseau.Reseau;
+import projet.reseau.TypeConsommation;
+
+public class JournalReseauTest {
+
+    private Path dossier;
+    private String instantane;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        dossier = Files.createTempDirectory("journal");
+        instantane = dossier.resolve("reseau.txt").toString();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> fichiers = Files.walk(dossier)) {
+            fichiers.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testPositionsRetrouveesApresArretBrutal() throws IOException, ReseauException {
+        JournalReseau journal = JournalReseau.ouvrir(instantane);
+        journal.ajouterOuMajGenerateur("G1", 100);
+        journal.ajouterOuMajMaison("M1", TypeConsommation.NORMAL, new int[] {10, 30});
+        journal.ajouterOuMajMaison("M2", TypeConsommation.FORTE);
+        journal.ajouterConnexion("M1", "G1");
+        journal.placerGenerateur("G1", 0.0, 0.0);
+        journal.placerMaison("M1", 1.5, -2.25);
+        journal.placerMaison("M2", 3.0, 4.0);
+        journal.enregistrer();
+        // Arrêt brutal : pas de close(), le journal n'est jamais compacté
+
+        try (JournalReseau relu = JournalReseau.ouvrir(instantane)) {
+            Reseau reseau = relu.getReseau();
+            Generateur g1 = reseau.getGenerateursMap().get("G1");
+            Maison m1 = reseau.getMaisonsMap().get("M1");
+            Maison m2 = reseau.getMaisonsMap().get("M2");
+
+            assertEquals(100, g1.getCapaciteMaximale());
+            assertEquals(0.0, g1.getX());
+            assertEquals(1.5, m1.getX());
+            assertEquals(-2.25, m1.getY());
+            assertEquals(4.0, m2.getY());
+            // Redéclarer la maison pour la placer garde son type, sa demande horaire et sa connexion
+            assertEquals(TypeConsommation.FORTE, m2.getConsommation());
+            assertEquals(30, m1.getProfil()[1]);
+            assertSame(g1, reseau.getConnexionsMap().get(m1));
+        }
+    }
+
+    @Test
+    public void testRetraitDePositionRefuseSansJournaliser() throws IOException, ReseauException {
+        try (JournalReseau journal = JournalReseau.ouvrir(instantane)) {
+            journal.ajouterOuMajMaison("M1", TypeConsommation.BASSE);
+            journal.placerMaison("M1", 1.0, 2.0);
+            int nbEnAttente = journal.getNbEnAttente();
+
+            assertThrows(ReseauException.DonneeInvalide.class, () -> journal.placerMaison("M1", Double.NaN, Double.NaN));
+            assertThrows(ReseauException.ElementIntrouvable.class, () -> journal.placerGenerateur("G9", 0.0, 0.0));
+            assertEquals(nbEnAttente, journal.getNbEnAttente());
+            assertTrue(journal.getReseau().getMaisonsMap().get("M1").aUnePosition());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package projet.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+
+import projet.exception.ReseauException;
+import projet.reseau.TypeConsommation;
+
+public class LecteurEvenementsTest {
+
+    @Test
+    public void testToutesLesNatures() throws IOException, ReseauException {
+        LecteurEvenements lecteur = new LecteurEvenements(new BufferedReader(new StringReader(String.join("\n",
+                "generateur(G1,120).",
+                "",
+                "maison(M1,forte,profil=1 2 3,pos=4 5).",
+                "connexion(M1,G1).",
+                "deconnexion(M1,G1).",
+                "suppression(M1).",
+                "suppressionGenerateur(G1).",
+                ""))));
+
+        EvenementReseau e = lecteur.suivant();
+        assertEquals(EvenementReseau.Nature.GENERATEUR, e.getNature());
+        assertEquals("G1", e.getNom());
+        assertEquals(120, e.getCapacite());
+        assertNull(e.getPosition());
+
+        // La ligne vide est sautée mais comptée
+        e = lecteur.suivant();
+        assertEquals(EvenementReseau.Nature.MAISON, e.getNature());
+        assertEquals(TypeConsommation.FORTE, e.getConsommation());
+        assertArrayEquals(new int[] {1, 2, 3}, e.getProfil());
+        assertEquals(4.0, e.getPosition()[0]);
+        assertEquals(5.0, e.getPosition()[1]);
+        assertEquals(3, e.getNumLigne());
+
+        e = lecteur.suivant();
+        assertEquals(EvenementReseau.Nature.CONNEXION, e.getNature());
+        assertEquals("M1", e.getNom());
+        assertEquals("G1", e.getNom2());
+        assertEquals(EvenementReseau.Nature.DECONNEXION, lecteur.suivant().getNature());
+        assertEquals(EvenementReseau.Nature.SUPPRESSION_MAISON, lecteur.suivant().getNature());
+        assertEquals(EvenementReseau.Nature.SUPPRESSION_GENERATEUR, lecteur.suivant().getNature());
+        assertNull(lecteur.suivant());
+    }
+
+    @Test
+    public void testLignesInvalidesPuisReprise() throws IOException, ReseauException {
+        LecteurEvenements lecteur = new LecteurEvenements(new BufferedReader(new StringReader(String.join("\n",
+                "generateur(G1,100)",
+                "generateur(G1,abc).",
+                "maison(M1,ENORME).",
+                "panne(G1).",
+                "suppression(M1)."))));
+
+        ReseauException sansPoint = assertThrows(ReseauException.Syntaxe.class, lecteur::suivant);
+        assertTrue(sansPoint.getMessage().contains("ligne 1"));
+        assertThrows(ReseauException.DonneeInvalide.class, lecteur::suivant);
+        assertThrows(ReseauException.DonneeInvalide.class, lecteur::suivant);
+        assertThrows(ReseauException.Syntaxe.class, lecteur::suivant);
+
+        // La lecture continue après les erreurs
+        EvenementReseau e = lecteur.suivant();
+        assertEquals(EvenementReseau.Nature.SUPPRESSION_MAISON, e.getNature());
+        assertEquals(5, e.getNumLigne());
+        assertNull(lecteur.suivant());
+    }
+}
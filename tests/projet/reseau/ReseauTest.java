@@ -1,6 +1,12 @@
 package projet.reseau;
 
 import static org.junit.jupiter.api.Assertions.*; 
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -264,4 +270,308 @@ public class ReseauTest {
         reseau.setLambda(50.0);
         assertEquals(50.0, reseau.getLambda());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testLambdaPropreAChaqueReseau() throws ReseauException {
+        // Deux réseaux dans la même JVM doivent pouvoir utiliser des pénalités différentes
+        Reseau autre = new Reseau();
+        reseau.setLambda(50.0);
+        autre.setLambda(2.0);
+
+        assertEquals(50.0, reseau.getLambda());
+        assertEquals(2.0, autre.getLambda());
+        assertEquals(Reseau.LAMBDA_DEFAUT, new Reseau().getLambda());
+    }
+
+    @Test
+    public void testCopieIndependante() throws ReseauException {
+        reseau.ajouterOuMajGenerateur("G1", 100);
+        reseau.ajouterOuMajGenerateur("G2", 100);
+        reseau.ajouterOuMajMaison("M1", TypeConsommation.NORMAL);
+        reseau.ajouterConnexion("M1", "G1");
+        reseau.setLambda(25.0);
+
+        Reseau copie = reseau.copier();
+        assertEquals(25.0, copie.getLambda());
+        assertTrue(copie.isConnexionExiste("M1", "G1"));
+
+        // Modifier la copie ne touche pas l'original
+        copie.ajouterConnexion("M1", "G2");
+        assertTrue(reseau.isConnexionExiste("M1", "G1"));
+        assertNotSame(reseau.getMaisonsMap().get("M1"), copie.getMaisonsMap().get("M1"));
+    }
+
+    @Test
+    public void testSupprimerMaison() throws ReseauException {
+        reseau.ajouterOuMajGenerateur("G1", 100);
+        reseau.ajouterOuMajMaison("M1", TypeConsommation.NORMAL);
+        reseau.ajouterConnexion("M1", "G1");
+
+        reseau.supprimerMaison("M1");
+
+        assertNull(reseau.getMaisonsMap().get("M1"));
+        assertTrue(reseau.getConnexionsMap().isEmpty());
+        assertThrows(ReseauException.ElementIntrouvable.class, () -> reseau.supprimerMaison("M1"));
+    }
+
+    @Test
+    public void testSupprimerGenerateur() throws ReseauException {
+        reseau.ajouterOuMajGenerateur("G1", 100);
+        reseau.ajouterOuMajGenerateur("G2", 100);
+        reseau.ajouterOuMajMaison("M1", TypeConsommation.NORMAL);
+        reseau.ajouterOuMajMaison("M2", TypeConsommation.NORMAL);
+        reseau.ajouterConnexion("M1", "G1");
+        reseau.ajouterConnexion("M2", "G2");
+
+        reseau.supprimerGenerateur("G1");
+
+        assertNull(reseau.getGenerateursMap().get("G1"));
+        assertNotNull(reseau.getMaisonsMap().get("M1"));
+        assertEquals(1, reseau.getConnexionsMap().size());
+        assertTrue(reseau.isConnexionExiste("M2", "G2"));
+        assertThrows(ReseauException.ElementIntrouvable.class, () -> reseau.supprimerGenerateur("G1"));
+    }
+
+    @Test
+    public void testEmpreinteIndependanteDesNoms() throws ReseauException {
+        reseau.ajouterOuMajGenerateur("G1", 100);
+        reseau.ajouterOuMajGenerateur("G2", 50);
+        reseau.ajouterOuMajMaison("M1", TypeConsommation.FORTE);
+        reseau.ajouterOuMajMaison("M2", TypeConsommation.BASSE);
+
+        // Même structure, noms et ordre différents
+        Reseau autre = new Reseau();
+        autre.ajouterOuMajMaison("b", TypeConsommation.BASSE);
+        autre.ajouterOuMajMaison("a", TypeConsommation.FORTE);
+        autre.ajouterOuMajGenerateur("x", 50);
+        autre.ajouterOuMajGenerateur("y", 100);
+        assertEquals(EmpreinteReseau.calculer(reseau).getEmpreinte(), EmpreinteReseau.calculer(autre).getEmpreinte());
+
+        // Une capacité différente change l'empreinte
+        autre.ajouterOuMajGenerateur("y", 101);
+        assertNotEquals(EmpreinteReseau.calculer(reseau).getEmpreinte(), EmpreinteReseau.calculer(autre).getEmpreinte());
+    }
+
+    @Test
+    public void testNomsCompacts() throws ReseauException {
+        // Préfixe + numéro, zéro en tête, sans préfixe, sans numéro, non ASCII, numéro trop long
+        String[] noms = {"maison12", "maison012", "m0", "12", "abc", "maisonÉ3", "é", "maison123456789012345"};
+        for (String nom : noms) reseau.ajouterOuMajMaison(nom, TypeConsommation.NORMAL);
+        for (int i = 0; i < 2000; i++) reseau.ajouterOuMajMaison("maison" + i, TypeConsommation.BASSE);
+
+        TableNoms<Maison> maisons = reseau.getMaisonsMap();
+        assertEquals(noms.length + 1999, maisons.size()); // "maison12" mis à jour
+        for (String nom : noms) {
+            assertEquals(nom, maisons.get(nom).getNom());
+            assertTrue(maisons.get(nom).aPourNom(nom));
+        }
+        assertNull(maisons.get("maison0012"));
+        assertNull(maisons.get("maison2000"));
+
+        // Suppressions dans les suites de la table, puis recherches
+        for (int i = 0; i < 2000; i += 3) reseau.supprimerMaison("maison" + i);
+        for (int i = 0; i < 2000; i++) {
+            assertEquals(i % 3 != 0, maisons.containsKey("maison" + i));
+        }
+
+        // Tri sans reconstruire les noms : même ordre que les String (préfixes mêlés, puis préfixe unique)
+        assertEquals(nomsTries(maisons), nomsDe(maisons.valeursTriees()));
+        for (int i = 0; i < 150; i++) reseau.ajouterOuMajGenerateur("g" + (i * 7), 10);
+        assertEquals(nomsTries(reseau.getGenerateursMap()), nomsDe(reseau.getGenerateursMap().valeursTriees()));
+
+        // La clé doit être le nom de l'élément
+        assertThrows(IllegalArgumentException.class, () -> maisons.put("autre", maisons.get("abc")));
+    }
+
+    @Test
+    public void testIdentifiantsEtAffectation() throws ReseauException {
+        reseau.ajouterOuMajGenerateur("G1", 100);
+        reseau.ajouterOuMajGenerateur("G2", 50);
+        for (int i = 0; i < 4; i++) reseau.ajouterOuMajMaison("M" + i, TypeConsommation.NORMAL);
+        Generateur g1 = reseau.getGenerateursMap().get("G1");
+        Generateur g2 = reseau.getGenerateursMap().get("G2");
+        Maison m0 = reseau.getMaisonsMap().get("M0");
+
+        // Identifiants denses, stables après une mise à jour
+        assertEquals(0, g1.getId());
+        assertEquals(1, g2.getId());
+        assertEquals(3, reseau.getMaisonsMap().get("M3").getId());
+        reseau.ajouterOuMajGenerateur("G1", 80);
+        assertEquals(0, reseau.getGenerateursMap().get("G1").getId());
+
+        // La vue Map et l'affectation par identifiants sont la même donnée
+        reseau.ajouterConnexion("M0", "G1");
+        reseau.ajouterConnexion("M1", "G2");
+        g1 = reseau.getGenerateursMap().get("G1");
+        assertEquals(g1.getId(), reseau.getIdGenerateur(m0.getId()));
+        reseau.connecter(reseau.getMaisonsMap().get("M2").getId(), g2.getId());
+        assertEquals(3, reseau.getConnexionsMap().size());
+        assertEquals(g2, reseau.getConnexionsMap().get(reseau.getMaisonsMap().get("M2")));
+        assertEquals(2 * 20.0, reseau.calculerCharges()[g2.getId()]);
+        reseau.getConnexionsMap().values().removeIf(g -> g.getNom().equals("G2"));
+        assertEquals(1, reseau.getConnexionsMap().size());
+        assertEquals(-1, reseau.getIdGenerateur(reseau.getMaisonsMap().get("M1").getId()));
+
+        // Un élément d'un autre réseau n'est pas trouvé et ne peut pas être connecté
+        Reseau copie = reseau.copier();
+        Maison m0Copie = copie.getMaisonsMap().get("M0");
+        assertEquals(m0.getId(), m0Copie.getId());
+        assertNull(reseau.getConnexionsMap().get(m0Copie));
+        Generateur g1Final = g1;
+        assertThrows(IllegalArgumentException.class, () -> reseau.getConnexionsMap().put(m0Copie, g1Final));
+
+        // Identifiant libéré par une suppression puis réutilisé, sans reprendre l'ancienne connexion
+        int idM0 = m0.getId();
+        reseau.supprimerMaison("M0");
+        assertEquals(-1, m0.getId());
+        reseau.ajouterOuMajMaison("M9", TypeConsommation.BASSE);
+        assertEquals(idM0, reseau.getMaisonsMap().get("M9").getId());
+        assertEquals(-1, reseau.getIdGenerateur(idM0));
+        assertEquals(0, reseau.getConnexionsMap().size());
+    }
+
+    @Test
+    public void testInstantanesPublies() throws ReseauException {
+        reseau.ajouterOuMajGenerateur("G1", 100);
+        reseau.ajouterOuMajGenerateur("G2", 40);
+        reseau.ajouterOuMajMaison("M1", TypeConsommation.FORTE);
+        reseau.ajouterOuMajMaison("M2", TypeConsommation.NORMAL);
+        reseau.ajouterConnexion("M1", "G1");
+
+        PublicationReseau publication = new PublicationReseau();
+        assertNull(publication.getDernier());
+        InstantaneReseau premier = publication.publier(reseau);
+        assertSame(premier, publication.getDernier());
+        assertEquals(reseau.calculerCout(), premier.getCout());
+        assertEquals(1, premier.getNbConnexions());
+        assertEquals(-1, premier.getGenerateurDe(1));
+
+        // L'instantané ne suit pas les modifications suivantes du réseau
+        reseau.ajouterConnexion("M2", "G2");
+        reseau.ajouterOuMajGenerateur("G2", 10);
+        assertEquals(1, premier.getNbConnexions());
+        assertEquals(40.0, premier.getCapacite(1));
+
+        // Solution de travail d'un solveur : publiée sans être écrite dans le réseau
+        int[] affectation = reseau.copierAffectation();
+        affectation[reseau.getMaisonsMap().get("M2").getId()] = reseau.getGenerateursMap().get("G1").getId();
+        InstantaneReseau second = publication.publier(reseau, affectation);
+        assertTrue(second.getVersion() > premier.getVersion());
+        assertEquals(0, second.getGenerateurDe(1));
+        assertEquals(40.0 + 20.0, second.getCharge(0));
+        assertEquals(1, reseau.getIdGenerateur(reseau.getMaisonsMap().get("M2").getId()));
+
+        // Coût non calculable : l'erreur est conservée dans l'instantané
+        reseau.ajouterOuMajGenerateur("G3", 0);
+        InstantaneReseau troisieme = publication.publier(reseau);
+        assertTrue(Double.isNaN(troisieme.getCout()));
+        assertNotNull(troisieme.getErreurCout());
+    }
+
+    @Test
+    public void testExtraireSousReseau() throws ReseauException {
+        reseau.setLambda(5.0);
+        reseau.setDistanceMax(10);
+        reseau.ajouterOuMajGenerateur("G1", 100);
+        reseau.ajouterOuMajGenerateur("G2", 50);
+        reseau.ajouterOuMajGenerateur("G3", 80);
+        reseau.ajouterOuMajMaison("M1", TypeConsommation.NORMAL);
+        reseau.ajouterOuMajMaison("M2", TypeConsommation.FORTE, new int[] {10, 30});
+        reseau.ajouterOuMajMaison("M3", TypeConsommation.BASSE);
+        reseau.placerMaison("M1", 1, 2);
+        reseau.ajouterConnexion("M1", "G3");
+        reseau.ajouterConnexion("M2", "G1");
+        reseau.ajouterConnexion("M3", "G3");
+
+        TableNoms<Generateur> gens = reseau.getGenerateursMap();
+        TableNoms<Maison> maisons = reseau.getMaisonsMap();
+        Reseau sous = reseau.extraire(new int[] {gens.get("G3").getId(), gens.get("G1").getId()},
+                new int[] {maisons.get("M2").getId(), maisons.get("M1").getId()});
+
+        // Identifiants dans l'ordre des tableaux, mêmes paramètres, positions et demandes
+        assertEquals(0, sous.getGenerateursMap().get("G3").getId());
+        assertEquals(1, sous.getMaisonsMap().get("M1").getId());
+        assertNull(sous.getGenerateursMap().get("G2"));
+        assertNull(sous.getMaisonsMap().get("M3"));
+        assertEquals(5.0, sous.getLambda());
+        assertEquals(10.0, sous.getDistanceMax());
+        assertTrue(sous.aDesPositions());
+        assertEquals(2.0, sous.getMaisonsMap().get("M1").getY());
+        assertEquals(2, sous.getNbPeriodes());
+        assertEquals(30, sous.getMaisonsMap().get("M2").getDemandeKw(1));
+
+        // Connexions entre éléments extraits seulement ; le réseau d'origine est inchangé
+        assertEquals(2, sous.getConnexionsMap().size());
+        assertEquals("G3", sous.getConnexionsMap().get(sous.getMaisonsMap().get("M1")).getNom());
+        sous.suppConnexion("M1", "G3");
+        assertEquals(3, reseau.getConnexionsMap().size());
+        assertThrows(IllegalArgumentException.class, () -> reseau.extraire(new int[] {7}, new int[0]));
+    }
+
+    @Test
+    public void testVueConnexionsRefuseLesElementsEtrangers() throws ReseauException {
+        reseau.ajouterOuMajGenerateur("G1", 100);
+        reseau.ajouterOuMajGenerateur("G2", 100);
+        reseau.ajouterOuMajMaison("M1", TypeConsommation.NORMAL);
+        reseau.ajouterOuMajMaison("M2", TypeConsommation.NORMAL);
+        Map<Maison, Generateur> connexions = reseau.getConnexionsMap();
+        Maison m1 = reseau.getMaisonsMap().get("M1");
+        Generateur g1 = reseau.getGenerateursMap().get("G1");
+
+        // Générateur d'une copie du réseau : même nom et même identifiant, mais pas le même objet
+        Generateur g1Copie = reseau.copier().getGenerateursMap().get("G1");
+        assertThrows(IllegalArgumentException.class, () -> connexions.put(m1, g1Copie));
+        // Générateur retiré du réseau
+        Generateur g2 = reseau.getGenerateursMap().get("G2");
+        reseau.supprimerGenerateur("G2");
+        assertThrows(IllegalArgumentException.class, () -> connexions.put(m1, g2));
+        // Maison retirée du réseau
+        Maison m2 = reseau.getMaisonsMap().get("M2");
+        reseau.supprimerMaison("M2");
+        assertThrows(IllegalArgumentException.class, () -> connexions.put(m2, g1));
+        // Pas de valeur null : une maison se déconnecte par remove
+        assertThrows(NullPointerException.class, () -> connexions.put(m1, null));
+        assertTrue(connexions.isEmpty());
+
+        assertNull(connexions.put(m1, g1));
+        assertEquals(g1, connexions.remove(m1));
+        assertTrue(connexions.isEmpty());
+    }
+
+    @Test
+    public void testCopierGardeLesIdentifiantsApresRetrait() throws ReseauException {
+        reseau.ajouterOuMajGenerateur("G1", 100);
+        reseau.ajouterOuMajGenerateur("G2", 50);
+        reseau.ajouterOuMajMaison("M1", TypeConsommation.NORMAL);
+        reseau.ajouterOuMajMaison("M2", TypeConsommation.FORTE);
+        reseau.ajouterOuMajMaison("M3", TypeConsommation.BASSE);
+        reseau.ajouterConnexion("M3", "G2");
+        reseau.supprimerMaison("M1");
+        reseau.supprimerGenerateur("G1");
+
+        // L'affectation par identifiants de l'original s'applique telle quelle à la copie
+        Reseau copie = reseau.copier();
+        assertEquals(reseau.getMaisonsMap().get("M3").getId(), copie.getMaisonsMap().get("M3").getId());
+        assertEquals(reseau.getGenerateursMap().get("G2").getId(), copie.getGenerateursMap().get("G2").getId());
+        assertEquals(reseau.getMaisonsMap().getNbIds(), copie.getMaisonsMap().getNbIds());
+        copie.appliquerAffectation(reseau.copierAffectation());
+        assertEquals("G2", copie.getConnexionsMap().get(copie.getMaisonsMap().get("M3")).getNom());
+
+        // Les identifiants libres sont réutilisés dans le même ordre
+        reseau.ajouterOuMajMaison("M4", TypeConsommation.NORMAL);
+        copie.ajouterOuMajMaison("M4", TypeConsommation.NORMAL);
+        assertEquals(reseau.getMaisonsMap().get("M4").getId(), copie.getMaisonsMap().get("M4").getId());
+    }
+
+    private static List<String> nomsTries(TableNoms<?> table) {
+        List<String> noms = new ArrayList<>(table.keySet());
+        Collections.sort(noms);
+        return noms;
+    }
+
+    private static List<String> nomsDe(List<? extends ElementNomme> elements) {
+        List<String> noms = new ArrayList<>();
+        for (ElementNomme e : elements) noms.add(e.getNom());
+        return noms;
+    }
+}